@@ -34,6 +34,7 @@ CREATE TABLE IF NOT EXISTS videos (
     description TEXT,
     published_at DATETIME,
     duration VARCHAR(50),
+    duration_seconds BIGINT,
     view_count BIGINT,
     like_count BIGINT,
     comment_count BIGINT,
@@ -43,6 +44,9 @@ CREATE TABLE IF NOT EXISTS videos (
     tags TEXT,
     is_latest BOOLEAN DEFAULT FALSE,
     is_popular BOOLEAN DEFAULT FALSE,
+    is_trending BOOLEAN DEFAULT FALSE,
+    trending_score DOUBLE,
+    content_fingerprint VARCHAR(64),
     last_updated DATETIME NOT NULL,
     
     INDEX idx_channel_id (channel_id),
@@ -50,6 +54,7 @@ CREATE TABLE IF NOT EXISTS videos (
     INDEX idx_view_count (view_count),
     INDEX idx_is_latest (is_latest),
     INDEX idx_is_popular (is_popular),
+    INDEX idx_is_trending (is_trending),
     INDEX idx_last_updated (last_updated)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -63,6 +68,8 @@ CREATE TABLE IF NOT EXISTS playlists (
     thumbnail_url VARCHAR(500),
     item_count INT,
     privacy_status VARCHAR(50),
+    content_fingerprint VARCHAR(64),
+    membership_etag VARCHAR(64),
     last_updated DATETIME NOT NULL,
     
     INDEX idx_channel_id (channel_id),
@@ -88,6 +95,7 @@ CREATE TABLE IF NOT EXISTS update_history (
     update_type VARCHAR(50) NOT NULL,
     update_timestamp DATETIME NOT NULL,
     records_updated INT,
+    records_skipped INT,
     status VARCHAR(20) NOT NULL,
     error_message TEXT,
     duration_seconds BIGINT,
@@ -97,6 +105,39 @@ CREATE TABLE IF NOT EXISTS update_history (
     INDEX idx_status (status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Create api_response_cache table (ETags for conditional YouTube API requests)
+CREATE TABLE IF NOT EXISTS api_response_cache (
+    request_key VARCHAR(700) PRIMARY KEY,
+    etag VARCHAR(255) NOT NULL,
+    next_page_token VARCHAR(255),
+    item_ids TEXT,
+    last_updated DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create api_quota_usage table (YouTube API quota units spent per endpoint and quota day)
+CREATE TABLE IF NOT EXISTS api_quota_usage (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    usage_date DATE NOT NULL,
+    endpoint VARCHAR(50) NOT NULL,
+    units BIGINT NOT NULL DEFAULT 0,
+    requests BIGINT NOT NULL DEFAULT 0,
+    last_updated DATETIME NOT NULL,
+    UNIQUE KEY uk_api_quota_usage_day_endpoint (usage_date, endpoint)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create video_statistics_blocks table (view/like/comment history, delta/varint-encoded per block)
+CREATE TABLE IF NOT EXISTS video_statistics_blocks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    video_id VARCHAR(255) NOT NULL,
+    resolution VARCHAR(10) NOT NULL,
+    block_start DATETIME NOT NULL,
+    block_end DATETIME NOT NULL,
+    sample_count INT NOT NULL,
+    samples VARBINARY(8192) NOT NULL,
+    UNIQUE KEY uk_video_statistics_blocks_video_start_resolution (video_id, block_start, resolution),
+    INDEX idx_resolution_block_end (resolution, block_end)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Add foreign key constraints
 ALTER TABLE videos 
 ADD CONSTRAINT fk_videos_channel_id 
@@ -0,0 +1,144 @@
+package com.randomvideos139.website.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.randomvideos139.website.service.SyncCompletedEvent;
+import com.randomvideos139.website.service.VideoCatalog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Caffeine caches over the read paths of the site. Entries live until the next sync or statistics refresh
+ * has written, rather than for a guessed time. They are keyed by the catalog version as well as the
+ * arguments ({@link #CATALOG_VERSION_KEY}), so a request that sees a new version, and sends its ETag, never
+ * reads an entry filled before it, not even one put while the caches were being cleared; every
+ * {@link SyncCompletedEvent} then clears them all to drop the older versions. Single entities are bounded
+ * by count; pages, searches and lists by the number of videos or playlists they hold.
+ *
+ * Boot binds the usual {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and
+ * {@code cache.size} metrics of each cache; {@code cache.hit.ratio} is added here.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String VIDEO = "video";
+    public static final String VIDEO_PAGES = "videoPages";
+    public static final String VIDEO_SEARCHES = "videoSearches";
+    public static final String PLAYLISTS = "playlists";
+    public static final String CHANNEL_STATS = "channelStats";
+    public static final String CATALOG_VERSION_KEY = "catalogVersionKeyGenerator";
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    @Value("${cache.video.maximum-size:5000}")
+    private long videoMaximumSize;
+
+    @Value("${cache.video-pages.maximum-weight:20000}")
+    private long videoPagesMaximumWeight;
+
+    @Value("${cache.video-searches.maximum-weight:5000}")
+    private long videoSearchesMaximumWeight;
+
+    @Value("${cache.playlists.maximum-weight:5000}")
+    private long playlistsMaximumWeight;
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(
+                new CaffeineCache(VIDEO, Caffeine.newBuilder()
+                        .maximumSize(videoMaximumSize)
+                        .recordStats()
+                        .build()),
+                weighted(VIDEO_PAGES, videoPagesMaximumWeight),
+                weighted(VIDEO_SEARCHES, videoSearchesMaximumWeight),
+                weighted(PLAYLISTS, playlistsMaximumWeight),
+                new CaffeineCache(CHANNEL_STATS, Caffeine.newBuilder()
+                        .maximumSize(1)
+                        .recordStats()
+                        .build())));
+        return manager;
+    }
+
+    /**
+     * Key of the current catalog version followed by the method arguments. The version is read before the
+     * method runs, so an entry is never filed under a version newer than the data it was built from.
+     */
+    @Bean(CATALOG_VERSION_KEY)
+    public KeyGenerator catalogVersionKeyGenerator(VideoCatalog videoCatalog) {
+        return (target, method, params) -> {
+            Object[] key = new Object[params.length + 1];
+            key[0] = videoCatalog.getVersion().orElse(Instant.EPOCH);
+            System.arraycopy(params, 0, key, 1, params.length);
+            return new SimpleKey(key);
+        };
+    }
+
+    /**
+     * {@code cache.hit.ratio} of each cache since startup.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            if (cacheManager.getCache(name) instanceof CaffeineCache) {
+                CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+                Gauge.builder("cache.hit.ratio", cache, c -> c.getNativeCache().stats().hitRate())
+                        .tag("cache", name)
+                        .register(registry);
+            }
+        });
+    }
+
+    // After the ranking and the catalog rebuild, so the entries of the previous version are no longer
+    // requested, and before the rendered pages are warmed.
+    @EventListener
+    @Order(1)
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        if (event.changedNothing()) {
+            return;
+        }
+        CacheManager manager = cacheManager();
+        manager.getCacheNames().forEach(name -> manager.getCache(name).clear());
+        logger.debug("Cleared caches after {} update.", event.getUpdateType());
+    }
+
+    /**
+     * A cache bounded by the number of rows its values hold in total, so a few large pages weigh as much
+     * as many small ones.
+     */
+    private static CaffeineCache weighted(String name, long maximumWeight) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .<Object, Object>weigher((key, value) -> Math.max(1, rows(value)))
+                .recordStats()
+                .build());
+    }
+
+    private static int rows(Object value) {
+        if (value instanceof Page) {
+            return ((Page<?>) value).getNumberOfElements();
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).size();
+        }
+        return 1;
+    }
+}
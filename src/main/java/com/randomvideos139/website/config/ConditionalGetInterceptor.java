@@ -0,0 +1,114 @@
+package com.randomvideos139.website.config;
+
+import com.randomvideos139.website.service.VideoCatalog;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers conditional GETs of the HTML pages with 304 Not Modified before the controller runs, so an
+ * unchanged page costs neither queries nor rendering. Listing pages are versioned by the catalog
+ * ({@link VideoCatalog#getVersion()}), which advances after every sync that may have changed data; a video
+ * page by when that video was last written, combined with the application start so a redeploy with new
+ * templates is not mistaken for the old page. Pages are sent with {@code Cache-Control: no-cache}, so
+ * clients revalidate every time instead of guessing a freshness lifetime.
+ *
+ * Metrics: {@code http.conditional.requests} (per route and result) and
+ * {@code http.conditional.not-modified.ratio} (per route).
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor, MeterBinder {
+
+    static final String VIDEO_ROUTE = "/videos/{videoId}";
+    static final List<String> ROUTES = List.of("/", "/videos", VIDEO_ROUTE, "/playlists");
+
+    @Autowired
+    private VideoCatalog videoCatalog;
+
+    private final Instant startedAt = Instant.now();
+    // Route -> {requests with validators, of which not modified}
+    private final Map<String, AtomicLong[]> countsByRoute = new LinkedHashMap<>();
+
+    public ConditionalGetInterceptor() {
+        ROUTES.forEach(route -> countsByRoute.put(route, new AtomicLong[] {new AtomicLong(), new AtomicLong()}));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        countsByRoute.forEach((route, counts) -> {
+            FunctionCounter.builder("http.conditional.requests", counts, c -> c[1].get())
+                    .description("Page requests answered with or without a body, given validators")
+                    .tag("route", route)
+                    .tag("result", "not_modified")
+                    .register(registry);
+            FunctionCounter.builder("http.conditional.requests", counts, c -> c[0].get() - c[1].get())
+                    .tag("route", route)
+                    .tag("result", "modified")
+                    .register(registry);
+            Gauge.builder("http.conditional.not-modified.ratio", counts,
+                            c -> c[0].get() == 0 ? 0 : (double) c[1].get() / c[0].get())
+                    .description("Share of page requests answered with 304 Not Modified")
+                    .tag("route", route)
+                    .register(registry);
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        AtomicLong[] counts = countsByRoute.get(route);
+        if (counts == null) {
+            return true;
+        }
+
+        String etag;
+        Instant lastModified;
+        if (VIDEO_ROUTE.equals(route)) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            Optional<LocalDateTime> lastUpdated = videoCatalog.findLastUpdated(variables.get("videoId"));
+            if (lastUpdated.isEmpty()) {
+                return true;
+            }
+            Instant updated = lastUpdated.get().atZone(ZoneId.systemDefault()).toInstant();
+            etag = "\"v" + Long.toHexString(startedAt.toEpochMilli()) + "-" + Long.toHexString(updated.toEpochMilli()) + "\"";
+            lastModified = updated.isAfter(startedAt) ? updated : startedAt;
+        } else {
+            Optional<Instant> version = videoCatalog.getVersion();
+            if (version.isEmpty()) {
+                return true;
+            }
+            etag = "\"c" + Long.toHexString(version.get().toEpochMilli()) + "\"";
+            lastModified = version.get();
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        boolean notModified = new ServletWebRequest(request, response).checkNotModified(etag, lastModified.toEpochMilli());
+        counts[0].incrementAndGet();
+        if (notModified) {
+            counts[1].incrementAndGet();
+        }
+        return !notModified;
+    }
+}
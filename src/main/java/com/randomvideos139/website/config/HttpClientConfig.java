@@ -0,0 +1,132 @@
+package com.randomvideos139.website.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * HTTP client used for the YouTube Data API: pooled keep-alive connections, gzip-compressed responses
+ * (the client sends Accept-Encoding and decompresses transparently) and bounded connect, read and
+ * pool-wait timeouts, so a hung socket fails the request instead of stalling a scheduler thread.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${youtube.api.base-url:https://www.googleapis.com/youtube/v3}")
+    private String apiBaseUrl;
+
+    @Value("${youtube.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${youtube.http.max-connections-per-route:10}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${youtube.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${youtube.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${youtube.http.pool-timeout:10s}")
+    private Duration poolTimeout;
+
+    @Value("${youtube.http.idle-timeout:60s}")
+    private Duration idleTimeout;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager youTubeConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        // Re-check connections that sat idle, since the server may have closed them.
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient youTubeHttpClient(PoolingHttpClientConnectionManager youTubeConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(youTubeConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    /**
+     * Interceptors in their {@code @Order}: circuit breaker, quota accounting, then retries innermost.
+     */
+    @Bean
+    public RestTemplate youTubeRestTemplate(CloseableHttpClient youTubeHttpClient,
+                                           List<ClientHttpRequestInterceptor> interceptors) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(youTubeHttpClient));
+        restTemplate.setInterceptors(interceptors);
+        return restTemplate;
+    }
+
+    /**
+     * Pool-wide metrics ({@code httpcomponents.httpclient.pool.*}, pool "youtube") plus leased, available and
+     * pending connections for the API host ({@code youtube.http.route.connections}).
+     */
+    @Bean
+    public MeterBinder youTubeConnectionPoolMetrics(PoolingHttpClientConnectionManager youTubeConnectionManager) {
+        HttpRoute route = apiRoute(apiBaseUrl);
+        return registry -> {
+            new PoolingHttpClientConnectionManagerMetricsBinder(youTubeConnectionManager, "youtube").bindTo(registry);
+            routeGauge(registry, youTubeConnectionManager, route, "leased", PoolStats::getLeased);
+            routeGauge(registry, youTubeConnectionManager, route, "available", PoolStats::getAvailable);
+            routeGauge(registry, youTubeConnectionManager, route, "pending", PoolStats::getPending);
+        };
+    }
+
+    /**
+     * The route the pool keys connections to the API by. The client resolves a missing port to the scheme's
+     * default before leasing, so the route must carry it too or its stats would stay empty.
+     */
+    static HttpRoute apiRoute(String apiBaseUrl) {
+        URI baseUri = URI.create(apiBaseUrl);
+        HttpHost host = new HttpHost(baseUri.getScheme(), baseUri.getHost(), baseUri.getPort());
+        host = new HttpHost(host.getSchemeName(), host.getHostName(), DefaultSchemePortResolver.INSTANCE.resolve(host));
+        return new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+    }
+
+    private void routeGauge(MeterRegistry registry, PoolingHttpClientConnectionManager connectionManager, HttpRoute route,
+                            String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder("youtube.http.route.connections", connectionManager,
+                        manager -> value.applyAsInt(manager.getStats(route)))
+                .tag("host", route.getTargetHost().toHostString())
+                .tag("state", state)
+                .register(registry);
+    }
+}
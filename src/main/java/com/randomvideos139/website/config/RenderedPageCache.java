@@ -0,0 +1,288 @@
+package com.randomvideos139.website.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.service.SyncCompletedEvent;
+import com.randomvideos139.website.service.VideoCatalog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the final bytes of the hot HTML pages ({@code /}, {@code /videos} listings other than searches,
+ * {@code /videos/{id}}, {@code /playlists} and {@code /about}), plain and gzip-compressed, so a repeat
+ * request is answered by writing a prepared array: no controller, query or template runs. Entries are keyed
+ * by path, sorted query parameters and catalog version, so a sync retires them all at once; the cache is
+ * bounded by {@code page-cache.maximum-bytes} of both variants together.
+ *
+ * Conditional requests pass through to {@link ConditionalGetInterceptor}, which answers them without a
+ * body when it can. After each sync the home page, the first page of every listing sort and the
+ * {@code page-cache.warm.top-videos} most viewed video pages are requested in the background, so the first
+ * visitors after a sync do not pay for rendering.
+ *
+ * Metrics: the {@code cache.*} metrics of cache "renderedPages".
+ */
+@Component
+public class RenderedPageCache extends OncePerRequestFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderedPageCache.class);
+    private static final Pattern CACHED_PATHS = Pattern.compile("/|/videos|/videos/[^/]+|/playlists|/about");
+    private static final List<String> LISTING_SORTS = List.of("publishedAt", "viewCount", "likeCount", "title");
+
+    @Autowired
+    private VideoCatalog videoCatalog;
+
+    @Value("${page-cache.warm.top-videos:20}")
+    private int warmTopVideos;
+
+    private final Cache<String, RenderedPage> pages;
+    private final ExecutorService warmer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "page-cache-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private volatile int serverPort;
+
+    public RenderedPageCache(@Value("${page-cache.maximum-bytes:33554432}") long maximumBytes) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<String, RenderedPage>weigher((key, page) -> page.weight())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages, "renderedPages");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Optional<Instant> version = videoCatalog.getVersion();
+        String key = key(request, version);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean gzip = acceptsGzip(request);
+        RenderedPage cached = pages.getIfPresent(key);
+        if (cached != null) {
+            cached.writeTo(response, gzip);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && contentType != null && contentType.startsWith("text/html")
+                && !wrapper.containsHeader(HttpHeaders.SET_COOKIE)) {
+            RenderedPage page = new RenderedPage(wrapper.getContentAsByteArray(), contentType,
+                    wrapper.getHeader(HttpHeaders.ETAG), wrapper.getHeader(HttpHeaders.LAST_MODIFIED),
+                    wrapper.getHeader(HttpHeaders.CACHE_CONTROL));
+            // A page rendered while a sync moved the version on could never be requested again.
+            if (version.equals(videoCatalog.getVersion())) {
+                pages.put(key, page);
+            }
+            // This request is answered like every later one.
+            wrapper.resetBuffer();
+            page.writeTo(response, gzip);
+            return;
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        serverPort = event.getWebServer().getPort();
+    }
+
+    // Last, so the warmed pages are rendered from the new catalog and cleared caches.
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        if (event.changedNothing()) {
+            return;
+        }
+        // Pages of the previous catalog version can no longer be requested.
+        pages.invalidateAll();
+        int port = serverPort;
+        if (port <= 0) {
+            return;
+        }
+        List<String> paths = warmPaths();
+        warmer.submit(() -> warm(port, paths));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmer.shutdownNow();
+    }
+
+    List<String> warmPaths() {
+        List<String> paths = new ArrayList<>();
+        paths.add("/");
+        paths.add("/videos");
+        for (String sortBy : LISTING_SORTS) {
+            for (String sortDir : List.of("desc", "asc")) {
+                paths.add("/videos?sortBy=" + sortBy + "&sortDir=" + sortDir);
+            }
+        }
+        paths.add("/playlists");
+        if (warmTopVideos > 0) {
+            videoCatalog.findPage(PageRequest.of(0, warmTopVideos, Sort.by(Sort.Direction.DESC, "viewCount")))
+                    .ifPresent(page -> page.getContent().stream()
+                            .map(Video::getVideoId)
+                            .forEach(videoId -> paths.add("/videos/" + videoId)));
+        }
+        return paths;
+    }
+
+    private void warm(int port, List<String> paths) {
+        long startTime = System.currentTimeMillis();
+        int warmed = 0;
+        for (String path : paths) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    warmed++;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not warm the page cache with {}: {}", path, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        logger.info("Warmed the page cache with {} of {} pages in {} ms.", warmed, paths.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Path, sorted query parameters and the given catalog version, or null if the request is not cached.
+     */
+    private String key(HttpServletRequest request, Optional<Instant> version) {
+        if (!"GET".equals(request.getMethod()) || request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!CACHED_PATHS.matcher(path).matches() || request.getParameter("search") != null) {
+            return null;
+        }
+        if (version.isEmpty()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder().append(version.get().toEpochMilli()).append(' ').append(path);
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        parameters.forEach((name, values) -> key.append(' ').append(name).append('=').append(Arrays.toString(values)));
+        return key.toString();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    /**
+     * One rendered page: the body as rendered and gzip-compressed, and the headers to send with it.
+     */
+    private static final class RenderedPage {
+
+        private final byte[] body;
+        private final byte[] gzipBody;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+        private final String cacheControl;
+
+        RenderedPage(byte[] body, String contentType, String etag, String lastModified, String cacheControl) {
+            this.body = body;
+            this.gzipBody = gzip(body);
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.cacheControl = cacheControl;
+        }
+
+        int weight() {
+            return body.length + gzipBody.length;
+        }
+
+        void writeTo(HttpServletResponse response, boolean gzip) throws IOException {
+            byte[] bytes = gzip ? gzipBody : body;
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (etag != null) {
+                // The compressed variant is a different representation, so its validator is only weak.
+                response.setHeader(HttpHeaders.ETAG, gzip && !etag.startsWith("W/") ? "W/" + etag : etag);
+            }
+            if (lastModified != null) {
+                response.setHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+            }
+            if (cacheControl != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.randomvideos139.website.controller;
+
+import com.randomvideos139.website.service.ApiQuotaService;
+import com.randomvideos139.website.service.QuotaPlanner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/quota}: today's YouTube Data API quota, what each endpoint has spent and whether a
+ * full reconcile is waiting for quota.
+ */
+@Component
+@Endpoint(id = "quota")
+public class ApiQuotaEndpoint {
+
+    @Autowired
+    private ApiQuotaService apiQuotaService;
+
+    @Autowired
+    private QuotaPlanner quotaPlanner;
+
+    @ReadOperation
+    public Map<String, Object> quota() {
+        Map<String, Object> quota = new LinkedHashMap<>();
+        quota.put("quotaDay", apiQuotaService.getQuotaDay().toString());
+        quota.put("dailyLimit", apiQuotaService.getDailyLimit());
+        quota.put("used", apiQuotaService.getUsedUnits());
+        quota.put("remaining", apiQuotaService.getRemainingUnits());
+        quota.put("reserve", quotaPlanner.getReserveUnits());
+        quota.put("exhausted", apiQuotaService.isExhausted());
+        quota.put("unitsByEndpoint", apiQuotaService.getUnitsByEndpoint());
+        quota.put("requestsByEndpoint", apiQuotaService.getRequestsByEndpoint());
+        quota.put("fullSyncDeferred", quotaPlanner.isFullSyncDeferred());
+        return quota;
+    }
+}
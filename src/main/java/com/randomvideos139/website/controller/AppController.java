@@ -4,14 +4,9 @@ package com.randomvideos139.website.controller;
 import com.randomvideos139.website.config.SocialConfig;
 import com.randomvideos139.website.entity.ChannelStats;
 import com.randomvideos139.website.entity.Playlist;
-import com.randomvideos139.website.entity.Video;
 import com.randomvideos139.website.service.DataSyncService;
 import com.randomvideos139.website.service.VideoService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -33,15 +28,10 @@ public class AppController {
 
     @GetMapping("/")
     public String home(Model model) {
-        // Latest Videos
-        Pageable latestPageable = PageRequest.of(0, 8, Sort.by(Sort.Direction.DESC, "publishedAt"));
-        Page<Video> latestVideos = videoService.findVideos(latestPageable);
-        model.addAttribute("latestVideos", latestVideos.getContent());
-
-        // Popular Videos
-        Pageable popularPageable = PageRequest.of(0, 8, Sort.by(Sort.Direction.DESC, "viewCount"));
-        Page<Video> popularVideos = videoService.findVideos(popularPageable);
-        model.addAttribute("popularVideos", popularVideos.getContent());
+        // Rankings, precomputed after each sync
+        model.addAttribute("latestVideos", videoService.findLatestVideos());
+        model.addAttribute("trendingVideos", videoService.findTrendingVideos());
+        model.addAttribute("popularVideos", videoService.findPopularVideos());
 
         // Channel Stats
         Optional<ChannelStats> channelStats = dataSyncService.getChannelStats();
@@ -1,6 +1,7 @@
 
 package com.randomvideos139.website.controller;
 
+import com.randomvideos139.website.dto.StatisticsSample;
 import com.randomvideos139.website.service.VideoService;
 import com.randomvideos139.website.entity.Video;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,35 +9,48 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Controller
 @RequestMapping("/videos")
 public class VideoController {
 
+    private static final String RELEVANCE = "relevance";
+
     @Autowired
     private VideoService videoService;
 
     @GetMapping
     public String listVideos(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "publishedAt") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) String search,
             Model model) {
 
+        boolean searching = search != null && !search.trim().isEmpty();
+        // Searches are ranked by relevance unless another sort is chosen.
+        if (sortBy == null || sortBy.isEmpty()) {
+            sortBy = searching ? RELEVANCE : "publishedAt";
+        }
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page, 12, Sort.by(direction, sortBy));
+        Pageable pageable = searching && RELEVANCE.equals(sortBy)
+                ? PageRequest.of(page, 12)
+                : PageRequest.of(page, 12, Sort.by(direction, sortBy));
 
         Page<Video> videoPage;
-        if (search != null && !search.trim().isEmpty()) {
+        if (searching) {
             videoPage = videoService.searchVideos(search.trim(), pageable);
             model.addAttribute("search", search);
         } else {
@@ -57,4 +71,18 @@ public class VideoController {
             return "redirect:/videos";
         }
     }
+
+    /**
+     * Growth curve of a video as JSON, over the last year unless a range is given
+     */
+    @GetMapping("/{videoId}/statistics")
+    @ResponseBody
+    public List<StatisticsSample> statisticsHistory(
+            @PathVariable String videoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusYears(1);
+        return videoService.findStatisticsHistory(videoId, start, end);
+    }
 }
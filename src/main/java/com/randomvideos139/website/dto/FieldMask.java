@@ -0,0 +1,128 @@
+package com.randomvideos139.website.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * A {@code fields=} partial-response mask for the YouTube Data API, generated from the {@code @JsonProperty}
+ * fields of a response DTO so the API only sends what the DTO reads. Properties typed with another class of
+ * this package are expanded; anything else (strings, numbers, lists of strings, untyped objects) is
+ * requested whole. Every field in a mask must exist in the endpoint's schema, or the API answers 400.
+ */
+public final class FieldMask {
+
+    // Name -> sub-mask, or null for a property that is requested whole.
+    private final Map<String, FieldMask> fields;
+
+    private FieldMask(Map<String, FieldMask> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * The mask of everything {@code responseType} reads. When {@code parts} are given, the items keep only
+     * the expanded properties named there, matching the {@code part=} parameter of the request.
+     */
+    public static FieldMask of(Class<?> responseType, String... parts) {
+        FieldMask mask = forType(responseType);
+        FieldMask items = mask.fields.get("items");
+        if (parts.length == 0 || items == null) {
+            return mask;
+        }
+        List<String> requestedParts = Arrays.asList(parts);
+        Map<String, FieldMask> itemFields = new LinkedHashMap<>();
+        items.fields.forEach((name, child) -> {
+            if (child == null || requestedParts.contains(name)) {
+                itemFields.put(name, child);
+            }
+        });
+        Map<String, FieldMask> fields = new LinkedHashMap<>(mask.fields);
+        fields.put("items", new FieldMask(itemFields));
+        return new FieldMask(fields);
+    }
+
+    /**
+     * A copy without the given slash-separated paths, e.g. {@code items/snippet/tags} for an endpoint whose
+     * resource has no such field.
+     */
+    public FieldMask without(String... paths) {
+        FieldMask mask = this;
+        for (String path : paths) {
+            mask = mask.without(path.split("/"), 0);
+        }
+        return mask;
+    }
+
+    private FieldMask without(String[] path, int depth) {
+        if (!fields.containsKey(path[depth])) {
+            throw new IllegalArgumentException("No field " + String.join("/", path) + " in mask " + this);
+        }
+        Map<String, FieldMask> copy = new LinkedHashMap<>(fields);
+        if (depth == path.length - 1) {
+            copy.remove(path[depth]);
+        } else {
+            FieldMask child = fields.get(path[depth]);
+            if (child == null) {
+                throw new IllegalArgumentException("Field " + path[depth] + " is requested whole in mask " + this);
+            }
+            copy.put(path[depth], child.without(path, depth + 1));
+        }
+        return new FieldMask(copy);
+    }
+
+    /**
+     * Property names mapped to their sub-masks; a null sub-mask means the property is requested whole.
+     */
+    public Map<String, FieldMask> getFields() {
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * The mask in the API's syntax, e.g. {@code nextPageToken,items(id,snippet(title))}.
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        fields.forEach((name, child) -> joiner.add(child == null ? name : name + "(" + child + ")"));
+        return joiner.toString();
+    }
+
+    private static FieldMask forType(Class<?> type) {
+        Map<String, FieldMask> fields = new LinkedHashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            JsonProperty property = field.getAnnotation(JsonProperty.class);
+            if (property == null) {
+                continue;
+            }
+            Class<?> valueType = valueType(field);
+            fields.put(property.value().isEmpty() ? field.getName() : property.value(),
+                    isDto(valueType) ? forType(valueType) : null);
+        }
+        return new FieldMask(fields);
+    }
+
+    /**
+     * The declared type, or the element type of a list.
+     */
+    private static Class<?> valueType(Field field) {
+        if (List.class.isAssignableFrom(field.getType()) && field.getGenericType() instanceof ParameterizedType) {
+            Type element = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+            if (element instanceof Class) {
+                return (Class<?>) element;
+            }
+        }
+        return field.getType();
+    }
+
+    private static boolean isDto(Class<?> type) {
+        return type.getPackage() == FieldMask.class.getPackage() && type != FieldMask.class;
+    }
+}
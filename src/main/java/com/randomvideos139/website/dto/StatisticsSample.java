@@ -0,0 +1,67 @@
+package com.randomvideos139.website.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A video's view, like and comment counts as read at one point in time; one point of its growth curve.
+ */
+public final class StatisticsSample {
+
+    private final LocalDateTime sampledAt;
+    private final long viewCount;
+    private final long likeCount;
+    private final long commentCount;
+
+    public StatisticsSample(LocalDateTime sampledAt, long viewCount, long likeCount, long commentCount) {
+        this.sampledAt = sampledAt;
+        this.viewCount = viewCount;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+    }
+
+    public LocalDateTime getSampledAt() {
+        return sampledAt;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    /**
+     * Whether both samples hold the same counts, whenever they were taken.
+     */
+    public boolean hasSameCounts(StatisticsSample other) {
+        return viewCount == other.viewCount && likeCount == other.likeCount && commentCount == other.commentCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StatisticsSample)) {
+            return false;
+        }
+        StatisticsSample other = (StatisticsSample) o;
+        return sampledAt.equals(other.sampledAt) && hasSameCounts(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sampledAt, viewCount, likeCount, commentCount);
+    }
+
+    @Override
+    public String toString() {
+        return sampledAt + " views=" + viewCount + " likes=" + likeCount + " comments=" + commentCount;
+    }
+}
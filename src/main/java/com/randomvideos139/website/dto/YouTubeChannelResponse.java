@@ -2,8 +2,10 @@ package com.randomvideos139.website.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = YouTubeResponseDecoders.ChannelResponseDeserializer.class)
 public class YouTubeChannelResponse {
     
     @JsonProperty("items")
@@ -28,6 +30,9 @@ public class YouTubeChannelResponse {
         @JsonProperty("statistics")
         private ChannelStatistics statistics;
         
+        @JsonProperty("contentDetails")
+        private ChannelContentDetails contentDetails;
+        
         public String getId() {
             return id;
         }
@@ -51,6 +56,19 @@ public class YouTubeChannelResponse {
         public void setStatistics(ChannelStatistics statistics) {
             this.statistics = statistics;
         }
+        
+        public ChannelContentDetails getContentDetails() {
+            return contentDetails;
+        }
+        
+        public void setContentDetails(ChannelContentDetails contentDetails) {
+            this.contentDetails = contentDetails;
+        }
+        
+        public String getUploadsPlaylistId() {
+            if (contentDetails == null || contentDetails.getRelatedPlaylists() == null) return null;
+            return contentDetails.getRelatedPlaylists().getUploads();
+        }
     }
     
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -158,6 +176,34 @@ public class YouTubeChannelResponse {
         }
     }
     
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ChannelContentDetails {
+        @JsonProperty("relatedPlaylists")
+        private RelatedPlaylists relatedPlaylists;
+        
+        public RelatedPlaylists getRelatedPlaylists() {
+            return relatedPlaylists;
+        }
+        
+        public void setRelatedPlaylists(RelatedPlaylists relatedPlaylists) {
+            this.relatedPlaylists = relatedPlaylists;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class RelatedPlaylists {
+        @JsonProperty("uploads")
+        private String uploads;
+        
+        public String getUploads() {
+            return uploads;
+        }
+        
+        public void setUploads(String uploads) {
+            this.uploads = uploads;
+        }
+    }
+    
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Thumbnails {
         @JsonProperty("default")
@@ -206,12 +252,6 @@ public class YouTubeChannelResponse {
         @JsonProperty("url")
         private String url;
         
-        @JsonProperty("width")
-        private Integer width;
-        
-        @JsonProperty("height")
-        private Integer height;
-        
         public String getUrl() {
             return url;
         }
@@ -219,22 +259,6 @@ public class YouTubeChannelResponse {
         public void setUrl(String url) {
             this.url = url;
         }
-        
-        public Integer getWidth() {
-            return width;
-        }
-        
-        public void setWidth(Integer width) {
-            this.width = width;
-        }
-        
-        public Integer getHeight() {
-            return height;
-        }
-        
-        public void setHeight(Integer height) {
-            this.height = height;
-        }
     }
 }
 
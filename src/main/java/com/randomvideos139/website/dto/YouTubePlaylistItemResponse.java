@@ -0,0 +1,61 @@
+package com.randomvideos139.website.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of the playlistItems endpoint; used to walk a playlist (such as the channel's uploads) one
+ * quota unit per page.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class YouTubePlaylistItemResponse {
+
+    @JsonProperty("items")
+    private java.util.List<PlaylistEntry> items;
+
+    @JsonProperty("nextPageToken")
+    private String nextPageToken;
+
+    public java.util.List<PlaylistEntry> getItems() {
+        return items;
+    }
+
+    public void setItems(java.util.List<PlaylistEntry> items) {
+        this.items = items;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken(String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PlaylistEntry {
+        @JsonProperty("contentDetails")
+        private EntryContentDetails contentDetails;
+
+        public EntryContentDetails getContentDetails() { return contentDetails; }
+        public void setContentDetails(EntryContentDetails contentDetails) { this.contentDetails = contentDetails; }
+
+        public String getVideoId() {
+            return contentDetails != null ? contentDetails.getVideoId() : null;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class EntryContentDetails {
+        @JsonProperty("videoId")
+        private String videoId;
+
+        @JsonProperty("videoPublishedAt")
+        private String videoPublishedAt;
+
+        public String getVideoId() { return videoId; }
+        public void setVideoId(String videoId) { this.videoId = videoId; }
+        public String getVideoPublishedAt() { return videoPublishedAt; }
+        public void setVideoPublishedAt(String videoPublishedAt) { this.videoPublishedAt = videoPublishedAt; }
+    }
+}
@@ -2,8 +2,10 @@ package com.randomvideos139.website.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = YouTubeResponseDecoders.PlaylistResponseDeserializer.class)
 public class YouTubePlaylistResponse {
     
     @JsonProperty("items")
@@ -12,6 +14,9 @@ public class YouTubePlaylistResponse {
     @JsonProperty("nextPageToken")
     private String nextPageToken;
     
+    @JsonProperty("etag")
+    private String etag;
+    
     public java.util.List<PlaylistItem> getItems() {
         return items;
     }
@@ -28,11 +33,22 @@ public class YouTubePlaylistResponse {
         this.nextPageToken = nextPageToken;
     }
     
+    public String getEtag() {
+        return etag;
+    }
+    
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+    
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class PlaylistItem {
         @JsonProperty("id")
         private String id;
         
+        @JsonProperty("etag")
+        private String etag;
+        
         @JsonProperty("snippet")
         private PlaylistSnippet snippet;
         
@@ -47,6 +63,14 @@ public class YouTubePlaylistResponse {
             this.id = id;
         }
         
+        public String getEtag() {
+            return etag;
+        }
+        
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+        
         public PlaylistSnippet getSnippet() {
             return snippet;
         }
@@ -78,9 +102,6 @@ public class YouTubePlaylistResponse {
         @JsonProperty("channelId")
         private String channelId;
         
-        @JsonProperty("channelTitle")
-        private String channelTitle;
-        
         @JsonProperty("thumbnails")
         private YouTubeChannelResponse.Thumbnails thumbnails;
         
@@ -116,14 +137,6 @@ public class YouTubePlaylistResponse {
             this.channelId = channelId;
         }
         
-        public String getChannelTitle() {
-            return channelTitle;
-        }
-        
-        public void setChannelTitle(String channelTitle) {
-            this.channelTitle = channelTitle;
-        }
-        
         public YouTubeChannelResponse.Thumbnails getThumbnails() {
             return thumbnails;
         }
@@ -0,0 +1,518 @@
+package com.randomvideos139.website.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoders for the video, channel and playlist responses, registered on the DTOs with
+ * {@code @JsonDeserialize}. Each reads the token stream straight into the DTOs: properties the DTOs do not
+ * hold are skipped without being materialized, and the search result {@code id} object is resolved to its
+ * {@code videoId} string as it is read. The {@code @JsonProperty} annotations on the DTOs still name the
+ * properties, for serialization and for {@link FieldMask}; a property added there must be added here too.
+ */
+public final class YouTubeResponseDecoders {
+
+    private YouTubeResponseDecoders() {
+    }
+
+    public static class VideoResponseDeserializer extends StdDeserializer<YouTubeVideoResponse> {
+
+        public VideoResponseDeserializer() {
+            super(YouTubeVideoResponse.class);
+        }
+
+        @Override
+        public YouTubeVideoResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (YouTubeVideoResponse) ctxt.handleUnexpectedToken(YouTubeVideoResponse.class, p);
+            }
+            YouTubeVideoResponse response = new YouTubeVideoResponse();
+            for (String field; (field = nextField(p)) != null; ) {
+                switch (field) {
+                    case "items":
+                        response.setItems(readVideoItems(p));
+                        break;
+                    case "nextPageToken":
+                        response.setNextPageToken(text(p));
+                        break;
+                    case "etag":
+                        response.setEtag(text(p));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return response;
+        }
+
+        private List<YouTubeVideoResponse.VideoItem> readVideoItems(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return null;
+            }
+            List<YouTubeVideoResponse.VideoItem> items = new ArrayList<>(50);
+            for (JsonToken token = p.nextToken(); token != null && token != JsonToken.END_ARRAY; token = p.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                YouTubeVideoResponse.VideoItem item = new YouTubeVideoResponse.VideoItem();
+                for (String field; (field = nextField(p)) != null; ) {
+                    switch (field) {
+                        case "id":
+                            item.setId(readVideoId(p));
+                            break;
+                        case "snippet":
+                            item.setSnippet(readSnippet(p));
+                            break;
+                        case "statistics":
+                            item.setStatistics(readStatistics(p));
+                            break;
+                        case "contentDetails":
+                            item.setContentDetails(readContentDetails(p));
+                            break;
+                        default:
+                            p.skipChildren();
+                    }
+                }
+                items.add(item);
+            }
+            return items;
+        }
+
+        /**
+         * A plain string from {@code videos}, or {@code {"kind": ..., "videoId": ...}} from {@code search}.
+         */
+        private String readVideoId(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return text(p);
+            }
+            String videoId = null;
+            for (String field; (field = nextField(p)) != null; ) {
+                if ("videoId".equals(field)) {
+                    videoId = text(p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return videoId;
+        }
+
+        private YouTubeVideoResponse.VideoSnippet readSnippet(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubeVideoResponse.VideoSnippet snippet = new YouTubeVideoResponse.VideoSnippet();
+            for (String field; (field = nextField(p)) != null; ) {
+                switch (field) {
+                    case "title":
+                        snippet.setTitle(text(p));
+                        break;
+                    case "description":
+                        snippet.setDescription(text(p));
+                        break;
+                    case "publishedAt":
+                        snippet.setPublishedAt(text(p));
+                        break;
+                    case "channelId":
+                        snippet.setChannelId(text(p));
+                        break;
+                    case "categoryId":
+                        snippet.setCategoryId(text(p));
+                        break;
+                    case "tags":
+                        snippet.setTags(readStrings(p));
+                        break;
+                    case "thumbnails":
+                        snippet.setThumbnails(readThumbnails(p));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return snippet;
+        }
+
+        private YouTubeVideoResponse.VideoStatistics readStatistics(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubeVideoResponse.VideoStatistics statistics = new YouTubeVideoResponse.VideoStatistics();
+            for (String field; (field = nextField(p)) != null; ) {
+                switch (field) {
+                    case "viewCount":
+                        statistics.setViewCount(text(p));
+                        break;
+                    case "likeCount":
+                        statistics.setLikeCount(text(p));
+                        break;
+                    case "commentCount":
+                        statistics.setCommentCount(text(p));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return statistics;
+        }
+
+        private YouTubeVideoResponse.VideoContentDetails readContentDetails(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubeVideoResponse.VideoContentDetails contentDetails = new YouTubeVideoResponse.VideoContentDetails();
+            for (String field; (field = nextField(p)) != null; ) {
+                if ("duration".equals(field)) {
+                    contentDetails.setDuration(text(p));
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return contentDetails;
+        }
+    }
+
+    public static class ChannelResponseDeserializer extends StdDeserializer<YouTubeChannelResponse> {
+
+        public ChannelResponseDeserializer() {
+            super(YouTubeChannelResponse.class);
+        }
+
+        @Override
+        public YouTubeChannelResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (YouTubeChannelResponse) ctxt.handleUnexpectedToken(YouTubeChannelResponse.class, p);
+            }
+            YouTubeChannelResponse response = new YouTubeChannelResponse();
+            for (String field; (field = nextField(p)) != null; ) {
+                if ("items".equals(field)) {
+                    response.setItems(readChannelItems(p));
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return response;
+        }
+
+        private List<YouTubeChannelResponse.ChannelItem> readChannelItems(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return null;
+            }
+            List<YouTubeChannelResponse.ChannelItem> items = new ArrayList<>(1);
+            for (JsonToken token = p.nextToken(); token != null && token != JsonToken.END_ARRAY; token = p.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                YouTubeChannelResponse.ChannelItem item = new YouTubeChannelResponse.ChannelItem();
+                for (String field; (field = nextField(p)) != null; ) {
+                    switch (field) {
+                        case "id":
+                            item.setId(text(p));
+                            break;
+                        case "snippet":
+                            item.setSnippet(readSnippet(p));
+                            break;
+                        case "statistics":
+                            item.setStatistics(readStatistics(p));
+                            break;
+                        case "contentDetails":
+                            item.setContentDetails(readContentDetails(p));
+                            break;
+                        default:
+                            p.skipChildren();
+                    }
+                }
+                items.add(item);
+            }
+            return items;
+        }
+
+        private YouTubeChannelResponse.ChannelSnippet readSnippet(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubeChannelResponse.ChannelSnippet snippet = new YouTubeChannelResponse.ChannelSnippet();
+            for (String field; (field = nextField(p)) != null; ) {
+                switch (field) {
+                    case "title":
+                        snippet.setTitle(text(p));
+                        break;
+                    case "description":
+                        snippet.setDescription(text(p));
+                        break;
+                    case "customUrl":
+                        snippet.setCustomUrl(text(p));
+                        break;
+                    case "publishedAt":
+                        snippet.setPublishedAt(text(p));
+                        break;
+                    case "country":
+                        snippet.setCountry(text(p));
+                        break;
+                    case "thumbnails":
+                        snippet.setThumbnails(readThumbnails(p));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return snippet;
+        }
+
+        private YouTubeChannelResponse.ChannelStatistics readStatistics(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubeChannelResponse.ChannelStatistics statistics = new YouTubeChannelResponse.ChannelStatistics();
+            for (String field; (field = nextField(p)) != null; ) {
+                switch (field) {
+                    case "viewCount":
+                        statistics.setViewCount(text(p));
+                        break;
+                    case "subscriberCount":
+                        statistics.setSubscriberCount(text(p));
+                        break;
+                    case "videoCount":
+                        statistics.setVideoCount(text(p));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return statistics;
+        }
+
+        private YouTubeChannelResponse.ChannelContentDetails readContentDetails(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubeChannelResponse.ChannelContentDetails contentDetails = new YouTubeChannelResponse.ChannelContentDetails();
+            for (String field; (field = nextField(p)) != null; ) {
+                if ("relatedPlaylists".equals(field) && p.currentToken() == JsonToken.START_OBJECT) {
+                    YouTubeChannelResponse.RelatedPlaylists relatedPlaylists = new YouTubeChannelResponse.RelatedPlaylists();
+                    for (String playlist; (playlist = nextField(p)) != null; ) {
+                        if ("uploads".equals(playlist)) {
+                            relatedPlaylists.setUploads(text(p));
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                    contentDetails.setRelatedPlaylists(relatedPlaylists);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return contentDetails;
+        }
+    }
+
+    public static class PlaylistResponseDeserializer extends StdDeserializer<YouTubePlaylistResponse> {
+
+        public PlaylistResponseDeserializer() {
+            super(YouTubePlaylistResponse.class);
+        }
+
+        @Override
+        public YouTubePlaylistResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (YouTubePlaylistResponse) ctxt.handleUnexpectedToken(YouTubePlaylistResponse.class, p);
+            }
+            YouTubePlaylistResponse response = new YouTubePlaylistResponse();
+            for (String field; (field = nextField(p)) != null; ) {
+                switch (field) {
+                    case "items":
+                        response.setItems(readPlaylistItems(p));
+                        break;
+                    case "nextPageToken":
+                        response.setNextPageToken(text(p));
+                        break;
+                    case "etag":
+                        response.setEtag(text(p));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return response;
+        }
+
+        private List<YouTubePlaylistResponse.PlaylistItem> readPlaylistItems(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return null;
+            }
+            List<YouTubePlaylistResponse.PlaylistItem> items = new ArrayList<>(50);
+            for (JsonToken token = p.nextToken(); token != null && token != JsonToken.END_ARRAY; token = p.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                YouTubePlaylistResponse.PlaylistItem item = new YouTubePlaylistResponse.PlaylistItem();
+                for (String field; (field = nextField(p)) != null; ) {
+                    switch (field) {
+                        case "id":
+                            item.setId(text(p));
+                            break;
+                        case "etag":
+                            item.setEtag(text(p));
+                            break;
+                        case "snippet":
+                            item.setSnippet(readSnippet(p));
+                            break;
+                        case "contentDetails":
+                            item.setContentDetails(readContentDetails(p));
+                            break;
+                        default:
+                            p.skipChildren();
+                    }
+                }
+                items.add(item);
+            }
+            return items;
+        }
+
+        private YouTubePlaylistResponse.PlaylistSnippet readSnippet(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubePlaylistResponse.PlaylistSnippet snippet = new YouTubePlaylistResponse.PlaylistSnippet();
+            for (String field; (field = nextField(p)) != null; ) {
+                switch (field) {
+                    case "title":
+                        snippet.setTitle(text(p));
+                        break;
+                    case "description":
+                        snippet.setDescription(text(p));
+                        break;
+                    case "publishedAt":
+                        snippet.setPublishedAt(text(p));
+                        break;
+                    case "channelId":
+                        snippet.setChannelId(text(p));
+                        break;
+                    case "thumbnails":
+                        snippet.setThumbnails(readThumbnails(p));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return snippet;
+        }
+
+        private YouTubePlaylistResponse.PlaylistContentDetails readContentDetails(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return null;
+            }
+            YouTubePlaylistResponse.PlaylistContentDetails contentDetails = new YouTubePlaylistResponse.PlaylistContentDetails();
+            for (String field; (field = nextField(p)) != null; ) {
+                if ("itemCount".equals(field)) {
+                    contentDetails.setItemCount(p.currentToken() == JsonToken.VALUE_NULL ? null : p.getValueAsInt());
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return contentDetails;
+        }
+    }
+
+    /**
+     * Advance to the value of the next field of the current object and return the field's name, or null at
+     * the end of the object.
+     */
+    static String nextField(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        String name = p.currentName();
+        p.nextToken();
+        return name;
+    }
+
+    /**
+     * The current scalar as a string (numbers included); null for null, and for an object or array, which
+     * is skipped.
+     */
+    static String text(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        return token == JsonToken.VALUE_NULL ? null : p.getValueAsString();
+    }
+
+    static List<String> readStrings(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        for (JsonToken token = p.nextToken(); token != null && token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            String value = text(p);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * The default, medium and high thumbnail URLs; the larger sizes the API also lists are skipped.
+     */
+    static YouTubeChannelResponse.Thumbnails readThumbnails(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        YouTubeChannelResponse.Thumbnails thumbnails = new YouTubeChannelResponse.Thumbnails();
+        for (String field; (field = nextField(p)) != null; ) {
+            switch (field) {
+                case "default":
+                    thumbnails.setDefaultThumbnail(readThumbnail(p));
+                    break;
+                case "medium":
+                    thumbnails.setMedium(readThumbnail(p));
+                    break;
+                case "high":
+                    thumbnails.setHigh(readThumbnail(p));
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return thumbnails;
+    }
+
+    private static YouTubeChannelResponse.Thumbnail readThumbnail(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        YouTubeChannelResponse.Thumbnail thumbnail = new YouTubeChannelResponse.Thumbnail();
+        for (String field; (field = nextField(p)) != null; ) {
+            if ("url".equals(field)) {
+                thumbnail.setUrl(text(p));
+            } else {
+                p.skipChildren();
+            }
+        }
+        return thumbnail;
+    }
+}
@@ -0,0 +1,224 @@
+package com.randomvideos139.website.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parsers for the two time formats of the YouTube Data API: ISO-8601 durations such as {@code PT4M13S} (or
+ * {@code P1DT2H3M} past a day, {@code P0D} for live streams) and RFC 3339 timestamps such as
+ * {@code 2024-05-01T18:00:00Z}. Both walk the characters once without building intermediate strings, and
+ * report malformed input through their return value rather than an exception.
+ */
+public final class YouTubeTimeFormats {
+
+    // Larger components can only come from corrupt data, and would overflow the seconds total.
+    private static final long MAX_COMPONENT = 1_000_000_000L;
+    private static final int NO_OFFSET = Integer.MIN_VALUE;
+
+    private YouTubeTimeFormats() {
+    }
+
+    /**
+     * Total seconds of an ISO-8601 duration made of weeks, days, hours, minutes and seconds (each optional,
+     * in that order), or -1 if {@code duration} is null or not such a duration.
+     */
+    public static long parseDurationSeconds(CharSequence duration) {
+        if (duration == null || duration.length() < 3 || duration.charAt(0) != 'P') {
+            return -1;
+        }
+        int length = duration.length();
+        long total = 0;
+        // Index of the last designator seen, in the order W, D, (T,) H, M, S; each may appear only once.
+        int lastUnit = -1;
+        boolean timePart = false;
+        boolean anyComponent = false;
+        int i = 1;
+        while (i < length) {
+            char c = duration.charAt(i);
+            if (c == 'T') {
+                if (timePart || i == length - 1) {
+                    return -1;
+                }
+                timePart = true;
+                i++;
+                continue;
+            }
+            long value = 0;
+            int digitsStart = i;
+            while (i < length && (c = duration.charAt(i)) >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > MAX_COMPONENT) {
+                    return -1;
+                }
+                i++;
+            }
+            if (i == digitsStart || i == length) {
+                return -1;
+            }
+            int unit;
+            long unitSeconds;
+            switch (duration.charAt(i)) {
+                case 'W':
+                    unit = 0;
+                    unitSeconds = 7 * 86_400L;
+                    break;
+                case 'D':
+                    unit = 1;
+                    unitSeconds = 86_400L;
+                    break;
+                case 'H':
+                    unit = 2;
+                    unitSeconds = 3_600L;
+                    break;
+                case 'M':
+                    // Months have no fixed length; only minutes are accepted.
+                    unit = 3;
+                    unitSeconds = 60L;
+                    break;
+                case 'S':
+                    unit = 4;
+                    unitSeconds = 1L;
+                    break;
+                default:
+                    return -1;
+            }
+            if (unit <= lastUnit || (unit >= 2) != timePart) {
+                return -1;
+            }
+            lastUnit = unit;
+            anyComponent = true;
+            total += value * unitSeconds;
+            i++;
+        }
+        return anyComponent ? total : -1;
+    }
+
+    /**
+     * Seconds as the site displays durations: {@code m:ss} below an hour, {@code h:mm:ss} from an hour.
+     */
+    public static String formatDuration(long totalSeconds) {
+        long hours = totalSeconds / 3_600;
+        int minutes = (int) (totalSeconds / 60 % 60);
+        int seconds = (int) (totalSeconds % 60);
+        StringBuilder formatted = new StringBuilder(10);
+        if (hours > 0) {
+            formatted.append(hours).append(':');
+            appendTwoDigits(formatted, minutes);
+        } else {
+            formatted.append(minutes);
+        }
+        formatted.append(':');
+        appendTwoDigits(formatted, seconds);
+        return formatted.toString();
+    }
+
+    /**
+     * The UTC date and time of an RFC 3339 timestamp ({@code yyyy-MM-ddTHH:mm[:ss[.fraction]]}, then
+     * {@code Z}, an offset or nothing), or null if {@code timestamp} is null or not such a timestamp. The
+     * database stores UTC, so an offset is subtracted; a timestamp without one is taken as UTC.
+     */
+    public static LocalDateTime parseTimestamp(CharSequence timestamp) {
+        if (timestamp == null || timestamp.length() < 16) {
+            return null;
+        }
+        int year = digits(timestamp, 0, 4);
+        int month = digits(timestamp, 5, 2);
+        int day = digits(timestamp, 8, 2);
+        int hour = digits(timestamp, 11, 2);
+        int minute = digits(timestamp, 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || timestamp.charAt(4) != '-' || timestamp.charAt(7) != '-' || timestamp.charAt(10) != 'T'
+                || timestamp.charAt(13) != ':' || day > lengthOfMonth(year, month)) {
+            return null;
+        }
+        int length = timestamp.length();
+        int i = 16;
+        int second = 0;
+        int nanos = 0;
+        if (i < length && timestamp.charAt(i) == ':') {
+            second = digits(timestamp, i + 1, 2);
+            if (second < 0 || second > 59) {
+                return null;
+            }
+            i += 3;
+            if (i < length && timestamp.charAt(i) == '.') {
+                int fractionStart = ++i;
+                int scale = 100_000_000;
+                char c;
+                while (i < length && (c = timestamp.charAt(i)) >= '0' && c <= '9') {
+                    if (i - fractionStart == 9) {
+                        return null;
+                    }
+                    nanos += (c - '0') * scale;
+                    scale /= 10;
+                    i++;
+                }
+                if (i == fractionStart) {
+                    return null;
+                }
+            }
+        }
+        int offsetSeconds = 0;
+        if (i < length && !(timestamp.charAt(i) == 'Z' && i == length - 1)) {
+            offsetSeconds = offsetSeconds(timestamp, i);
+            if (offsetSeconds == NO_OFFSET) {
+                return null;
+            }
+        }
+        LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+        return offsetSeconds == 0 ? dateTime : dateTime.minusSeconds(offsetSeconds);
+    }
+
+    /**
+     * The offset from {@code -18:00} to {@code +18:00} that ends the timestamp at {@code start}, in seconds,
+     * or {@link #NO_OFFSET} if there is none.
+     */
+    private static int offsetSeconds(CharSequence s, int start) {
+        char sign = s.charAt(start);
+        if ((sign != '+' && sign != '-') || start + 6 != s.length() || s.charAt(start + 3) != ':') {
+            return NO_OFFSET;
+        }
+        int hours = digits(s, start + 1, 2);
+        int minutes = digits(s, start + 4, 2);
+        if (hours < 0 || minutes < 0 || minutes > 59 || hours > 18 || (hours == 18 && minutes > 0)) {
+            return NO_OFFSET;
+        }
+        int seconds = hours * 3_600 + minutes * 60;
+        return sign == '-' ? -seconds : seconds;
+    }
+
+    /**
+     * The non-negative number written with {@code count} digits at {@code start}, or -1.
+     */
+    private static int digits(CharSequence s, int start, int count) {
+        if (start + count > s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
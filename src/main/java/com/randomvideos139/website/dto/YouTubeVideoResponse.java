@@ -2,10 +2,10 @@ package com.randomvideos139.website.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-
-import java.util.LinkedHashMap;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = YouTubeResponseDecoders.VideoResponseDeserializer.class)
 public class YouTubeVideoResponse {
 
     @JsonProperty("items")
@@ -14,6 +14,9 @@ public class YouTubeVideoResponse {
     @JsonProperty("nextPageToken")
     private String nextPageToken;
 
+    @JsonProperty("etag")
+    private String etag;
+
     public java.util.List<VideoItem> getItems() {
         return items;
     }
@@ -30,10 +33,18 @@ public class YouTubeVideoResponse {
         this.nextPageToken = nextPageToken;
     }
 
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class VideoItem {
         @JsonProperty("id")
-        private Object id; // Can be VideoId object or String from /search, or just a String from /videos
+        private String id; // From /search the API sends {"videoId": ...}; the decoder keeps just the ID
 
         @JsonProperty("snippet")
         private VideoSnippet snippet;
@@ -44,11 +55,11 @@ public class YouTubeVideoResponse {
         @JsonProperty("contentDetails")
         private VideoContentDetails contentDetails;
 
-        public Object getId() {
+        public String getId() {
             return id;
         }
 
-        public void setId(Object id) {
+        public void setId(String id) {
             this.id = id;
         }
 
@@ -76,30 +87,8 @@ public class YouTubeVideoResponse {
             this.contentDetails = contentDetails;
         }
 
-        // This is the corrected method to handle different API response structures
-        public String getVideoId() {
-            if (id instanceof LinkedHashMap) {
-                // Handles the case from a /search API response where id is an object: { "videoId": "..." }
-                return (String) ((LinkedHashMap<?, ?>) id).get("videoId");
-            } else if (id instanceof String) {
-                // Handles the case from a /videos API response where id is a direct string
-                return (String) id;
-            }
-            return null;
-        }
-    }
-
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    public static class VideoId {
-        @JsonProperty("videoId")
-        private String videoId;
-
         public String getVideoId() {
-            return videoId;
-        }
-
-        public void setVideoId(String videoId) {
-            this.videoId = videoId;
+            return id;
         }
     }
 
@@ -117,9 +106,6 @@ public class YouTubeVideoResponse {
         @JsonProperty("channelId")
         private String channelId;
 
-        @JsonProperty("channelTitle")
-        private String channelTitle;
-
         @JsonProperty("categoryId")
         private String categoryId;
 
@@ -137,8 +123,6 @@ public class YouTubeVideoResponse {
         public void setPublishedAt(String publishedAt) { this.publishedAt = publishedAt; }
         public String getChannelId() { return channelId; }
         public void setChannelId(String channelId) { this.channelId = channelId; }
-        public String getChannelTitle() { return channelTitle; }
-        public void setChannelTitle(String channelTitle) { this.channelTitle = channelTitle; }
         public String getCategoryId() { return categoryId; }
         public void setCategoryId(String categoryId) { this.categoryId = categoryId; }
         public java.util.List<String> getTags() { return tags; }
@@ -172,28 +156,21 @@ public class YouTubeVideoResponse {
         public String getDuration() { return duration; }
         public void setDuration(String duration) { this.duration = duration; }
 
+        /**
+         * Length in seconds, or null if the duration is missing or malformed.
+         */
+        public Long getDurationSeconds() {
+            long seconds = YouTubeTimeFormats.parseDurationSeconds(duration);
+            return seconds < 0 ? null : seconds;
+        }
+
+        /**
+         * Length as displayed ({@code m:ss} or {@code h:mm:ss}); "0:00" if missing, null if malformed.
+         */
         public String getFormattedDuration() {
             if (duration == null) return "0:00";
-            String formatted = duration.replace("PT", "");
-            int hours = 0, minutes = 0, seconds = 0;
-            if (formatted.contains("H")) {
-                String[] parts = formatted.split("H");
-                hours = Integer.parseInt(parts[0]);
-                if (parts.length > 1) formatted = parts[1]; else formatted = "";
-            }
-            if (formatted.contains("M")) {
-                String[] parts = formatted.split("M");
-                minutes = Integer.parseInt(parts[0]);
-                if (parts.length > 1) formatted = parts[1]; else formatted = "";
-            }
-            if (formatted.contains("S")) {
-                seconds = Integer.parseInt(formatted.replace("S", ""));
-            }
-            if (hours > 0) {
-                return String.format("%d:%02d:%02d", hours, minutes, seconds);
-            } else {
-                return String.format("%d:%02d", minutes, seconds);
-            }
+            long seconds = YouTubeTimeFormats.parseDurationSeconds(duration);
+            return seconds < 0 ? null : YouTubeTimeFormats.formatDuration(seconds);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.randomvideos139.website.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * YouTube Data API quota spent on one endpoint during one quota day (midnight to midnight Pacific time).
+ */
+@Entity
+@Table(name = "api_quota_usage",
+        uniqueConstraints = @UniqueConstraint(name = "uk_api_quota_usage_day_endpoint", columnNames = {"usage_date", "endpoint"}))
+public class ApiQuotaUsage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+    
+    @Column(name = "endpoint", nullable = false, length = 50)
+    private String endpoint; // search, videos, channels, playlists, playlistItems, other
+    
+    @Column(name = "units", nullable = false)
+    private Long units;
+    
+    @Column(name = "requests", nullable = false)
+    private Long requests;
+    
+    @Column(name = "last_updated", nullable = false)
+    private LocalDateTime lastUpdated;
+    
+    // Constructors
+    public ApiQuotaUsage() {
+        this.units = 0L;
+        this.requests = 0L;
+        this.lastUpdated = LocalDateTime.now();
+    }
+    
+    public ApiQuotaUsage(LocalDate usageDate, String endpoint) {
+        this();
+        this.usageDate = usageDate;
+        this.endpoint = endpoint;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+    
+    public void setUsageDate(LocalDate usageDate) {
+        this.usageDate = usageDate;
+    }
+    
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    public Long getUnits() {
+        return units;
+    }
+    
+    public void setUnits(Long units) {
+        this.units = units;
+    }
+    
+    public Long getRequests() {
+        return requests;
+    }
+    
+    public void setRequests(Long requests) {
+        this.requests = requests;
+    }
+    
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+    
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+}
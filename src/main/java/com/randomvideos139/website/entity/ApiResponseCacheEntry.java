@@ -0,0 +1,98 @@
+package com.randomvideos139.website.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ETag of a YouTube Data API list page, keyed by its request URL without the API key. Keeps the page's
+ * next-page token and item IDs so a 304 Not Modified can be followed and accounted for without the body.
+ */
+@Entity
+@Table(name = "api_response_cache")
+public class ApiResponseCacheEntry {
+    
+    @Id
+    @Column(name = "request_key", length = 700)
+    private String requestKey;
+    
+    @Column(name = "etag", nullable = false)
+    private String etag;
+    
+    @Column(name = "next_page_token")
+    private String nextPageToken;
+    
+    @Column(name = "item_ids", columnDefinition = "TEXT")
+    private String itemIds; // comma-separated
+    
+    @Column(name = "last_updated", nullable = false)
+    private LocalDateTime lastUpdated;
+    
+    // Constructors
+    public ApiResponseCacheEntry() {
+        this.lastUpdated = LocalDateTime.now();
+    }
+    
+    public ApiResponseCacheEntry(String requestKey, String etag, String nextPageToken, List<String> itemIds) {
+        this();
+        this.requestKey = requestKey;
+        this.etag = etag;
+        this.nextPageToken = nextPageToken;
+        setItemIdList(itemIds);
+    }
+    
+    // Getters and Setters
+    public String getRequestKey() {
+        return requestKey;
+    }
+    
+    public void setRequestKey(String requestKey) {
+        this.requestKey = requestKey;
+    }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+    
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+    
+    public void setNextPageToken(String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
+    
+    public String getItemIds() {
+        return itemIds;
+    }
+    
+    public void setItemIds(String itemIds) {
+        this.itemIds = itemIds;
+    }
+    
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+    
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+    
+    // Helper methods
+    public List<String> getItemIdList() {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.asList(itemIds.split(","));
+    }
+    
+    public void setItemIdList(List<String> itemIdList) {
+        this.itemIds = itemIdList == null ? null : String.join(",", itemIdList);
+    }
+}
@@ -2,8 +2,8 @@ package com.randomvideos139.website.entity;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "playlists")
@@ -33,10 +33,17 @@ public class Playlist {
     @Column(name = "privacy_status")
     private String privacyStatus;
     
+    @Column(name = "content_fingerprint", length = 64)
+    private String contentFingerprint;
+    
+    // A set rather than a list so Hibernate writes membership changes row by row instead of rewriting them all.
     @ElementCollection
     @CollectionTable(name = "playlist_video_ids", joinColumns = @JoinColumn(name = "playlist_id"))
     @Column(name = "video_id")
-    private List<String> videoIds = new ArrayList<>();
+    private Set<String> videoIds = new LinkedHashSet<>();
+    
+    @Column(name = "membership_etag", length = 64)
+    private String membershipEtag;
     
     @Column(name = "last_updated", nullable = false)
     private LocalDateTime lastUpdated;
@@ -117,14 +124,30 @@ public class Playlist {
         this.privacyStatus = privacyStatus;
     }
     
-    public List<String> getVideoIds() {
+    public String getContentFingerprint() {
+        return contentFingerprint;
+    }
+    
+    public void setContentFingerprint(String contentFingerprint) {
+        this.contentFingerprint = contentFingerprint;
+    }
+    
+    public Set<String> getVideoIds() {
         return videoIds;
     }
     
-    public void setVideoIds(List<String> videoIds) {
+    public void setVideoIds(Set<String> videoIds) {
         this.videoIds = videoIds;
     }
     
+    public String getMembershipEtag() {
+        return membershipEtag;
+    }
+    
+    public void setMembershipEtag(String membershipEtag) {
+        this.membershipEtag = membershipEtag;
+    }
+    
     public LocalDateTime getLastUpdated() {
         return lastUpdated;
     }
@@ -12,7 +12,7 @@ public class UpdateHistory {
     private Long id;
     
     @Column(name = "update_type", nullable = false)
-    private String updateType; // CHANNEL_STATS, VIDEOS, PLAYLISTS, ALL
+    private String updateType; // CHANNEL_STATS, VIDEOS, PLAYLISTS, ALL, INCREMENTAL, STATISTICS
     
     @Column(name = "update_timestamp", nullable = false)
     private LocalDateTime updateTimestamp;
@@ -20,6 +20,9 @@ public class UpdateHistory {
     @Column(name = "records_updated")
     private Integer recordsUpdated;
     
+    @Column(name = "records_skipped")
+    private Integer recordsSkipped; // rows whose content fingerprint was unchanged
+    
     @Column(name = "status", nullable = false)
     private String status; // SUCCESS, FAILED, PARTIAL
     
@@ -73,6 +76,14 @@ public class UpdateHistory {
         this.recordsUpdated = recordsUpdated;
     }
     
+    public Integer getRecordsSkipped() {
+        return recordsSkipped;
+    }
+    
+    public void setRecordsSkipped(Integer recordsSkipped) {
+        this.recordsSkipped = recordsSkipped;
+    }
+    
     public String getStatus() {
         return status;
     }
@@ -104,6 +115,11 @@ public class UpdateHistory {
         this.durationSeconds = durationSeconds;
     }
     
+    public void markAsSuccess(int recordsUpdated, int recordsSkipped, long durationSeconds) {
+        markAsSuccess(recordsUpdated, durationSeconds);
+        this.recordsSkipped = recordsSkipped;
+    }
+    
     public void markAsFailed(String errorMessage, long durationSeconds) {
         this.status = "FAILED";
         this.errorMessage = errorMessage;
@@ -116,5 +132,10 @@ public class UpdateHistory {
         this.errorMessage = errorMessage;
         this.durationSeconds = durationSeconds;
     }
+    
+    public void markAsPartial(int recordsUpdated, int recordsSkipped, String errorMessage, long durationSeconds) {
+        markAsPartial(recordsUpdated, errorMessage, durationSeconds);
+        this.recordsSkipped = recordsSkipped;
+    }
 }
 
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_published_at", columnList = "published_at"),
     @Index(name = "idx_view_count", columnList = "view_count"),
     @Index(name = "idx_is_latest", columnList = "is_latest"),
-    @Index(name = "idx_is_popular", columnList = "is_popular")
+    @Index(name = "idx_is_popular", columnList = "is_popular"),
+    @Index(name = "idx_is_trending", columnList = "is_trending")
 })
 public class Video {
     
@@ -28,6 +29,9 @@ public class Video {
     @Column(name = "duration")
     private String duration;
     
+    @Column(name = "duration_seconds")
+    private Long durationSeconds;
+    
     @Column(name = "view_count")
     private Long viewCount;
     
@@ -55,6 +59,16 @@ public class Video {
     @Column(name = "is_popular")
     private Boolean isPopular = false;
     
+    @Column(name = "is_trending")
+    private Boolean isTrending = false;
+    
+    // Views per hour over the trending window, set for trending videos only
+    @Column(name = "trending_score")
+    private Double trendingScore;
+    
+    @Column(name = "content_fingerprint", length = 64)
+    private String contentFingerprint;
+    
     @Column(name = "last_updated", nullable = false)
     private LocalDateTime lastUpdated;
     
@@ -110,6 +124,14 @@ public class Video {
         this.duration = duration;
     }
     
+    public Long getDurationSeconds() {
+        return durationSeconds;
+    }
+    
+    public void setDurationSeconds(Long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+    
     public Long getViewCount() {
         return viewCount;
     }
@@ -190,6 +212,30 @@ public class Video {
         this.isPopular = isPopular;
     }
     
+    public Boolean getIsTrending() {
+        return isTrending;
+    }
+    
+    public void setIsTrending(Boolean isTrending) {
+        this.isTrending = isTrending;
+    }
+    
+    public Double getTrendingScore() {
+        return trendingScore;
+    }
+    
+    public void setTrendingScore(Double trendingScore) {
+        this.trendingScore = trendingScore;
+    }
+    
+    public String getContentFingerprint() {
+        return contentFingerprint;
+    }
+    
+    public void setContentFingerprint(String contentFingerprint) {
+        this.contentFingerprint = contentFingerprint;
+    }
+    
     // Helper methods for precise formatting
     public String getFormattedViewCount() {
         if (viewCount == null) return "0";
@@ -0,0 +1,268 @@
+package com.randomvideos139.website.entity;
+
+import com.randomvideos139.website.dto.StatisticsSample;
+import jakarta.persistence.*;
+import java.io.ByteArrayOutputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A run of one video's statistics samples at one resolution, packed into a single row. Each sample is four
+ * zig-zag varints: seconds since the previous sample (the first since the block start) and the change in
+ * views, likes and comments since the previous sample (the first against zero). A typical sample takes 4 to
+ * 8 bytes, so a year of weekly history costs a few hundred bytes per video.
+ */
+@Entity
+@Table(name = "video_statistics_blocks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_video_statistics_blocks_video_start_resolution",
+                columnNames = {"video_id", "block_start", "resolution"}),
+        indexes = @Index(name = "idx_resolution_block_end", columnList = "resolution, block_end"))
+public class VideoStatisticsBlock {
+    
+    /**
+     * How finely a block keeps history: at most one sample per bucket, in blocks of a fixed span.
+     */
+    public enum Resolution {
+        /** One sample per hour, in weekly blocks. */
+        HOURLY,
+        /** One sample per day, in monthly blocks. */
+        DAILY,
+        /** One sample per week, in yearly blocks. */
+        WEEKLY;
+    
+        public LocalDateTime blockStart(LocalDateTime at) {
+            switch (this) {
+                case HOURLY:
+                    return weekStart(at);
+                case DAILY:
+                    return at.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+                default:
+                    return at.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+            }
+        }
+    
+        public LocalDateTime blockEnd(LocalDateTime blockStart) {
+            switch (this) {
+                case HOURLY:
+                    return blockStart.plusWeeks(1);
+                case DAILY:
+                    return blockStart.plusMonths(1);
+                default:
+                    return blockStart.plusYears(1);
+            }
+        }
+    
+        public LocalDateTime bucket(LocalDateTime at) {
+            switch (this) {
+                case HOURLY:
+                    return at.truncatedTo(ChronoUnit.HOURS);
+                case DAILY:
+                    return at.truncatedTo(ChronoUnit.DAYS);
+                default:
+                    return weekStart(at);
+            }
+        }
+    
+        private static LocalDateTime weekStart(LocalDateTime at) {
+            return at.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    }
+    
+    private static final byte[] EMPTY = new byte[0];
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "video_id", nullable = false)
+    private String videoId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", nullable = false, length = 10)
+    private Resolution resolution;
+    
+    @Column(name = "block_start", nullable = false)
+    private LocalDateTime blockStart;
+    
+    @Column(name = "block_end", nullable = false)
+    private LocalDateTime blockEnd;
+    
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+    
+    // A full hourly block of 168 samples stays well under this; typical ones are a few hundred bytes.
+    @Column(name = "samples", nullable = false, length = 8192)
+    private byte[] samples;
+    
+    // Constructors
+    public VideoStatisticsBlock() {
+        this.sampleCount = 0;
+        this.samples = EMPTY;
+    }
+    
+    public VideoStatisticsBlock(String videoId, Resolution resolution, LocalDateTime blockStart) {
+        this();
+        this.videoId = videoId;
+        this.resolution = resolution;
+        this.blockStart = blockStart;
+        this.blockEnd = resolution.blockEnd(blockStart);
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getVideoId() {
+        return videoId;
+    }
+    
+    public void setVideoId(String videoId) {
+        this.videoId = videoId;
+    }
+    
+    public Resolution getResolution() {
+        return resolution;
+    }
+    
+    public void setResolution(Resolution resolution) {
+        this.resolution = resolution;
+    }
+    
+    public LocalDateTime getBlockStart() {
+        return blockStart;
+    }
+    
+    public void setBlockStart(LocalDateTime blockStart) {
+        this.blockStart = blockStart;
+    }
+    
+    public LocalDateTime getBlockEnd() {
+        return blockEnd;
+    }
+    
+    public void setBlockEnd(LocalDateTime blockEnd) {
+        this.blockEnd = blockEnd;
+    }
+    
+    public Integer getSampleCount() {
+        return sampleCount;
+    }
+    
+    public void setSampleCount(Integer sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+    
+    public byte[] getSamples() {
+        return samples;
+    }
+    
+    public void setSamples(byte[] samples) {
+        this.samples = samples;
+    }
+    
+    // Helper methods
+    /**
+     * The samples of this block, oldest first.
+     */
+    public List<StatisticsSample> decodeSamples() {
+        List<StatisticsSample> decoded = new ArrayList<>(sampleCount);
+        int[] position = {0};
+        long second = blockStart.toEpochSecond(ZoneOffset.UTC);
+        long views = 0;
+        long likes = 0;
+        long comments = 0;
+        while (position[0] < samples.length) {
+            second += readSigned(samples, position);
+            views += readSigned(samples, position);
+            likes += readSigned(samples, position);
+            comments += readSigned(samples, position);
+            decoded.add(new StatisticsSample(LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC), views, likes, comments));
+        }
+        return decoded;
+    }
+    
+    /**
+     * The newest sample, or null if the block is empty.
+     */
+    public StatisticsSample lastSample() {
+        List<StatisticsSample> decoded = decodeSamples();
+        return decoded.isEmpty() ? null : decoded.get(decoded.size() - 1);
+    }
+    
+    /**
+     * Merge samples into this block, keeping the newest sample of each bucket of its resolution. Samples
+     * outside the block's span are ignored.
+     */
+    public void merge(List<StatisticsSample> added) {
+        List<StatisticsSample> all = decodeSamples();
+        for (StatisticsSample sample : added) {
+            if (!sample.getSampledAt().isBefore(blockStart) && sample.getSampledAt().isBefore(blockEnd)) {
+                all.add(sample);
+            }
+        }
+        all.sort(Comparator.comparing(StatisticsSample::getSampledAt));
+        List<StatisticsSample> kept = new ArrayList<>(all.size());
+        for (StatisticsSample sample : all) {
+            int last = kept.size() - 1;
+            if (last >= 0 && resolution.bucket(kept.get(last).getSampledAt()).equals(resolution.bucket(sample.getSampledAt()))) {
+                kept.set(last, sample);
+            } else {
+                kept.add(sample);
+            }
+        }
+        encode(kept);
+    }
+    
+    private void encode(List<StatisticsSample> sorted) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.size() * 8);
+        long second = blockStart.toEpochSecond(ZoneOffset.UTC);
+        long views = 0;
+        long likes = 0;
+        long comments = 0;
+        for (StatisticsSample sample : sorted) {
+            long sampledSecond = sample.getSampledAt().toEpochSecond(ZoneOffset.UTC);
+            writeSigned(out, sampledSecond - second);
+            writeSigned(out, sample.getViewCount() - views);
+            writeSigned(out, sample.getLikeCount() - likes);
+            writeSigned(out, sample.getCommentCount() - comments);
+            second = sampledSecond;
+            views = sample.getViewCount();
+            likes = sample.getLikeCount();
+            comments = sample.getCommentCount();
+        }
+        this.samples = out.toByteArray();
+        this.sampleCount = sorted.size();
+    }
+    
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.write((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.write((int) zigZag);
+    }
+    
+    private static long readSigned(byte[] bytes, int[] position) {
+        long zigZag = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position[0]++];
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+}
@@ -0,0 +1,29 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.ApiQuotaUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ApiQuotaUsageRepository extends JpaRepository<ApiQuotaUsage, Long> {
+    
+    List<ApiQuotaUsage> findByUsageDate(LocalDate usageDate);
+    
+    /**
+     * Add spent units to a day's endpoint row, creating it on first use, in one statement.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO api_quota_usage (usage_date, endpoint, units, requests, last_updated) "
+            + "VALUES (?1, ?2, ?3, 1, ?4) "
+            + "ON DUPLICATE KEY UPDATE units = units + VALUES(units), requests = requests + 1, last_updated = VALUES(last_updated)",
+            nativeQuery = true)
+    int addUsage(LocalDate usageDate, String endpoint, long units, LocalDateTime lastUpdated);
+}
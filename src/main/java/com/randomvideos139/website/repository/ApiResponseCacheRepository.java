@@ -0,0 +1,9 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.ApiResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ApiResponseCacheRepository extends JpaRepository<ApiResponseCacheEntry, String> {
+}
@@ -0,0 +1,12 @@
+package com.randomvideos139.website.repository;
+
+/**
+ * Key and stored content fingerprint of a row; enough for the sync to decide what to write without
+ * loading whole entities.
+ */
+public interface ContentFingerprintView {
+
+    String getId();
+
+    String getContentFingerprint();
+}
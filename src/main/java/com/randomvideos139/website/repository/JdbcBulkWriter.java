@@ -0,0 +1,117 @@
+package com.randomvideos139.website.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes rows as multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statements and deletes keys with
+ * chunked {@code IN} lists, so a sync costs one round-trip per batch instead of a select plus a write per row.
+ */
+class JdbcBulkWriter<T> {
+
+    /**
+     * Binds one row's values starting at the given 1-based parameter index.
+     */
+    interface RowBinder<T> {
+        void bind(PreparedStatement ps, int firstIndex, T row) throws SQLException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String keyColumn;
+    private final int columnCount;
+    private final String insertPrefix;
+    private final String upsertSuffix;
+    private final String rowPlaceholders;
+    private final RowBinder<T> binder;
+
+    JdbcBulkWriter(JdbcTemplate jdbcTemplate, String table, String keyColumn, List<String> columns,
+                   List<String> updateAssignments, RowBinder<T> binder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.columnCount = columns.size();
+        this.insertPrefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.upsertSuffix = " ON DUPLICATE KEY UPDATE " + String.join(", ", updateAssignments);
+        this.rowPlaceholders = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        this.binder = binder;
+    }
+
+    int upsert(Collection<T> rows, int batchSize) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int written = 0;
+        for (List<T> batch : partition(rows, batchSize)) {
+            jdbcTemplate.update(upsertSql(batch.size()), ps -> {
+                int index = 1;
+                for (T row : batch) {
+                    binder.bind(ps, index, row);
+                    index += columnCount;
+                }
+            });
+            written += batch.size();
+        }
+        return written;
+    }
+
+    int deleteByKeys(Collection<String> keys, int batchSize) {
+        return deleteByKeys(table, keyColumn, keys, batchSize);
+    }
+
+    int deleteByKeys(String fromTable, String column, Collection<String> keys, int batchSize) {
+        int deleted = 0;
+        for (List<String> batch : partition(keys, batchSize)) {
+            String sql = "DELETE FROM " + fromTable + " WHERE " + column + " IN ("
+                    + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+            deleted += jdbcTemplate.update(sql, batch.toArray());
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete the given keys among the rows whose {@code scopeColumn} is {@code scopeValue}, e.g. some members
+     * of one playlist.
+     */
+    int deleteByKeysWithin(String scopeColumn, String scopeValue, Collection<String> keys, int batchSize) {
+        int deleted = 0;
+        for (List<String> batch : partition(keys, batchSize)) {
+            String sql = "DELETE FROM " + table + " WHERE " + scopeColumn + " = ? AND " + keyColumn + " IN ("
+                    + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            args.add(scopeValue);
+            args.addAll(batch);
+            deleted += jdbcTemplate.update(sql, args.toArray());
+        }
+        return deleted;
+    }
+
+    private String upsertSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(insertPrefix.length() + upsertSuffix.length()
+                + rowCount * (rowPlaceholders.length() + 2));
+        sql.append(insertPrefix);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholders);
+        }
+        return sql.append(upsertSuffix).toString();
+    }
+
+    static <E> List<List<E>> partition(Collection<E> items, int batchSize) {
+        int size = Math.max(1, batchSize);
+        List<E> all = items instanceof List ? (List<E>) items : new ArrayList<>(items);
+        List<List<E>> batches = new ArrayList<>((all.size() + size - 1) / size);
+        for (int i = 0; i < all.size(); i += size) {
+            batches.add(all.subList(i, Math.min(all.size(), i + size)));
+        }
+        return batches;
+    }
+}
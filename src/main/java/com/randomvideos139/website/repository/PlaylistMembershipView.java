@@ -0,0 +1,14 @@
+package com.randomvideos139.website.repository;
+
+/**
+ * Item count and the playlist ETag its stored membership was read at; the sync re-reads the members of a
+ * playlist only when either differs from what the API now reports.
+ */
+public interface PlaylistMembershipView {
+
+    String getId();
+
+    Integer getItemCount();
+
+    String getMembershipEtag();
+}
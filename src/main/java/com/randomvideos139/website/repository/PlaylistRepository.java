@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface PlaylistRepository extends JpaRepository<Playlist, String> {
+public interface PlaylistRepository extends JpaRepository<Playlist, String>, PlaylistRepositoryCustom {
     
     /**
      * Find playlists by channel ID
@@ -35,6 +35,18 @@ public interface PlaylistRepository extends JpaRepository<Playlist, String> {
     @Query("SELECT p FROM Playlist p WHERE p.lastUpdated < :cutoffTime")
     List<Playlist> findPlaylistsNeedingUpdate(@Param("cutoffTime") LocalDateTime cutoffTime);
     
+    /**
+     * Playlist IDs with their stored content fingerprint, used by the sync to detect changes
+     */
+    @Query("SELECT p.playlistId AS id, p.contentFingerprint AS contentFingerprint FROM Playlist p")
+    List<ContentFingerprintView> findAllContentFingerprints();
+    
+    /**
+     * Playlist IDs with their stored item count and membership ETag, used by the sync to detect membership changes
+     */
+    @Query("SELECT p.playlistId AS id, p.itemCount AS itemCount, p.membershipEtag AS membershipEtag FROM Playlist p")
+    List<PlaylistMembershipView> findAllMembershipStates();
+    
     /**
      * Count playlists by channel ID
      */
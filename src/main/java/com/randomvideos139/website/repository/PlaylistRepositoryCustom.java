@@ -0,0 +1,33 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.Playlist;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Bulk persistence path used by the sync, bypassing the per-row merge of {@code save()}.
+ */
+public interface PlaylistRepositoryCustom {
+
+    /**
+     * Insert or update the given playlists with multi-row upserts. Playlist membership is not written.
+     */
+    int bulkUpsert(Collection<Playlist> playlists);
+
+    /**
+     * Delete playlists (and their membership rows) by ID in batches.
+     */
+    int bulkDelete(Collection<String> playlistIds);
+
+    /**
+     * The stored member video IDs of a playlist.
+     */
+    Set<String> findVideoIds(String playlistId);
+
+    /**
+     * Apply a membership diff in batches (insert {@code added}, delete {@code removed}) and record the playlist
+     * ETag the members were read at. Returns the number of membership rows written.
+     */
+    int updateMembership(String playlistId, Collection<String> added, Collection<String> removed, String membershipEtag);
+}
@@ -0,0 +1,93 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.Playlist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PlaylistRepositoryImpl implements PlaylistRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcBulkWriter<Playlist> writer;
+    // Rows are {playlist ID, video ID} pairs of the membership table.
+    private final JdbcBulkWriter<String[]> membershipWriter;
+
+    @Value("${sync.persistence.batch-size:500}")
+    private int batchSize;
+
+    public PlaylistRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = new JdbcBulkWriter<>(jdbcTemplate, "playlists", "playlist_id",
+                Arrays.asList("playlist_id", "title", "description", "published_at", "channel_id", "thumbnail_url",
+                        "item_count", "privacy_status", "content_fingerprint", "last_updated"),
+                Arrays.asList("title = VALUES(title)",
+                        "description = VALUES(description)",
+                        "published_at = VALUES(published_at)",
+                        "channel_id = VALUES(channel_id)",
+                        "thumbnail_url = VALUES(thumbnail_url)",
+                        "item_count = VALUES(item_count)",
+                        "privacy_status = COALESCE(VALUES(privacy_status), privacy_status)",
+                        "content_fingerprint = VALUES(content_fingerprint)",
+                        "last_updated = VALUES(last_updated)"),
+                (ps, i, playlist) -> {
+                    ps.setString(i, playlist.getPlaylistId());
+                    ps.setString(i + 1, playlist.getTitle());
+                    ps.setString(i + 2, playlist.getDescription());
+                    ps.setObject(i + 3, playlist.getPublishedAt());
+                    ps.setString(i + 4, playlist.getChannelId());
+                    ps.setString(i + 5, playlist.getThumbnailUrl());
+                    ps.setObject(i + 6, playlist.getItemCount());
+                    ps.setString(i + 7, playlist.getPrivacyStatus());
+                    ps.setString(i + 8, playlist.getContentFingerprint());
+                    ps.setObject(i + 9, playlist.getLastUpdated());
+                });
+        this.membershipWriter = new JdbcBulkWriter<>(jdbcTemplate, "playlist_video_ids", "video_id",
+                Arrays.asList("playlist_id", "video_id"),
+                Arrays.asList("video_id = VALUES(video_id)"),
+                (ps, i, member) -> {
+                    ps.setString(i, member[0]);
+                    ps.setString(i + 1, member[1]);
+                });
+    }
+
+    @Override
+    public int bulkUpsert(Collection<Playlist> playlists) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Playlist playlist : playlists) {
+            playlist.setLastUpdated(now);
+        }
+        return writer.upsert(playlists, batchSize);
+    }
+
+    @Override
+    public int bulkDelete(Collection<String> playlistIds) {
+        // The membership table has no cascading foreign key when the schema is generated by Hibernate.
+        writer.deleteByKeys("playlist_video_ids", "playlist_id", playlistIds, batchSize);
+        return writer.deleteByKeys(playlistIds, batchSize);
+    }
+
+    @Override
+    public Set<String> findVideoIds(String playlistId) {
+        return new LinkedHashSet<>(jdbcTemplate.queryForList(
+                "SELECT video_id FROM playlist_video_ids WHERE playlist_id = ?", String.class, playlistId));
+    }
+
+    @Override
+    public int updateMembership(String playlistId, Collection<String> added, Collection<String> removed,
+                                String membershipEtag) {
+        int written = membershipWriter.deleteByKeysWithin("playlist_id", playlistId, removed, batchSize);
+        List<String[]> rows = added.stream()
+                .map(videoId -> new String[]{playlistId, videoId})
+                .collect(Collectors.toList());
+        written += membershipWriter.upsert(rows, batchSize);
+        jdbcTemplate.update("UPDATE playlists SET membership_etag = ? WHERE playlist_id = ?", membershipEtag, playlistId);
+        return written;
+    }
+}
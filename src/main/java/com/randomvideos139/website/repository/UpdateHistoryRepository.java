@@ -14,7 +14,7 @@ public interface UpdateHistoryRepository extends JpaRepository<UpdateHistory, Lo
     
     List<UpdateHistory> findByUpdateTypeOrderByUpdateTimestampDesc(String updateType);
     
-    @Query("SELECT u FROM UpdateHistory u WHERE u.updateType = ?1 AND u.status = 'SUCCESS' ORDER BY u.updateTimestamp DESC")
+    @Query("SELECT u FROM UpdateHistory u WHERE u.updateType = ?1 AND u.status = 'SUCCESS' ORDER BY u.updateTimestamp DESC LIMIT 1")
     Optional<UpdateHistory> findLastSuccessfulUpdate(String updateType);
     
     @Query("SELECT u FROM UpdateHistory u ORDER BY u.updateTimestamp DESC")
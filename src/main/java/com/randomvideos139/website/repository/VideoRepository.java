@@ -10,10 +10,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface VideoRepository extends JpaRepository<Video, String> {
+public interface VideoRepository extends JpaRepository<Video, String>, VideoRepositoryCustom {
     
     /**
      * Find videos by channel ID
@@ -42,6 +43,27 @@ public interface VideoRepository extends JpaRepository<Video, String> {
      */
     List<Video> findByChannelIdAndIsPopularTrueOrderByViewCountDesc(String channelId);
     
+    /**
+     * Videos flagged by the ranking, in the order of each ranking
+     */
+    List<Video> findByIsLatestTrueOrderByPublishedAtDesc();
+    
+    List<Video> findByIsPopularTrueOrderByViewCountDesc();
+    
+    List<Video> findByIsTrendingTrueOrderByTrendingScoreDesc();
+    
+    /**
+     * IDs of the most recently published videos; an index scan of published_at
+     */
+    @Query("SELECT v.videoId FROM Video v ORDER BY v.publishedAt DESC")
+    List<String> findVideoIdsByPublishedAtDesc(Pageable pageable);
+    
+    /**
+     * IDs of the most viewed videos; an index scan of view_count
+     */
+    @Query("SELECT v.videoId FROM Video v ORDER BY v.viewCount DESC")
+    List<String> findVideoIdsByViewCountDesc(Pageable pageable);
+    
     /**
      * Find videos published after a certain date
      */
@@ -53,6 +75,29 @@ public interface VideoRepository extends JpaRepository<Video, String> {
     @Query("SELECT v FROM Video v WHERE v.lastUpdated < :cutoffTime")
     List<Video> findVideosNeedingUpdate(@Param("cutoffTime") LocalDateTime cutoffTime);
     
+    /**
+     * Find videos published in [publishedFrom, publishedTo) whose statistics are older than the cutoff,
+     * stalest first
+     */
+    @Query("SELECT v FROM Video v WHERE v.lastUpdated < :cutoffTime "
+            + "AND v.publishedAt >= :publishedFrom AND v.publishedAt < :publishedTo ORDER BY v.lastUpdated ASC")
+    List<Video> findVideosNeedingUpdate(@Param("cutoffTime") LocalDateTime cutoffTime,
+                                        @Param("publishedFrom") LocalDateTime publishedFrom,
+                                        @Param("publishedTo") LocalDateTime publishedTo,
+                                        Pageable pageable);
+    
+    /**
+     * All stored video IDs
+     */
+    @Query("SELECT v.videoId FROM Video v")
+    List<String> findAllVideoIds();
+    
+    /**
+     * Stored content fingerprints for the given video IDs
+     */
+    @Query("SELECT v.videoId AS id, v.contentFingerprint AS contentFingerprint FROM Video v WHERE v.videoId IN :videoIds")
+    List<ContentFingerprintView> findContentFingerprintsByVideoIdIn(@Param("videoIds") Collection<String> videoIds);
+    
     /**
      * Count videos by channel ID
      */
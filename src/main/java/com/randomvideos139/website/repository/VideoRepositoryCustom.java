@@ -0,0 +1,35 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.Video;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Bulk persistence path used by the sync, bypassing the per-row merge of {@code save()}.
+ */
+public interface VideoRepositoryCustom {
+
+    /**
+     * Insert or update the given videos with multi-row upserts.
+     * The latest/popular flags of existing rows are left untouched.
+     */
+    int bulkUpsert(Collection<Video> videos);
+
+    /**
+     * Update only the statistics, content fingerprint and last-updated time of existing videos with
+     * batched single-row updates. Rows that do not exist are ignored.
+     */
+    int bulkUpdateStatistics(Collection<Video> videos);
+
+    /**
+     * Set the latest, popular and trending flags (and trending scores) to exactly the given videos, and clear
+     * them everywhere else, in one statement that only touches flagged rows.
+     */
+    int updateRankingFlags(Collection<String> latestIds, Collection<String> popularIds, Map<String, Double> trendingScores);
+
+    /**
+     * Delete videos (and their statistics history) by ID in batches.
+     */
+    int bulkDelete(Collection<String> videoIds);
+}
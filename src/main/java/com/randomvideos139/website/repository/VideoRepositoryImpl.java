@@ -0,0 +1,141 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.Video;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class VideoRepositoryImpl implements VideoRepositoryCustom {
+
+    private static final String UPDATE_STATISTICS_SQL = "UPDATE videos SET view_count = ?, like_count = ?, "
+            + "comment_count = ?, content_fingerprint = ?, last_updated = ? WHERE video_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcBulkWriter<Video> writer;
+
+    @Value("${sync.persistence.batch-size:500}")
+    private int batchSize;
+
+    public VideoRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = new JdbcBulkWriter<>(jdbcTemplate, "videos", "video_id",
+                Arrays.asList("video_id", "title", "description", "published_at", "duration", "duration_seconds",
+                        "view_count", "like_count", "comment_count", "thumbnail_url", "channel_id", "category_id",
+                        "tags", "content_fingerprint", "last_updated"),
+                Arrays.asList("title = VALUES(title)",
+                        "description = VALUES(description)",
+                        "published_at = VALUES(published_at)",
+                        "thumbnail_url = VALUES(thumbnail_url)",
+                        "channel_id = VALUES(channel_id)",
+                        // Details come from the enrichment call; keep the stored values if it failed.
+                        "duration = COALESCE(VALUES(duration), duration)",
+                        "duration_seconds = COALESCE(VALUES(duration_seconds), duration_seconds)",
+                        "view_count = COALESCE(VALUES(view_count), view_count)",
+                        "like_count = COALESCE(VALUES(like_count), like_count)",
+                        "comment_count = COALESCE(VALUES(comment_count), comment_count)",
+                        "category_id = COALESCE(VALUES(category_id), category_id)",
+                        "tags = COALESCE(VALUES(tags), tags)",
+                        "content_fingerprint = VALUES(content_fingerprint)",
+                        "last_updated = VALUES(last_updated)"),
+                (ps, i, video) -> {
+                    ps.setString(i, video.getVideoId());
+                    ps.setString(i + 1, video.getTitle());
+                    ps.setString(i + 2, video.getDescription());
+                    ps.setObject(i + 3, video.getPublishedAt());
+                    ps.setString(i + 4, video.getDuration());
+                    ps.setObject(i + 5, video.getDurationSeconds());
+                    ps.setObject(i + 6, video.getViewCount());
+                    ps.setObject(i + 7, video.getLikeCount());
+                    ps.setObject(i + 8, video.getCommentCount());
+                    ps.setString(i + 9, video.getThumbnailUrl());
+                    ps.setString(i + 10, video.getChannelId());
+                    ps.setString(i + 11, video.getCategoryId());
+                    ps.setString(i + 12, video.getTags());
+                    ps.setString(i + 13, video.getContentFingerprint());
+                    ps.setObject(i + 14, video.getLastUpdated());
+                });
+    }
+
+    @Override
+    public int bulkUpsert(Collection<Video> videos) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Video video : videos) {
+            video.setLastUpdated(now);
+        }
+        return writer.upsert(videos, batchSize);
+    }
+
+    @Override
+    public int bulkUpdateStatistics(Collection<Video> videos) {
+        if (videos.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_STATISTICS_SQL, videos, batchSize, (ps, video) -> {
+            video.setLastUpdated(now);
+            ps.setObject(1, video.getViewCount());
+            ps.setObject(2, video.getLikeCount());
+            ps.setObject(3, video.getCommentCount());
+            ps.setString(4, video.getContentFingerprint());
+            ps.setObject(5, now);
+            ps.setString(6, video.getVideoId());
+        });
+        return Arrays.stream(updated).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+
+    @Override
+    public int updateRankingFlags(Collection<String> latestIds, Collection<String> popularIds,
+                                  Map<String, Double> trendingScores) {
+        Set<String> flagged = new LinkedHashSet<>(latestIds);
+        flagged.addAll(popularIds);
+        flagged.addAll(trendingScores.keySet());
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("UPDATE videos SET is_latest = ").append(inList(latestIds, args))
+                .append(", is_popular = ").append(inList(popularIds, args))
+                .append(", is_trending = ").append(inList(trendingScores.keySet(), args))
+                .append(", trending_score = ");
+        if (trendingScores.isEmpty()) {
+            sql.append("NULL");
+        } else {
+            sql.append("CASE video_id");
+            trendingScores.forEach((videoId, score) -> {
+                sql.append(" WHEN ? THEN ?");
+                args.add(videoId);
+                args.add(score);
+            });
+            sql.append(" ELSE NULL END");
+        }
+        // Rows flagged now or before; every other row already has all flags cleared.
+        sql.append(" WHERE is_latest = TRUE OR is_popular = TRUE OR is_trending = TRUE");
+        if (!flagged.isEmpty()) {
+            sql.append(" OR ").append(inList(flagged, args));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * {@code video_id IN (?, ...)} with the IDs added to {@code args}, or {@code FALSE} when there are none.
+     */
+    private static String inList(Collection<String> videoIds, List<Object> args) {
+        if (videoIds.isEmpty()) {
+            return "FALSE";
+        }
+        args.addAll(videoIds);
+        return "video_id IN (" + String.join(", ", Collections.nCopies(videoIds.size(), "?")) + ")";
+    }
+
+    @Override
+    public int bulkDelete(Collection<String> videoIds) {
+        writer.deleteByKeys("video_statistics_blocks", "video_id", videoIds, batchSize);
+        return writer.deleteByKeys(videoIds, batchSize);
+    }
+}
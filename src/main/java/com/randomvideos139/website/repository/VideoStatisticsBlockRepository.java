@@ -0,0 +1,29 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.VideoStatisticsBlock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VideoStatisticsBlockRepository extends JpaRepository<VideoStatisticsBlock, Long>, VideoStatisticsBlockRepositoryCustom {
+    
+    /**
+     * Blocks of one video, of any resolution, that overlap [from, to); a range scan of the unique key
+     */
+    @Query("SELECT b FROM VideoStatisticsBlock b WHERE b.videoId = :videoId AND b.blockStart < :to AND b.blockEnd > :from "
+            + "ORDER BY b.blockStart")
+    List<VideoStatisticsBlock> findOverlapping(@Param("videoId") String videoId, @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+    
+    /**
+     * Blocks of a resolution that ended by the given time, oldest first, for downsampling
+     */
+    List<VideoStatisticsBlock> findByResolutionAndBlockEndLessThanEqualOrderByBlockStartAsc(
+            VideoStatisticsBlock.Resolution resolution, LocalDateTime endedBy, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.VideoStatisticsBlock;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk access used when samples are written, reading and writing whole blocks without the persistence context.
+ */
+public interface VideoStatisticsBlockRepositoryCustom {
+
+    /**
+     * The stored blocks of the given videos at one resolution and block start, as detached entities.
+     */
+    List<VideoStatisticsBlock> findBlocks(VideoStatisticsBlock.Resolution resolution, LocalDateTime blockStart,
+                                          Collection<String> videoIds);
+
+    /**
+     * Stream every block of a resolution that ends after {@code endedAfter} to {@code consumer}, one row at a
+     * time, without holding them all in memory.
+     */
+    void forEachBlockEndingAfter(VideoStatisticsBlock.Resolution resolution, LocalDateTime endedAfter,
+                                 Consumer<VideoStatisticsBlock> consumer);
+
+    /**
+     * Insert the given blocks or replace the samples of the stored ones with multi-row upserts.
+     */
+    int bulkUpsert(Collection<VideoStatisticsBlock> blocks);
+}
@@ -0,0 +1,83 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.VideoStatisticsBlock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class VideoStatisticsBlockRepositoryImpl implements VideoStatisticsBlockRepositoryCustom {
+
+    private static final RowMapper<VideoStatisticsBlock> BLOCK_MAPPER = (rs, rowNum) -> {
+        VideoStatisticsBlock block = new VideoStatisticsBlock();
+        block.setId(rs.getLong("id"));
+        block.setVideoId(rs.getString("video_id"));
+        block.setResolution(VideoStatisticsBlock.Resolution.valueOf(rs.getString("resolution")));
+        block.setBlockStart(rs.getObject("block_start", LocalDateTime.class));
+        block.setBlockEnd(rs.getObject("block_end", LocalDateTime.class));
+        block.setSampleCount(rs.getInt("sample_count"));
+        block.setSamples(rs.getBytes("samples"));
+        return block;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcBulkWriter<VideoStatisticsBlock> writer;
+
+    @Value("${sync.persistence.batch-size:500}")
+    private int batchSize;
+
+    public VideoStatisticsBlockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = new JdbcBulkWriter<>(jdbcTemplate, "video_statistics_blocks", "id",
+                Arrays.asList("video_id", "resolution", "block_start", "block_end", "sample_count", "samples"),
+                Arrays.asList("sample_count = VALUES(sample_count)",
+                        "samples = VALUES(samples)"),
+                (ps, i, block) -> {
+                    ps.setString(i, block.getVideoId());
+                    ps.setString(i + 1, block.getResolution().name());
+                    ps.setObject(i + 2, block.getBlockStart());
+                    ps.setObject(i + 3, block.getBlockEnd());
+                    ps.setInt(i + 4, block.getSampleCount());
+                    ps.setBytes(i + 5, block.getSamples());
+                });
+    }
+
+    @Override
+    public List<VideoStatisticsBlock> findBlocks(VideoStatisticsBlock.Resolution resolution, LocalDateTime blockStart,
+                                                 Collection<String> videoIds) {
+        List<VideoStatisticsBlock> blocks = new ArrayList<>(videoIds.size());
+        for (List<String> batch : JdbcBulkWriter.partition(videoIds, batchSize)) {
+            String sql = "SELECT id, video_id, resolution, block_start, block_end, sample_count, samples "
+                    + "FROM video_statistics_blocks WHERE block_start = ? AND resolution = ? AND video_id IN ("
+                    + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+            List<Object> args = new ArrayList<>(batch.size() + 2);
+            args.add(blockStart);
+            args.add(resolution.name());
+            args.addAll(batch);
+            blocks.addAll(jdbcTemplate.query(sql, BLOCK_MAPPER, args.toArray()));
+        }
+        return blocks;
+    }
+
+    @Override
+    public void forEachBlockEndingAfter(VideoStatisticsBlock.Resolution resolution, LocalDateTime endedAfter,
+                                        Consumer<VideoStatisticsBlock> consumer) {
+        jdbcTemplate.query("SELECT id, video_id, resolution, block_start, block_end, sample_count, samples "
+                        + "FROM video_statistics_blocks WHERE resolution = ? AND block_end > ?",
+                rs -> {
+                    consumer.accept(BLOCK_MAPPER.mapRow(rs, 0));
+                }, resolution.name(), endedAfter);
+    }
+
+    @Override
+    public int bulkUpsert(Collection<VideoStatisticsBlock> blocks) {
+        return writer.upsert(blocks, batchSize);
+    }
+}
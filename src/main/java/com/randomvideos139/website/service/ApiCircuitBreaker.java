@@ -0,0 +1,166 @@
+package com.randomvideos139.website.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker for the YouTube Data API, the outermost interceptor of its RestTemplate, so it sees each
+ * call's final outcome after {@link ApiRetryInterceptor} has retried it and rejects calls before any quota
+ * is charged for them. After {@code youtube.api.circuit-breaker.failure-threshold} consecutive failed
+ * calls (I/O errors, 5xx and 429) it opens and rejects calls without sending them for
+ * {@code youtube.api.circuit-breaker.open-duration}; then one trial call is let through, which closes it
+ * on success and reopens it on failure. A rejected call fails with {@link CircuitOpenException}, which
+ * makes the running sync abort rather than carry on with whatever it had read so far.
+ *
+ * Metrics: {@code youtube.api.circuit.state} (0 closed, 1 open, 2 half-open) and
+ * {@code youtube.api.circuit.rejected}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ApiCircuitBreaker implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @Value("${youtube.api.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${youtube.api.circuit-breaker.open-duration:2m}")
+    private Duration openDuration;
+
+    private Clock clock = Clock.systemUTC();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialInFlight;
+    private Counter rejectedCalls;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        acquirePermission();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            recordFailure();
+            throw e;
+        } catch (RuntimeException e) {
+            // Refused before it was sent (e.g. no quota left): says nothing about the API.
+            releasePermission();
+            throw e;
+        }
+        if (isFailure(response.getStatusCode())) {
+            recordFailure();
+        } else {
+            recordSuccess();
+        }
+        return response;
+    }
+
+    /**
+     * Server errors and throttling count against the API; other client errors mean it answered.
+     */
+    static boolean isFailure(HttpStatusCode status) {
+        return status.is5xxServerError() || status.value() == 429;
+    }
+
+    /**
+     * Ask to send a call; rejects it while the circuit is open or its half-open trial is still running.
+     *
+     * @throws CircuitOpenException if the call must not be sent
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialInFlight)) {
+            if (rejectedCalls != null) {
+                rejectedCalls.increment();
+            }
+            throw new CircuitOpenException("YouTube API circuit breaker is open after " + consecutiveFailures
+                    + " consecutive failures; retrying after " + openedAt.plus(openDuration));
+        }
+        if (state == State.HALF_OPEN) {
+            trialInFlight = true;
+        }
+    }
+
+    public synchronized void releasePermission() {
+        trialInFlight = false;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = clock.instant();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void transitionTo(State newState) {
+        if (newState == State.OPEN) {
+            logger.warn("YouTube API circuit breaker opened after {} consecutive failures; rejecting calls for {}.",
+                    consecutiveFailures, openDuration);
+        } else {
+            logger.info("YouTube API circuit breaker is now {}.", newState);
+        }
+        state = newState;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("youtube.api.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(registry);
+        rejectedCalls = Counter.builder("youtube.api.circuit.rejected")
+                .description("YouTube API calls rejected by the open circuit breaker")
+                .register(registry);
+    }
+
+    /**
+     * Thrown instead of sending a call while the circuit is open.
+     */
+    public static class CircuitOpenException extends RestClientException {
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+}
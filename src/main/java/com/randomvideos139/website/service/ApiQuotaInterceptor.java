@@ -0,0 +1,86 @@
+package com.randomvideos139.website.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Charges every YouTube API request against {@link ApiQuotaService} before it is sent, and notes the
+ * outcome: a 403 whose error reason is {@code quotaExceeded} or {@code dailyLimitExceeded} marks the
+ * quota as spent for the day, any successful answer counts as proof of connectivity. Retries sent by
+ * {@link ApiRetryInterceptor} are charged there.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ApiQuotaInterceptor implements ClientHttpRequestInterceptor {
+
+    @Autowired
+    private ApiQuotaService apiQuotaService;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        apiQuotaService.charge(YouTubeApiEndpoint.fromRequestPath(request.getURI().getPath()));
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().value() == 403) {
+            // The error body is needed to tell quota errors from other 403s; keep a copy for the caller.
+            byte[] errorBody = response.getBody().readAllBytes();
+            String error = new String(errorBody, StandardCharsets.UTF_8);
+            if (error.contains("quotaExceeded") || error.contains("dailyLimitExceeded")) {
+                apiQuotaService.markExhausted();
+            }
+            return new BufferedResponse(response, errorBody);
+        }
+        if (!response.getStatusCode().isError()) {
+            apiQuotaService.recordSuccessfulResponse();
+        }
+        return response;
+    }
+
+    private static class BufferedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final byte[] body;
+
+        BufferedResponse(ClientHttpResponse delegate, byte[] body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
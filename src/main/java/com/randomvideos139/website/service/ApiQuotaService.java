@@ -0,0 +1,260 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.ApiQuotaUsage;
+import com.randomvideos139.website.repository.ApiQuotaUsageRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts for the YouTube Data API daily quota. Every request is charged its endpoint's unit cost before
+ * it is sent, and refused with {@link QuotaExhaustedException} once the day's budget is spent or the API
+ * has reported the quota as exceeded. Spend is persisted per endpoint and day, so a restart continues
+ * from the stored total; the quota day starts at midnight in {@code youtube.api.quota.zone}. Requests are
+ * also paced by a token bucket of {@code youtube.api.rate-limit.requests-per-second}.
+ *
+ * Metrics: {@code youtube.api.quota.remaining}, {@code youtube.api.quota.used} and
+ * {@code youtube.api.requests} (both per endpoint).
+ */
+@Service
+public class ApiQuotaService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiQuotaService.class);
+
+    @Autowired
+    private ApiQuotaUsageRepository apiQuotaUsageRepository;
+
+    @Value("${youtube.api.quota.daily-limit:10000}")
+    private long dailyLimit;
+
+    // YouTube resets the quota at midnight Pacific time.
+    @Value("${youtube.api.quota.zone:America/Los_Angeles}")
+    private ZoneId quotaZone;
+
+    @Value("${youtube.api.rate-limit.requests-per-second:10}")
+    private double requestsPerSecond;
+
+    @Value("${youtube.api.rate-limit.burst:10}")
+    private int burst;
+
+    private Clock clock = Clock.systemUTC();
+    private volatile TokenBucket rateLimiter;
+
+    private LocalDate quotaDay;
+    private final Map<YouTubeApiEndpoint, Long> unitsByEndpoint = new EnumMap<>(YouTubeApiEndpoint.class);
+    private final Map<YouTubeApiEndpoint, Long> requestsByEndpoint = new EnumMap<>(YouTubeApiEndpoint.class);
+    // Requests of earlier quota days in this process, so the request counters never go backwards.
+    private final Map<YouTubeApiEndpoint, Long> requestsBeforeToday = new EnumMap<>(YouTubeApiEndpoint.class);
+    private boolean exhausted;
+    private volatile Instant lastSuccessfulResponse;
+    private final AtomicLong refusedRequests = new AtomicLong();
+
+    /**
+     * Wait for the rate limiter, then charge one request to the endpoint.
+     *
+     * @throws QuotaExhaustedException if the request would exceed the remaining daily quota
+     */
+    public void charge(YouTubeApiEndpoint endpoint) {
+        rateLimiter().acquire();
+        LocalDate day;
+        synchronized (this) {
+            day = currentQuotaDay();
+            long used = usedUnits();
+            if (exhausted || used + endpoint.getCost() > dailyLimit) {
+                refusedRequests.incrementAndGet();
+                throw new QuotaExhaustedException(String.format(
+                        "YouTube API quota exhausted for %s (%d of %d units used); refusing %s request",
+                        day, used, dailyLimit, endpoint.getPath()));
+            }
+            unitsByEndpoint.merge(endpoint, (long) endpoint.getCost(), Long::sum);
+            requestsByEndpoint.merge(endpoint, 1L, Long::sum);
+        }
+        try {
+            apiQuotaUsageRepository.addUsage(day, endpoint.getPath(), endpoint.getCost(), LocalDateTime.now(clock));
+        } catch (DataAccessException e) {
+            // The in-memory total still holds; only a restart today would undercount.
+            logger.warn("Could not persist API quota usage for {}: {}", endpoint.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Record that the API rejected a request because the daily quota is exceeded; no further requests are
+     * sent until the quota day rolls over.
+     */
+    public synchronized void markExhausted() {
+        currentQuotaDay();
+        refusedRequests.incrementAndGet();
+        if (!exhausted) {
+            logger.warn("YouTube API reported the daily quota as exceeded after {} units were counted.", usedUnits());
+            exhausted = true;
+        }
+    }
+
+    /**
+     * Requests refused for lack of quota since startup, whether refused here or by the API. A caller that
+     * compares this before and after a unit of work knows whether the work saw every page it asked for.
+     */
+    public long getRefusedRequestCount() {
+        return refusedRequests.get();
+    }
+
+    public void recordSuccessfulResponse() {
+        lastSuccessfulResponse = clock.instant();
+    }
+
+    /**
+     * Whether any API request succeeded within the given period, which is as good as a connectivity check.
+     */
+    public boolean hasSucceededWithin(Duration period) {
+        Instant last = lastSuccessfulResponse;
+        return last != null && last.isAfter(clock.instant().minus(period));
+    }
+
+    public synchronized boolean isExhausted() {
+        currentQuotaDay();
+        return exhausted || usedUnits() >= dailyLimit;
+    }
+
+    public synchronized long getRemainingUnits() {
+        currentQuotaDay();
+        return exhausted ? 0 : Math.max(0, dailyLimit - usedUnits());
+    }
+
+    public synchronized long getUsedUnits() {
+        currentQuotaDay();
+        return usedUnits();
+    }
+
+    public long getDailyLimit() {
+        return dailyLimit;
+    }
+
+    public synchronized LocalDate getQuotaDay() {
+        return currentQuotaDay();
+    }
+
+    /**
+     * Units spent today per endpoint path, including endpoints not called yet.
+     */
+    public synchronized Map<String, Long> getUnitsByEndpoint() {
+        currentQuotaDay();
+        Map<String, Long> units = new LinkedHashMap<>();
+        for (YouTubeApiEndpoint endpoint : YouTubeApiEndpoint.values()) {
+            units.put(endpoint.getPath(), unitsByEndpoint.getOrDefault(endpoint, 0L));
+        }
+        return units;
+    }
+
+    public synchronized Map<String, Long> getRequestsByEndpoint() {
+        currentQuotaDay();
+        Map<String, Long> requests = new LinkedHashMap<>();
+        for (YouTubeApiEndpoint endpoint : YouTubeApiEndpoint.values()) {
+            requests.put(endpoint.getPath(), requestsByEndpoint.getOrDefault(endpoint, 0L));
+        }
+        return requests;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("youtube.api.quota.remaining", this, ApiQuotaService::getRemainingUnits)
+                .description("YouTube Data API quota units left today")
+                .baseUnit("units")
+                .register(registry);
+        for (YouTubeApiEndpoint endpoint : YouTubeApiEndpoint.values()) {
+            Gauge.builder("youtube.api.quota.used", this, service -> service.getUnitsByEndpoint().get(endpoint.getPath()))
+                    .description("YouTube Data API quota units spent today")
+                    .baseUnit("units")
+                    .tag("endpoint", endpoint.getPath())
+                    .register(registry);
+            FunctionCounter.builder("youtube.api.requests", this, service -> service.totalRequests(endpoint))
+                    .tag("endpoint", endpoint.getPath())
+                    .register(registry);
+        }
+    }
+
+    private synchronized double totalRequests(YouTubeApiEndpoint endpoint) {
+        currentQuotaDay();
+        return requestsBeforeToday.getOrDefault(endpoint, 0L) + requestsByEndpoint.getOrDefault(endpoint, 0L);
+    }
+
+    /**
+     * Today's quota day, starting a new one (and loading what was already spent on it) when the date changed.
+     */
+    private LocalDate currentQuotaDay() {
+        LocalDate today = LocalDate.now(clock.withZone(quotaZone));
+        if (!today.equals(quotaDay)) {
+            requestsByEndpoint.forEach((endpoint, count) -> requestsBeforeToday.merge(endpoint, count, Long::sum));
+            unitsByEndpoint.clear();
+            requestsByEndpoint.clear();
+            exhausted = false;
+            quotaDay = today;
+            loadStoredUsage(today);
+        }
+        return quotaDay;
+    }
+
+    private void loadStoredUsage(LocalDate day) {
+        try {
+            for (ApiQuotaUsage usage : apiQuotaUsageRepository.findByUsageDate(day)) {
+                YouTubeApiEndpoint endpoint = YouTubeApiEndpoint.fromRequestPath(usage.getEndpoint());
+                unitsByEndpoint.merge(endpoint, usage.getUnits(), Long::sum);
+                requestsByEndpoint.merge(endpoint, usage.getRequests(), Long::sum);
+            }
+            if (!unitsByEndpoint.isEmpty()) {
+                logger.info("Resuming API quota day {} with {} units already spent.", day, usedUnits());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not load API quota usage for {}; counting from zero: {}", day, e.getMessage());
+        }
+    }
+
+    private long usedUnits() {
+        long used = 0;
+        for (long units : unitsByEndpoint.values()) {
+            used += units;
+        }
+        return used;
+    }
+
+    private TokenBucket rateLimiter() {
+        TokenBucket limiter = rateLimiter;
+        if (limiter == null) {
+            synchronized (this) {
+                if (rateLimiter == null) {
+                    rateLimiter = new TokenBucket(requestsPerSecond, Math.max(1, burst));
+                }
+                limiter = rateLimiter;
+            }
+        }
+        return limiter;
+    }
+
+    /**
+     * Thrown instead of sending a request that the remaining daily quota cannot pay for. It is a
+     * {@link RestClientException}, so callers that already stop paging on a failed request stop here too.
+     */
+    public static class QuotaExhaustedException extends RestClientException {
+        public QuotaExhaustedException(String message) {
+            super(message);
+        }
+    }
+}
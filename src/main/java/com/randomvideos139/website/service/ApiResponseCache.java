@@ -0,0 +1,72 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.ApiResponseCacheEntry;
+import com.randomvideos139.website.repository.ApiResponseCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent ETags for conditional YouTube Data API requests. New ETags are only staged while a sync
+ * runs and become visible once the sync commits them: if the data behind a page failed to be written,
+ * the next sync must download that page again rather than be told it did not change.
+ */
+@Service
+public class ApiResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiResponseCache.class);
+
+    @Autowired
+    private ApiResponseCacheRepository apiResponseCacheRepository;
+
+    @Value("${youtube.api.conditional-requests:true}")
+    private boolean enabled;
+
+    private final Map<String, ApiResponseCacheEntry> staged = new ConcurrentHashMap<>();
+
+    /**
+     * The committed entry for a request, if conditional requests are enabled and one exists.
+     */
+    public Optional<ApiResponseCacheEntry> find(String requestKey) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return apiResponseCacheRepository.findById(requestKey);
+    }
+
+    public void stage(ApiResponseCacheEntry entry) {
+        if (enabled) {
+            staged.put(entry.getRequestKey(), entry);
+        }
+    }
+
+    /**
+     * Persist all staged entries, replacing older ETags for the same requests.
+     */
+    @Transactional
+    public void commitStaged() {
+        List<ApiResponseCacheEntry> entries = new ArrayList<>(staged.values());
+        if (entries.isEmpty()) {
+            return;
+        }
+        apiResponseCacheRepository.saveAll(entries);
+        entries.forEach(entry -> staged.remove(entry.getRequestKey(), entry));
+        logger.info("Stored {} API response ETags.", entries.size());
+    }
+
+    public void discardStaged() {
+        if (!staged.isEmpty()) {
+            logger.info("Discarding {} API response ETags from an unsuccessful sync.", staged.size());
+            staged.clear();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.randomvideos139.website.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries idempotent GETs to the YouTube Data API that failed with an I/O error, a 5xx or 429, up to
+ * {@code youtube.api.retry.max-attempts} attempts in all. Waits use exponential backoff with full jitter
+ * (a random delay up to {@code initial-backoff * 2^(attempt - 1)}, capped at {@code max-backoff}), or
+ * the server's Retry-After when it asks for longer; a Retry-After beyond {@code max-retry-after} is not
+ * waited for. The last failure is returned as is, so callers see the same errors as without retries.
+ *
+ * It is the innermost interceptor: re-executing the request from here sends it straight to the HTTP client,
+ * so each retry is charged to the quota here. Metric: {@code youtube.api.retries} (per reason).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ApiRetryInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiRetryInterceptor.class);
+
+    @Autowired
+    private ApiQuotaService apiQuotaService;
+
+    @Value("${youtube.api.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${youtube.api.retry.initial-backoff:500ms}")
+    private Duration initialBackoff;
+
+    @Value("${youtube.api.retry.max-backoff:30s}")
+    private Duration maxBackoff;
+
+    @Value("${youtube.api.retry.max-retry-after:60s}")
+    private Duration maxRetryAfter;
+
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+        YouTubeApiEndpoint endpoint = YouTubeApiEndpoint.fromRequestPath(request.getURI().getPath());
+        for (int attempt = 1; ; attempt++) {
+            if (attempt > 1) {
+                apiQuotaService.charge(endpoint);
+            }
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (InterruptedIOException e) {
+                // Timeouts are retried like any other I/O error, but a thread interrupt is not.
+                if (Thread.currentThread().isInterrupted() || attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(endpoint, attempt, null, "timeout", e.getMessage());
+                continue;
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(endpoint, attempt, null, "io", e.getMessage());
+                continue;
+            }
+            if (!ApiCircuitBreaker.isFailure(response.getStatusCode()) || attempt >= maxAttempts) {
+                return response;
+            }
+            Duration retryAfter = retryAfter(response.getHeaders());
+            if (retryAfter != null && retryAfter.compareTo(maxRetryAfter) > 0) {
+                logger.warn("{} request asks to retry after {}, longer than {}. Not retrying.",
+                        endpoint.getPath(), retryAfter, maxRetryAfter);
+                return response;
+            }
+            int status = response.getStatusCode().value();
+            response.close();
+            backOff(endpoint, attempt, retryAfter, String.valueOf(status), "HTTP " + status);
+        }
+    }
+
+    private void backOff(YouTubeApiEndpoint endpoint, int attempt, Duration retryAfter, String reason, String error)
+            throws InterruptedIOException {
+        long ceilingMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        long delayMillis = ThreadLocalRandom.current().nextLong(ceilingMillis + 1);
+        if (retryAfter != null) {
+            delayMillis = Math.max(delayMillis, retryAfter.toMillis());
+        }
+        logger.warn("{} request failed ({}), attempt {} of {}. Retrying in {} ms.",
+                endpoint.getPath(), error, attempt, maxAttempts, delayMillis);
+        if (meterRegistry != null) {
+            Counter.builder("youtube.api.retries")
+                    .tag("endpoint", endpoint.getPath())
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry " + endpoint.getPath());
+        }
+    }
+
+    /**
+     * The Retry-After header as a delay, in either of its forms (seconds or an HTTP date), or null.
+     */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration delay = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+    }
+}
@@ -0,0 +1,68 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.Playlist;
+import com.randomvideos139.website.entity.Video;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 fingerprint over the fields that the sync maps from the YouTube API (snippet, statistics and
+ * contentDetails). Bookkeeping columns such as lastUpdated or the latest/popular flags are deliberately
+ * left out, so two rows with the same fingerprint carry the same API content.
+ */
+public final class ContentFingerprint {
+
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final String NULL_MARKER = "\u0000";
+
+    private ContentFingerprint() {
+    }
+
+    public static String of(Video video) {
+        StringBuilder content = new StringBuilder(256);
+        append(content, video.getVideoId());
+        append(content, video.getTitle());
+        append(content, video.getDescription());
+        append(content, video.getPublishedAt());
+        append(content, video.getChannelId());
+        append(content, video.getThumbnailUrl());
+        append(content, video.getTags());
+        append(content, video.getCategoryId());
+        append(content, video.getViewCount());
+        append(content, video.getLikeCount());
+        append(content, video.getCommentCount());
+        append(content, video.getDuration());
+        return digest(content);
+    }
+
+    public static String of(Playlist playlist) {
+        StringBuilder content = new StringBuilder(256);
+        append(content, playlist.getPlaylistId());
+        append(content, playlist.getTitle());
+        append(content, playlist.getDescription());
+        append(content, playlist.getPublishedAt());
+        append(content, playlist.getChannelId());
+        append(content, playlist.getThumbnailUrl());
+        append(content, playlist.getItemCount());
+        append(content, playlist.getPrivacyStatus());
+        return digest(content);
+    }
+
+    private static void append(StringBuilder content, Object value) {
+        content.append(value == null ? NULL_MARKER : value.toString()).append(FIELD_SEPARATOR);
+    }
+
+    private static String digest(StringBuilder content) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to ship SHA-256.
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
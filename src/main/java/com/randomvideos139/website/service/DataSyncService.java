@@ -1,38 +1,64 @@
 package com.randomvideos139.website.service;
 
+import com.randomvideos139.website.config.CacheConfig;
 import com.randomvideos139.website.dto.YouTubeChannelResponse;
 import com.randomvideos139.website.dto.YouTubeVideoResponse;
 import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubeTimeFormats;
 import com.randomvideos139.website.entity.ChannelStats;
 import com.randomvideos139.website.entity.Video;
 import com.randomvideos139.website.entity.Playlist;
 import com.randomvideos139.website.entity.UpdateHistory;
 import com.randomvideos139.website.repository.ChannelStatsRepository;
+import com.randomvideos139.website.repository.ContentFingerprintView;
 import com.randomvideos139.website.repository.VideoRepository;
+import com.randomvideos139.website.repository.PlaylistMembershipView;
 import com.randomvideos139.website.repository.PlaylistRepository;
 import com.randomvideos139.website.repository.UpdateHistoryRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.ArrayList;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-
+import java.util.stream.Stream;
+
+/**
+ * Synchronizes channel statistics, videos and playlists from the YouTube Data API.
+ * There is deliberately no transaction around a whole sync: all API calls happen first, then the
+ * resulting writes are applied in short per-chunk transactions, so no connection or row lock is held
+ * across network I/O and every completed chunk stays committed if a later one fails.
+ */
 @Service
-@Transactional
 public class DataSyncService {
 
     private static final Logger logger = LoggerFactory.getLogger(DataSyncService.class);
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
 
     @Autowired
     private YouTubeApiService youTubeApiService;
@@ -49,37 +75,146 @@ public class DataSyncService {
     @Autowired
     private UpdateHistoryRepository updateHistoryRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SyncPipeline syncPipeline;
+
+    @Autowired
+    private ApiResponseCache apiResponseCache;
+
+    @Autowired
+    private ApiQuotaService apiQuotaService;
+
+    @Autowired
+    private QuotaPlanner quotaPlanner;
+
+    @Autowired
+    private VideoStatisticsHistoryService statisticsHistoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sync.persistence.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${sync.incremental.overlap-hours:24}")
+    private long incrementalOverlapHours;
+
     @Value("${youtube.channel.id}")
     private String channelId;
 
     @Value("${youtube.channel.handle}")
     private String channelHandle;
 
+    /**
+     * Full reconcile: walks the whole catalog through the search endpoint and deletes videos and playlists
+     * that no longer exist on YouTube. Expensive in quota, so it runs rarely.
+     */
     public void syncAllData() {
-        logger.info("Starting full data synchronization...");
-        UpdateHistory updateHistory = new UpdateHistory("ALL");
+        runSync("ALL", "Full data synchronization", () -> {
+            SyncCounts totals = new SyncCounts();
+            if (syncChannelStats() != null) {
+                totals.addWritten(1);
+            }
+            totals.add(syncVideos());
+            totals.add(syncPlaylists());
+            return totals;
+        });
+    }
+
+    /**
+     * Incremental sync: only reads uploads published since the last successful sync (minus a safety
+     * overlap) from the uploads playlist, so its cost depends on how much is new rather than on catalog
+     * size. Nothing is deleted. Falls back to a full sync when there is no successful sync on record.
+     */
+    public void syncRecentData() {
+        Optional<Instant> since = lastSuccessfulSyncStart();
+        if (since.isEmpty()) {
+            logger.info("No successful synchronization on record. Running a full synchronization instead.");
+            syncAllData();
+            return;
+        }
+        runSync("INCREMENTAL", "Incremental data synchronization", () -> {
+            SyncCounts totals = new SyncCounts();
+            YouTubeChannelResponse.ChannelItem channelItem = syncChannelStats();
+            if (channelItem != null) {
+                totals.addWritten(1);
+            }
+            totals.add(syncRecentVideos(uploadsPlaylistIdOf(channelItem), since.get()));
+            totals.add(syncPlaylists());
+            return totals;
+        });
+    }
+
+    private void runSync(String updateType, String description, Supplier<SyncCounts> sync) {
+        logger.info("Starting {}...", description.toLowerCase());
+        UpdateHistory updateHistory = new UpdateHistory(updateType);
         updateHistoryRepository.save(updateHistory);
         long startTime = System.currentTimeMillis();
-        int totalRecordsUpdated = 0;
+        long refusedBefore = apiQuotaService.getRefusedRequestCount();
         try {
-            syncChannelStats();
-            totalRecordsUpdated += 1;
-            totalRecordsUpdated += syncVideos();
-            totalRecordsUpdated += syncPlaylists();
+            SyncCounts totals = sync.get();
             long durationSeconds = (System.currentTimeMillis() - startTime) / 1000;
-            updateHistory.markAsSuccess(totalRecordsUpdated, durationSeconds);
+            boolean quotaRanOut = apiQuotaService.getRefusedRequestCount() > refusedBefore;
+            if (totals.getFailed() > 0 || quotaRanOut) {
+                apiResponseCache.discardStaged();
+                updateHistory.markAsPartial(totals.getWritten(), totals.getSkipped(),
+                        quotaRanOut ? "API quota ran out before all pages were read"
+                                : totals.getFailed() + " records could not be written", durationSeconds);
+                updateHistoryRepository.save(updateHistory);
+                logger.warn("{} completed partially: {} in {} seconds", description, totals, durationSeconds);
+                return;
+            }
+            // Only now are the fetched pages known to be stored, so their ETags may be used next time.
+            apiResponseCache.commitStaged();
+            updateHistory.markAsSuccess(totals.getWritten(), totals.getSkipped(), durationSeconds);
             updateHistoryRepository.save(updateHistory);
-            logger.info("Full data synchronization completed successfully. Updated {} records in {} seconds",
-                    totalRecordsUpdated, durationSeconds);
+            logger.info("{} completed successfully. Updated {} records ({} unchanged) in {} seconds",
+                    description, totals.getWritten(), totals.getSkipped(), durationSeconds);
         } catch (Exception e) {
             long durationSeconds = (System.currentTimeMillis() - startTime) / 1000;
+            apiResponseCache.discardStaged();
             updateHistory.markAsFailed(e.getMessage(), durationSeconds);
             updateHistoryRepository.save(updateHistory);
             logger.error("A critical error occurred during data synchronization: {}", e.getMessage(), e);
+        } finally {
+            // Even a failed sync may have stored some chunks.
+            eventPublisher.publishEvent(new SyncCompletedEvent(updateType, updateHistory.getStatus(),
+                    updateHistory.getRecordsUpdated()));
+        }
+    }
+
+    /**
+     * Start time of the latest successful full or incremental sync, moved back by the configured overlap.
+     */
+    private Optional<Instant> lastSuccessfulSyncStart() {
+        return Stream.of("ALL", "INCREMENTAL")
+                .map(updateHistoryRepository::findLastSuccessfulUpdate)
+                .flatMap(Optional::stream)
+                .map(UpdateHistory::getUpdateTimestamp)
+                .max(Comparator.naturalOrder())
+                .map(timestamp -> timestamp.minusHours(incrementalOverlapHours)
+                        .atZone(ZoneId.systemDefault())
+                        .toInstant());
+    }
+
+    private String uploadsPlaylistIdOf(YouTubeChannelResponse.ChannelItem channelItem) {
+        if (channelItem != null && channelItem.getUploadsPlaylistId() != null) {
+            return channelItem.getUploadsPlaylistId();
         }
+        // The uploads playlist of channel UCxxxx is UUxxxx.
+        return channelId.startsWith("UC") ? "UU" + channelId.substring(2) : channelId;
     }
 
-    public void syncChannelStats() {
+    /**
+     * Sync channel statistics and return the channel as reported by the API, or null if it could not be fetched.
+     */
+    public YouTubeChannelResponse.ChannelItem syncChannelStats() {
         logger.info("Syncing channel statistics...");
         try {
             YouTubeChannelResponse response = youTubeApiService.getChannelInfo();
@@ -90,156 +225,297 @@ public class DataSyncService {
                 updateChannelStatsFromApi(channelStats, channelItem);
                 channelStatsRepository.save(channelStats);
                 logger.info("Channel statistics updated successfully");
+                return channelItem;
             } else {
                 logger.warn("No channel data received from YouTube API");
             }
+        } catch (ApiCircuitBreaker.CircuitOpenException | ApiQuotaService.QuotaExhaustedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error syncing channel statistics: {}", e.getMessage(), e);
         }
+        return null;
     }
 
-    public int syncVideos() {
+    /**
+     * Stream the whole catalog through the fetch → enrich → persist pipeline, one search page at a time,
+     * then delete stored videos that were not seen. When paging stopped early the pages read are kept, but
+     * nothing is deleted and {@link SyncAbortedException} aborts the sync.
+     */
+    public SyncCounts syncVideos() {
         logger.info("Starting video synchronization...");
-        int totalVideosProcessed = 0;
-        List<YouTubeVideoResponse.VideoItem> youtubeVideoItems = youTubeApiService.getAllVideos();
-        if (youtubeVideoItems == null || youtubeVideoItems.isEmpty()) {
+        SyncCounts counts = new SyncCounts();
+        // Only touched by the persist stage until the pipeline has finished.
+        Set<String> seenVideoIds = new HashSet<>();
+        // Pages the API reports as not modified skip enrichment and persistence; collected on the fetching thread.
+        List<String> unchangedVideoIds = new ArrayList<>();
+        // Videos whose details could not be fetched are not written; collected on the enriching thread.
+        List<String> unenrichedVideoIds = new ArrayList<>();
+        AtomicBoolean readAllPages = new AtomicBoolean();
+        syncPipeline.<YouTubeVideoResponse.VideoItem>run("videos",
+                sink -> readAllPages.set(youTubeApiService.forEachVideoPage(sink, unchangedVideoIds::addAll)),
+                videoItems -> enrichVideoPage(videoItems, unenrichedVideoIds),
+                videoItems -> {
+                    List<String> videoIds = videoItems.stream()
+                            .map(YouTubeVideoResponse.VideoItem::getVideoId)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList());
+                    seenVideoIds.addAll(videoIds);
+                    counts.add(applyVideoItems(videoItems, videoRepository.findContentFingerprintsByVideoIdIn(videoIds)));
+                });
+        seenVideoIds.addAll(unchangedVideoIds);
+        counts.addSkipped(unchangedVideoIds.size());
+        // They still exist; counting them as failed keeps the ETags of their pages from being committed.
+        seenVideoIds.addAll(unenrichedVideoIds);
+        counts.addFailed(unenrichedVideoIds.size());
+        if (seenVideoIds.isEmpty()) {
             logger.warn("No videos returned from YouTube API. Aborting video sync.");
-            return 0;
+            return counts;
+        }
+        if (!readAllPages.get()) {
+            // The pages read so far are stored, but the unseen videos may simply not have been read.
+            throw new SyncAbortedException("Video list was read only partially (" + seenVideoIds.size()
+                    + " videos); aborting instead of deleting videos not seen");
         }
-        Set<String> youtubeVideoIds = youtubeVideoItems.stream()
+        List<String> removedVideoIds = videoRepository.findAllVideoIds().stream()
+                .filter(videoId -> !seenVideoIds.contains(videoId))
+                .collect(Collectors.toList());
+        logger.info("Found {} videos to delete.", removedVideoIds.size());
+        applyInChunks(removedVideoIds, "delete videos", videoRepository::bulkDelete, counts);
+        logger.info("Video synchronization completed. Processed {} videos, skipped {} unchanged videos, {} failed.",
+                counts.getWritten(), counts.getSkipped(), counts.getFailed());
+        return counts;
+    }
+
+    /**
+     * Enrich a page of search items, leaving out (and collecting the IDs of) the items whose details could
+     * not be fetched, so they are neither written without statistics nor deleted.
+     */
+    private List<YouTubeVideoResponse.VideoItem> enrichVideoPage(List<YouTubeVideoResponse.VideoItem> videoItems,
+                                                                 List<String> unenrichedVideoIds) {
+        Set<YouTubeVideoResponse.VideoItem> failedItems = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<YouTubeVideoResponse.VideoItem> enriched = youTubeApiService.enrichVideosWithStatistics(videoItems, failedItems::addAll);
+        if (failedItems.isEmpty()) {
+            return enriched;
+        }
+        failedItems.stream()
                 .map(YouTubeVideoResponse.VideoItem::getVideoId)
-                .filter(java.util.Objects::nonNull)
-                .collect(Collectors.toSet());
-        logger.info("Fetched {} video IDs from YouTube.", youtubeVideoIds.size());
-        List<Video> dbVideos = videoRepository.findAll();
-        Set<String> dbVideoIds = dbVideos.stream()
-                .map(Video::getVideoId)
-                .collect(Collectors.toSet());
-        logger.info("Found {} video IDs in the database.", dbVideoIds.size());
-
-        Set<String> newVideoIds = new HashSet<>(youtubeVideoIds);
-        newVideoIds.removeAll(dbVideoIds);
-        logger.info("Found {} new videos to insert.", newVideoIds.size());
-        for (String videoId : newVideoIds) {
-            try {
-                Optional<YouTubeVideoResponse.VideoItem> videoItemOpt = youtubeVideoItems.stream()
-                        .filter(item -> videoId.equals(item.getVideoId()))
-                        .findFirst();
-                if (videoItemOpt.isPresent()) {
-                    Video video = new Video();
-                    updateVideoFromApi(video, videoItemOpt.get());
-                    videoRepository.save(video);
-                    totalVideosProcessed++;
-                }
-            } catch (Exception e) {
-                logger.error("Failed to process and save NEW video {}. Skipping record.", videoId, e);
-            }
+                .filter(Objects::nonNull)
+                .forEach(unenrichedVideoIds::add);
+        return enriched.stream()
+                .filter(videoItem -> !failedItems.contains(videoItem))
+                .collect(Collectors.toList());
+    }
+
+    public SyncCounts syncRecentVideos(String uploadsPlaylistId, Instant since) {
+        logger.info("Starting incremental video synchronization for uploads since {}...", since);
+        List<String> unenrichedVideoIds = new ArrayList<>();
+        List<YouTubeVideoResponse.VideoItem> recentVideoItems = youTubeApiService.getRecentUploads(uploadsPlaylistId, since,
+                unenrichedVideoIds::addAll);
+        SyncCounts counts = new SyncCounts();
+        if (!unenrichedVideoIds.isEmpty()) {
+            // Counted as failed, the run is partial and the next one reads these uploads again.
+            logger.warn("Details of {} new uploads could not be fetched.", unenrichedVideoIds.size());
+            counts.addFailed(unenrichedVideoIds.size());
+        }
+        if (recentVideoItems.isEmpty()) {
+            logger.info("No new uploads to write since {}.", since);
+            return counts;
         }
+        List<String> recentVideoIds = recentVideoItems.stream()
+                .map(YouTubeVideoResponse.VideoItem::getVideoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        List<ContentFingerprintView> storedVideos = videoRepository.findContentFingerprintsByVideoIdIn(recentVideoIds);
+        counts.add(applyVideoItems(recentVideoItems, storedVideos));
+        logger.info("Incremental video synchronization completed. Processed {} videos, skipped {} unchanged videos, {} failed.",
+                counts.getWritten(), counts.getSkipped(), counts.getFailed());
+        return counts;
+    }
 
-        Set<String> commonVideoIds = new HashSet<>(youtubeVideoIds);
-        commonVideoIds.retainAll(dbVideoIds);
-        logger.info("Found {} common videos to update.", commonVideoIds.size());
-        for (String videoId : commonVideoIds) {
-            try {
-                Optional<YouTubeVideoResponse.VideoItem> videoItemOpt = youtubeVideoItems.stream()
-                        .filter(item -> videoId.equals(item.getVideoId()))
-                        .findFirst();
-                if (videoItemOpt.isPresent()) {
-                    videoRepository.findById(videoId).ifPresent(video -> {
-                        updateVideoFromApi(video, videoItemOpt.get());
-                        videoRepository.save(video);
-                    });
-                    totalVideosProcessed++;
-                }
-            } catch (Exception e) {
-                logger.error("Failed to process and save EXISTING video {}. Skipping record.", videoId, e);
+    /**
+     * Write the given videos that are new or whose content changed, compared with their stored fingerprints.
+     */
+    private SyncCounts applyVideoItems(List<YouTubeVideoResponse.VideoItem> youtubeVideoItems,
+                                       List<ContentFingerprintView> storedVideos) {
+        SyncReconciler.Result<YouTubeVideoResponse.VideoItem, ContentFingerprintView> diff = SyncReconciler.reconcile(
+                youtubeVideoItems, YouTubeVideoResponse.VideoItem::getVideoId,
+                storedVideos, ContentFingerprintView::getId);
+        logger.debug("Found {} new videos to insert and {} common videos to update.",
+                diff.getInserts().size(), diff.getUpdates().size());
+
+        List<Video> videosToWrite = new ArrayList<>(diff.getInserts().size() + diff.getUpdates().size());
+        for (YouTubeVideoResponse.VideoItem videoItem : diff.getInserts()) {
+            Video video = mapVideo(videoItem);
+            if (video != null) {
+                videosToWrite.add(video);
             }
         }
-
-        Set<String> removedVideoIds = new HashSet<>(dbVideoIds);
-        removedVideoIds.removeAll(youtubeVideoIds);
-        logger.info("Found {} videos to delete.", removedVideoIds.size());
-        for (String videoId : removedVideoIds) {
-            try {
-                videoRepository.deleteById(videoId);
-                totalVideosProcessed++;
-            } catch (Exception e) {
-                logger.error("Failed to delete video {}.", videoId, e);
+        int unchangedVideos = 0;
+        for (SyncReconciler.Match<YouTubeVideoResponse.VideoItem, ContentFingerprintView> match : diff.getUpdates()) {
+            Video video = mapVideo(match.getSource());
+            if (video == null) {
+                continue;
+            }
+            if (video.getContentFingerprint().equals(match.getExisting().getContentFingerprint())) {
+                unchangedVideos++;
+            } else {
+                videosToWrite.add(video);
             }
         }
 
-        logger.info("Video synchronization completed. Processed {} videos.", totalVideosProcessed);
-        return totalVideosProcessed;
+        SyncCounts counts = new SyncCounts(0, unchangedVideos);
+        LocalDateTime sampledAt = LocalDateTime.now();
+        applyInChunks(videosToWrite, "upsert videos", chunk -> {
+            videoRepository.bulkUpsert(chunk);
+            statisticsHistoryService.record(chunk, sampledAt);
+        }, counts);
+        return counts;
     }
 
-    public int syncPlaylists() {
+    public SyncCounts syncPlaylists() {
         logger.info("Starting playlist synchronization...");
-        int totalPlaylistsProcessed = 0;
-        List<YouTubePlaylistResponse.PlaylistItem> youtubePlaylistItems = youTubeApiService.getAllPlaylists();
-        if (youtubePlaylistItems == null || youtubePlaylistItems.isEmpty()) {
+        Set<String> unchangedPlaylistIds = new HashSet<>();
+        List<YouTubePlaylistResponse.PlaylistItem> youtubePlaylistItems = youTubeApiService.getAllPlaylists(unchangedPlaylistIds::addAll);
+        if ((youtubePlaylistItems == null || youtubePlaylistItems.isEmpty()) && unchangedPlaylistIds.isEmpty()) {
             logger.warn("No playlists returned from YouTube API. Aborting playlist sync.");
-            return 0;
+            return SyncCounts.empty();
         }
-        Set<String> youtubePlaylistIds = youtubePlaylistItems.stream()
-                .map(YouTubePlaylistResponse.PlaylistItem::getId)
-                .collect(Collectors.toSet());
-        List<Playlist> dbPlaylists = playlistRepository.findAll();
-        Set<String> dbPlaylistIds = dbPlaylists.stream()
-                .map(Playlist::getPlaylistId)
-                .collect(Collectors.toSet());
-
-        Set<String> newPlaylistIds = new HashSet<>(youtubePlaylistIds);
-        newPlaylistIds.removeAll(dbPlaylistIds);
-        logger.info("Found {} new playlists to insert.", newPlaylistIds.size());
-        for (String playlistId : newPlaylistIds) {
-            try {
-                Optional<YouTubePlaylistResponse.PlaylistItem> playlistItemOpt = youtubePlaylistItems.stream()
-                        .filter(item -> playlistId.equals(item.getId()))
-                        .findFirst();
-                if (playlistItemOpt.isPresent()) {
-                    Playlist playlist = new Playlist();
-                    updatePlaylistFromApi(playlist, playlistItemOpt.get());
-                    playlistRepository.save(playlist);
-                    totalPlaylistsProcessed++;
-                }
-            } catch (Exception e) {
-                logger.error("Failed to process and save NEW playlist {}. Skipping record.", playlistId, e);
+        // Playlists on pages that were not modified are neither rewritten nor deleted.
+        List<ContentFingerprintView> storedPlaylists = playlistRepository.findAllContentFingerprints().stream()
+                .filter(stored -> !unchangedPlaylistIds.contains(stored.getId()))
+                .collect(Collectors.toList());
+        SyncReconciler.Result<YouTubePlaylistResponse.PlaylistItem, ContentFingerprintView> diff = SyncReconciler.reconcile(
+                youtubePlaylistItems, YouTubePlaylistResponse.PlaylistItem::getId,
+                storedPlaylists, ContentFingerprintView::getId);
+        logger.info("Found {} new playlists to insert, {} common playlists to update and {} playlists to delete.",
+                diff.getInserts().size(), diff.getUpdates().size(), diff.getDeletes().size());
+
+        List<Playlist> playlistsToWrite = new ArrayList<>(diff.getInserts().size() + diff.getUpdates().size());
+        for (YouTubePlaylistResponse.PlaylistItem playlistItem : diff.getInserts()) {
+            Playlist playlist = mapPlaylist(playlistItem);
+            if (playlist != null) {
+                playlistsToWrite.add(playlist);
+            }
+        }
+        int unchangedPlaylists = 0;
+        for (SyncReconciler.Match<YouTubePlaylistResponse.PlaylistItem, ContentFingerprintView> match : diff.getUpdates()) {
+            Playlist playlist = mapPlaylist(match.getSource());
+            if (playlist == null) {
+                continue;
+            }
+            if (playlist.getContentFingerprint().equals(match.getExisting().getContentFingerprint())) {
+                unchangedPlaylists++;
+            } else {
+                playlistsToWrite.add(playlist);
             }
         }
+        List<String> removedPlaylistIds = diff.getDeletes().stream()
+                .map(ContentFingerprintView::getId)
+                .collect(Collectors.toList());
+        // Read before the metadata writes, which store the new item counts.
+        Map<String, PlaylistMembershipView> membershipStates = playlistRepository.findAllMembershipStates().stream()
+                .collect(Collectors.toMap(PlaylistMembershipView::getId, Function.identity()));
+
+        SyncCounts counts = new SyncCounts(0, unchangedPlaylists + unchangedPlaylistIds.size());
+        applyInChunks(playlistsToWrite, "upsert playlists", playlistRepository::bulkUpsert, counts);
+        applyInChunks(removedPlaylistIds, "delete playlists", playlistRepository::bulkDelete, counts);
+        syncPlaylistMembership(youtubePlaylistItems, membershipStates, counts);
+        logger.info("Playlist synchronization completed. Processed {} playlists, skipped {} unchanged playlists, {} failed.",
+                counts.getWritten(), counts.getSkipped(), counts.getFailed());
+        return counts;
+    }
 
-        Set<String> commonPlaylistIds = new HashSet<>(youtubePlaylistIds);
-        commonPlaylistIds.retainAll(dbPlaylistIds);
-        logger.info("Found {} common playlists to update.", commonPlaylistIds.size());
-        for (String playlistId : commonPlaylistIds) {
+    /**
+     * Re-read the members of each fetched playlist that is new or whose item count or ETag differs from the
+     * ones its stored membership was read at, and apply only the added and removed videos. Each playlist is
+     * written in its own transaction; one whose items cannot be read or written keeps its old membership and
+     * ETag, is counted as failed and is retried by the next sync.
+     */
+    private void syncPlaylistMembership(List<YouTubePlaylistResponse.PlaylistItem> playlistItems,
+                                        Map<String, PlaylistMembershipView> membershipStates, SyncCounts counts) {
+        int changedPlaylists = 0;
+        for (YouTubePlaylistResponse.PlaylistItem playlistItem : playlistItems) {
+            String playlistId = playlistItem.getId();
+            PlaylistMembershipView stored = membershipStates.get(playlistId);
+            Integer itemCount = playlistItem.getContentDetails() != null ? playlistItem.getContentDetails().getItemCount() : null;
+            if (stored != null && playlistItem.getEtag() != null
+                    && playlistItem.getEtag().equals(stored.getMembershipEtag())
+                    && Objects.equals(itemCount, stored.getItemCount())) {
+                continue;
+            }
             try {
-                Optional<YouTubePlaylistResponse.PlaylistItem> playlistItemOpt = youtubePlaylistItems.stream()
-                        .filter(item -> playlistId.equals(item.getId()))
-                        .findFirst();
-                if (playlistItemOpt.isPresent()) {
-                    playlistRepository.findById(playlistId).ifPresent(playlist -> {
-                        updatePlaylistFromApi(playlist, playlistItemOpt.get());
-                        playlistRepository.save(playlist);
-                    });
-                    totalPlaylistsProcessed++;
-                }
-            } catch (Exception e) {
-                logger.error("Failed to process and save EXISTING playlist {}. Skipping record.", playlistId, e);
+                Set<String> current = new LinkedHashSet<>(youTubeApiService.getPlaylistVideoIds(playlistId));
+                int[] written = new int[1];
+                transactionTemplate.executeWithoutResult(status -> {
+                    Set<String> existing = playlistRepository.findVideoIds(playlistId);
+                    List<String> added = current.stream()
+                            .filter(videoId -> !existing.contains(videoId))
+                            .collect(Collectors.toList());
+                    List<String> removed = existing.stream()
+                            .filter(videoId -> !current.contains(videoId))
+                            .collect(Collectors.toList());
+                    written[0] = playlistRepository.updateMembership(playlistId, added, removed, playlistItem.getEtag());
+                });
+                counts.addWritten(written[0]);
+                changedPlaylists++;
+            } catch (RuntimeException e) {
+                counts.addFailed(1);
+                logger.error("Failed to sync the videos of playlist {}. Keeping its stored membership.", playlistId, e);
             }
         }
+        logger.info("Re-read the membership of {} changed playlists.", changedPlaylists);
+    }
 
-        Set<String> removedPlaylistIds = new HashSet<>(dbPlaylistIds);
-        removedPlaylistIds.removeAll(youtubePlaylistIds);
-        logger.info("Found {} playlists to delete.", removedPlaylistIds.size());
-        for (String playlistId : removedPlaylistIds) {
+    /**
+     * Apply a write in chunks of {@code sync.persistence.chunk-size} rows, each in its own short transaction.
+     * A failing chunk is rolled back and counted as failed; the chunks before and after it still commit.
+     */
+    private <T> void applyInChunks(List<T> rows, String operation, Consumer<List<T>> writer, SyncCounts counts) {
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < rows.size(); from += size) {
+            List<T> chunk = rows.subList(from, Math.min(rows.size(), from + size));
             try {
-                playlistRepository.deleteById(playlistId);
-                totalPlaylistsProcessed++;
-            } catch (Exception e) {
-                logger.error("Failed to delete playlist {}.", playlistId, e);
+                transactionTemplate.executeWithoutResult(status -> {
+                    writer.accept(chunk);
+                    // Keep the persistence context bounded to a single chunk.
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                counts.addWritten(chunk.size());
+            } catch (RuntimeException e) {
+                counts.addFailed(chunk.size());
+                logger.error("Failed to {} for a chunk of {} rows. Continuing with the next chunk.",
+                        operation, chunk.size(), e);
             }
         }
-        logger.info("Playlist synchronization completed. Processed {} playlists.", totalPlaylistsProcessed);
-        return totalPlaylistsProcessed;
+    }
+
+    /**
+     * Map an API item onto a new, detached Video with its content fingerprint, or null if it cannot be mapped.
+     */
+    private Video mapVideo(YouTubeVideoResponse.VideoItem videoItem) {
+        try {
+            Video video = new Video();
+            updateVideoFromApi(video, videoItem);
+            video.setContentFingerprint(ContentFingerprint.of(video));
+            return video;
+        } catch (Exception e) {
+            logger.error("Failed to process video {}. Skipping record.", videoItem.getVideoId(), e);
+            return null;
+        }
+    }
+
+    private Playlist mapPlaylist(YouTubePlaylistResponse.PlaylistItem playlistItem) {
+        try {
+            Playlist playlist = new Playlist();
+            updatePlaylistFromApi(playlist, playlistItem);
+            playlist.setContentFingerprint(ContentFingerprint.of(playlist));
+            return playlist;
+        } catch (Exception e) {
+            logger.error("Failed to process playlist {}. Skipping record.", playlistItem.getId(), e);
+            return null;
+        }
     }
 
     private void updateChannelStatsFromApi(ChannelStats channelStats, YouTubeChannelResponse.ChannelItem channelItem) {
@@ -252,10 +528,10 @@ public class DataSyncService {
             channelStats.setThumbnailUrl(channelItem.getSnippet().getThumbnails().getBestThumbnailUrl());
         }
         if (channelItem.getSnippet().getPublishedAt() != null) {
-            try {
-                channelStats.setPublishedAt(LocalDateTime.parse(
-                        channelItem.getSnippet().getPublishedAt().replace("Z", ""), ISO_FORMATTER));
-            } catch (Exception e) {
+            LocalDateTime publishedAt = YouTubeTimeFormats.parseTimestamp(channelItem.getSnippet().getPublishedAt());
+            if (publishedAt != null) {
+                channelStats.setPublishedAt(publishedAt);
+            } else {
                 logger.warn("Could not parse 'publishedAt' date for channel: {}", channelItem.getSnippet().getPublishedAt());
             }
         }
@@ -283,9 +559,10 @@ public class DataSyncService {
             video.setTitle(videoItem.getSnippet().getTitle());
             video.setDescription(videoItem.getSnippet().getDescription());
             if (videoItem.getSnippet().getPublishedAt() != null) {
-                try {
-                    video.setPublishedAt(LocalDateTime.parse(videoItem.getSnippet().getPublishedAt().replace("Z", ""), ISO_FORMATTER));
-                } catch (Exception e) {
+                LocalDateTime publishedAt = YouTubeTimeFormats.parseTimestamp(videoItem.getSnippet().getPublishedAt());
+                if (publishedAt != null) {
+                    video.setPublishedAt(publishedAt);
+                } else {
                     logger.warn("Could not parse 'publishedAt' date for video {}: {}", video.getVideoId(), videoItem.getSnippet().getPublishedAt());
                 }
             }
@@ -315,10 +592,16 @@ public class DataSyncService {
         }
 
         if (videoItem.getContentDetails() != null && videoItem.getContentDetails().getDuration() != null) {
-            video.setDuration(videoItem.getContentDetails().getFormattedDuration());
+            String duration = videoItem.getContentDetails().getDuration();
+            long durationSeconds = YouTubeTimeFormats.parseDurationSeconds(duration);
+            if (durationSeconds >= 0) {
+                video.setDurationSeconds(durationSeconds);
+                video.setDuration(YouTubeTimeFormats.formatDuration(durationSeconds));
+            } else {
+                logger.warn("Could not parse duration for video {}: {}", video.getVideoId(), duration);
+            }
         }
-
-        video.setLastUpdated(LocalDateTime.now());
+        // lastUpdated is stamped by the persistence layer, so it only moves when the row is actually written.
     }
 
     private void updatePlaylistFromApi(Playlist playlist, YouTubePlaylistResponse.PlaylistItem playlistItem) {
@@ -327,9 +610,10 @@ public class DataSyncService {
             playlist.setTitle(playlistItem.getSnippet().getTitle());
             playlist.setDescription(playlistItem.getSnippet().getDescription());
             if (playlistItem.getSnippet().getPublishedAt() != null) {
-                try {
-                    playlist.setPublishedAt(LocalDateTime.parse(playlistItem.getSnippet().getPublishedAt().replace("Z", ""), ISO_FORMATTER));
-                } catch (Exception e) {
+                LocalDateTime publishedAt = YouTubeTimeFormats.parseTimestamp(playlistItem.getSnippet().getPublishedAt());
+                if (publishedAt != null) {
+                    playlist.setPublishedAt(publishedAt);
+                } else {
                     logger.warn("Could not parse 'publishedAt' date for playlist {}: {}", playlist.getPlaylistId(), playlistItem.getSnippet().getPublishedAt());
                 }
             }
@@ -338,22 +622,33 @@ public class DataSyncService {
                 playlist.setThumbnailUrl(playlistItem.getSnippet().getThumbnails().getBestThumbnailUrl());
             }
         }
-        playlist.setLastUpdated(LocalDateTime.now());
+        if (playlistItem.getContentDetails() != null) {
+            playlist.setItemCount(playlistItem.getContentDetails().getItemCount());
+        }
     }
 
+    @Cacheable(cacheNames = CacheConfig.CHANNEL_STATS, keyGenerator = CacheConfig.CATALOG_VERSION_KEY)
+    @Transactional(readOnly = true)
     public Optional<ChannelStats> getChannelStats() {
         return channelStatsRepository.findAll().stream().findFirst();
     }
 
+    /**
+     * Whether the API answers. Any successful request in the last half hour counts, so the check only
+     * spends quota on an otherwise idle application, and not at all when the quota reserve is reached.
+     */
     public boolean isApiConnected() {
-        try {
-            youTubeApiService.getChannelInfo();
+        if (apiQuotaService.hasSucceededWithin(Duration.ofMinutes(30))) {
             return true;
-        } catch (Exception e) {
+        }
+        if (!quotaPlanner.admit(QuotaPlanner.Job.HEALTH_CHECK, YouTubeApiEndpoint.CHANNELS.getCost())) {
             return false;
         }
+        return youTubeApiService.testApiConnection();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PLAYLISTS, keyGenerator = CacheConfig.CATALOG_VERSION_KEY)
+    @Transactional(readOnly = true)
     public List<Playlist> getPlaylists() {
         return playlistRepository.findAll();
     }
@@ -365,4 +660,14 @@ public class DataSyncService {
     public PlaylistRepository getPlaylistRepository() {
         return playlistRepository;
     }
-}
\ No newline at end of file
+
+    /**
+     * Thrown when the API listing behind a sync could not be read completely, so reconciling it against
+     * the database would delete rows that still exist. The sync is recorded as failed.
+     */
+    public static class SyncAbortedException extends RuntimeException {
+        public SyncAbortedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.repository.PlaylistRepository;
+import com.randomvideos139.website.repository.VideoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides whether scheduled API work fits today's remaining quota. Work is admitted against an estimate
+ * of its cost in units; everything except the incremental sync must also leave
+ * {@code youtube.api.quota.reserve-units} untouched, so the twice-daily new-upload sync can always run.
+ * A full reconcile that does not fit is deferred and retried on the next statistics run, ahead of the
+ * statistics refresh, once the quota day has rolled over. The statistics refresh is not deferred but
+ * shrunk to what the budget allows.
+ */
+@Service
+public class QuotaPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaPlanner.class);
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * Scheduled API work, highest priority first.
+     */
+    public enum Job {
+        INCREMENTAL_SYNC,
+        FULL_SYNC,
+        STATISTICS,
+        HEALTH_CHECK
+    }
+
+    @Autowired
+    private ApiQuotaService apiQuotaService;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Value("${youtube.api.quota.reserve-units:500}")
+    private long reserveUnits;
+
+    private volatile boolean fullSyncDeferred;
+
+    /**
+     * Whether a job estimated at {@code estimatedUnits} may start now. A refused full sync is deferred.
+     */
+    public boolean admit(Job job, long estimatedUnits) {
+        long spendable = spendableUnits(job);
+        if (estimatedUnits <= spendable) {
+            if (job == Job.FULL_SYNC) {
+                fullSyncDeferred = false;
+            }
+            return true;
+        }
+        if (job == Job.FULL_SYNC) {
+            fullSyncDeferred = true;
+        }
+        logger.warn("Deferring {}: estimated at {} quota units, {} spendable of {} remaining.",
+                job, estimatedUnits, spendable, apiQuotaService.getRemainingUnits());
+        return false;
+    }
+
+    /**
+     * Whether a full reconcile was refused earlier and is still waiting for quota.
+     */
+    public boolean isFullSyncDeferred() {
+        return fullSyncDeferred;
+    }
+
+    /**
+     * One channels call, a search page (100 units) and a details batch per 50 stored videos, the playlist
+     * pages and the membership pages of changed playlists.
+     */
+    public long estimateFullSync() {
+        long videoPages = pages(videoRepository.count());
+        return YouTubeApiEndpoint.CHANNELS.getCost()
+                + videoPages * YouTubeApiEndpoint.SEARCH.getCost()
+                + videoPages * YouTubeApiEndpoint.VIDEOS.getCost()
+                + estimatePlaylistSync();
+    }
+
+    /**
+     * One channels call, one uploads page and one details batch (half a day of uploads fits in one page of
+     * 50), the playlist pages and the membership pages of changed playlists.
+     */
+    public long estimateIncrementalSync() {
+        return YouTubeApiEndpoint.CHANNELS.getCost()
+                + YouTubeApiEndpoint.PLAYLIST_ITEMS.getCost()
+                + YouTubeApiEndpoint.VIDEOS.getCost()
+                + estimatePlaylistSync();
+    }
+
+    /**
+     * The playlist pages, plus a playlistItems page per 50 stored members of every playlist: which playlists
+     * changed is only known once their pages are read, so each is assumed to need its membership re-read.
+     */
+    private long estimatePlaylistSync() {
+        long membershipPages = playlistRepository.findAllMembershipStates().stream()
+                .mapToLong(playlist -> pages(playlist.getItemCount() != null ? playlist.getItemCount() : 0))
+                .sum();
+        return pages(playlistRepository.count()) * YouTubeApiEndpoint.PLAYLISTS.getCost()
+                + membershipPages * YouTubeApiEndpoint.PLAYLIST_ITEMS.getCost();
+    }
+
+    /**
+     * How many of {@code maxVideos} statistics refreshes the budget allows, at one unit per 50 videos.
+     */
+    public int affordableStatisticsVideos(int maxVideos) {
+        long batches = spendableUnits(Job.STATISTICS) / YouTubeApiEndpoint.VIDEOS.getCost();
+        int affordable = (int) Math.min(maxVideos, batches * PAGE_SIZE);
+        if (affordable < maxVideos) {
+            logger.info("Quota allows refreshing statistics of {} of {} videos this run.", affordable, maxVideos);
+        }
+        return affordable;
+    }
+
+    public long getReserveUnits() {
+        return reserveUnits;
+    }
+
+    private long spendableUnits(Job job) {
+        long remaining = apiQuotaService.getRemainingUnits();
+        return job == Job.INCREMENTAL_SYNC ? remaining : Math.max(0, remaining - reserveUnits);
+    }
+
+    private static long pages(long items) {
+        return Math.max(1, (items + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+}
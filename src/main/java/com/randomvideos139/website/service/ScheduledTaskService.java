@@ -18,16 +18,28 @@ public class ScheduledTaskService {
     @Autowired
     private DataSyncService dataSyncService;
     
+    @Autowired
+    private StatisticsRefreshService statisticsRefreshService;
+    
+    @Autowired
+    private QuotaPlanner quotaPlanner;
+    
+    @Autowired
+    private VideoStatisticsHistoryService statisticsHistoryService;
+    
     /**
-     * Scheduled task to sync all data every 12 hours
-     * Runs at 6 AM and 6 PM every day
+     * Scheduled task to sync new uploads every 12 hours
+     * Runs at 6 AM and 6 PM every day; only reads uploads since the last successful sync
      */
     @Scheduled(cron = "0 0 6,18 * * *")
     public void syncDataEvery12Hours() {
         logger.info("Starting scheduled 12-hour data sync at {}", LocalDateTime.now().format(FORMATTER));
         
         try {
-            dataSyncService.syncAllData();
+            if (!quotaPlanner.admit(QuotaPlanner.Job.INCREMENTAL_SYNC, quotaPlanner.estimateIncrementalSync())) {
+                return;
+            }
+            dataSyncService.syncRecentData();
             logger.info("Scheduled 12-hour data sync completed successfully at {}", 
                 LocalDateTime.now().format(FORMATTER));
                 
@@ -36,6 +48,65 @@ public class ScheduledTaskService {
         }
     }
     
+    /**
+     * Scheduled full reconcile of the whole catalog, including deletions
+     * Runs weekly by default (sync.full.cron) because walking the search endpoint is expensive in quota;
+     * when today's quota cannot cover it, it is deferred to a later statistics run
+     */
+    @Scheduled(cron = "${sync.full.cron:0 0 3 * * SUN}")
+    public void fullReconcile() {
+        logger.info("Starting scheduled full reconcile at {}", LocalDateTime.now().format(FORMATTER));
+        
+        try {
+            if (!quotaPlanner.admit(QuotaPlanner.Job.FULL_SYNC, quotaPlanner.estimateFullSync())) {
+                return;
+            }
+            dataSyncService.syncAllData();
+            logger.info("Scheduled full reconcile completed successfully at {}", 
+                LocalDateTime.now().format(FORMATTER));
+                
+        } catch (Exception e) {
+            logger.error("Error during scheduled full reconcile: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Tiered statistics refresh - runs hourly by default (sync.stats.cron); each run only refreshes the
+     * videos whose tier interval has elapsed, up to sync.stats.max-videos-per-run and what the quota allows.
+     * A deferred full reconcile runs first once it fits, since it refreshes every video anyway
+     */
+    @Scheduled(cron = "${sync.stats.cron:0 15 * * * *}")
+    public void refreshStatistics() {
+        try {
+            if (quotaPlanner.isFullSyncDeferred()
+                    && quotaPlanner.admit(QuotaPlanner.Job.FULL_SYNC, quotaPlanner.estimateFullSync())) {
+                logger.info("Running deferred full reconcile at {}", LocalDateTime.now().format(FORMATTER));
+                dataSyncService.syncAllData();
+            }
+            int affordable = quotaPlanner.affordableStatisticsVideos(statisticsRefreshService.getMaxVideosPerRun());
+            if (affordable == 0) {
+                return;
+            }
+            int refreshed = statisticsRefreshService.refreshDueStatistics(affordable);
+            logger.debug("Statistics refresh updated {} videos at {}", refreshed, LocalDateTime.now().format(FORMATTER));
+        } catch (Exception e) {
+            logger.error("Error during statistics refresh: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Statistics history downsampling - runs daily by default (sync.stats.history.compaction-cron); folds
+     * hourly samples past their retention into daily ones and daily ones into weekly ones
+     */
+    @Scheduled(cron = "${sync.stats.history.compaction-cron:0 45 4 * * *}")
+    public void compactStatisticsHistory() {
+        try {
+            statisticsHistoryService.compact(LocalDateTime.now());
+        } catch (Exception e) {
+            logger.error("Error during statistics history compaction: {}", e.getMessage(), e);
+        }
+    }
+    
     /**
      * Initial data sync on application startup
      * This ensures we have data available immediately
@@ -48,6 +119,9 @@ public class ScheduledTaskService {
         try {
             // Check if we have any data
             if (!dataSyncService.getChannelStats().isPresent()) {
+                if (!quotaPlanner.admit(QuotaPlanner.Job.FULL_SYNC, quotaPlanner.estimateFullSync())) {
+                    return;
+                }
                 logger.info("No existing data found, performing full initial sync...");
                 dataSyncService.syncAllData();
             } else {
@@ -65,7 +139,8 @@ public class ScheduledTaskService {
     }
     
     /**
-     * Health check task - runs every 30 minutes to verify API connectivity
+     * Health check task - runs every 30 minutes to verify API connectivity; free when another request
+     * succeeded in the meantime
      */
     @Scheduled(cron = "0 */30 * * * *")
     public void healthCheck() {
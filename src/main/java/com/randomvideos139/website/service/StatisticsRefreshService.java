@@ -0,0 +1,233 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.entity.UpdateHistory;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.UpdateHistoryRepository;
+import com.randomvideos139.website.repository.VideoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Refreshes view, like and comment counts by age tier: videos published recently (hot) are refreshed
+ * often, older ones (warm) less often and the back catalog (cold) rarely. Each run refreshes at most
+ * {@code sync.stats.max-videos-per-run} videos, stalest first and hot tier first, through the
+ * {@code videos?part=statistics} call at one quota unit per 50 videos.
+ */
+@Service
+public class StatisticsRefreshService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsRefreshService.class);
+    // Lower bound of the cold tier; no video is older than YouTube itself.
+    private static final LocalDateTime OLDEST_PUBLISHED_AT = LocalDateTime.of(2005, 1, 1, 0, 0);
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private YouTubeApiService youTubeApiService;
+
+    @Autowired
+    private UpdateHistoryRepository updateHistoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private VideoStatisticsHistoryService statisticsHistoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${sync.stats.max-videos-per-run:1000}")
+    private int maxVideosPerRun;
+
+    @Value("${sync.stats.hot.max-age:2d}")
+    private Duration hotMaxAge;
+
+    @Value("${sync.stats.hot.refresh-interval:1h}")
+    private Duration hotRefreshInterval;
+
+    @Value("${sync.stats.warm.max-age:30d}")
+    private Duration warmMaxAge;
+
+    @Value("${sync.stats.warm.refresh-interval:12h}")
+    private Duration warmRefreshInterval;
+
+    @Value("${sync.stats.cold.refresh-interval:7d}")
+    private Duration coldRefreshInterval;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * Refresh the statistics of the videos that are due, within the per-run budget.
+     * Returns the number of videos refreshed.
+     */
+    public int refreshDueStatistics() {
+        return refreshDueStatistics(maxVideosPerRun);
+    }
+
+    /**
+     * Refresh the statistics of at most {@code maxVideos} due videos, e.g. fewer when quota is short.
+     */
+    public int refreshDueStatistics(int maxVideos) {
+        UpdateHistory updateHistory = new UpdateHistory("STATISTICS");
+        updateHistoryRepository.save(updateHistory);
+        long startTime = System.currentTimeMillis();
+        try {
+            // Tiers bound published_at, stored in UTC; due times compare with last_updated, stamped in the
+            // JVM's zone when statistics are written.
+            Instant instant = clock.instant();
+            LocalDateTime now = LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+            LocalDateTime localNow = LocalDateTime.ofInstant(instant, clock.getZone());
+            LocalDateTime hotFrom = now.minus(hotMaxAge);
+            LocalDateTime warmFrom = now.minus(warmMaxAge);
+            int budget = Math.max(0, maxVideos);
+            int attempted = 0;
+            int refreshed = 0;
+            int unchanged = 0;
+            List<String> failedVideoIds = new ArrayList<>();
+
+            // Hot tier first, so the budget is spent where the numbers move fastest.
+            List<Tier> tiers = List.of(
+                    new Tier("hot", hotFrom, now.plusDays(1), localNow.minus(hotRefreshInterval)),
+                    new Tier("warm", warmFrom, hotFrom, localNow.minus(warmRefreshInterval)),
+                    new Tier("cold", OLDEST_PUBLISHED_AT, warmFrom, localNow.minus(coldRefreshInterval)));
+            for (Tier tier : tiers) {
+                if (budget - attempted <= 0) {
+                    break;
+                }
+                List<Video> dueVideos = videoRepository.findVideosNeedingUpdate(
+                        tier.staleBefore, tier.publishedFrom, tier.publishedTo, PageRequest.of(0, budget - attempted));
+                if (dueVideos.isEmpty()) {
+                    continue;
+                }
+                int failedBefore = failedVideoIds.size();
+                int changed = refresh(dueVideos, failedVideoIds);
+                int written = dueVideos.size() - (failedVideoIds.size() - failedBefore);
+                attempted += dueVideos.size();
+                refreshed += written;
+                unchanged += written - changed;
+                logger.info("Refreshed statistics of {} {} videos ({} changed, {} could not be fetched).",
+                        written, tier.name, changed, dueVideos.size() - written);
+            }
+
+            long durationSeconds = (System.currentTimeMillis() - startTime) / 1000;
+            if (failedVideoIds.isEmpty()) {
+                updateHistory.markAsSuccess(refreshed - unchanged, unchanged, durationSeconds);
+            } else {
+                updateHistory.markAsPartial(refreshed - unchanged, unchanged,
+                        "Statistics of " + failedVideoIds.size() + " videos could not be fetched; they stay due.",
+                        durationSeconds);
+            }
+            updateHistoryRepository.save(updateHistory);
+            return refreshed;
+        } catch (Exception e) {
+            long durationSeconds = (System.currentTimeMillis() - startTime) / 1000;
+            updateHistory.markAsFailed(e.getMessage(), durationSeconds);
+            updateHistoryRepository.save(updateHistory);
+            logger.error("Error refreshing video statistics: {}", e.getMessage(), e);
+            return 0;
+        } finally {
+            eventPublisher.publishEvent(new SyncCompletedEvent("STATISTICS", updateHistory.getStatus(),
+                    updateHistory.getRecordsUpdated()));
+        }
+    }
+
+    public int getMaxVideosPerRun() {
+        return maxVideosPerRun;
+    }
+
+    /**
+     * Fetch and store fresh statistics for the given videos and return how many of them changed.
+     * Videos the API no longer returns keep their counts but are still stamped, so they leave the front
+     * of the queue; the full reconcile removes them. Videos whose batch could not be fetched are added to
+     * {@code failedVideoIds} and left untouched, so they stay due.
+     */
+    private int refresh(List<Video> dueVideos, List<String> failedVideoIds) {
+        List<String> videoIds = dueVideos.stream().map(Video::getVideoId).collect(Collectors.toList());
+        Set<String> failed = new HashSet<>();
+        Map<String, YouTubeVideoResponse.VideoItem> statisticsById = youTubeApiService.getVideoStatistics(videoIds, failed::addAll).stream()
+                .filter(item -> item.getVideoId() != null)
+                .collect(Collectors.toMap(YouTubeVideoResponse.VideoItem::getVideoId, Function.identity(), (a, b) -> a));
+
+        int changed = 0;
+        List<Video> videosToWrite = new ArrayList<>(dueVideos.size());
+        for (Video video : dueVideos) {
+            if (failed.contains(video.getVideoId())) {
+                failedVideoIds.add(video.getVideoId());
+                continue;
+            }
+            YouTubeVideoResponse.VideoItem item = statisticsById.get(video.getVideoId());
+            if (item != null && item.getStatistics() != null) {
+                applyStatistics(video, item.getStatistics());
+            }
+            String fingerprint = ContentFingerprint.of(video);
+            if (!fingerprint.equals(video.getContentFingerprint())) {
+                video.setContentFingerprint(fingerprint);
+                changed++;
+            }
+            videosToWrite.add(video);
+        }
+        if (videosToWrite.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime sampledAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            videoRepository.bulkUpdateStatistics(videosToWrite);
+            statisticsHistoryService.record(videosToWrite, sampledAt);
+        });
+        return changed;
+    }
+
+    private void applyStatistics(Video video, YouTubeVideoResponse.VideoStatistics statistics) {
+        try {
+            String viewCountStr = statistics.getViewCount();
+            if (viewCountStr != null) video.setViewCount(Long.parseLong(viewCountStr));
+
+            String likeCountStr = statistics.getLikeCount();
+            if (likeCountStr != null) video.setLikeCount(Long.parseLong(likeCountStr));
+
+            String commentCountStr = statistics.getCommentCount();
+            if (commentCountStr != null) video.setCommentCount(Long.parseLong(commentCountStr));
+        } catch (NumberFormatException e) {
+            logger.warn("Could not parse video statistics for video ID {}: {}", video.getVideoId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Videos published in [publishedFrom, publishedTo) are due once their statistics are older than staleBefore.
+     */
+    private static class Tier {
+        private final String name;
+        private final LocalDateTime publishedFrom;
+        private final LocalDateTime publishedTo;
+        private final LocalDateTime staleBefore;
+
+        Tier(String name, LocalDateTime publishedFrom, LocalDateTime publishedTo, LocalDateTime staleBefore) {
+            this.name = name;
+            this.publishedFrom = publishedFrom;
+            this.publishedTo = publishedTo;
+            this.staleBefore = staleBefore;
+        }
+    }
+}
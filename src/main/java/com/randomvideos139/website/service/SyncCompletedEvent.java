@@ -0,0 +1,46 @@
+package com.randomvideos139.website.service;
+
+/**
+ * Published once a sync or statistics refresh has finished writing, whatever its outcome, so that
+ * anything derived from the stored catalog can be brought up to date.
+ */
+public class SyncCompletedEvent {
+
+    private final String updateType;
+    private final String status;
+    private final Integer recordsUpdated;
+
+    public SyncCompletedEvent(String updateType, String status, Integer recordsUpdated) {
+        this.updateType = updateType;
+        this.status = status;
+        this.recordsUpdated = recordsUpdated;
+    }
+
+    /**
+     * ALL, INCREMENTAL or STATISTICS, as recorded in the update history.
+     */
+    public String getUpdateType() {
+        return updateType;
+    }
+
+    /**
+     * SUCCESS, PARTIAL or FAILED, as recorded in the update history.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * How many records the run changed, or null if it failed before counting them.
+     */
+    public Integer getRecordsUpdated() {
+        return recordsUpdated;
+    }
+
+    /**
+     * Whether the run is known to have left the stored catalog as it was.
+     */
+    public boolean changedNothing() {
+        return "SUCCESS".equals(status) && recordsUpdated != null && recordsUpdated == 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.randomvideos139.website.service;
+
+/**
+ * Per-sync tally of rows written to the database, rows skipped because their content was unchanged and
+ * rows whose write chunk failed.
+ */
+public class SyncCounts {
+
+    private int written;
+    private int skipped;
+    private int failed;
+
+    public SyncCounts() {
+    }
+
+    public SyncCounts(int written, int skipped) {
+        this.written = written;
+        this.skipped = skipped;
+    }
+
+    public static SyncCounts empty() {
+        return new SyncCounts();
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void addWritten(int count) {
+        this.written += count;
+    }
+
+    public void addSkipped(int count) {
+        this.skipped += count;
+    }
+
+    public void addFailed(int count) {
+        this.failed += count;
+    }
+
+    public SyncCounts add(SyncCounts other) {
+        this.written += other.written;
+        this.skipped += other.skipped;
+        this.failed += other.failed;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return written + " written, " + skipped + " unchanged, " + failed + " failed";
+    }
+}
@@ -0,0 +1,239 @@
+package com.randomvideos139.website.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs a fetch → enrich → persist sync as three concurrent stages connected by bounded queues, so only a
+ * few pages are in memory at a time and database writes overlap with API calls. The source runs on the
+ * calling thread and blocks when the enrichment stage falls behind; the enrichment stage blocks in turn
+ * when persistence falls behind. Each downstream stage merges the batches already waiting in its queue,
+ * at most c + 1 of them, so a slow stage works on larger batches: up to c + 1 pages for enrichment and
+ * (c + 1)^2 for persistence. With queue capacity c, at most 2(c + 1)^2 + c pages are held in the pipeline
+ * at once (persisting, queued for persistence, enriching, queued for enrichment), independent of catalog
+ * size.
+ *
+ * Metrics, tagged with the pipeline name: {@code sync.pipeline.items} (per stage),
+ * {@code sync.pipeline.stage.duration} (per stage and batch) and {@code sync.pipeline.queue.depth}.
+ */
+@Component
+public class SyncPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncPipeline.class);
+    private static final Object END_OF_STREAM = new Object();
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final int queueCapacity;
+    private final Map<String, AtomicInteger> queueDepths = new ConcurrentHashMap<>();
+
+    public SyncPipeline(MeterRegistry meterRegistry, @Value("${sync.pipeline.queue-capacity:4}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Run the pipeline until {@code source} returns and both stages have drained. The source pushes pages
+     * into the sink it is given; the sink throws {@link PipelineAbortedException} once a stage has failed,
+     * which stops the source. A stage failure is rethrown from this method after all stages have stopped.
+     */
+    public <T> void run(String name, Consumer<Consumer<List<T>>> source,
+                        UnaryOperator<List<T>> enrich, Consumer<List<T>> persist) {
+        BlockingQueue<Object> enrichQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Object> persistQueue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger enrichDepth = queueDepth(name, "enrich");
+        AtomicInteger persistDepth = queueDepth(name, "persist");
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        Thread enrichStage = stageThread(name, "enrich", () -> {
+            while (true) {
+                List<T> batch = take(enrichQueue, enrichDepth, failure);
+                if (batch == null) {
+                    break;
+                }
+                List<T> enriched = timed(name, "enrich", batch, () -> enrich.apply(batch));
+                put(persistQueue, persistDepth, enriched, failure);
+            }
+            put(persistQueue, persistDepth, END_OF_STREAM, failure);
+        }, failure);
+        Thread persistStage = stageThread(name, "persist", () -> {
+            while (true) {
+                List<T> batch = take(persistQueue, persistDepth, failure);
+                if (batch == null) {
+                    break;
+                }
+                timed(name, "persist", batch, () -> {
+                    persist.accept(batch);
+                    return batch;
+                });
+            }
+        }, failure);
+        enrichStage.start();
+        persistStage.start();
+
+        try {
+            source.accept(page -> {
+                if (!page.isEmpty()) {
+                    counter(name, "fetch").increment(page.size());
+                    put(enrichQueue, enrichDepth, page, failure);
+                }
+            });
+            put(enrichQueue, enrichDepth, END_OF_STREAM, failure);
+        } catch (PipelineAbortedException e) {
+            logger.warn("Sync pipeline {} stopped fetching because a stage failed.", name);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            join(enrichStage);
+            join(persistStage);
+            enrichDepth.set(0);
+            persistDepth.set(0);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private Thread stageThread(String name, String stage, Runnable body, AtomicReference<RuntimeException> failure) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (PipelineAbortedException e) {
+                // Another stage failed first; its failure is the one reported.
+            } catch (RuntimeException e) {
+                logger.error("Sync pipeline {} failed in the {} stage: {}", name, stage, e.getMessage(), e);
+                failure.compareAndSet(null, e);
+            }
+        }, "sync-" + name + "-" + stage);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Take the next page, merged with the pages queued behind it at that moment, or null at the end of the
+     * stream. Pages the producer adds while merging are left for the next take, which keeps batches bounded.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> take(BlockingQueue<Object> queue, AtomicInteger depth, AtomicReference<RuntimeException> failure) {
+        Object head = awaitNext(queue, failure);
+        if (head == END_OF_STREAM) {
+            depth.set(queue.size());
+            return null;
+        }
+        List<T> batch = (List<T>) head;
+        int queued = queue.size();
+        if (queued > 0 && queue.peek() != END_OF_STREAM) {
+            batch = new ArrayList<>(batch);
+            Object next;
+            while (queued-- > 0 && (next = queue.peek()) != null && next != END_OF_STREAM) {
+                batch.addAll((List<T>) queue.poll());
+            }
+        }
+        depth.set(queue.size());
+        return batch;
+    }
+
+    /**
+     * Blocking take that gives up once another stage has failed.
+     */
+    private Object awaitNext(BlockingQueue<Object> queue, AtomicReference<RuntimeException> failure) {
+        try {
+            Object next;
+            while ((next = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (failure.get() != null) {
+                    throw new PipelineAbortedException();
+                }
+            }
+            return next;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineAbortedException();
+        }
+    }
+
+    /**
+     * Blocking put that gives up once another stage has failed, so a producer never waits on a dead consumer.
+     */
+    private void put(BlockingQueue<Object> queue, AtomicInteger depth, Object element,
+                     AtomicReference<RuntimeException> failure) {
+        try {
+            while (!queue.offer(element, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    throw new PipelineAbortedException();
+                }
+            }
+            depth.set(queue.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineAbortedException();
+        }
+        if (failure.get() != null) {
+            throw new PipelineAbortedException();
+        }
+    }
+
+    private void join(Thread stage) {
+        try {
+            stage.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stage.interrupt();
+        }
+    }
+
+    private <T> List<T> timed(String name, String stage, List<T> batch, Supplier<List<T>> work) {
+        List<T> result = Timer.builder("sync.pipeline.stage.duration")
+                .tag("pipeline", name)
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(work);
+        counter(name, stage).increment(batch.size());
+        return result;
+    }
+
+    private Counter counter(String name, String stage) {
+        return Counter.builder("sync.pipeline.items")
+                .tag("pipeline", name)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private AtomicInteger queueDepth(String name, String queue) {
+        return queueDepths.computeIfAbsent(name + "/" + queue, key -> {
+            AtomicInteger depth = new AtomicInteger();
+            Gauge.builder("sync.pipeline.queue.depth", depth, AtomicInteger::get)
+                    .tag("pipeline", name)
+                    .tag("queue", queue)
+                    .register(meterRegistry);
+            return depth;
+        });
+    }
+
+    /**
+     * Thrown into a stage or the source when the pipeline is shutting down after a failure elsewhere.
+     */
+    public static class PipelineAbortedException extends RuntimeException {
+        public PipelineAbortedException() {
+            super("Sync pipeline aborted");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.randomvideos139.website.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Key-based reconciliation between items fetched from the YouTube API and rows already stored in the database.
+ * Both sides are indexed by key exactly once, so the insert/update/delete sets are computed in a single
+ * O(n + m) pass instead of re-scanning the API items for every ID.
+ */
+public final class SyncReconciler {
+
+    private SyncReconciler() {
+    }
+
+    /**
+     * Reconcile API items against existing rows.
+     * Items with a null key are ignored; when the API returns the same key twice the first occurrence wins.
+     */
+    public static <K, S, E> Result<S, E> reconcile(Collection<S> sourceItems, Function<S, K> sourceKey,
+                                                   Collection<E> existingRows, Function<E, K> existingKey) {
+        Map<K, S> sourceIndex = new LinkedHashMap<>(capacityFor(sourceItems.size()));
+        for (S item : sourceItems) {
+            K key = sourceKey.apply(item);
+            if (key != null) {
+                sourceIndex.putIfAbsent(key, item);
+            }
+        }
+        int sourceCount = sourceIndex.size();
+
+        List<Match<S, E>> updates = new ArrayList<>(Math.min(sourceCount, existingRows.size()));
+        List<E> deletes = new ArrayList<>();
+        for (E row : existingRows) {
+            S item = sourceIndex.remove(existingKey.apply(row));
+            if (item != null) {
+                updates.add(new Match<>(item, row));
+            } else {
+                deletes.add(row);
+            }
+        }
+        // Whatever was not claimed by an existing row is new.
+        List<S> inserts = new ArrayList<>(sourceIndex.values());
+        return new Result<>(sourceCount, inserts, updates, deletes);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return (int) Math.ceil(expectedSize / 0.75d) + 1;
+    }
+
+    /**
+     * Outcome of a reconciliation: API items to insert, (API item, existing row) pairs to update and
+     * existing rows that no longer exist on YouTube.
+     */
+    public static final class Result<S, E> {
+        private final int sourceCount;
+        private final List<S> inserts;
+        private final List<Match<S, E>> updates;
+        private final List<E> deletes;
+
+        Result(int sourceCount, List<S> inserts, List<Match<S, E>> updates, List<E> deletes) {
+            this.sourceCount = sourceCount;
+            this.inserts = inserts;
+            this.updates = updates;
+            this.deletes = deletes;
+        }
+
+        /** Number of distinct keys seen on the API side. */
+        public int getSourceCount() {
+            return sourceCount;
+        }
+
+        public List<S> getInserts() {
+            return inserts;
+        }
+
+        public List<Match<S, E>> getUpdates() {
+            return updates;
+        }
+
+        public List<E> getDeletes() {
+            return deletes;
+        }
+    }
+
+    /**
+     * An API item paired with the stored row that has the same key.
+     */
+    public static final class Match<S, E> {
+        private final S source;
+        private final E existing;
+
+        Match(S source, E existing) {
+            this.source = source;
+            this.existing = existing;
+        }
+
+        public S getSource() {
+            return source;
+        }
+
+        public E getExisting() {
+            return existing;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.VideoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The whole video catalog held in memory, so that listing pages and the home page need no queries. The
+ * catalog only changes when a sync or statistics refresh writes, so after each one a new immutable
+ * {@link Snapshot} is built and swapped in; readers always see one complete snapshot. Each supported sort
+ * is a precomputed permutation of the catalog, and any page of it in either direction is a slice.
+ *
+ * Searches are answered from a {@link VideoSearchIndex} over the same videos, which each rebuild brings
+ * up to date by re-indexing only the videos whose text changed.
+ *
+ * Until the first snapshot is built, and for sorts it does not hold, callers fall back to the database.
+ * The videos of a snapshot are detached and shared between requests, so they must not be modified.
+ *
+ * Metrics: {@code video.catalog.videos}, {@code video.catalog.memory} (estimated bytes),
+ * {@code video.catalog.page} (time to slice a page), {@code video.catalog.search} (time to search) and
+ * {@code video.catalog.search.terms} (distinct indexed words).
+ */
+@Service
+public class VideoCatalog implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoCatalog.class);
+
+    // Sortable properties, ascending; nulls sort first, as in MySQL, and ties by video ID.
+    private static final Map<String, Comparator<Video>> SORT_ORDERS = new LinkedHashMap<>();
+
+    static {
+        SORT_ORDERS.put("publishedAt", Comparator.comparing(Video::getPublishedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())));
+        SORT_ORDERS.put("viewCount", Comparator.comparing(Video::getViewCount, Comparator.nullsFirst(Comparator.<Long>naturalOrder())));
+        SORT_ORDERS.put("likeCount", Comparator.comparing(Video::getLikeCount, Comparator.nullsFirst(Comparator.<Long>naturalOrder())));
+        SORT_ORDERS.put("title", Comparator.comparing(Video::getTitle, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+    }
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Value("${ranking.latest.size:8}")
+    private int latestSize;
+
+    @Value("${ranking.popular.size:8}")
+    private int popularSize;
+
+    private final VideoSearchIndex searchIndex = new VideoSearchIndex();
+    private volatile Snapshot snapshot;
+    private volatile Timer pageTimer;
+    private volatile Timer searchTimer;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("video.catalog.videos", this, catalog -> catalog.snapshot != null ? catalog.snapshot.size() : 0)
+                .description("Videos in the in-memory catalog")
+                .register(registry);
+        Gauge.builder("video.catalog.memory", this, catalog -> catalog.snapshot != null ? catalog.snapshot.estimatedBytes : 0)
+                .description("Estimated heap held by the in-memory catalog")
+                .baseUnit("bytes")
+                .register(registry);
+        pageTimer = Timer.builder("video.catalog.page")
+                .description("Time to serve a page from the in-memory catalog")
+                .register(registry);
+        Gauge.builder("video.catalog.search.terms", searchIndex, VideoSearchIndex::termCount)
+                .description("Distinct words in the search index")
+                .register(registry);
+        searchTimer = Timer.builder("video.catalog.search")
+                .description("Time to search the in-memory catalog")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Could not build the video catalog; serving from the database: {}", e.getMessage(), e);
+        }
+    }
+
+    // After the ranking, so the snapshot carries the new flags, and before the caches drop the previous version.
+    @EventListener
+    @Order(0)
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        if (event.changedNothing() && snapshot != null) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Could not rebuild the video catalog after {} update; keeping the previous one: {}",
+                    event.getUpdateType(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load every video and swap in a new snapshot of them. Rebuilds run one at a time, so a snapshot loaded
+     * earlier can never be published after, and under a newer version than, one loaded later, and the
+     * search index always matches the snapshot it was updated with.
+     */
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        List<Video> loaded = videoRepository.findAll();
+        // Versions only move forward, even when two rebuilds fall in the same millisecond.
+        Snapshot previous = snapshot;
+        Instant builtAt = Instant.ofEpochMilli(startTime);
+        if (previous != null && !builtAt.isAfter(previous.builtAt)) {
+            builtAt = previous.builtAt.plusMillis(1);
+        }
+        Snapshot built = new Snapshot(loaded, builtAt, Math.max(1, latestSize), Math.max(1, popularSize));
+        int reindexed = searchIndex.update(loaded);
+        snapshot = built;
+        logger.info("Built the video catalog: {} videos, about {} KB, {} re-indexed for search, in {} ms.",
+                built.size(), built.estimatedBytes / 1024, reindexed, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * The requested page, if there is a snapshot and it holds the requested sort: a single order on one
+     * of publishedAt, viewCount, likeCount or title.
+     */
+    public Optional<Page<Video>> findPage(Pageable pageable) {
+        Snapshot current = snapshot;
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (current == null || orders.size() != 1 || !SORT_ORDERS.containsKey(orders.get(0).getProperty())) {
+            return Optional.empty();
+        }
+        long startTime = System.nanoTime();
+        Page<Video> page = current.page(orders.get(0), pageable);
+        Timer timer = pageTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+        return Optional.of(page);
+    }
+
+    /**
+     * The requested page of the videos matching every word of the query, if there is a snapshot: ranked by
+     * relevance when the page is unsorted, otherwise in one of the sorts {@link #findPage} holds.
+     */
+    public Optional<Page<Video>> search(String query, Pageable pageable) {
+        Snapshot current = snapshot;
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (current == null || orders.size() > 1
+                || (orders.size() == 1 && !SORT_ORDERS.containsKey(orders.get(0).getProperty()))) {
+            return Optional.empty();
+        }
+        long startTime = System.nanoTime();
+        VideoSearchIndex.Hits hits = searchIndex.search(query);
+        List<Video> content = new ArrayList<>(pageable.getPageSize());
+        if (orders.isEmpty()) {
+            for (String videoId : hits.top(pageable.getOffset(), pageable.getPageSize())) {
+                Video video = current.byId.get(videoId);
+                if (video != null) {
+                    content.add(video);
+                }
+            }
+        } else {
+            List<Video> matched = new ArrayList<>(hits.size());
+            for (String videoId : hits.getVideoIds()) {
+                Video video = current.byId.get(videoId);
+                if (video != null) {
+                    matched.add(video);
+                }
+            }
+            Sort.Order order = orders.get(0);
+            Comparator<Video> total = SORT_ORDERS.get(order.getProperty())
+                    .thenComparing(Video::getVideoId, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+            matched.sort(order.isAscending() ? total : total.reversed());
+            for (long i = pageable.getOffset(); i < pageable.getOffset() + pageable.getPageSize() && i < matched.size(); i++) {
+                content.add(matched.get((int) i));
+            }
+        }
+        Timer timer = searchTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+        return Optional.of(new PageImpl<>(content, pageable, hits.size()));
+    }
+
+    /**
+     * When the current snapshot was built, which is a version of the stored catalog: it advances whenever
+     * a sync may have changed data.
+     */
+    public Optional<Instant> getVersion() {
+        Snapshot current = snapshot;
+        return current != null ? Optional.of(current.builtAt) : Optional.empty();
+    }
+
+    /**
+     * When the given video was last written, if it is in the current snapshot.
+     */
+    public Optional<LocalDateTime> findLastUpdated(String videoId) {
+        Snapshot current = snapshot;
+        Video video = current != null ? current.byId.get(videoId) : null;
+        return video != null ? Optional.ofNullable(video.getLastUpdated()) : Optional.empty();
+    }
+
+    public Optional<List<Video>> findLatestVideos() {
+        Snapshot current = snapshot;
+        return current != null ? Optional.of(current.latest) : Optional.empty();
+    }
+
+    public Optional<List<Video>> findPopularVideos() {
+        Snapshot current = snapshot;
+        return current != null ? Optional.of(current.popular) : Optional.empty();
+    }
+
+    public Optional<List<Video>> findTrendingVideos() {
+        Snapshot current = snapshot;
+        return current != null ? Optional.of(current.trending) : Optional.empty();
+    }
+
+    /**
+     * One immutable state of the catalog: the videos, one ascending permutation of their positions per
+     * sortable property (read backwards for descending), and the home page rankings.
+     */
+    static final class Snapshot {
+
+        // Rough per-object costs on a 64-bit JVM with compressed pointers.
+        private static final long VIDEO_BYTES = 136;
+        private static final long STRING_BYTES = 40;
+        private static final long BOXED_BYTES = 24;
+
+        private final Instant builtAt;
+        private final Video[] videos;
+        private final Map<String, Video> byId;
+        private final Map<String, int[]> ascending;
+        private final List<Video> latest;
+        private final List<Video> popular;
+        private final List<Video> trending;
+        private final long estimatedBytes;
+
+        Snapshot(List<Video> loaded, Instant builtAt, int latestSize, int popularSize) {
+            this.builtAt = builtAt;
+            this.videos = loaded.toArray(new Video[0]);
+            Map<String, Video> videosById = new HashMap<>(videos.length * 2);
+            for (Video video : videos) {
+                videosById.put(video.getVideoId(), video);
+            }
+            this.byId = Collections.unmodifiableMap(videosById);
+            Map<String, int[]> permutations = new LinkedHashMap<>();
+            SORT_ORDERS.forEach((property, order) -> permutations.put(property, permutation(order)));
+            this.ascending = Collections.unmodifiableMap(permutations);
+            this.latest = flaggedOrFirst(Video::getIsLatest, "publishedAt", latestSize);
+            this.popular = flaggedOrFirst(Video::getIsPopular, "viewCount", popularSize);
+            this.trending = Collections.unmodifiableList(IntStream.range(0, videos.length)
+                    .mapToObj(i -> videos[i])
+                    .filter(video -> Boolean.TRUE.equals(video.getIsTrending()))
+                    .sorted(Comparator.comparing(Video::getTrendingScore, Comparator.nullsLast(Comparator.<Double>reverseOrder())))
+                    .collect(Collectors.toList()));
+            this.estimatedBytes = estimateBytes();
+        }
+
+        int size() {
+            return videos.length;
+        }
+
+        Page<Video> page(Sort.Order order, Pageable pageable) {
+            int[] permutation = ascending.get(order.getProperty());
+            long offset = pageable.getOffset();
+            int size = pageable.getPageSize();
+            List<Video> content = new ArrayList<>(size);
+            for (long i = offset; i < offset + size && i < videos.length; i++) {
+                int position = order.isAscending() ? (int) i : videos.length - 1 - (int) i;
+                content.add(videos[permutation[position]]);
+            }
+            return new PageImpl<>(content, pageable, videos.length);
+        }
+
+        private int[] permutation(Comparator<Video> order) {
+            Comparator<Video> total = order.thenComparing(Video::getVideoId, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+            return IntStream.range(0, videos.length)
+                    .boxed()
+                    .sorted((a, b) -> total.compare(videos[a], videos[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        /**
+         * The flagged videos in the order of {@code property}, descending, or the first {@code size} of
+         * that order when nothing is flagged yet.
+         */
+        private List<Video> flaggedOrFirst(Function<Video, Boolean> flag, String property, int size) {
+            int[] permutation = ascending.get(property);
+            List<Video> flagged = new ArrayList<>();
+            List<Video> first = new ArrayList<>(size);
+            for (int i = videos.length - 1; i >= 0; i--) {
+                Video video = videos[permutation[i]];
+                if (Boolean.TRUE.equals(flag.apply(video))) {
+                    flagged.add(video);
+                }
+                if (first.size() < size) {
+                    first.add(video);
+                }
+            }
+            return Collections.unmodifiableList(flagged.isEmpty() ? first : flagged);
+        }
+
+        private long estimateBytes() {
+            // The arrays and the ID map (about 48 bytes per entry).
+            long bytes = 16L + 52L * videos.length + 4L * videos.length * ascending.size();
+            List<Function<Video, String>> strings = List.of(Video::getVideoId, Video::getTitle, Video::getDescription,
+                    Video::getDuration, Video::getThumbnailUrl, Video::getChannelId, Video::getCategoryId, Video::getTags,
+                    Video::getContentFingerprint);
+            for (Video video : videos) {
+                bytes += VIDEO_BYTES + 6 * BOXED_BYTES;
+                for (Function<Video, String> field : strings) {
+                    String value = field.apply(video);
+                    if (value != null) {
+                        bytes += STRING_BYTES + value.length();
+                    }
+                }
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.dto.StatisticsSample;
+import com.randomvideos139.website.entity.VideoStatisticsBlock.Resolution;
+import com.randomvideos139.website.repository.VideoRepository;
+import com.randomvideos139.website.repository.VideoStatisticsBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Computes the home page rankings after every sync and stores them as flags on the videos: the latest
+ * uploads, the most viewed videos, and the trending videos, ranked by views gained per hour over
+ * {@code ranking.trending.window} of statistics history. The home page then only reads the flagged rows.
+ */
+@Service
+public class VideoRankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoRankingService.class);
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private VideoStatisticsBlockRepository blockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${ranking.latest.size:8}")
+    private int latestSize;
+
+    @Value("${ranking.popular.size:8}")
+    private int popularSize;
+
+    @Value("${ranking.trending.size:8}")
+    private int trendingSize;
+
+    @Value("${ranking.trending.window:48h}")
+    private Duration trendingWindow;
+
+    @Value("${ranking.trending.min-span:1h}")
+    private Duration trendingMinSpan;
+
+    // Before the catalog is rebuilt from the flags.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        if (event.changedNothing()) {
+            return;
+        }
+        try {
+            rank(LocalDateTime.now());
+        } catch (Exception e) {
+            logger.error("Error ranking videos after {} update: {}", event.getUpdateType(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute all three rankings as of {@code now} and store them in one update. Returns the number of
+     * videos whose flags were written.
+     */
+    public int rank(LocalDateTime now) {
+        List<String> latestIds = videoRepository.findVideoIdsByPublishedAtDesc(PageRequest.of(0, Math.max(1, latestSize)));
+        List<String> popularIds = videoRepository.findVideoIdsByViewCountDesc(PageRequest.of(0, Math.max(1, popularSize)));
+        Map<String, Double> trendingScores = trendingScores(now);
+        Integer written = transactionTemplate.execute(status ->
+                videoRepository.updateRankingFlags(latestIds, popularIds, trendingScores));
+        logger.info("Ranked {} latest, {} popular and {} trending videos.",
+                latestIds.size(), popularIds.size(), trendingScores.size());
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Views per hour between the first and last hourly sample of each video within the trending window,
+     * for the {@code ranking.trending.size} fastest-growing videos, fastest first. Videos sampled over less
+     * than {@code ranking.trending.min-span}, or that gained no views, do not trend.
+     */
+    private Map<String, Double> trendingScores(LocalDateTime now) {
+        LocalDateTime from = now.minus(trendingWindow);
+        // Video ID -> {first, last} sample in the window; a video's samples may span two weekly blocks.
+        Map<String, StatisticsSample[]> spans = new HashMap<>();
+        blockRepository.forEachBlockEndingAfter(Resolution.HOURLY, from, block -> {
+            for (StatisticsSample sample : block.decodeSamples()) {
+                if (sample.getSampledAt().isBefore(from) || sample.getSampledAt().isAfter(now)) {
+                    continue;
+                }
+                StatisticsSample[] span = spans.computeIfAbsent(block.getVideoId(), id -> new StatisticsSample[] {sample, sample});
+                if (sample.getSampledAt().isBefore(span[0].getSampledAt())) {
+                    span[0] = sample;
+                }
+                if (sample.getSampledAt().isAfter(span[1].getSampledAt())) {
+                    span[1] = sample;
+                }
+            }
+        });
+
+        int size = Math.max(1, trendingSize);
+        PriorityQueue<Map.Entry<String, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        spans.forEach((videoId, span) -> {
+            Duration elapsed = Duration.between(span[0].getSampledAt(), span[1].getSampledAt());
+            long gained = span[1].getViewCount() - span[0].getViewCount();
+            if (elapsed.compareTo(trendingMinSpan) < 0 || elapsed.isZero() || gained <= 0) {
+                return;
+            }
+            top.add(Map.entry(videoId, gained * 3600.0 / elapsed.getSeconds()));
+            if (top.size() > size) {
+                top.poll();
+            }
+        });
+        Map<String, Double> scores = new LinkedHashMap<>();
+        top.stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> scores.put(entry.getKey(), entry.getValue()));
+        return scores;
+    }
+}
@@ -0,0 +1,564 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.Video;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory inverted index over the title, tags and description of the catalog's videos, ranked with
+ * BM25. Text is split into runs of letters and digits and folded to lower case without diacritics, so
+ * "Café" finds "cafe". A video matches when it holds every word of the query; the last word also matches
+ * as a prefix unless the query ends in a separator, so results follow typing. Title words count
+ * {@value #TITLE_WEIGHT} times and tags {@value #TAGS_WEIGHT} times, as if repeated in one document.
+ *
+ * {@link #update} reconciles the index with the full list of videos and only re-tokenizes those whose
+ * indexed text changed, so after a sync the work is proportional to what the sync changed. Removed videos
+ * leave dead postings behind until they make up a quarter of the index, when it is compacted. Searches
+ * share a read lock; updates take the write lock.
+ */
+public class VideoSearchIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+    static final int TITLE_WEIGHT = 3;
+    static final int TAGS_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    // Index words the last query word expands to as a prefix, and how much less each counts than the word.
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    static final float PREFIX_WEIGHT = 0.5f;
+    static final int MAX_QUERY_TERMS = 16;
+
+    // A posting is the document shifted left over its (weighted, capped) term frequency.
+    private static final int FREQUENCY_BITS = 8;
+    private static final int MAX_FREQUENCY = (1 << FREQUENCY_BITS) - 1;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<String> ID_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Integer> docsByVideoId = new HashMap<>();
+    // Per document; a removed document keeps its slot, with a null video ID, until the next compaction. A
+    // video ID is only ever written once into its slot, so hits can resolve IDs after the lock is released.
+    private String[] videoIds = new String[16];
+    private int[] lengths = new int[16];
+    // BM25's length normalization of each document, k1 * (1 - b + b * length / average length).
+    private float[] norms = new float[16];
+    private int[] textHashes = new int[16];
+    private Postings[][] termsOf = new Postings[16][];
+    private int nextDoc;
+    private long totalLength;
+
+    /**
+     * Make the index hold exactly the given videos: index new ones, re-index those whose title, tags or
+     * description changed and drop those no longer listed. Returns the number of videos indexed or dropped.
+     */
+    public int update(Collection<Video> videos) {
+        lock.writeLock().lock();
+        try {
+            Set<String> listed = new HashSet<>(videos.size() * 2);
+            int changed = 0;
+            for (Video video : videos) {
+                String videoId = video.getVideoId();
+                if (videoId == null || !listed.add(videoId)) {
+                    continue;
+                }
+                int textHash = Objects.hash(video.getTitle(), video.getTags(), video.getDescription());
+                Integer doc = docsByVideoId.get(videoId);
+                if (doc != null && textHashes[doc] == textHash) {
+                    continue;
+                }
+                if (doc != null) {
+                    remove(videoId);
+                }
+                add(videoId, video, textHash);
+                changed++;
+            }
+            if (docsByVideoId.size() > listed.size()) {
+                List<String> unlisted = new ArrayList<>();
+                for (String videoId : docsByVideoId.keySet()) {
+                    if (!listed.contains(videoId)) {
+                        unlisted.add(videoId);
+                    }
+                }
+                unlisted.forEach(this::remove);
+                changed += unlisted.size();
+            }
+            if (nextDoc - docsByVideoId.size() > nextDoc / 4) {
+                compact();
+            }
+            if (changed > 0 && !docsByVideoId.isEmpty()) {
+                float averageLength = (float) totalLength / docsByVideoId.size();
+                for (int doc = 0; doc < nextDoc; doc++) {
+                    norms[doc] = K1 * (1 - B + B * lengths[doc] / averageLength);
+                }
+            }
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The videos matching every word of the query, with their scores; none for a query without words.
+     */
+    public Hits search(String query) {
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            return Hits.NONE;
+        }
+        boolean prefixLast = Character.isLetterOrDigit(query.charAt(query.length() - 1))
+                && terms.get(terms.size() - 1).length() >= MIN_PREFIX_LENGTH;
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = docsByVideoId.size();
+            if (liveDocs == 0) {
+                return Hits.NONE;
+            }
+            // The matching documents in the order first seen, their scores and, past the first term, how many
+            // more of the query terms in order each has matched; slots maps a document to its position plus one.
+            int[] hitDocs = null;
+            float[] hitScores = null;
+            byte[] matchedTerms = null;
+            int[] slots = null;
+            int hitCount = 0;
+            boolean anyRemoved = nextDoc > liveDocs;
+            List<QueryTerm> queryTerms = new ArrayList<>(terms.size());
+            for (int term = 0; term < terms.size(); term++) {
+                QueryTerm queryTerm = queryTerm(terms.get(term), prefixLast && term == terms.size() - 1);
+                if (queryTerm.matches.isEmpty()) {
+                    return Hits.NONE;
+                }
+                queryTerms.add(queryTerm);
+            }
+            // Rarest first, so there are as few candidates as possible from the start.
+            queryTerms.sort(Comparator.comparingLong(queryTerm -> queryTerm.postingCount));
+            for (int term = 0; term < queryTerms.size(); term++) {
+                QueryTerm queryTerm = queryTerms.get(term);
+                List<Postings> matches = queryTerm.matches;
+                if (term == 0) {
+                    hitDocs = new int[(int) Math.min(queryTerm.postingCount, nextDoc)];
+                    hitScores = new float[hitDocs.length];
+                    if (queryTerms.size() > 1 || matches.size() > 1) {
+                        slots = new int[nextDoc];
+                    }
+                } else if (term == 1) {
+                    matchedTerms = new byte[hitCount];
+                }
+                for (Postings termPostings : matches) {
+                    float weight = termPostings == queryTerm.exact ? 1f : PREFIX_WEIGHT;
+                    float idf = weight * (float) Math.log(1 + (liveDocs - termPostings.live + 0.5) / (termPostings.live + 0.5));
+                    float scale = idf * (K1 + 1);
+                    for (int p = 0; p < termPostings.size; p++) {
+                        int posting = termPostings.entries[p];
+                        int doc = posting >>> FREQUENCY_BITS;
+                        int slot;
+                        if (term == 0) {
+                            if (anyRemoved && videoIds[doc] == null) {
+                                continue;
+                            }
+                            if (slots == null) {
+                                slot = hitCount++;
+                                hitDocs[slot] = doc;
+                            } else if (slots[doc] == 0) {
+                                slot = hitCount++;
+                                hitDocs[slot] = doc;
+                                slots[doc] = slot + 1;
+                            } else {
+                                slot = slots[doc] - 1;
+                            }
+                        } else {
+                            // Removed documents never got a slot.
+                            slot = slots[doc] - 1;
+                            if (slot < 0) {
+                                continue;
+                            }
+                            int matched = matchedTerms[slot];
+                            if (matched == term - 1) {
+                                matchedTerms[slot] = (byte) term;
+                            } else if (matched != term) {
+                                continue;
+                            }
+                        }
+                        int frequency = posting & MAX_FREQUENCY;
+                        hitScores[slot] += scale * frequency / (frequency + norms[doc]);
+                    }
+                }
+            }
+
+            if (matchedTerms != null) {
+                int kept = 0;
+                for (int slot = 0; slot < hitCount; slot++) {
+                    if (matchedTerms[slot] == terms.size() - 1) {
+                        hitDocs[kept] = hitDocs[slot];
+                        hitScores[kept++] = hitScores[slot];
+                    }
+                }
+                hitCount = kept;
+            }
+            return new Hits(videoIds, hitDocs, hitScores, hitCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The postings of a query word and, if it is matched as a prefix, of up to
+     * {@value #MAX_PREFIX_EXPANSIONS} longer words it begins.
+     */
+    private QueryTerm queryTerm(String word, boolean prefix) {
+        Postings exact = postings.get(word);
+        List<Postings> matches = new ArrayList<>();
+        if (exact != null) {
+            matches.add(exact);
+        }
+        if (prefix) {
+            for (Postings expansion : postings.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                if (matches.size() - (exact != null ? 1 : 0) == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.add(expansion);
+            }
+        }
+        return new QueryTerm(exact, matches);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByVideoId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The words of a text, lower case and without diacritics.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String fold(String text) {
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The distinct words of a query, at most {@value #MAX_QUERY_TERMS}, keeping its last word last.
+     */
+    private static List<String> queryTerms(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return tokens;
+        }
+        String last = tokens.get(tokens.size() - 1);
+        Set<String> distinct = new LinkedHashSet<>(tokens);
+        distinct.remove(last);
+        List<String> terms = new ArrayList<>(distinct);
+        if (terms.size() >= MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS - 1);
+        }
+        terms.add(last);
+        return terms;
+    }
+
+    private void add(String videoId, Video video, int textHash) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        int length = count(frequencies, video.getTitle(), TITLE_WEIGHT)
+                + count(frequencies, video.getTags(), TAGS_WEIGHT)
+                + count(frequencies, video.getDescription(), DESCRIPTION_WEIGHT);
+        if (nextDoc == videoIds.length) {
+            int capacity = nextDoc * 2;
+            videoIds = Arrays.copyOf(videoIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            norms = Arrays.copyOf(norms, capacity);
+            textHashes = Arrays.copyOf(textHashes, capacity);
+            termsOf = Arrays.copyOf(termsOf, capacity);
+        }
+        int doc = nextDoc++;
+        Postings[] docTerms = new Postings[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            Postings termPostings = postings.computeIfAbsent(entry.getKey(), Postings::new);
+            termPostings.add(doc, Math.min(entry.getValue()[0], MAX_FREQUENCY));
+            docTerms[i++] = termPostings;
+        }
+        videoIds[doc] = videoId;
+        lengths[doc] = length;
+        textHashes[doc] = textHash;
+        termsOf[doc] = docTerms;
+        docsByVideoId.put(videoId, doc);
+        totalLength += length;
+    }
+
+    private static int count(Map<String, int[]> frequencies, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.computeIfAbsent(token, t -> new int[1])[0] += weight;
+        }
+        return tokens.size() * weight;
+    }
+
+    private void remove(String videoId) {
+        int doc = docsByVideoId.remove(videoId);
+        for (Postings termPostings : termsOf[doc]) {
+            if (--termPostings.live == 0) {
+                postings.remove(termPostings.term);
+            }
+        }
+        totalLength -= lengths[doc];
+        videoIds[doc] = null;
+        termsOf[doc] = null;
+    }
+
+    /**
+     * Renumber the live documents from zero and drop the postings of removed ones.
+     */
+    private void compact() {
+        int[] renumbered = new int[nextDoc];
+        // A new ID array, as hits of earlier searches may still be reading the old one.
+        String[] compactedIds = new String[videoIds.length];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (videoIds[doc] == null) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            renumbered[doc] = live;
+            compactedIds[live] = videoIds[doc];
+            lengths[live] = lengths[doc];
+            textHashes[live] = textHashes[doc];
+            termsOf[live] = termsOf[doc];
+            docsByVideoId.put(compactedIds[live], live);
+            live++;
+        }
+        videoIds = compactedIds;
+        Arrays.fill(termsOf, live, nextDoc, null);
+        nextDoc = live;
+        for (Postings termPostings : postings.values()) {
+            termPostings.renumber(renumbered);
+        }
+    }
+
+    /**
+     * The documents containing one term, in the order they were indexed, including removed documents
+     * until the next compaction; {@code live} counts the others.
+     */
+    private static final class Postings {
+
+        private final String term;
+        private int[] entries = new int[2];
+        private int size;
+        private int live;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int doc, int frequency) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = doc << FREQUENCY_BITS | frequency;
+            live++;
+        }
+
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = renumbered[entries[i] >>> FREQUENCY_BITS];
+                if (doc >= 0) {
+                    entries[kept++] = doc << FREQUENCY_BITS | entries[i] & MAX_FREQUENCY;
+                }
+            }
+            size = kept;
+            if (entries.length > 2 * kept + 2) {
+                entries = Arrays.copyOf(entries, Math.max(2, kept));
+            }
+        }
+    }
+
+    /**
+     * The postings one query word matches, and how many there are in total.
+     */
+    private static final class QueryTerm {
+
+        private final Postings exact;
+        private final List<Postings> matches;
+        private final long postingCount;
+
+        QueryTerm(Postings exact, List<Postings> matches) {
+            this.exact = exact;
+            this.matches = matches;
+            long count = 0;
+            for (Postings termPostings : matches) {
+                count += termPostings.size;
+            }
+            this.postingCount = count;
+        }
+    }
+
+    /**
+     * The videos matching a query and their scores, in no particular order. Video IDs are only looked up
+     * for the hits asked for; a video removed from the index since the search is left out.
+     */
+    public static final class Hits {
+
+        static final Hits NONE = new Hits(new String[0], new int[0], new float[0], 0);
+
+        private final String[] videoIds;
+        private final int[] docs;
+        private final float[] scores;
+        private final int size;
+
+        Hits(String[] videoIds, int[] docs, float[] scores, int size) {
+            this.videoIds = videoIds;
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public List<String> getVideoIds() {
+            List<String> ids = new ArrayList<>(size);
+            for (int hit = 0; hit < size; hit++) {
+                String videoId = videoIds[docs[hit]];
+                if (videoId != null) {
+                    ids.add(videoId);
+                }
+            }
+            return ids;
+        }
+
+        /**
+         * Up to {@code limit} video IDs from position {@code offset} of the hits ranked by score, then by ID.
+         * Only the first {@code offset + limit} are ranked, with a bounded heap.
+         */
+        public List<String> top(long offset, int limit) {
+            int count = (int) Math.min(size, offset + limit);
+            if (count <= offset) {
+                return List.of();
+            }
+            // The heap's root is the hit that ranks last among those kept.
+            int[] heap = new int[count];
+            int heapSize = 0;
+            float lowest = 0;
+            for (int hit = 0; hit < size; hit++) {
+                if (heapSize < count) {
+                    heap[heapSize] = hit;
+                    siftUp(heap, heapSize++);
+                    lowest = scores[heap[0]];
+                } else if (scores[hit] >= lowest && ranksBefore(hit, heap[0])) {
+                    heap[0] = hit;
+                    siftDown(heap, count, 0);
+                    lowest = scores[heap[0]];
+                }
+            }
+            String[] ranked = new String[count];
+            for (int n = count - 1; n >= 0; n--) {
+                ranked[n] = videoIds[docs[heap[0]]];
+                heap[0] = heap[n];
+                siftDown(heap, n, 0);
+            }
+            List<String> page = new ArrayList<>(count - (int) offset);
+            for (int i = (int) offset; i < count; i++) {
+                if (ranked[i] != null) {
+                    page.add(ranked[i]);
+                }
+            }
+            return page;
+        }
+
+        private boolean ranksBefore(int a, int b) {
+            if (scores[a] != scores[b]) {
+                return scores[a] > scores[b];
+            }
+            return ID_ORDER.compare(videoIds[docs[a]], videoIds[docs[b]]) < 0;
+        }
+
+        private void siftUp(int[] heap, int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!ranksBefore(heap[parent], heap[i])) {
+                    return;
+                }
+                swap(heap, parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size, int i) {
+            while (true) {
+                int last = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (ranksBefore(heap[last], heap[child])) {
+                        last = child;
+                    }
+                }
+                if (last == i) {
+                    return;
+                }
+                swap(heap, i, last);
+                i = last;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int held = heap[a];
+            heap[a] = heap[b];
+            heap[b] = held;
+        }
+    }
+}
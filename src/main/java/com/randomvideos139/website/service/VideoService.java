@@ -1,13 +1,21 @@
 
 package com.randomvideos139.website.service;
 
+import com.randomvideos139.website.config.CacheConfig;
+import com.randomvideos139.website.dto.StatisticsSample;
 import com.randomvideos139.website.entity.Video;
 import com.randomvideos139.website.repository.VideoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -16,15 +24,76 @@ public class VideoService {
     @Autowired
     private VideoRepository videoRepository;
 
+    @Autowired
+    private VideoStatisticsHistoryService statisticsHistoryService;
+
+    @Autowired
+    private VideoCatalog videoCatalog;
+
+    @Value("${ranking.latest.size:8}")
+    private int latestSize;
+
+    @Value("${ranking.popular.size:8}")
+    private int popularSize;
+
+    @Cacheable(cacheNames = CacheConfig.VIDEO_PAGES, keyGenerator = CacheConfig.CATALOG_VERSION_KEY)
     public Page<Video> findVideos(Pageable pageable) {
-        return videoRepository.findAll(pageable);
+        return videoCatalog.findPage(pageable).orElseGet(() -> videoRepository.findAll(pageable));
     }
 
+    /**
+     * Videos matching every word of the query in their title, tags or description, best matches first when
+     * the page is unsorted. Until the catalog is built, titles containing the query are searched in the database.
+     */
+    @Cacheable(cacheNames = CacheConfig.VIDEO_SEARCHES, keyGenerator = CacheConfig.CATALOG_VERSION_KEY)
     public Page<Video> searchVideos(String query, Pageable pageable) {
-        return videoRepository.findByTitleContainingIgnoreCase(query, pageable);
+        return videoCatalog.search(query, pageable)
+                .orElseGet(() -> videoRepository.findByTitleContainingIgnoreCase(query, pageable));
+    }
+
+    /**
+     * The videos {@link VideoRankingService} flagged as latest, or the newest videos if none are flagged yet.
+     */
+    public List<Video> findLatestVideos() {
+        Optional<List<Video>> cached = videoCatalog.findLatestVideos();
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        List<Video> latest = videoRepository.findByIsLatestTrueOrderByPublishedAtDesc();
+        if (!latest.isEmpty()) {
+            return latest;
+        }
+        return videoRepository.findAll(PageRequest.of(0, latestSize, Sort.by(Sort.Direction.DESC, "publishedAt"))).getContent();
+    }
+
+    /**
+     * The videos flagged as popular, or the most viewed videos if none are flagged yet.
+     */
+    public List<Video> findPopularVideos() {
+        Optional<List<Video>> cached = videoCatalog.findPopularVideos();
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        List<Video> popular = videoRepository.findByIsPopularTrueOrderByViewCountDesc();
+        if (!popular.isEmpty()) {
+            return popular;
+        }
+        return videoRepository.findAll(PageRequest.of(0, popularSize, Sort.by(Sort.Direction.DESC, "viewCount"))).getContent();
     }
 
+    /**
+     * The videos flagged as trending, fastest-growing first; empty until there is enough history.
+     */
+    public List<Video> findTrendingVideos() {
+        return videoCatalog.findTrendingVideos().orElseGet(videoRepository::findByIsTrendingTrueOrderByTrendingScoreDesc);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.VIDEO, keyGenerator = CacheConfig.CATALOG_VERSION_KEY)
     public Optional<Video> findVideoById(String videoId) {
         return videoRepository.findById(videoId);
     }
+
+    public List<StatisticsSample> findStatisticsHistory(String videoId, LocalDateTime from, LocalDateTime to) {
+        return statisticsHistoryService.getHistory(videoId, from, to);
+    }
 }
@@ -0,0 +1,159 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.dto.StatisticsSample;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.entity.VideoStatisticsBlock;
+import com.randomvideos139.website.entity.VideoStatisticsBlock.Resolution;
+import com.randomvideos139.website.repository.VideoStatisticsBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * History of each video's view, like and comment counts, kept as {@link VideoStatisticsBlock}s. The sync
+ * records a sample whenever it writes a video whose counts changed; samples are kept hourly for
+ * {@code sync.stats.history.hourly-retention}, then daily until {@code sync.stats.history.daily-retention},
+ * then weekly for good.
+ */
+@Service
+public class VideoStatisticsHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoStatisticsHistoryService.class);
+
+    @Autowired
+    private VideoStatisticsBlockRepository blockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${sync.stats.history.hourly-retention:14d}")
+    private Duration hourlyRetention;
+
+    @Value("${sync.stats.history.daily-retention:730d}")
+    private Duration dailyRetention;
+
+    @Value("${sync.stats.history.compaction-batch-size:500}")
+    private int compactionBatchSize;
+
+    /**
+     * Record the counts of the given videos as of {@code sampledAt}, in the caller's transaction. Videos
+     * without statistics, or whose counts equal their latest sample this week, add nothing. Returns the
+     * number of samples recorded.
+     */
+    public int record(Collection<Video> videos, LocalDateTime sampledAt) {
+        List<Video> sampled = videos.stream()
+                .filter(video -> video.getVideoId() != null && video.getViewCount() != null)
+                .collect(Collectors.toList());
+        if (sampled.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime blockStart = Resolution.HOURLY.blockStart(sampledAt);
+        Map<String, VideoStatisticsBlock> stored = blockRepository.findBlocks(Resolution.HOURLY, blockStart,
+                        sampled.stream().map(Video::getVideoId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(VideoStatisticsBlock::getVideoId, Function.identity()));
+
+        List<VideoStatisticsBlock> changed = new ArrayList<>();
+        for (Video video : sampled) {
+            VideoStatisticsBlock block = stored.computeIfAbsent(video.getVideoId(),
+                    videoId -> new VideoStatisticsBlock(videoId, Resolution.HOURLY, blockStart));
+            StatisticsSample last = block.lastSample();
+            // Hidden like or comment counts carry the last known value forward.
+            StatisticsSample sample = new StatisticsSample(sampledAt, video.getViewCount(),
+                    countOrLast(video.getLikeCount(), last != null ? last.getLikeCount() : 0),
+                    countOrLast(video.getCommentCount(), last != null ? last.getCommentCount() : 0));
+            if (last != null && last.hasSameCounts(sample)) {
+                continue;
+            }
+            block.merge(List.of(sample));
+            changed.add(block);
+        }
+        blockRepository.bulkUpsert(changed);
+        return changed.size();
+    }
+
+    /**
+     * The growth curve of a video between {@code from} (inclusive) and {@code to} (exclusive), oldest first,
+     * at the finest resolution still kept for each period.
+     */
+    public List<StatisticsSample> getHistory(String videoId, LocalDateTime from, LocalDateTime to) {
+        return blockRepository.findOverlapping(videoId, from, to).stream()
+                .flatMap(block -> block.decodeSamples().stream())
+                .filter(sample -> !sample.getSampledAt().isBefore(from) && sample.getSampledAt().isBefore(to))
+                .sorted(Comparator.comparing(StatisticsSample::getSampledAt))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Downsample the history: hourly blocks past their retention are folded into daily blocks, and daily
+     * blocks past theirs into weekly blocks. Returns the number of blocks folded.
+     */
+    public int compact(LocalDateTime now) {
+        int folded = downsample(Resolution.HOURLY, Resolution.DAILY, now.minus(hourlyRetention));
+        folded += downsample(Resolution.DAILY, Resolution.WEEKLY, now.minus(dailyRetention));
+        logger.info("Folded {} statistics history blocks into coarser ones.", folded);
+        return folded;
+    }
+
+    /**
+     * Fold every {@code from} block that ended by {@code endedBy} into {@code to} blocks, oldest first and
+     * {@code sync.stats.history.compaction-batch-size} blocks per transaction.
+     */
+    private int downsample(Resolution from, Resolution to, LocalDateTime endedBy) {
+        int folded = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<VideoStatisticsBlock> sources = blockRepository.findByResolutionAndBlockEndLessThanEqualOrderByBlockStartAsc(
+                        from, endedBy, PageRequest.of(0, Math.max(1, compactionBatchSize)));
+                // Target block start -> video -> samples to merge into it
+                Map<LocalDateTime, Map<String, List<StatisticsSample>>> samplesByTarget = new TreeMap<>();
+                for (VideoStatisticsBlock source : sources) {
+                    for (StatisticsSample sample : source.decodeSamples()) {
+                        samplesByTarget.computeIfAbsent(to.blockStart(sample.getSampledAt()), start -> new LinkedHashMap<>())
+                                .computeIfAbsent(source.getVideoId(), videoId -> new ArrayList<>())
+                                .add(sample);
+                    }
+                }
+                List<VideoStatisticsBlock> targets = new ArrayList<>();
+                samplesByTarget.forEach((blockStart, samplesByVideo) -> {
+                    Map<String, VideoStatisticsBlock> stored = new HashMap<>();
+                    blockRepository.findBlocks(to, blockStart, samplesByVideo.keySet())
+                            .forEach(block -> stored.put(block.getVideoId(), block));
+                    samplesByVideo.forEach((videoId, samples) -> {
+                        VideoStatisticsBlock target = stored.computeIfAbsent(videoId,
+                                id -> new VideoStatisticsBlock(id, to, blockStart));
+                        target.merge(samples);
+                        targets.add(target);
+                    });
+                });
+                blockRepository.bulkUpsert(targets);
+                blockRepository.deleteAllInBatch(sources);
+                return sources.size();
+            });
+            if (batch == null || batch == 0) {
+                return folded;
+            }
+            folded += batch;
+        }
+    }
+
+    private static long countOrLast(Long count, long last) {
+        return count != null ? count : last;
+    }
+}
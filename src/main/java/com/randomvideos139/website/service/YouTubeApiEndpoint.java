@@ -0,0 +1,46 @@
+package com.randomvideos139.website.service;
+
+/**
+ * YouTube Data API list endpoints and their quota cost in units per request, as published in the API's
+ * quota calculator. Every request is charged, including ones that fail or return 304 Not Modified.
+ */
+public enum YouTubeApiEndpoint {
+
+    SEARCH("search", 100),
+    VIDEOS("videos", 1),
+    CHANNELS("channels", 1),
+    PLAYLISTS("playlists", 1),
+    PLAYLIST_ITEMS("playlistItems", 1),
+    OTHER("other", 1);
+
+    private final String path;
+    private final int cost;
+
+    YouTubeApiEndpoint(String path, int cost) {
+        this.path = path;
+        this.cost = cost;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * The endpoint addressed by a request path such as {@code /youtube/v3/search}.
+     */
+    public static YouTubeApiEndpoint fromRequestPath(String requestPath) {
+        if (requestPath != null) {
+            String lastSegment = requestPath.substring(requestPath.lastIndexOf('/') + 1);
+            for (YouTubeApiEndpoint endpoint : values()) {
+                if (endpoint.path.equals(lastSegment)) {
+                    return endpoint;
+                }
+            }
+        }
+        return OTHER;
+    }
+}
@@ -1,25 +1,61 @@
 package com.randomvideos139.website.service;
 
+import com.randomvideos139.website.dto.FieldMask;
 import com.randomvideos139.website.dto.YouTubeChannelResponse;
 import com.randomvideos139.website.dto.YouTubeVideoResponse;
 import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistItemResponse;
+import com.randomvideos139.website.entity.ApiResponseCacheEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class YouTubeApiService {
 
     private static final Logger logger = LoggerFactory.getLogger(YouTubeApiService.class);
-    private static final String YOUTUBE_API_BASE_URL = "https://www.googleapis.com/youtube/v3";
+
+    // Partial-response masks generated from the DTOs, so each call only downloads the fields they read.
+    public static final FieldMask CHANNEL_FIELDS =
+            FieldMask.of(YouTubeChannelResponse.class, "snippet", "statistics", "contentDetails");
+    // Search results have no tags or category; those come from the video details.
+    public static final FieldMask SEARCH_FIELDS = FieldMask.of(YouTubeVideoResponse.class, "snippet")
+            .without("items/snippet/tags", "items/snippet/categoryId");
+    public static final FieldMask VIDEO_DETAILS_FIELDS =
+            FieldMask.of(YouTubeVideoResponse.class, "snippet", "statistics", "contentDetails");
+    public static final FieldMask VIDEO_STATISTICS_FIELDS = FieldMask.of(YouTubeVideoResponse.class, "statistics");
+    public static final FieldMask PLAYLIST_FIELDS = FieldMask.of(YouTubePlaylistResponse.class, "snippet", "contentDetails");
+    public static final FieldMask PLAYLIST_ITEM_FIELDS = FieldMask.of(YouTubePlaylistItemResponse.class, "contentDetails");
+
+    @Value("${youtube.api.base-url:https://www.googleapis.com/youtube/v3}")
+    private String apiBaseUrl;
+
+    // Number of /videos detail requests in flight at once during enrichment; 1 keeps it sequential.
+    @Value("${youtube.api.enrichment-parallelism:4}")
+    private int enrichmentParallelism;
 
     @Value("${youtube.api.key}")
     private String apiKey;
@@ -27,16 +63,19 @@ public class YouTubeApiService {
     @Value("${youtube.channel.id}")
     private String channelId;
 
+    @Autowired
+    private ApiResponseCache apiResponseCache;
+
     private final RestTemplate restTemplate;
 
-    public YouTubeApiService() {
-        this.restTemplate = new RestTemplate();
+    public YouTubeApiService(RestTemplate youTubeRestTemplate) {
+        this.restTemplate = youTubeRestTemplate;
     }
 
     public YouTubeChannelResponse getChannelInfo() {
         try {
-            String url = String.format("%s/channels?part=snippet,statistics&id=%s&key=%s",
-                    YOUTUBE_API_BASE_URL, channelId, apiKey);
+            String url = String.format("%s/channels?part=snippet,statistics,contentDetails&fields=%s&id=%s&key=%s",
+                    apiBaseUrl, CHANNEL_FIELDS, channelId, apiKey);
             logger.info("Fetching channel info...");
             YouTubeChannelResponse response = restTemplate.getForObject(url, YouTubeChannelResponse.class);
             if (response != null && response.getItems() != null && !response.getItems().isEmpty()) {
@@ -48,6 +87,7 @@ public class YouTubeApiService {
                 return null;
             }
         } catch (RestClientException e) {
+            rethrowIfRejected(e);
             logger.error("Error fetching channel info: {}", e.getMessage());
             return null;
         }
@@ -55,78 +95,335 @@ public class YouTubeApiService {
 
     public List<YouTubeVideoResponse.VideoItem> getAllVideos() {
         List<YouTubeVideoResponse.VideoItem> allVideos = new ArrayList<>();
+        forEachVideoPage(allVideos::addAll);
+        return enrichVideosWithStatistics(allVideos);
+    }
+
+    public boolean forEachVideoPage(Consumer<List<YouTubeVideoResponse.VideoItem>> pageConsumer) {
+        return forEachVideoPage(pageConsumer, null);
+    }
+
+    /**
+     * Page through the channel's videos with the search endpoint and hand each page of up to 50
+     * un-enriched items to {@code pageConsumer} as soon as it arrives. When {@code unchangedPageConsumer}
+     * is given, pages are requested conditionally and a page the API reports as not modified is passed to
+     * it as the list of its video IDs instead. Returns true if every page was read, false if paging
+     * stopped early because a request failed.
+     */
+    public boolean forEachVideoPage(Consumer<List<YouTubeVideoResponse.VideoItem>> pageConsumer,
+                                    Consumer<List<String>> unchangedPageConsumer) {
         String pageToken = null;
         do {
+            ConditionalPage<YouTubeVideoResponse> page;
             try {
-                String url = String.format("%s/search?part=snippet&channelId=%s&order=date&type=video&maxResults=50&key=%s",
-                        YOUTUBE_API_BASE_URL, channelId, apiKey);
+                String url = String.format("%s/search?part=snippet&fields=%s&channelId=%s&order=date&type=video&maxResults=50&key=%s",
+                        apiBaseUrl, SEARCH_FIELDS, channelId, apiKey);
                 if (pageToken != null && !pageToken.isEmpty()) {
                     url += "&pageToken=" + pageToken;
                 }
                 logger.info("Fetching video list page...");
-                YouTubeVideoResponse response = restTemplate.getForObject(url, YouTubeVideoResponse.class);
+                page = getPage(url, YouTubeVideoResponse.class, unchangedPageConsumer != null);
+            } catch (RestClientException e) {
+                logger.error("Error fetching video list: {}", e.getMessage());
+                return false;
+            }
+            if (page.isNotModified()) {
+                pageToken = page.getCached().getNextPageToken();
+                logger.info("Video list page not modified. Next page token: {}", pageToken);
+                unchangedPageConsumer.accept(page.getCached().getItemIdList());
+                continue;
+            }
+            YouTubeVideoResponse response = page.getBody();
+            if (response != null && response.getItems() != null) {
+                pageToken = response.getNextPageToken();
+                logger.info("Successfully fetched {} videos. Next page token: {}", response.getItems().size(), pageToken);
+                page.stage(response.getEtag(), pageToken, response.getItems().stream()
+                        .map(YouTubeVideoResponse.VideoItem::getVideoId)
+                        .collect(Collectors.toList()));
+                pageConsumer.accept(response.getItems());
+            } else {
+                pageToken = null;
+            }
+        } while (pageToken != null && !pageToken.isEmpty());
+        return true;
+    }
+
+    public List<YouTubeVideoResponse.VideoItem> getRecentUploads(String uploadsPlaylistId, Instant since) {
+        return getRecentUploads(uploadsPlaylistId, since, null);
+    }
+
+    /**
+     * Videos uploaded since the given instant, read from the channel's uploads playlist, which lists the
+     * newest uploads first. Costs one quota unit per page of 50 (instead of 100 for a search page) and
+     * stops paging at the first upload older than {@code since}. Throws if a page cannot be read. When
+     * {@code failedVideoIds} is given, the IDs of uploads whose details could not be fetched are passed to
+     * it, so they can be told apart from uploads that are private or deleted.
+     */
+    public List<YouTubeVideoResponse.VideoItem> getRecentUploads(String uploadsPlaylistId, Instant since,
+                                                                 Consumer<List<String>> failedVideoIds) {
+        List<YouTubeVideoResponse.VideoItem> recentVideos = new ArrayList<>();
+        String pageToken = null;
+        boolean reachedOlderUploads = false;
+        do {
+            try {
+                String url = String.format("%s/playlistItems?part=contentDetails&fields=%s&playlistId=%s&maxResults=50&key=%s",
+                        apiBaseUrl, PLAYLIST_ITEM_FIELDS, uploadsPlaylistId, apiKey);
+                if (pageToken != null && !pageToken.isEmpty()) {
+                    url += "&pageToken=" + pageToken;
+                }
+                logger.info("Fetching uploads playlist page...");
+                YouTubePlaylistItemResponse response = restTemplate.getForObject(url, YouTubePlaylistItemResponse.class);
+                if (response != null && response.getItems() != null) {
+                    for (YouTubePlaylistItemResponse.PlaylistEntry entry : response.getItems()) {
+                        if (isPublishedBefore(entry, since)) {
+                            reachedOlderUploads = true;
+                            break;
+                        }
+                        if (entry.getVideoId() != null) {
+                            YouTubeVideoResponse.VideoItem videoItem = new YouTubeVideoResponse.VideoItem();
+                            videoItem.setId(entry.getVideoId());
+                            recentVideos.add(videoItem);
+                        }
+                    }
+                    pageToken = reachedOlderUploads ? null : response.getNextPageToken();
+                } else {
+                    pageToken = null;
+                }
+            } catch (RestClientException e) {
+                // Stopping here would pass a truncated list off as complete.
+                logger.error("Error fetching uploads playlist: {}", e.getMessage());
+                throw e;
+            }
+        } while (pageToken != null && !pageToken.isEmpty());
+        logger.info("Found {} uploads since {}.", recentVideos.size(), since);
+
+        // Uploads that are private or deleted have no details and cannot be stored.
+        Consumer<List<YouTubeVideoResponse.VideoItem>> failedItems = failedVideoIds == null ? null
+                : items -> failedVideoIds.accept(items.stream()
+                        .map(YouTubeVideoResponse.VideoItem::getVideoId)
+                        .collect(Collectors.toList()));
+        return enrichVideosWithStatistics(recentVideos, failedItems).stream()
+                .filter(videoItem -> videoItem.getSnippet() != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * IDs of the videos in a playlist, in playlist order. Throws if a page cannot be read (after the client's
+     * retries), so a partial list is never taken for the whole membership.
+     */
+    public List<String> getPlaylistVideoIds(String playlistId) {
+        List<String> videoIds = new ArrayList<>();
+        String pageToken = null;
+        do {
+            try {
+                String url = String.format("%s/playlistItems?part=contentDetails&fields=%s&playlistId=%s&maxResults=50&key=%s",
+                        apiBaseUrl, PLAYLIST_ITEM_FIELDS, playlistId, apiKey);
+                if (pageToken != null && !pageToken.isEmpty()) {
+                    url += "&pageToken=" + pageToken;
+                }
+                YouTubePlaylistItemResponse response = restTemplate.getForObject(url, YouTubePlaylistItemResponse.class);
                 if (response != null && response.getItems() != null) {
-                    allVideos.addAll(response.getItems());
+                    for (YouTubePlaylistItemResponse.PlaylistEntry entry : response.getItems()) {
+                        if (entry.getVideoId() != null) {
+                            videoIds.add(entry.getVideoId());
+                        }
+                    }
                     pageToken = response.getNextPageToken();
-                    logger.info("Successfully fetched {} videos. Next page token: {}", response.getItems().size(), pageToken);
                 } else {
                     pageToken = null;
                 }
             } catch (RestClientException e) {
-                logger.error("Error fetching video list: {}", e.getMessage());
-                pageToken = null;
+                logger.error("Error fetching items of playlist {}: {}", playlistId, e.getMessage());
+                throw e;
             }
         } while (pageToken != null && !pageToken.isEmpty());
-        return enrichVideosWithStatistics(allVideos);
+        logger.info("Fetched {} videos of playlist {}.", videoIds.size(), playlistId);
+        return videoIds;
+    }
+
+    private boolean isPublishedBefore(YouTubePlaylistItemResponse.PlaylistEntry entry, Instant since) {
+        String publishedAt = entry.getContentDetails() != null ? entry.getContentDetails().getVideoPublishedAt() : null;
+        if (publishedAt == null) {
+            return false;
+        }
+        try {
+            return Instant.parse(publishedAt).isBefore(since);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
     }
 
     public List<YouTubePlaylistResponse.PlaylistItem> getAllPlaylists() {
+        return getAllPlaylists(null);
+    }
+
+    /**
+     * All playlists of the channel. When {@code unchangedPlaylistIds} is given, pages are requested
+     * conditionally and the playlist IDs of pages the API reports as not modified are passed to it
+     * instead of being returned. Throws if a page cannot be read (after the client's retries).
+     */
+    public List<YouTubePlaylistResponse.PlaylistItem> getAllPlaylists(Consumer<List<String>> unchangedPlaylistIds) {
         List<YouTubePlaylistResponse.PlaylistItem> allPlaylists = new ArrayList<>();
         String pageToken = null;
         do {
             try {
-                String url = String.format("%s/playlists?part=snippet,contentDetails&channelId=%s&maxResults=50&key=%s",
-                        YOUTUBE_API_BASE_URL, channelId, apiKey);
+                String url = String.format("%s/playlists?part=snippet,contentDetails&fields=%s&channelId=%s&maxResults=50&key=%s",
+                        apiBaseUrl, PLAYLIST_FIELDS, channelId, apiKey);
                 if (pageToken != null && !pageToken.isEmpty()) {
                     url += "&pageToken=" + pageToken;
                 }
                 logger.info("Fetching playlists page...");
-                YouTubePlaylistResponse response = restTemplate.getForObject(url, YouTubePlaylistResponse.class);
+                ConditionalPage<YouTubePlaylistResponse> page = getPage(url, YouTubePlaylistResponse.class,
+                        unchangedPlaylistIds != null);
+                if (page.isNotModified()) {
+                    pageToken = page.getCached().getNextPageToken();
+                    logger.info("Playlists page not modified. Next page token: {}", pageToken);
+                    unchangedPlaylistIds.accept(page.getCached().getItemIdList());
+                    continue;
+                }
+                YouTubePlaylistResponse response = page.getBody();
                 if (response != null && response.getItems() != null) {
                     allPlaylists.addAll(response.getItems());
                     pageToken = response.getNextPageToken();
                     logger.info("Successfully fetched {} playlists. Next page token: {}", response.getItems().size(), pageToken);
+                    page.stage(response.getEtag(), pageToken, response.getItems().stream()
+                            .map(YouTubePlaylistResponse.PlaylistItem::getId)
+                            .collect(Collectors.toList()));
                 } else {
                     pageToken = null;
                 }
             } catch (RestClientException e) {
+                // Stopping here would pass a truncated list off as complete, and the sync would delete the rest.
                 logger.error("Error fetching playlists: {}", e.getMessage());
-                pageToken = null;
+                throw e;
             }
         } while (pageToken != null && !pageToken.isEmpty());
         return allPlaylists;
     }
 
-    public YouTubeVideoResponse getVideoDetails(String videoIds) {
-        String url = String.format("%s/videos?part=snippet,statistics,contentDetails&id=%s&key=%s",
-                YOUTUBE_API_BASE_URL, videoIds, apiKey);
+    /**
+     * GET a list page. When {@code conditional} is set and an ETag is stored for the same request (the
+     * URL without the API key), it is sent as If-None-Match and a 304 answer comes back as not modified,
+     * with the stored entry in place of the body.
+     */
+    private <R> ConditionalPage<R> getPage(String url, Class<R> responseType, boolean conditional) {
+        String requestKey = url.replace("&key=" + apiKey, "");
+        Optional<ApiResponseCacheEntry> cached = conditional ? apiResponseCache.find(requestKey) : Optional.empty();
+        HttpHeaders headers = new HttpHeaders();
+        cached.ifPresent(entry -> headers.setIfNoneMatch(entry.getEtag()));
+        ResponseEntity<R> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), responseType);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached.isPresent()) {
+            return new ConditionalPage<>(requestKey, null, null, cached.get(), null);
+        }
+        return new ConditionalPage<>(requestKey, response.getBody(), response.getHeaders().getETag(), null,
+                conditional ? apiResponseCache : null);
+    }
+
+    /**
+     * Outcome of {@link #getPage}: either a body, whose ETag can be staged for the next sync, or the stored
+     * entry of a page that was not modified.
+     */
+    private static class ConditionalPage<R> {
+        private final String requestKey;
+        private final R body;
+        private final String headerEtag;
+        private final ApiResponseCacheEntry cached;
+        private final ApiResponseCache cache;
+
+        ConditionalPage(String requestKey, R body, String headerEtag, ApiResponseCacheEntry cached,
+                        ApiResponseCache cache) {
+            this.requestKey = requestKey;
+            this.body = body;
+            this.headerEtag = headerEtag;
+            this.cached = cached;
+            this.cache = cache;
+        }
+
+        boolean isNotModified() {
+            return cached != null;
+        }
+
+        ApiResponseCacheEntry getCached() {
+            return cached;
+        }
+
+        R getBody() {
+            return body;
+        }
+
+        /**
+         * Stage the page's ETag (the header, else the one in the body) with what is needed to replay a 304.
+         */
+        void stage(String bodyEtag, String nextPageToken, List<String> itemIds) {
+            String etag = headerEtag != null ? headerEtag : bodyEtag;
+            if (cache != null && etag != null) {
+                cache.stage(new ApiResponseCacheEntry(requestKey, etag, nextPageToken, itemIds));
+            }
+        }
+    }
 
-        // This will print the exact link to your console for debugging
-        System.out.println("\n\n******************************************************************");
-        System.out.println("DEBUGGING YOUTUBE API URL (COPY AND PASTE IN BROWSER):");
-        System.out.println(url);
-        System.out.println("******************************************************************\n\n");
+    public YouTubeVideoResponse getVideoDetails(String videoIds) {
+        String url = String.format("%s/videos?part=snippet,statistics,contentDetails&fields=%s&id=%s&key=%s",
+                apiBaseUrl, VIDEO_DETAILS_FIELDS, videoIds, apiKey);
 
         try {
+            // Requests run concurrently during enrichment, so log on one line and without the key.
             logger.info("Fetching video details for a chunk of videos...");
+            logger.debug("Video details URL: {}", url.replace(apiKey, "***"));
             return restTemplate.getForObject(url, YouTubeVideoResponse.class);
         } catch (RestClientException e) {
+            rethrowIfRejected(e);
             logger.error("!!! CRITICAL ERROR fetching video details. URL was: {} - Error: {}", url.replace(apiKey, "***"), e.getMessage());
             return null;
         }
     }
 
-    private List<YouTubeVideoResponse.VideoItem> enrichVideosWithStatistics(List<YouTubeVideoResponse.VideoItem> videoItems) {
+    public List<YouTubeVideoResponse.VideoItem> getVideoStatistics(List<String> videoIds) {
+        return getVideoStatistics(videoIds, null);
+    }
+
+    /**
+     * Statistics only for the given video IDs, fetched with {@code part=statistics} in batches of 50 IDs
+     * (one quota unit per batch). Videos that are private or deleted are missing from the result. When
+     * {@code failedVideoIds} is given, the IDs of each batch that could not be fetched are passed to it, so
+     * they can be told apart from videos the API no longer returns.
+     */
+    public List<YouTubeVideoResponse.VideoItem> getVideoStatistics(List<String> videoIds,
+                                                                   Consumer<List<String>> failedVideoIds) {
+        List<YouTubeVideoResponse.VideoItem> statistics = new ArrayList<>();
+        final int CHUNK_SIZE = 50;
+        for (int i = 0; i < videoIds.size(); i += CHUNK_SIZE) {
+            List<String> batch = videoIds.subList(i, Math.min(videoIds.size(), i + CHUNK_SIZE));
+            String url = String.format("%s/videos?part=statistics&fields=%s&id=%s&key=%s",
+                    apiBaseUrl, VIDEO_STATISTICS_FIELDS, String.join(",", batch), apiKey);
+            try {
+                YouTubeVideoResponse response = restTemplate.getForObject(url, YouTubeVideoResponse.class);
+                if (response != null && response.getItems() != null) {
+                    statistics.addAll(response.getItems());
+                }
+            } catch (RestClientException e) {
+                rethrowIfRejected(e);
+                logger.error("Error fetching video statistics: {}", e.getMessage());
+                if (failedVideoIds != null) {
+                    failedVideoIds.accept(batch);
+                }
+            }
+        }
+        logger.info("Fetched statistics for {} of {} videos.", statistics.size(), videoIds.size());
+        return statistics;
+    }
+
+    public List<YouTubeVideoResponse.VideoItem> enrichVideosWithStatistics(List<YouTubeVideoResponse.VideoItem> videoItems) {
+        return enrichVideosWithStatistics(videoItems, null);
+    }
+
+    /**
+     * Add statistics, content details and missing snippet fields to the given items, fetched in chunks of 50.
+     * Returns the same list. When {@code failedItems} is given, the items of each chunk whose details could
+     * not be fetched are passed to it, so they can be told apart from videos the API no longer returns.
+     */
+    public List<YouTubeVideoResponse.VideoItem> enrichVideosWithStatistics(List<YouTubeVideoResponse.VideoItem> videoItems,
+                                                                          Consumer<List<YouTubeVideoResponse.VideoItem>> failedItems) {
         if (videoItems == null || videoItems.isEmpty()) {
             logger.warn("enrichVideosWithStatistics called with no videos to process.");
             return videoItems;
@@ -134,8 +431,8 @@ public class YouTubeApiService {
 
         logger.info("Starting enrichment process for {} videos...", videoItems.size());
         final int CHUNK_SIZE = 50;
-        int enrichedCount = 0;
-
+        List<List<YouTubeVideoResponse.VideoItem>> chunks = new ArrayList<>();
+        List<String> chunkVideoIds = new ArrayList<>();
         for (int i = 0; i < videoItems.size(); i += CHUNK_SIZE) {
             List<YouTubeVideoResponse.VideoItem> chunk = videoItems.subList(i, Math.min(videoItems.size(), i + CHUNK_SIZE));
 
@@ -148,36 +445,26 @@ public class YouTubeApiService {
                 logger.warn("Skipping a chunk in enrichment because no valid video IDs were found.");
                 continue;
             }
+            chunks.add(chunk);
+            chunkVideoIds.add(videoIdsStr);
+        }
+
+        List<YouTubeVideoResponse> detailedResponses = fetchVideoDetails(chunkVideoIds);
 
-            YouTubeVideoResponse detailedResponse = getVideoDetails(videoIdsStr);
+        // Merging happens on the calling thread, in chunk order, once all requests have completed.
+        int enrichedCount = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            List<YouTubeVideoResponse.VideoItem> chunk = chunks.get(c);
+            YouTubeVideoResponse detailedResponse = detailedResponses.get(c);
 
             if (detailedResponse != null && detailedResponse.getItems() != null && !detailedResponse.getItems().isEmpty()) {
                 logger.info("Successfully fetched details for {} videos in the chunk.", detailedResponse.getItems().size());
-                Map<String, YouTubeVideoResponse.VideoItem> detailedItemsMap = detailedResponse.getItems().stream()
-                        .collect(Collectors.toMap(
-                                item -> item.getId().toString(),
-                                item -> item,
-                                (item1, item2) -> item1 // handle duplicates if any
-                        ));
-
-                for (YouTubeVideoResponse.VideoItem originalItem : chunk) {
-                    YouTubeVideoResponse.VideoItem detailedItem = detailedItemsMap.get(originalItem.getVideoId());
-                    if (detailedItem != null) {
-                        originalItem.setStatistics(detailedItem.getStatistics());
-                        originalItem.setContentDetails(detailedItem.getContentDetails());
-                        if (detailedItem.getSnippet() != null) {
-                            if (originalItem.getSnippet().getTags() == null && detailedItem.getSnippet().getTags() != null) {
-                                originalItem.getSnippet().setTags(detailedItem.getSnippet().getTags());
-                            }
-                            if (originalItem.getSnippet().getCategoryId() == null && detailedItem.getSnippet().getCategoryId() != null) {
-                                originalItem.getSnippet().setCategoryId(detailedItem.getSnippet().getCategoryId());
-                            }
-                        }
-                        enrichedCount++;
-                    }
-                }
+                enrichedCount += mergeVideoDetails(chunk, detailedResponse);
             } else {
                 logger.warn("Received no details for video IDs chunk starting with: {}", chunk.get(0).getVideoId());
+                if (detailedResponse == null && failedItems != null) {
+                    failedItems.accept(chunk);
+                }
             }
         }
 
@@ -185,6 +472,97 @@ public class YouTubeApiService {
         return videoItems;
     }
 
+    /**
+     * Fetch the details of each comma-separated ID chunk, with at most {@code youtube.api.enrichment-parallelism}
+     * requests in flight. The result lists the responses in chunk order; a chunk that failed maps to null.
+     */
+    private List<YouTubeVideoResponse> fetchVideoDetails(List<String> chunkVideoIds) {
+        int parallelism = Math.min(Math.max(1, enrichmentParallelism), chunkVideoIds.size());
+        List<YouTubeVideoResponse> responses = new ArrayList<>(chunkVideoIds.size());
+        if (parallelism <= 1) {
+            for (String videoIdsStr : chunkVideoIds) {
+                responses.add(getVideoDetails(videoIdsStr));
+            }
+            return responses;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "youtube-enrichment-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<YouTubeVideoResponse>> futures = new ArrayList<>(chunkVideoIds.size());
+            for (String videoIdsStr : chunkVideoIds) {
+                futures.add(executor.submit(() -> getVideoDetails(videoIdsStr)));
+            }
+            for (int c = 0; c < futures.size(); c++) {
+                try {
+                    responses.add(futures.get(c).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RestClientException) {
+                        rethrowIfRejected((RestClientException) e.getCause());
+                    }
+                    logger.error("Error fetching video details for chunk {}: {}", c, e.getCause().getMessage());
+                    responses.add(null);
+                }
+            }
+            return responses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching video details", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Copy statistics, content details and missing snippet fields from the detailed items onto the chunk's
+     * items. Returns the number of items that were matched.
+     */
+    private int mergeVideoDetails(List<YouTubeVideoResponse.VideoItem> chunk, YouTubeVideoResponse detailedResponse) {
+        Map<String, YouTubeVideoResponse.VideoItem> detailedItemsMap = detailedResponse.getItems().stream()
+                .filter(item -> item.getVideoId() != null)
+                .collect(Collectors.toMap(
+                        YouTubeVideoResponse.VideoItem::getVideoId,
+                        item -> item,
+                        (item1, item2) -> item1 // handle duplicates if any
+                ));
+
+        int enrichedCount = 0;
+        for (YouTubeVideoResponse.VideoItem originalItem : chunk) {
+            YouTubeVideoResponse.VideoItem detailedItem = detailedItemsMap.get(originalItem.getVideoId());
+            if (detailedItem != null) {
+                originalItem.setStatistics(detailedItem.getStatistics());
+                originalItem.setContentDetails(detailedItem.getContentDetails());
+                if (originalItem.getSnippet() == null) {
+                    // Items built from a playlist only carry an ID; take the whole snippet.
+                    originalItem.setSnippet(detailedItem.getSnippet());
+                } else if (detailedItem.getSnippet() != null) {
+                    if (originalItem.getSnippet().getTags() == null && detailedItem.getSnippet().getTags() != null) {
+                        originalItem.getSnippet().setTags(detailedItem.getSnippet().getTags());
+                    }
+                    if (originalItem.getSnippet().getCategoryId() == null && detailedItem.getSnippet().getCategoryId() != null) {
+                        originalItem.getSnippet().setCategoryId(detailedItem.getSnippet().getCategoryId());
+                    }
+                }
+                enrichedCount++;
+            }
+        }
+        return enrichedCount;
+    }
+
+    /**
+     * A call the circuit breaker or the quota refused is not a failure of that one request: the calls after
+     * it would be refused too. Rethrow it so the running job aborts instead of carrying on without the data.
+     */
+    private static void rethrowIfRejected(RestClientException e) {
+        if (e instanceof ApiCircuitBreaker.CircuitOpenException || e instanceof ApiQuotaService.QuotaExhaustedException) {
+            throw e;
+        }
+    }
+
     public boolean testApiConnection() {
         try {
             YouTubeChannelResponse response = getChannelInfo();
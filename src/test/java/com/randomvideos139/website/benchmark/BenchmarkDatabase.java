@@ -0,0 +1,25 @@
+package com.randomvideos139.website.benchmark;
+
+/**
+ * Command-line style overrides that point a benchmark's Spring context at an in-memory H2 database in
+ * MySQL mode. Passed as arguments so they win over application.properties.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    static String[] h2Arguments(String databaseName) {
+        return new String[]{
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.VideoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@code rows} videos, half of them already stored, through the old per-row {@code save()} path and
+ * through {@link VideoRepository#bulkUpsert}. Runs against in-memory H2 in MySQL mode; {@code roundTripMicros}
+ * adds a fixed delay per statement to approximate a MySQL server across the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkPersistenceBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"0", "200"})
+    public long roundTripMicros;
+
+    private ConfigurableApplicationContext context;
+    private VideoRepository videoRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private List<Video> videos;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        List<String> args = new ArrayList<>(List.of(BenchmarkDatabase.h2Arguments("bulk_persistence")));
+        args.add("--benchmark.db.round-trip-micros=" + roundTripMicros);
+        context = new SpringApplicationBuilder(PersistenceOnlyConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+        videoRepository = context.getBean(VideoRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTable() {
+        jdbcTemplate.update("DELETE FROM videos");
+        List<Video> existing = new ArrayList<>(rows / 2);
+        videos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Video video = new Video("video-" + i, "Video " + i);
+            video.setDescription("Description of video " + i);
+            video.setViewCount((long) i);
+            video.setContentFingerprint(Integer.toHexString(i));
+            if (i % 2 == 0) {
+                existing.add(video);
+            }
+            Video changed = new Video(video.getVideoId(), video.getTitle());
+            changed.setDescription(video.getDescription());
+            changed.setViewCount(i + 1L);
+            changed.setContentFingerprint(Integer.toHexString(i + 1));
+            videos.add(changed);
+        }
+        transactionTemplate.executeWithoutResult(status -> videoRepository.bulkUpsert(existing));
+    }
+
+    @Benchmark
+    public void perRowSave() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Video video : videos) {
+                videoRepository.save(video);
+            }
+        });
+    }
+
+    @Benchmark
+    public int bulkUpsert() {
+        return transactionTemplate.execute(status -> videoRepository.bulkUpsert(videos));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Video.class)
+    @EnableJpaRepositories(basePackageClasses = VideoRepository.class)
+    static class PersistenceOnlyConfiguration {
+
+        @Bean
+        static RoundTripLatency roundTripLatency(Environment environment) {
+            return new RoundTripLatency(environment);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkPersistenceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.randomvideos139.website.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randomvideos139.website.dto.FieldMask;
+import com.randomvideos139.website.dto.YouTubeChannelResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistItemResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.service.YouTubeApiService;
+import com.randomvideos139.website.support.YouTubeFixtures;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse time of a 50-item page of each list call, as the full response and as the response to the call's
+ * {@code fields=} mask from {@link YouTubeApiService}, built from the fixtures in
+ * {@code src/test/resources/youtube}. The {@code payloadBytes} counter reports the size of the
+ * (uncompressed) page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldMaskBenchmark {
+
+    @Param({"search", "videos", "playlists", "playlistItems", "channels"})
+    public String call;
+
+    @Param({"full", "masked"})
+    public String response;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] payload;
+    private Class<?> responseType;
+
+    @Setup(Level.Trial)
+    public void buildPage() {
+        FieldMask mask;
+        switch (call) {
+            case "search":
+                mask = YouTubeApiService.SEARCH_FIELDS;
+                responseType = YouTubeVideoResponse.class;
+                break;
+            case "videos":
+                mask = YouTubeApiService.VIDEO_DETAILS_FIELDS;
+                responseType = YouTubeVideoResponse.class;
+                break;
+            case "playlists":
+                mask = YouTubeApiService.PLAYLIST_FIELDS;
+                responseType = YouTubePlaylistResponse.class;
+                break;
+            case "playlistItems":
+                mask = YouTubeApiService.PLAYLIST_ITEM_FIELDS;
+                responseType = YouTubePlaylistItemResponse.class;
+                break;
+            default:
+                mask = YouTubeApiService.CHANNEL_FIELDS;
+                responseType = YouTubeChannelResponse.class;
+        }
+        // A channels call returns the one channel; the list calls return full pages of 50.
+        int size = "channels".equals(call) ? 1 : 50;
+        payload = YouTubeFixtures.toBytes("masked".equals(response)
+                ? YouTubeFixtures.apply(mask, YouTubeFixtures.page(call, size))
+                : YouTubeFixtures.page(call, size));
+    }
+
+    @Benchmark
+    public Object parse(Payload counters) throws IOException {
+        counters.payloadBytes = payload.length;
+        return objectMapper.readValue(payload, responseType);
+    }
+
+    /**
+     * Size of the page being parsed.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long payloadBytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FieldMaskBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
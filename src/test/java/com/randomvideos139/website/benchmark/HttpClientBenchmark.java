@@ -0,0 +1,129 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.config.HttpClientConfig;
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.support.StubYouTubeApi;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-page latency of a 50-ID {@code videos} request against {@link StubYouTubeApi}, through the old
+ * {@code new RestTemplate()} client ({@code simple}) and through the pooled client from
+ * {@link HttpClientConfig} ({@code pooled}). Reported as pages per second; the {@code connections} counter
+ * reports new TCP connections per second on the same scale, so connections / score is the share of pages
+ * that paid for a handshake. {@code stubLatencyMillis} adds a fixed server-side delay to each response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpClientBenchmark {
+
+    @Param({"simple", "pooled"})
+    public String client;
+
+    @Param({"0", "5"})
+    public long stubLatencyMillis;
+
+    private StubYouTubeApi stubApi;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String pageUrl;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        stubApi = new StubYouTubeApi(stubLatencyMillis);
+        StringJoiner ids = new StringJoiner(",");
+        for (int i = 0; i < 50; i++) {
+            ids.add("video-" + i);
+        }
+        pageUrl = stubApi.baseUrl() + "/videos?part=snippet,statistics,contentDetails&id=" + ids + "&key=bench";
+        if ("pooled".equals(client)) {
+            HttpClientConfig config = new HttpClientConfig();
+            ReflectionTestUtils.setField(config, "apiBaseUrl", stubApi.baseUrl());
+            ReflectionTestUtils.setField(config, "maxConnections", 20);
+            ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 10);
+            ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(5));
+            ReflectionTestUtils.setField(config, "readTimeout", Duration.ofSeconds(30));
+            ReflectionTestUtils.setField(config, "poolTimeout", Duration.ofSeconds(10));
+            ReflectionTestUtils.setField(config, "idleTimeout", Duration.ofSeconds(60));
+            httpClient = config.youTubeHttpClient(config.youTubeConnectionManager());
+            restTemplate = config.youTubeRestTemplate(httpClient, List.of());
+        } else {
+            restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        }
+    }
+
+    @Benchmark
+    public YouTubeVideoResponse fetchPage(Connections connections) {
+        int before = stubApi.connectionCount();
+        YouTubeVideoResponse response = restTemplate.getForObject(pageUrl, YouTubeVideoResponse.class);
+        connections.connections += stubApi.connectionCount() - before;
+        return response;
+    }
+
+    /**
+     * Eight pages in flight at once, as during enrichment with a raised parallelism. The JDK client keeps at
+     * most five idle connections per host, so here it keeps opening new ones.
+     */
+    @Benchmark
+    @Threads(8)
+    public YouTubeVideoResponse fetchPageConcurrently(Connections connections) {
+        return fetchPage(connections);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws Exception {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        stubApi.close();
+    }
+
+    /**
+     * New connections opened by the client, reported per operation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Connections {
+        public long connections;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            connections = 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HttpClientBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.entity.Video;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering {@code all-videos.html} for a 12-card page (page 1 of 87, sorted by date) with the Spring
+ * dialect and cached templates, as Spring Boot configures Thymeleaf. Only the template engine runs: no
+ * dispatcher, controller or database. Run through {@link #main} for the GC profiler's
+ * {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageRenderingBenchmark {
+
+    private static final int PAGE_SIZE = 12;
+
+    private SpringTemplateEngine templateEngine;
+    private MockServletContext servletContext;
+    private JakartaServletWebApplication application;
+    private Map<String, Object> model;
+
+    @Setup(Level.Trial)
+    public void setUpEngine() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        servletContext = new MockServletContext();
+        application = JakartaServletWebApplication.buildApplication(servletContext);
+
+        List<Video> videos = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime publishedAt = LocalDateTime.of(2024, 5, 1, 18, 0);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Video video = new Video(String.format("vid%08d", i), "Random video #" + (1041 - i) + ": a lighthouse keeper's morning");
+            video.setThumbnailUrl("https://i.ytimg.com/vi/" + video.getVideoId() + "/hqdefault.jpg");
+            video.setViewCount(1_234_567L / (i + 1));
+            video.setPublishedAt(publishedAt.minusDays(i));
+            videos.add(video);
+        }
+        model = Map.of("videos", new PageImpl<>(videos,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "publishedAt")), 1041));
+    }
+
+    @Benchmark
+    public String render() {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/videos");
+        WebContext context = new WebContext(application.buildExchange(request, new MockHttpServletResponse()),
+                Locale.US, model);
+        return templateEngine.process("all-videos", context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PageRenderingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
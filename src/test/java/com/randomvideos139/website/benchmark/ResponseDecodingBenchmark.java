@@ -0,0 +1,80 @@
+package com.randomvideos139.website.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randomvideos139.website.dto.YouTubeChannelResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubeResponseDecoders;
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.support.YouTubeFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding time of a full (unmasked) 50-item page of each list call, built from the fixtures in
+ * {@code src/test/resources/youtube}, through Jackson's bean deserializers with an untyped video {@code id}
+ * ({@code databind}, the old path) and through {@link YouTubeResponseDecoders} ({@code streaming}).
+ * Run through {@link #main} for the GC profiler's {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDecodingBenchmark {
+
+    @Param({"search", "videos", "playlists", "channels"})
+    public String call;
+
+    @Param({"databind", "streaming"})
+    public String decoder;
+
+    private ObjectMapper objectMapper;
+    private byte[] payload;
+    private Class<?> responseType;
+
+    @Setup(Level.Trial)
+    public void buildPage() {
+        objectMapper = "databind".equals(decoder) ? YouTubeFixtures.databindMapper() : new ObjectMapper();
+        switch (call) {
+            case "playlists":
+                responseType = YouTubePlaylistResponse.class;
+                break;
+            case "channels":
+                responseType = YouTubeChannelResponse.class;
+                break;
+            default:
+                responseType = YouTubeVideoResponse.class;
+        }
+        payload = YouTubeFixtures.toBytes(YouTubeFixtures.page(call, "channels".equals(call) ? 1 : 50));
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return objectMapper.readValue(payload, responseType);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseDecodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
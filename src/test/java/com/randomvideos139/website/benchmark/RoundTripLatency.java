@@ -0,0 +1,59 @@
+package com.randomvideos139.website.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wraps the benchmark DataSource so every statement execution pays a fixed delay, standing in for the
+ * network round-trip to a real MySQL server that an in-memory H2 database does not have.
+ * Configured with {@code benchmark.db.round-trip-micros}; 0 disables the wrapper.
+ */
+class RoundTripLatency implements BeanPostProcessor {
+
+    private final long roundTripNanos;
+
+    RoundTripLatency(Environment environment) {
+        this.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(
+                environment.getProperty("benchmark.db.round-trip-micros", Long.class, 0L));
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (roundTripNanos > 0 && bean instanceof DataSource) {
+            return proxy(DataSource.class, bean);
+        }
+        return bean;
+    }
+
+    private <T> T proxy(Class<T> type, Object target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (target instanceof Statement && name.startsWith("execute")) {
+                LockSupport.parkNanos(roundTripNanos);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection && !(result instanceof Proxy)) {
+                return proxy(Connection.class, result);
+            }
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return proxy(method.getReturnType(), result);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
@@ -0,0 +1,180 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.service.VideoSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link VideoSearchIndex} over {@code videos} synthetic videos, whose titles (6 words), tags (5) and
+ * descriptions (60) draw from a Zipf-distributed vocabulary of 20,000 words, some with diacritics:
+ * <ul>
+ *     <li>{@code search}: the first page of results for a {@code query} of one rare word, the most common
+ *     word (found in nearly every video), two words, or a three-letter prefix as typed;</li>
+ *     <li>{@code scanTitles}: the same query as a case-insensitive substring scan of every title, what
+ *     {@code LIKE '%q%'} does in the database, without the database;</li>
+ *     <li>{@code updateAfterSync}: {@link VideoSearchIndex#update} with the whole catalog after a sync that
+ *     changed the titles of 100 videos;</li>
+ *     <li>{@code buildFromScratch}: indexing the whole catalog, as at startup.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ré", "tu", "vo", "shi", "an", "el", "ço", "ri", "na", "pé", "gu", "zo", "be"};
+    private static final int PAGE_SIZE = 12;
+    private static final int CHANGED_PER_SYNC = 100;
+
+    @Param({"100000"})
+    public int videos;
+
+    private List<Video> catalog;
+    private VideoSearchIndex index;
+    private Random random;
+    private int syncs;
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({"rare", "common", "two-words", "prefix"})
+        public String kind;
+
+        String text;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            switch (kind) {
+                case "rare":
+                    text = word(5_000);
+                    break;
+                case "common":
+                    text = word(0);
+                    break;
+                case "two-words":
+                    text = word(3) + " " + word(40);
+                    break;
+                default:
+                    text = word(100).substring(0, 3);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void buildCatalog() {
+        random = new Random(139);
+        double[] cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            total += 1.0 / Math.pow(rank + 1, 1.07);
+            cumulative[rank] = total;
+        }
+        catalog = new ArrayList<>(videos);
+        for (int i = 0; i < videos; i++) {
+            Video video = new Video(String.format("vid%08d", i), capitalize(words(cumulative, total, 6, " ")));
+            video.setTags(words(cumulative, total, 5, ","));
+            video.setDescription(capitalize(words(cumulative, total, 60, " ")) + ".");
+            catalog.add(video);
+        }
+        index = new VideoSearchIndex();
+        index.update(catalog);
+    }
+
+    @Benchmark
+    public List<String> search(Query query) {
+        return index.search(query.text).top(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<String> scanTitles(Query query) {
+        String needle = query.text.toLowerCase(Locale.ROOT);
+        List<String> found = new ArrayList<>(PAGE_SIZE);
+        for (Video video : catalog) {
+            if (video.getTitle().toLowerCase(Locale.ROOT).contains(needle) && found.size() < PAGE_SIZE) {
+                found.add(video.getVideoId());
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int updateAfterSync() {
+        syncs++;
+        for (int i = 0; i < CHANGED_PER_SYNC; i++) {
+            Video video = catalog.get(random.nextInt(catalog.size()));
+            video.setTitle("Random video #" + syncs + "-" + i + ": " + word(random.nextInt(VOCABULARY)));
+        }
+        return index.update(catalog);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int buildFromScratch() {
+        return new VideoSearchIndex().update(catalog);
+    }
+
+    /**
+     * The word of the given frequency rank: distinct for every rank, from two to four syllables.
+     */
+    static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int remaining = rank + SYLLABLES.length;
+        while (remaining > 0) {
+            word.append(SYLLABLES[remaining % SYLLABLES.length]);
+            remaining /= SYLLABLES.length;
+        }
+        return word.toString();
+    }
+
+    private String words(double[] cumulative, double total, int count, String separator) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            if (i > 0) {
+                text.append(separator);
+            }
+            text.append(word(rank < 0 ? -rank - 1 : rank));
+        }
+        return text.toString();
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchIndexBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
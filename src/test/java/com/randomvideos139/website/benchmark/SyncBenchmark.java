@@ -0,0 +1,141 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.config.HttpClientConfig;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.VideoRepository;
+import com.randomvideos139.website.service.DataSyncService;
+import com.randomvideos139.website.support.StubYouTubeApi;
+import com.randomvideos139.website.support.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full {@link DataSyncService#syncAllData} of a {@link SyntheticCatalog} of {@code videos} videos served by
+ * {@link StubYouTubeApi} with {@code latencyMillis} per request, into in-memory H2 in MySQL mode: into an
+ * empty database ({@code intoEmptyDatabase}) and over the catalog stored by a previous sync, with every
+ * video's statistics changed since ({@code overStoredCatalog}). Rate limiting and the quota budget are lifted
+ * so the time is the sync's own. The baseline for sync performance changes; pass {@code -p errorRate=0.01}
+ * to fail that share of requests with HTTP 503 and include the cost of retries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SyncBenchmark {
+
+    private static final List<String> TABLES = List.of(
+            "videos", "video_statistics_blocks", "playlist_video_ids", "playlists", "channel_stats", "update_history",
+            "api_response_cache", "api_quota_usage");
+
+    @Param({"1000", "10000", "100000"})
+    public int videos;
+
+    @Param({"0", "40"})
+    public long latencyMillis;
+
+    @Param({"0"})
+    public double errorRate;
+
+    private StubYouTubeApi stubApi;
+    private SyntheticCatalog catalog;
+    private ConfigurableApplicationContext context;
+    private DataSyncService dataSyncService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void startContext() throws IOException {
+        catalog = new SyntheticCatalog(videos, 30);
+        stubApi = new StubYouTubeApi(latencyMillis);
+        stubApi.setCatalog(catalog);
+        stubApi.injectErrors(errorRate, 503);
+        List<String> args = new ArrayList<>(List.of(BenchmarkDatabase.h2Arguments("sync")));
+        args.add("--youtube.api.base-url=" + stubApi.baseUrl());
+        args.add("--youtube.api.key=benchmark");
+        args.add("--youtube.api.rate-limit.requests-per-second=100000");
+        args.add("--youtube.api.rate-limit.burst=100000");
+        args.add("--youtube.api.quota.daily-limit=1000000000");
+        context = new SpringApplicationBuilder(SyncOnlyConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+        dataSyncService = context.getBean(DataSyncService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareDatabase(BenchmarkParams params) {
+        TABLES.forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        if (params.getBenchmark().endsWith("overStoredCatalog")) {
+            dataSyncService.syncAllData();
+            catalog.advanceStatistics();
+        }
+    }
+
+    @Benchmark
+    public void intoEmptyDatabase() {
+        dataSyncService.syncAllData();
+    }
+
+    @Benchmark
+    public void overStoredCatalog() {
+        dataSyncService.syncAllData();
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkStored() {
+        Integer stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM videos", Integer.class);
+        if (errorRate == 0 && (stored == null || stored != videos)) {
+            throw new IllegalStateException("Sync stored " + stored + " of " + videos + " videos");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+        stubApi.close();
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @ComponentScan(basePackageClasses = {HttpClientConfig.class, DataSyncService.class, VideoRepository.class})
+    @EntityScan(basePackageClasses = Video.class)
+    @EnableJpaRepositories(basePackageClasses = VideoRepository.class)
+    static class SyncOnlyConfiguration {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SyncBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.randomvideos139.website.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.entity.Playlist;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.service.DataSyncService;
+import com.randomvideos139.website.support.YouTubeFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a 50-item page of API videos and of API playlists onto entities with their content fingerprints,
+ * through {@code DataSyncService.mapVideo} and {@code mapPlaylist} (which wrap {@code updateVideoFromApi}
+ * and {@code updatePlaylistFromApi}), from the fixtures in {@code src/test/resources/youtube}. The private
+ * methods are called through method handles, which the JIT inlines like direct calls. Run through
+ * {@link #main} for the GC profiler's {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncMappingBenchmark {
+
+    private static final MethodHandle MAP_VIDEO;
+    private static final MethodHandle MAP_PLAYLIST;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(DataSyncService.class, MethodHandles.lookup());
+            MAP_VIDEO = lookup.findVirtual(DataSyncService.class, "mapVideo",
+                    MethodType.methodType(Video.class, YouTubeVideoResponse.VideoItem.class));
+            MAP_PLAYLIST = lookup.findVirtual(DataSyncService.class, "mapPlaylist",
+                    MethodType.methodType(Playlist.class, YouTubePlaylistResponse.PlaylistItem.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final DataSyncService dataSyncService = new DataSyncService();
+    private List<YouTubeVideoResponse.VideoItem> videoItems;
+    private List<YouTubePlaylistResponse.PlaylistItem> playlistItems;
+
+    @Setup(Level.Trial)
+    public void decodePages() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        videoItems = objectMapper.readValue(YouTubeFixtures.toBytes(YouTubeFixtures.page("videos", 50)),
+                YouTubeVideoResponse.class).getItems();
+        playlistItems = objectMapper.readValue(YouTubeFixtures.toBytes(YouTubeFixtures.page("playlists", 50)),
+                YouTubePlaylistResponse.class).getItems();
+    }
+
+    @Benchmark
+    public void mapVideos(Blackhole blackhole) throws Throwable {
+        for (YouTubeVideoResponse.VideoItem videoItem : videoItems) {
+            blackhole.consume((Video) MAP_VIDEO.invokeExact(dataSyncService, videoItem));
+        }
+    }
+
+    @Benchmark
+    public void mapPlaylists(Blackhole blackhole) throws Throwable {
+        for (YouTubePlaylistResponse.PlaylistItem playlistItem : playlistItems) {
+            blackhole.consume((Playlist) MAP_PLAYLIST.invokeExact(dataSyncService, playlistItem));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SyncMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
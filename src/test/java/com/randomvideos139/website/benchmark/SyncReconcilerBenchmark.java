@@ -0,0 +1,68 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.service.SyncReconciler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconciliation cost for catalogs of increasing size. The API side holds {@code size} videos, the database
+ * side the same catalog shifted by 10% so every run produces inserts, updates and deletes. Time per op
+ * should grow linearly with {@code size}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncReconcilerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<YouTubeVideoResponse.VideoItem> apiItems;
+    private List<Video> dbVideos;
+
+    @Setup
+    public void setUp() {
+        int shift = size / 10;
+        apiItems = new ArrayList<>(size);
+        dbVideos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            YouTubeVideoResponse.VideoItem item = new YouTubeVideoResponse.VideoItem();
+            item.setId("video-" + i);
+            apiItems.add(item);
+            dbVideos.add(new Video("video-" + (i + shift), "Video " + (i + shift)));
+        }
+    }
+
+    @Benchmark
+    public SyncReconciler.Result<YouTubeVideoResponse.VideoItem, Video> reconcile() {
+        return SyncReconciler.reconcile(apiItems, YouTubeVideoResponse.VideoItem::getVideoId,
+                dbVideos, Video::getVideoId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SyncReconcilerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.dto.YouTubeTimeFormats;
+import com.randomvideos139.website.support.LegacyTimeParsing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping the durations and publish dates of a 50-video page, through the old string-splitting and
+ * {@code DateTimeFormatter} parsing ({@code legacy*}) and through {@link YouTubeTimeFormats}. Run through
+ * {@link #main} for the GC profiler's {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeParsingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private final String[] durations = new String[PAGE_SIZE];
+    private final String[] timestamps = new String[PAGE_SIZE];
+
+    @Setup(Level.Trial)
+    public void buildPage() {
+        Random random = new Random(15);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            int hours = random.nextInt(5) == 0 ? 1 + random.nextInt(2) : 0;
+            durations[i] = "PT" + (hours > 0 ? hours + "H" : "") + random.nextInt(60) + "M" + random.nextInt(60) + "S";
+            timestamps[i] = String.format("20%02d-%02d-%02dT%02d:%02d:%02dZ", 10 + random.nextInt(15),
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60),
+                    random.nextInt(60));
+        }
+    }
+
+    @Benchmark
+    public void legacyDurations(Blackhole blackhole) {
+        for (String duration : durations) {
+            blackhole.consume(LegacyTimeParsing.formatDuration(duration));
+        }
+    }
+
+    @Benchmark
+    public void durations(Blackhole blackhole) {
+        for (String duration : durations) {
+            long seconds = YouTubeTimeFormats.parseDurationSeconds(duration);
+            blackhole.consume(seconds);
+            blackhole.consume(YouTubeTimeFormats.formatDuration(seconds));
+        }
+    }
+
+    @Benchmark
+    public void legacyTimestamps(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(LegacyTimeParsing.parseTimestamp(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void timestamps(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(YouTubeTimeFormats.parseTimestamp(timestamp));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TimeParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.randomvideos139.website.benchmark;
+
+import com.randomvideos139.website.entity.Video;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-card display values of a 12-card video page, {@link Video#getFormattedViewCount} and
+ * {@link Video#getTimeAgo}, for view counts from tens to tens of millions and publish dates from minutes to
+ * years ago. Run through {@link #main} for the GC profiler's {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VideoFormattingBenchmark {
+
+    private static final int PAGE_SIZE = 12;
+
+    private final List<Video> videos = new ArrayList<>(PAGE_SIZE);
+
+    @Setup(Level.Trial)
+    public void buildPage() {
+        Random random = new Random(17);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Video video = new Video("video-" + i, "Video " + i);
+            // Spread over 10^1 to 10^8 views and 1 minute to ~5 years ago.
+            video.setViewCount((long) Math.pow(10, 1 + 7 * random.nextDouble()));
+            video.setPublishedAt(now.minusMinutes((long) Math.pow(2_600_000, random.nextDouble())));
+            videos.add(video);
+        }
+    }
+
+    @Benchmark
+    public void formattedViewCounts(Blackhole blackhole) {
+        for (Video video : videos) {
+            blackhole.consume(video.getFormattedViewCount());
+        }
+    }
+
+    @Benchmark
+    public void timeAgo(Blackhole blackhole) {
+        for (Video video : videos) {
+            blackhole.consume(video.getTimeAgo());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VideoFormattingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.randomvideos139.website.config;
+
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.VideoRepository;
+import com.randomvideos139.website.service.SyncCompletedEvent;
+import com.randomvideos139.website.service.VideoCatalog;
+import com.randomvideos139.website.service.VideoService;
+import com.randomvideos139.website.service.VideoStatisticsHistoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig({CacheConfig.class, VideoService.class})
+@TestPropertySource(properties = "cache.video-pages.maximum-weight=30")
+public class CacheConfigTest {
+
+    @MockBean
+    private VideoRepository videoRepository;
+
+    @MockBean
+    private VideoStatisticsHistoryService statisticsHistoryService;
+
+    @MockBean
+    private VideoCatalog videoCatalog;
+
+    @Autowired
+    private VideoService videoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void testReadsAreCachedUntilASyncChangesSomething() {
+        given(videoRepository.findById("a")).willReturn(Optional.of(new Video("a", "Video a")));
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.VIDEO);
+        cache.clear();
+
+        videoService.findVideoById("a");
+        videoService.findVideoById("a");
+        eventPublisher.publishEvent(new SyncCompletedEvent("STATISTICS", "SUCCESS", 0));
+        videoService.findVideoById("a");
+
+        verify(videoRepository, times(1)).findById("a");
+        assertEquals(2, cache.getNativeCache().stats().hitCount());
+
+        eventPublisher.publishEvent(new SyncCompletedEvent("INCREMENTAL", "PARTIAL", 4));
+        assertEquals("a", videoService.findVideoById("a").orElseThrow().getVideoId());
+
+        verify(videoRepository, times(2)).findById("a");
+    }
+
+    @Test
+    public void testEntriesOfAnEarlierCatalogVersionAreNotRead() {
+        Pageable pageable = PageRequest.of(0, 12);
+        given(videoCatalog.search("cats", pageable)).willReturn(Optional.of(new PageImpl<>(List.of(new Video("b", "Old title")))));
+        given(videoCatalog.getVersion()).willReturn(Optional.of(Instant.ofEpochMilli(1000)));
+        assertEquals("Old title", videoService.searchVideos("cats", pageable).getContent().get(0).getTitle());
+
+        // The catalog moved on, but the caches are not cleared yet.
+        given(videoCatalog.search("cats", pageable)).willReturn(Optional.of(new PageImpl<>(List.of(new Video("b", "New title")))));
+        given(videoCatalog.getVersion()).willReturn(Optional.of(Instant.ofEpochMilli(2000)));
+        assertEquals("New title", videoService.searchVideos("cats", pageable).getContent().get(0).getTitle());
+        assertEquals("New title", videoService.searchVideos("cats", pageable).getContent().get(0).getTitle());
+
+        verify(videoCatalog, times(2)).search("cats", pageable);
+    }
+
+    @Test
+    public void testPagesAreEvictedByTheNumberOfVideosTheyHold() {
+        given(videoCatalog.findPage(any())).willReturn(Optional.empty());
+        given(videoRepository.findAll(any(Pageable.class))).willAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            List<Video> videos = new ArrayList<>();
+            for (int i = 0; i < pageable.getPageSize(); i++) {
+                videos.add(new Video("v" + (pageable.getOffset() + i), "Video"));
+            }
+            return new PageImpl<>(videos, pageable, 1000);
+        });
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.VIDEO_PAGES);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheConfig().cacheHitRatioMetrics(cacheManager).bindTo(registry);
+
+        for (int page = 0; page < 4; page++) {
+            videoService.findVideos(PageRequest.of(page, 12));
+        }
+        videoService.findVideos(PageRequest.of(0, 12));
+        cache.getNativeCache().cleanUp();
+
+        // 48 videos in four pages do not fit a weight of 30.
+        assertTrue(cache.getNativeCache().estimatedSize() <= 2);
+        assertTrue(cache.getNativeCache().stats().evictionCount() >= 2);
+        assertEquals(5, cache.getNativeCache().stats().requestCount());
+        assertEquals(cache.getNativeCache().stats().hitRate(),
+                registry.get("cache.hit.ratio").tag("cache", CacheConfig.VIDEO_PAGES).gauge().value(), 1e-9);
+    }
+}
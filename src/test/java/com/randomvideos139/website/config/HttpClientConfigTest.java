@@ -0,0 +1,113 @@
+package com.randomvideos139.website.config;
+
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.support.StubYouTubeApi;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.routing.DefaultRoutePlanner;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpClientConfigTest {
+
+    private StubYouTubeApi stubApi;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (httpClient != null) {
+            httpClient.close();
+            stubApi.close();
+        }
+    }
+
+    @Test
+    public void testRequestsReuseOneGzipConnection() throws Exception {
+        RestTemplate restTemplate = restTemplate(0, Duration.ofSeconds(5));
+
+        for (int i = 0; i < 20; i++) {
+            YouTubeVideoResponse response = restTemplate.getForObject(
+                    stubApi.baseUrl() + "/videos?part=statistics&id=a,b,c&key=test", YouTubeVideoResponse.class);
+            assertEquals(3, response.getItems().size());
+        }
+
+        assertEquals(1, stubApi.connectionCount());
+        assertEquals(20, stubApi.gzipResponseCount());
+    }
+
+    @Test
+    public void testReadTimeoutFailsHungRequest() throws Exception {
+        RestTemplate restTemplate = restTemplate(2000, Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(
+                stubApi.baseUrl() + "/videos?part=statistics&id=a&key=test", YouTubeVideoResponse.class));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+    }
+
+    @Test
+    public void testRouteMetricsReportTheApiHost() throws Exception {
+        restTemplate(0, Duration.ofSeconds(5)).getForObject(
+                stubApi.baseUrl() + "/videos?part=statistics&id=a&key=test", YouTubeVideoResponse.class);
+        HttpClientConfig config = config(Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        config.youTubeConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        assertEquals(1, registry.get("youtube.http.route.connections")
+                .tag("host", "127.0.0.1:" + stubApi.baseUrl().split(":")[2].split("/")[0])
+                .tag("state", "available").gauge().value());
+        assertEquals(0, registry.get("youtube.http.route.connections").tag("state", "leased").gauge().value());
+    }
+
+    @Test
+    public void testRouteOfABaseUrlWithoutPortIsTheOneTheClientLeases() throws Exception {
+        String baseUrl = "https://www.googleapis.com/youtube/v3";
+
+        HttpRoute route = HttpClientConfig.apiRoute(baseUrl);
+
+        HttpRoute leased = new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE)
+                .determineRoute(HttpHost.create(URI.create(baseUrl + "/videos")), HttpClientContext.create());
+        assertEquals(leased, route);
+        assertEquals("www.googleapis.com:443", route.getTargetHost().toHostString());
+        assertEquals(80, HttpClientConfig.apiRoute("http://localhost/youtube/v3").getTargetHost().getPort());
+    }
+
+    private RestTemplate restTemplate(long latencyMillis, Duration readTimeout) throws Exception {
+        stubApi = new StubYouTubeApi(latencyMillis);
+        HttpClientConfig config = config(readTimeout);
+        connectionManager = config.youTubeConnectionManager();
+        httpClient = config.youTubeHttpClient(connectionManager);
+        return config.youTubeRestTemplate(httpClient, List.of());
+    }
+
+    private HttpClientConfig config(Duration readTimeout) {
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "apiBaseUrl", stubApi.baseUrl());
+        ReflectionTestUtils.setField(config, "maxConnections", 20);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 10);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "readTimeout", readTimeout);
+        ReflectionTestUtils.setField(config, "poolTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "idleTimeout", Duration.ofSeconds(60));
+        return config;
+    }
+}
@@ -0,0 +1,259 @@
+
+package com.randomvideos139.website.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import com.randomvideos139.website.config.ConditionalGetInterceptor;
+import com.randomvideos139.website.config.SocialConfig;
+import com.randomvideos139.website.dto.StatisticsSample;
+import com.randomvideos139.website.entity.ChannelStats;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.service.DataSyncService;
+import com.randomvideos139.website.service.VideoCatalog;
+import com.randomvideos139.website.service.VideoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@WebMvcTest({AppController.class, VideoController.class})
+public class AppControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DataSyncService dataSyncService;
+
+    @MockBean
+    private VideoService videoService;
+
+    @MockBean
+    private SocialConfig socialConfig;
+
+    @MockBean
+    private VideoCatalog videoCatalog;
+
+    @Autowired
+    private ConditionalGetInterceptor conditionalGetInterceptor;
+
+    @Test
+    public void testHomePage() throws Exception {
+        // Mock data
+        ChannelStats channelStats = new ChannelStats();
+        channelStats.setSubscriberCount(1000L);
+        channelStats.setVideoCount(100L);
+        channelStats.setViewCount(100000L);
+        given(dataSyncService.getChannelStats()).willReturn(Optional.of(channelStats));
+
+        List<Video> latestVideos = new ArrayList<>();
+        latestVideos.add(new Video());
+        given(videoService.findLatestVideos()).willReturn(latestVideos);
+
+        List<Video> trendingVideos = new ArrayList<>();
+        trendingVideos.add(new Video());
+        given(videoService.findTrendingVideos()).willReturn(trendingVideos);
+
+        List<Video> popularVideos = new ArrayList<>();
+        popularVideos.add(new Video());
+        given(videoService.findPopularVideos()).willReturn(popularVideos);
+
+        // Perform GET request and verify
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attributeExists("latestVideos"))
+                .andExpect(model().attributeExists("trendingVideos"))
+                .andExpect(model().attributeExists("popularVideos"))
+                .andExpect(model().attributeExists("channelStats"));
+    }
+
+    @Test
+    public void testLatestVideosPage() throws Exception {
+        mockMvc.perform(get("/latest-videos"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/videos?sortBy=publishedAt&sortDir=desc"));
+    }
+
+    @Test
+    public void testPopularVideosPage() throws Exception {
+        mockMvc.perform(get("/popular-videos"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/videos?sortBy=viewCount&sortDir=desc"));
+    }
+
+    @Test
+    public void testAllVideosPage() throws Exception {
+        // Mock data
+        List<Video> videos = new ArrayList<>();
+        Video video = new Video("abc123", "A random video");
+        video.setViewCount(1234567L);
+        video.setPublishedAt(LocalDateTime.of(2024, 5, 1, 18, 0));
+        videos.add(video);
+        given(videoService.findVideos(PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "publishedAt"))))
+                .willReturn(new PageImpl<>(videos));
+
+        // Perform GET request and verify
+        mockMvc.perform(get("/videos"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("all-videos"))
+                .andExpect(model().attributeExists("videos"))
+                .andExpect(content().string(containsString("1,234,567 views")))
+                .andExpect(content().string(containsString("May 01, 2024")));
+    }
+
+    @Test
+    public void testAllVideosPageWithSearch() throws Exception {
+        // Mock data
+        List<Video> videos = new ArrayList<>();
+        videos.add(new Video());
+        // Searches are ranked by relevance unless a sort is chosen.
+        given(videoService.searchVideos("test", PageRequest.of(0, 12)))
+                .willReturn(new PageImpl<>(videos));
+        given(videoService.searchVideos("test", PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "title"))))
+                .willReturn(new PageImpl<>(videos));
+
+        // Perform GET request and verify
+        mockMvc.perform(get("/videos").param("search", "test"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("all-videos"))
+                .andExpect(model().attributeExists("videos"))
+                .andExpect(model().attribute("search", "test"))
+                .andExpect(content().string(containsString("Relevance")));
+        mockMvc.perform(get("/videos").param("search", "test").param("sortBy", "title").param("sortDir", "asc"))
+                .andExpect(status().isOk());
+
+        verify(videoService).searchVideos("test", PageRequest.of(0, 12));
+        verify(videoService).searchVideos("test", PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "title")));
+    }
+
+    @Test
+    public void testStatisticsHistoryIsServedAsJson() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 6, 1, 0, 0);
+        given(videoService.findStatisticsHistory("abc", from, to)).willReturn(List.of(
+                new StatisticsSample(LocalDateTime.of(2024, 5, 1, 18, 0), 1234567L, 8900L, 120L)));
+
+        mockMvc.perform(get("/videos/abc/statistics").param("from", "2024-01-01T00:00:00").param("to", "2024-06-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sampledAt").value("2024-05-01T18:00:00"))
+                .andExpect(jsonPath("$[0].viewCount").value(1234567));
+    }
+
+    @Test
+    public void testUnchangedPagesAreAnsweredWithNotModifiedBeforeTheController() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        conditionalGetInterceptor.bindTo(registry);
+        given(videoCatalog.getVersion()).willReturn(Optional.of(Instant.parse("2024-05-01T18:00:00Z")));
+        given(videoService.findVideos(any())).willReturn(new PageImpl<>(new ArrayList<>()));
+
+        String etag = mockMvc.perform(get("/videos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().string("Last-Modified", "Wed, 01 May 2024 18:00:00 GMT"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/videos").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/videos").header("If-Modified-Since", "Wed, 01 May 2024 18:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(videoService, times(1)).findVideos(any());
+
+        given(videoCatalog.getVersion()).willReturn(Optional.of(Instant.parse("2024-05-02T06:00:00Z")));
+        mockMvc.perform(get("/videos").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        assertEquals(2.0, registry.get("http.conditional.requests").tag("route", "/videos").tag("result", "not_modified")
+                .functionCounter().count());
+        assertEquals(0.5, registry.get("http.conditional.not-modified.ratio").tag("route", "/videos").gauge().value());
+    }
+
+    @Test
+    public void testVideoPagesAreVersionedByTheVideo() throws Exception {
+        LocalDateTime lastUpdated = LocalDateTime.of(2099, 5, 1, 18, 0);
+        given(videoCatalog.findLastUpdated("abc123")).willReturn(Optional.of(lastUpdated));
+        given(videoService.findVideoById("abc123")).willReturn(Optional.of(new Video("abc123", "A random video")));
+
+        String etag = mockMvc.perform(get("/videos/abc123"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/videos/abc123").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        given(videoCatalog.findLastUpdated("abc123")).willReturn(Optional.of(lastUpdated.plusHours(1)));
+        mockMvc.perform(get("/videos/abc123").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        // Not in the catalog: no validators, always rendered.
+        mockMvc.perform(get("/videos/missing").header("If-None-Match", etag))
+                .andExpect(status().is3xxRedirection());
+
+        verify(videoService, times(2)).findVideoById("abc123");
+        verify(videoService, never()).findLatestVideos();
+    }
+
+    @Test
+    public void testHotPagesAreServedFromRenderedBytes() throws Exception {
+        given(videoCatalog.getVersion()).willReturn(Optional.of(Instant.parse("2024-05-01T18:00:00Z")));
+        Video video = new Video("abc123", "A random video");
+        video.setViewCount(1234567L);
+        given(videoService.findLatestVideos()).willReturn(List.of(video));
+
+        MockHttpServletResponse rendered = mockMvc.perform(get("/").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse();
+        MockHttpServletResponse cached = mockMvc.perform(get("/").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse();
+        String plain = mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(containsString("A random video")))
+                .andReturn().getResponse().getContentAsString();
+
+        verify(videoService, times(1)).findLatestVideos();
+        assertEquals(plain, gunzip(cached.getContentAsByteArray()));
+        assertEquals(plain, gunzip(rendered.getContentAsByteArray()));
+        assertEquals("W/" + mockMvc.perform(get("/")).andReturn().getResponse().getHeader("ETag"), cached.getHeader("ETag"));
+        // Searches are not cached.
+        given(videoService.searchVideos(eq("random"), any())).willReturn(new PageImpl<>(List.of(video)));
+        mockMvc.perform(get("/videos").param("search", "random"));
+        mockMvc.perform(get("/videos").param("search", "random"));
+        verify(videoService, times(2)).searchVideos(eq("random"), any());
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
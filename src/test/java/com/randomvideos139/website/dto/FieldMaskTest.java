@@ -0,0 +1,37 @@
+package com.randomvideos139.website.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FieldMaskTest {
+
+    @Test
+    public void testMaskIsGeneratedFromTheDtoFields() {
+        assertEquals("items(contentDetails(videoId,videoPublishedAt)),nextPageToken",
+                FieldMask.of(YouTubePlaylistItemResponse.class).toString());
+        assertEquals("items(id,etag,snippet(title,description,publishedAt,channelId,"
+                        + "thumbnails(default(url),medium(url),high(url))),contentDetails(itemCount)),nextPageToken,etag",
+                FieldMask.of(YouTubePlaylistResponse.class).toString());
+    }
+
+    @Test
+    public void testPartsRestrictTheItems() {
+        assertEquals("items(id,statistics(viewCount,likeCount,commentCount)),nextPageToken,etag",
+                FieldMask.of(YouTubeVideoResponse.class, "statistics").toString());
+        assertEquals("items(id,contentDetails(duration)),nextPageToken,etag",
+                FieldMask.of(YouTubeVideoResponse.class, "contentDetails").toString());
+    }
+
+    @Test
+    public void testWithoutRemovesPathsAndRejectsUnknownOnes() {
+        FieldMask mask = FieldMask.of(YouTubeVideoResponse.class, "snippet")
+                .without("items/snippet/tags", "items/snippet/categoryId", "etag");
+
+        assertEquals("items(id,snippet(title,description,publishedAt,channelId,"
+                + "thumbnails(default(url),medium(url),high(url)))),nextPageToken", mask.toString());
+        assertThrows(IllegalArgumentException.class, () -> mask.without("items/snippet/tags"));
+        assertThrows(IllegalArgumentException.class, () -> mask.without("items/id/videoId"));
+    }
+}
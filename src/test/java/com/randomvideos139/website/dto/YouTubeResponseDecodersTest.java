@@ -0,0 +1,61 @@
+package com.randomvideos139.website.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randomvideos139.website.support.YouTubeFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class YouTubeResponseDecodersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper databindMapper = YouTubeFixtures.databindMapper();
+
+    @Test
+    public void testDecodersReadWhatDatabindReads() throws Exception {
+        assertSameAsDatabind("search", YouTubeVideoResponse.class);
+        assertSameAsDatabind("videos", YouTubeVideoResponse.class);
+        assertSameAsDatabind("channels", YouTubeChannelResponse.class);
+        assertSameAsDatabind("playlists", YouTubePlaylistResponse.class);
+    }
+
+    @Test
+    public void testSearchResultIdIsResolvedToTheVideoId() throws Exception {
+        YouTubeVideoResponse response = objectMapper.readValue(
+                YouTubeFixtures.toBytes(YouTubeFixtures.load("search")), YouTubeVideoResponse.class);
+
+        assertEquals(List.of("dQw4w9WgXcQ", "M7lc1UVf-VE", "9bZkp7q19f0"),
+                response.getItems().stream().map(YouTubeVideoResponse.VideoItem::getId).collect(Collectors.toList()));
+        assertEquals("CDIQAA", response.getNextPageToken());
+    }
+
+    @Test
+    public void testUnexpectedShapesAreSkipped() throws Exception {
+        String json = "{\"kind\":\"youtube#videoListResponse\",\"items\":[null,"
+                + "{\"id\":\"a\",\"snippet\":null,\"topicDetails\":{\"topicIds\":[\"/m/04rlf\"]},"
+                + "\"statistics\":{\"viewCount\":12,\"likeCount\":null},\"contentDetails\":[]}],"
+                + "\"etag\":\"e\"}";
+
+        YouTubeVideoResponse response = objectMapper.readValue(json, YouTubeVideoResponse.class);
+
+        assertEquals(1, response.getItems().size());
+        YouTubeVideoResponse.VideoItem item = response.getItems().get(0);
+        assertEquals("a", item.getVideoId());
+        assertNull(item.getSnippet());
+        assertEquals("12", item.getStatistics().getViewCount());
+        assertNull(item.getStatistics().getLikeCount());
+        assertNull(item.getContentDetails());
+        assertEquals("e", response.getEtag());
+    }
+
+    private void assertSameAsDatabind(String fixture, Class<?> responseType) throws Exception {
+        byte[] json = YouTubeFixtures.toBytes(YouTubeFixtures.load(fixture));
+
+        assertEquals(objectMapper.valueToTree(databindMapper.readValue(json, responseType)),
+                objectMapper.valueToTree(objectMapper.readValue(json, responseType)), fixture);
+    }
+}
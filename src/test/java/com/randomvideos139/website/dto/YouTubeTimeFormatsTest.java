@@ -0,0 +1,172 @@
+package com.randomvideos139.website.dto;
+
+import com.randomvideos139.website.support.LegacyTimeParsing;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Fuzz tests against {@link LegacyTimeParsing}, the string-splitting parsing this class replaced.
+ */
+public class YouTubeTimeFormatsTest {
+
+    private static final int RUNS = 100_000;
+
+    @Test
+    public void testDurationsAreFormattedAsBefore() {
+        Random random = new Random(15);
+        for (int run = 0; run < RUNS; run++) {
+            int hours = random.nextInt(4) == 0 ? random.nextInt(30) : 0;
+            int minutes = random.nextInt(5) == 0 ? 0 : random.nextInt(60);
+            int seconds = random.nextInt(5) == 0 ? 0 : random.nextInt(60);
+            StringBuilder duration = new StringBuilder("PT");
+            if (hours > 0) duration.append(hours).append('H');
+            if (minutes > 0) duration.append(minutes).append('M');
+            if (seconds > 0 || (hours == 0 && minutes == 0)) duration.append(seconds).append('S');
+
+            long parsed = YouTubeTimeFormats.parseDurationSeconds(duration);
+            assertEquals(hours * 3600L + minutes * 60L + seconds, parsed, duration.toString());
+            assertEquals(LegacyTimeParsing.formatDuration(duration.toString()), YouTubeTimeFormats.formatDuration(parsed),
+                    duration.toString());
+        }
+    }
+
+    @Test
+    public void testMalformedDurationsAreRejectedWithoutThrowing() {
+        Random random = new Random(16);
+        String alphabet = "PTHMS0123456789";
+        for (int run = 0; run < RUNS; run++) {
+            StringBuilder duration = new StringBuilder(random.nextBoolean() ? "PT" : "");
+            int length = random.nextInt(8);
+            for (int i = 0; i < length; i++) {
+                duration.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            long parsed = YouTubeTimeFormats.parseDurationSeconds(duration);
+            String legacy;
+            try {
+                legacy = LegacyTimeParsing.formatDuration(duration.toString());
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (parsed >= 0) {
+                // The old formatting kept components as sent ("0:90"), so compare the seconds they denote.
+                assertEquals(displayedSeconds(legacy), parsed, duration.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testDurationsWithDaysAndWeeks() {
+        assertEquals(93_784, YouTubeTimeFormats.parseDurationSeconds("P1DT2H3M4S"));
+        assertEquals("26:03:04", YouTubeTimeFormats.formatDuration(93_784));
+        assertEquals(0, YouTubeTimeFormats.parseDurationSeconds("P0D"));
+        assertEquals(1_209_600, YouTubeTimeFormats.parseDurationSeconds("P2W"));
+        for (String malformed : new String[]{null, "", "P", "PT", "P1DT", "P1M", "PT1S2M", "PT1H1H", "1H", "PT-1S",
+                "PT1.5S", "PT99999999999S"}) {
+            assertEquals(-1, YouTubeTimeFormats.parseDurationSeconds(malformed), malformed);
+        }
+    }
+
+    @Test
+    public void testTimestampsAreParsedAsBefore() {
+        Random random = new Random(17);
+        String[] suffixes = {"Z", "", "+00:00", "-07:00", "+05:30"};
+        for (int run = 0; run < RUNS; run++) {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(1_104_537_600L + random.nextInt(800_000_000),
+                    0, ZoneOffset.UTC);
+            int fractionDigits = random.nextInt(3) == 0 ? 1 + random.nextInt(9) : 0;
+            StringBuilder timestamp = new StringBuilder(dateTime.toLocalDate().toString())
+                    .append('T').append(String.format("%02d:%02d", dateTime.getHour(), dateTime.getMinute()));
+            if (fractionDigits > 0 || random.nextInt(10) > 0) {
+                timestamp.append(String.format(":%02d", dateTime.getSecond()));
+                if (fractionDigits > 0) {
+                    timestamp.append('.');
+                    for (int i = 0; i < fractionDigits; i++) {
+                        timestamp.append((char) ('0' + random.nextInt(10)));
+                    }
+                }
+            }
+            timestamp.append(suffixes[random.nextInt(suffixes.length)]);
+
+            assertEquals(legacyUtc(timestamp.toString()), YouTubeTimeFormats.parseTimestamp(timestamp), timestamp.toString());
+        }
+    }
+
+    @Test
+    public void testMalformedTimestampsAreRejectedWithoutThrowing() {
+        Random random = new Random(18);
+        String alphabet = "0123456789-:T.Z+ x";
+        for (int run = 0; run < RUNS; run++) {
+            StringBuilder timestamp = new StringBuilder("2024-02-29T18:05:09.123Z");
+            for (int edits = 1 + random.nextInt(3); edits > 0; edits--) {
+                int position = random.nextInt(timestamp.length());
+                char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        timestamp.setCharAt(position, c);
+                        break;
+                    case 1:
+                        timestamp.insert(position, c);
+                        break;
+                    default:
+                        timestamp.deleteCharAt(position);
+                }
+            }
+
+            LocalDateTime parsed = YouTubeTimeFormats.parseTimestamp(timestamp);
+            if (parsed != null) {
+                // Anything accepted now was accepted, with the same value, before.
+                assertEquals(legacyUtc(timestamp.toString()), parsed, timestamp.toString());
+            }
+        }
+        assertNull(YouTubeTimeFormats.parseTimestamp("2023-02-29T18:05:09Z"));
+        assertNull(YouTubeTimeFormats.parseTimestamp(null));
+    }
+
+    @Test
+    public void testOffsetsAreConvertedToUtc() {
+        assertEquals(LocalDateTime.of(2024, 5, 1, 18, 0), YouTubeTimeFormats.parseTimestamp("2024-05-01T20:00:00+02:00"));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 18, 0), YouTubeTimeFormats.parseTimestamp("2024-05-01T12:30:00-05:30"));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 30, 0, 500_000_000),
+                YouTubeTimeFormats.parseTimestamp("2024-12-31T23:30:00.5-01:00"));
+        assertEquals(LocalDateTime.of(2024, 2, 29, 18, 0), YouTubeTimeFormats.parseTimestamp("2024-03-01T12:00+18:00"));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 18, 0), YouTubeTimeFormats.parseTimestamp("2024-05-01T18:00:00-00:00"));
+    }
+
+    @Test
+    public void testMalformedOffsetsAreRejected() {
+        for (String malformed : new String[]{"2024-05-01T20:00:00+18:01", "2024-05-01T20:00:00+19:00",
+                "2024-05-01T20:00:00+02:60", "2024-05-01T20:00:00+0200", "2024-05-01T20:00:00+02",
+                "2024-05-01T20:00:00+02:00Z", "2024-05-01T20:00:00Z+02:00", "2024-05-01T20:00:00 02:00"}) {
+            assertNull(YouTubeTimeFormats.parseTimestamp(malformed), malformed);
+        }
+    }
+
+    /**
+     * What the old parsing read, less the offset it ignored.
+     */
+    private static LocalDateTime legacyUtc(String timestamp) {
+        LocalDateTime local = LegacyTimeParsing.parseTimestamp(timestamp);
+        int length = timestamp.length();
+        if (length > 6 && timestamp.charAt(length - 3) == ':'
+                && (timestamp.charAt(length - 6) == '+' || timestamp.charAt(length - 6) == '-')) {
+            ZoneOffset offset = ZoneOffset.of(timestamp.substring(length - 6));
+            return local.minusSeconds(offset.getTotalSeconds());
+        }
+        return local;
+    }
+
+    private static long displayedSeconds(String display) {
+        long seconds = 0;
+        for (String part : display.split(":")) {
+            seconds = seconds * 60 + Long.parseLong(part);
+        }
+        return seconds;
+    }
+}
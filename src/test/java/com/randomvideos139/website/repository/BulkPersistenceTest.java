@@ -0,0 +1,186 @@
+package com.randomvideos139.website.repository;
+
+import com.randomvideos139.website.entity.ApiQuotaUsage;
+import com.randomvideos139.website.entity.Playlist;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.service.DataSyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "sync.persistence.batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BulkPersistenceTest {
+
+    // Satisfies the startup runner declared on the application class.
+    @MockBean
+    private DataSyncService dataSyncService;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private ApiQuotaUsageRepository apiQuotaUsageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testUpsertInsertsAndUpdatesAcrossBatches() {
+        videoRepository.bulkUpsert(Arrays.asList(video("a", 10L), video("b", 20L), video("c", 30L)));
+        jdbcTemplate.update("UPDATE videos SET is_popular = TRUE WHERE video_id = 'b'");
+
+        Video changed = video("b", 25L);
+        changed.setTags(null); // enrichment missing: keep what is stored
+        videoRepository.bulkUpsert(Arrays.asList(changed, video("d", 40L)));
+
+        assertEquals(4, videoRepository.count());
+        Video stored = videoRepository.findById("b").orElseThrow();
+        assertEquals(25L, stored.getViewCount());
+        assertEquals("tag", stored.getTags());
+        assertTrue(stored.getIsPopular());
+        assertEquals("fp-b", videoRepository.findContentFingerprintsByVideoIdIn(List.of("b")).get(0).getContentFingerprint());
+    }
+
+    @Test
+    public void testDeleteRemovesOnlyGivenIds() {
+        videoRepository.bulkUpsert(Arrays.asList(video("a", 1L), video("b", 2L), video("c", 3L)));
+
+        int deleted = videoRepository.bulkDelete(Arrays.asList("a", "c", "missing"));
+
+        assertEquals(2, deleted);
+        List<Video> remaining = videoRepository.findAll();
+        assertEquals(1, remaining.size());
+        assertEquals("b", remaining.get(0).getVideoId());
+    }
+
+    @Test
+    public void testStaleVideosAreSelectedByTierAndStatisticsUpdated() {
+        LocalDateTime now = LocalDateTime.now();
+        Video recent = video("recent", 1L);
+        recent.setPublishedAt(now.minusHours(5));
+        Video old = video("old", 2L);
+        old.setPublishedAt(now.minusDays(400));
+        videoRepository.bulkUpsert(Arrays.asList(recent, old));
+        jdbcTemplate.update("UPDATE videos SET last_updated = ?", now.minusHours(3));
+
+        List<Video> due = videoRepository.findVideosNeedingUpdate(now.minusHours(1), now.minusDays(2),
+                now.plusDays(1), PageRequest.of(0, 10));
+        assertEquals(1, due.size());
+        assertEquals("recent", due.get(0).getVideoId());
+
+        Video refreshed = due.get(0);
+        refreshed.setViewCount(500L);
+        refreshed.setContentFingerprint("fp-recent-2");
+        assertEquals(1, videoRepository.bulkUpdateStatistics(Collections.singletonList(refreshed)));
+
+        Video stored = videoRepository.findById("recent").orElseThrow();
+        assertEquals(500L, stored.getViewCount());
+        assertEquals("fp-recent-2", stored.getContentFingerprint());
+        assertTrue(stored.getLastUpdated().isAfter(now.minusHours(1)));
+        assertTrue(videoRepository.findVideosNeedingUpdate(now.minusHours(1), now.minusDays(2),
+                now.plusDays(1), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void testPlaylistDeleteClearsMembership() {
+        Playlist playlist = new Playlist("PL1", "Songs");
+        playlist.setVideoIds(new LinkedHashSet<>(Arrays.asList("a", "b")));
+        playlistRepository.saveAndFlush(playlist);
+
+        playlistRepository.bulkDelete(Collections.singletonList("PL1"));
+
+        assertFalse(playlistRepository.existsById("PL1"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM playlist_video_ids", Integer.class));
+    }
+
+    @Test
+    public void testMembershipDiffWritesOnlyChangedRows() {
+        Playlist playlist = new Playlist("PL1", "Songs");
+        playlist.setVideoIds(new LinkedHashSet<>(Arrays.asList("a", "b", "c")));
+        playlistRepository.saveAndFlush(playlist);
+
+        int written = playlistRepository.updateMembership("PL1", Arrays.asList("d", "e", "f"), Arrays.asList("a", "c"), "etag-2");
+
+        assertEquals(5, written);
+        assertEquals(Set.of("b", "d", "e", "f"), playlistRepository.findVideoIds("PL1"));
+        assertEquals("etag-2", playlistRepository.findAllMembershipStates().get(0).getMembershipEtag());
+        assertTrue(playlistRepository.findVideoIds("missing").isEmpty());
+    }
+
+    @Test
+    public void testRankingFlagsAreReplacedInOneUpdate() {
+        videoRepository.bulkUpsert(Arrays.asList(video("a", 1L), video("b", 2L), video("c", 3L), video("d", 4L)));
+        videoRepository.updateRankingFlags(List.of("a", "b"), List.of("d"), Map.of("c", 5.0));
+
+        int written = videoRepository.updateRankingFlags(List.of("b"), List.of("c"), Map.of("b", 2.5));
+
+        // a, c and d lose flags they had; b keeps one and gains one.
+        assertEquals(4, written);
+        assertEquals(List.of("b"), jdbcTemplate.queryForList(
+                "SELECT video_id FROM videos WHERE is_latest = TRUE", String.class));
+        assertEquals(List.of("c"), jdbcTemplate.queryForList(
+                "SELECT video_id FROM videos WHERE is_popular = TRUE", String.class));
+        assertEquals(List.of("b"), jdbcTemplate.queryForList(
+                "SELECT video_id FROM videos WHERE is_trending = TRUE", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM videos WHERE trending_score IS NOT NULL", Integer.class));
+        assertEquals(2.5, jdbcTemplate.queryForObject(
+                "SELECT trending_score FROM videos WHERE video_id = 'b'", Double.class));
+
+        videoRepository.updateRankingFlags(List.of(), List.of(), Map.of());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM videos WHERE is_latest = TRUE OR is_popular = TRUE OR is_trending = TRUE", Integer.class));
+    }
+
+    @Test
+    public void testQuotaUsageAccumulatesPerDayAndEndpoint() {
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        apiQuotaUsageRepository.addUsage(day, "search", 100, LocalDateTime.now());
+        apiQuotaUsageRepository.addUsage(day, "search", 100, LocalDateTime.now());
+        apiQuotaUsageRepository.addUsage(day, "videos", 1, LocalDateTime.now());
+        apiQuotaUsageRepository.addUsage(day.plusDays(1), "search", 100, LocalDateTime.now());
+
+        List<ApiQuotaUsage> usage = apiQuotaUsageRepository.findByUsageDate(day);
+
+        assertEquals(2, usage.size());
+        ApiQuotaUsage search = usage.stream().filter(row -> row.getEndpoint().equals("search")).findFirst().orElseThrow();
+        assertEquals(200L, search.getUnits());
+        assertEquals(2L, search.getRequests());
+    }
+
+    private Video video(String id, long views) {
+        Video video = new Video(id, "Video " + id);
+        video.setViewCount(views);
+        video.setTags("tag");
+        video.setContentFingerprint("fp-" + id);
+        return video;
+    }
+}
@@ -0,0 +1,102 @@
+package com.randomvideos139.website.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ApiCircuitBreakerTest {
+
+    private static final String SEARCH_URL = "https://api.test/youtube/v3/search?channelId=a";
+    private static final Instant NOW = Instant.parse("2024-05-10T12:00:00Z");
+
+    private ApiCircuitBreaker circuitBreaker;
+    private SimpleMeterRegistry meterRegistry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    public void setUp() {
+        circuitBreaker = new ApiCircuitBreaker();
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 2);
+        ReflectionTestUtils.setField(circuitBreaker, "openDuration", Duration.ofMinutes(2));
+        setTime(NOW);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker.bindTo(meterRegistry);
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(circuitBreaker);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveFailuresAndRejectsWithoutSending() {
+        server.expect(ExpectedCount.twice(), requestTo(SEARCH_URL)).andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(SEARCH_URL, String.class));
+        assertEquals(ApiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(SEARCH_URL, String.class));
+        assertEquals(ApiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertThrows(ApiCircuitBreaker.CircuitOpenException.class, () -> restTemplate.getForObject(SEARCH_URL, String.class));
+        server.verify();
+        assertEquals(1, meterRegistry.get("youtube.api.circuit.state").gauge().value());
+        assertEquals(1, meterRegistry.get("youtube.api.circuit.rejected").counter().count());
+    }
+
+    @Test
+    public void testHalfOpenTrialClosesOrReopensTheCircuit() {
+        server.expect(ExpectedCount.times(3), requestTo(SEARCH_URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(requestTo(SEARCH_URL)).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(SEARCH_URL, String.class));
+        }
+
+        // A failed trial reopens the circuit for another full period.
+        setTime(NOW.plus(Duration.ofMinutes(2)));
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(SEARCH_URL, String.class));
+        assertEquals(ApiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        setTime(NOW.plus(Duration.ofMinutes(3)));
+        assertThrows(ApiCircuitBreaker.CircuitOpenException.class, () -> restTemplate.getForObject(SEARCH_URL, String.class));
+
+        setTime(NOW.plus(Duration.ofMinutes(4)));
+        restTemplate.getForObject(SEARCH_URL, String.class);
+        assertEquals(ApiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        server.verify();
+    }
+
+    @Test
+    public void testRefusedCallsDoNotCountAsFailures() {
+        RestTemplate refusing = new RestTemplate();
+        refusing.getInterceptors().add(circuitBreaker);
+        refusing.getInterceptors().add((request, body, execution) -> {
+            throw new ApiQuotaService.QuotaExhaustedException("no quota");
+        });
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ApiQuotaService.QuotaExhaustedException.class, () -> refusing.getForObject(SEARCH_URL, String.class));
+        }
+
+        assertEquals(ApiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(circuitBreaker, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
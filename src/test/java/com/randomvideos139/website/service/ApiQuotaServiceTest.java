@@ -0,0 +1,139 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.ApiQuotaUsage;
+import com.randomvideos139.website.repository.ApiQuotaUsageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ApiQuotaServiceTest {
+
+    private static final ZoneId PACIFIC = ZoneId.of("America/Los_Angeles");
+
+    @Mock
+    private ApiQuotaUsageRepository apiQuotaUsageRepository;
+
+    @InjectMocks
+    private ApiQuotaService apiQuotaService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(apiQuotaService, "dailyLimit", 250L);
+        ReflectionTestUtils.setField(apiQuotaService, "quotaZone", PACIFIC);
+        ReflectionTestUtils.setField(apiQuotaService, "requestsPerSecond", 1000d);
+        ReflectionTestUtils.setField(apiQuotaService, "burst", 1000);
+        setTime("2024-05-10T12:00:00Z");
+    }
+
+    @Test
+    public void testRequestsAreChargedUntilTheBudgetIsSpent() {
+        apiQuotaService.charge(YouTubeApiEndpoint.SEARCH);
+        apiQuotaService.charge(YouTubeApiEndpoint.SEARCH);
+        for (int i = 0; i < 50; i++) {
+            apiQuotaService.charge(YouTubeApiEndpoint.VIDEOS);
+        }
+
+        assertThrows(ApiQuotaService.QuotaExhaustedException.class, () -> apiQuotaService.charge(YouTubeApiEndpoint.SEARCH));
+        assertEquals(0, apiQuotaService.getRemainingUnits());
+        assertEquals(200L, apiQuotaService.getUnitsByEndpoint().get("search"));
+        assertEquals(50L, apiQuotaService.getRequestsByEndpoint().get("videos"));
+        assertEquals(1, apiQuotaService.getRefusedRequestCount());
+        verify(apiQuotaUsageRepository, times(2)).addUsage(eq(LocalDate.of(2024, 5, 10)), eq("search"), eq(100L), any());
+    }
+
+    @Test
+    public void testStoredUsageIsResumedAndResetAtPacificMidnight() {
+        ApiQuotaUsage stored = new ApiQuotaUsage(LocalDate.of(2024, 5, 10), "search");
+        stored.setUnits(200L);
+        stored.setRequests(2L);
+        given(apiQuotaUsageRepository.findByUsageDate(LocalDate.of(2024, 5, 10))).willReturn(List.of(stored));
+
+        assertEquals(50, apiQuotaService.getRemainingUnits());
+        assertThrows(ApiQuotaService.QuotaExhaustedException.class, () -> apiQuotaService.charge(YouTubeApiEndpoint.SEARCH));
+
+        // 06:59 UTC on May 11 is still May 10 in California.
+        setTime("2024-05-11T06:59:00Z");
+        assertEquals(50, apiQuotaService.getRemainingUnits());
+        setTime("2024-05-11T07:00:00Z");
+        assertEquals(LocalDate.of(2024, 5, 11), apiQuotaService.getQuotaDay());
+        assertEquals(250, apiQuotaService.getRemainingUnits());
+        apiQuotaService.charge(YouTubeApiEndpoint.SEARCH);
+    }
+
+    @Test
+    public void testQuotaExceededResponseStopsFurtherRequests() {
+        ApiQuotaInterceptor interceptor = new ApiQuotaInterceptor();
+        ReflectionTestUtils.setField(interceptor, "apiQuotaService", apiQuotaService);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(interceptor);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://api.test/youtube/v3/channels?id=a"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://api.test/youtube/v3/search?id=a"))
+                .andRespond(withStatus(HttpStatus.FORBIDDEN).contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":{\"code\":403,\"errors\":[{\"reason\":\"quotaExceeded\"}]}}"));
+
+        restTemplate.getForObject("https://api.test/youtube/v3/channels?id=a", String.class);
+        assertTrue(apiQuotaService.hasSucceededWithin(Duration.ofMinutes(1)));
+        HttpClientErrorException error = assertThrows(HttpClientErrorException.class,
+                () -> restTemplate.getForObject("https://api.test/youtube/v3/search?id=a", String.class));
+
+        assertTrue(error.getResponseBodyAsString().contains("quotaExceeded"));
+        assertTrue(apiQuotaService.isExhausted());
+        assertThrows(ApiQuotaService.QuotaExhaustedException.class,
+                () -> restTemplate.getForObject("https://api.test/youtube/v3/videos?id=a", String.class));
+        server.verify();
+        verify(apiQuotaUsageRepository, times(2)).addUsage(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    public void testTokenBucketPacesRequestsAfterTheBurst() {
+        TokenBucket bucket = new TokenBucket(50, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 15; i++) {
+            bucket.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 5 permits are free, the other 10 arrive at 50 per second.
+        assertTrue(elapsedMillis >= 180, "15 permits took " + elapsedMillis + " ms");
+    }
+
+    private void setTime(String instant) {
+        ReflectionTestUtils.setField(apiQuotaService, "clock", Clock.fixed(Instant.parse(instant), PACIFIC));
+    }
+}
@@ -0,0 +1,115 @@
+package com.randomvideos139.website.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+public class ApiRetryInterceptorTest {
+
+    private static final String VIDEOS_URL = "https://api.test/youtube/v3/videos?id=a";
+
+    @Mock
+    private ApiQuotaService apiQuotaService;
+
+    @InjectMocks
+    private ApiRetryInterceptor apiRetryInterceptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(apiRetryInterceptor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(apiRetryInterceptor, "initialBackoff", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(apiRetryInterceptor, "maxBackoff", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(apiRetryInterceptor, "maxRetryAfter", Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+        apiRetryInterceptor.bindTo(meterRegistry);
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(apiRetryInterceptor);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    public void testServerErrorIsRetriedAndEachRetryCharged() {
+        server.expect(ExpectedCount.twice(), requestTo(VIDEOS_URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(requestTo(VIDEOS_URL)).andRespond(withSuccess("{\"items\":[]}", MediaType.APPLICATION_JSON));
+
+        String body = restTemplate.getForObject(VIDEOS_URL, String.class);
+
+        assertEquals("{\"items\":[]}", body);
+        server.verify();
+        verify(apiQuotaService, times(2)).charge(YouTubeApiEndpoint.VIDEOS);
+        assertEquals(2, meterRegistry.get("youtube.api.retries").tag("reason", "503").counter().count());
+    }
+
+    @Test
+    public void testLastFailureIsReturnedOnceAttemptsAreSpent() {
+        server.expect(ExpectedCount.times(3), requestTo(VIDEOS_URL)).andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertThrows(HttpServerErrorException.BadGateway.class, () -> restTemplate.getForObject(VIDEOS_URL, String.class));
+        server.verify();
+    }
+
+    @Test
+    public void testTooManyRequestsWaitsForRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        server.expect(requestTo(VIDEOS_URL)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(headers));
+        server.expect(requestTo(VIDEOS_URL)).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        long start = System.nanoTime();
+        restTemplate.getForObject(VIDEOS_URL, String.class);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 1000);
+        server.verify();
+    }
+
+    @Test
+    public void testRetryAfterBeyondTheLimitIsNotWaitedFor() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "3600");
+        server.expect(ExpectedCount.once(), requestTo(VIDEOS_URL))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(headers));
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> restTemplate.getForObject(VIDEOS_URL, String.class));
+        server.verify();
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() {
+        server.expect(ExpectedCount.once(), requestTo(VIDEOS_URL)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThrows(HttpClientErrorException.NotFound.class, () -> restTemplate.getForObject(VIDEOS_URL, String.class));
+        server.verify();
+        verify(apiQuotaService, never()).charge(any());
+    }
+}
@@ -0,0 +1,67 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.Playlist;
+import com.randomvideos139.website.entity.Video;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ContentFingerprintTest {
+
+    @Test
+    public void testIgnoresBookkeepingColumns() {
+        Video video = sampleVideo();
+        String fingerprint = ContentFingerprint.of(video);
+
+        video.setLastUpdated(LocalDateTime.now().plusDays(1));
+        video.setIsLatest(true);
+        video.setIsPopular(true);
+        video.setContentFingerprint("stale");
+
+        assertEquals(fingerprint, ContentFingerprint.of(video));
+    }
+
+    @Test
+    public void testChangesWithStatistics() {
+        Video video = sampleVideo();
+        String fingerprint = ContentFingerprint.of(video);
+
+        video.setViewCount(video.getViewCount() + 1);
+
+        assertNotEquals(fingerprint, ContentFingerprint.of(video));
+    }
+
+    @Test
+    public void testDistinguishesNullFromEmpty() {
+        Video withNullTags = sampleVideo();
+        Video withEmptyTags = sampleVideo();
+        withEmptyTags.setTags("");
+
+        assertNotEquals(ContentFingerprint.of(withNullTags), ContentFingerprint.of(withEmptyTags));
+    }
+
+    @Test
+    public void testPlaylistChangesWithItemCount() {
+        Playlist playlist = new Playlist("PL1", "Songs");
+        playlist.setItemCount(10);
+        String fingerprint = ContentFingerprint.of(playlist);
+
+        playlist.setItemCount(11);
+
+        assertNotEquals(fingerprint, ContentFingerprint.of(playlist));
+    }
+
+    private Video sampleVideo() {
+        Video video = new Video("abc123", "A song");
+        video.setDescription("Description");
+        video.setPublishedAt(LocalDateTime.of(2024, 5, 1, 18, 0));
+        video.setViewCount(1000L);
+        video.setLikeCount(50L);
+        video.setCommentCount(5L);
+        video.setDuration("3:15");
+        return video;
+    }
+}
@@ -0,0 +1,489 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.dto.YouTubeChannelResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.entity.UpdateHistory;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.ChannelStatsRepository;
+import com.randomvideos139.website.repository.ContentFingerprintView;
+import com.randomvideos139.website.repository.PlaylistMembershipView;
+import com.randomvideos139.website.repository.PlaylistRepository;
+import com.randomvideos139.website.repository.UpdateHistoryRepository;
+import com.randomvideos139.website.repository.VideoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class DataSyncServiceTest {
+
+    @Mock
+    private YouTubeApiService youTubeApiService;
+
+    @Mock
+    private ChannelStatsRepository channelStatsRepository;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private PlaylistRepository playlistRepository;
+
+    @Mock
+    private UpdateHistoryRepository updateHistoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApiResponseCache apiResponseCache;
+
+    @Mock
+    private ApiQuotaService apiQuotaService;
+
+    @Mock
+    private QuotaPlanner quotaPlanner;
+
+    @Mock
+    private VideoStatisticsHistoryService statisticsHistoryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DataSyncService dataSyncService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(dataSyncService, "chunkSize", 2);
+        ReflectionTestUtils.setField(dataSyncService, "incrementalOverlapHours", 24L);
+        ReflectionTestUtils.setField(dataSyncService, "syncPipeline", new SyncPipeline(new SimpleMeterRegistry(), 2));
+        given(youTubeApiService.enrichVideosWithStatistics(anyList(), any())).willAnswer(returnsFirstArg());
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    public void testFailedChunkDoesNotRollBackOtherChunks() {
+        givenVideoPages(videoItems(5));
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        List<Integer> chunkSizes = new ArrayList<>();
+        given(videoRepository.bulkUpsert(anyCollection())).willAnswer(invocation -> {
+            Collection<Video> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            if (chunkSizes.size() == 2) {
+                throw new IllegalStateException("deadlock");
+            }
+            return chunk.size();
+        });
+
+        SyncCounts counts = dataSyncService.syncVideos();
+
+        assertEquals(List.of(2, 2, 1), chunkSizes);
+        assertEquals(3, counts.getWritten());
+        assertEquals(2, counts.getFailed());
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testDurationIsStoredAsDisplayStringAndSeconds() {
+        List<YouTubeVideoResponse.VideoItem> items = videoItems(2);
+        items.get(0).setContentDetails(new YouTubeVideoResponse.VideoContentDetails());
+        items.get(0).getContentDetails().setDuration("PT1H2M3S");
+        items.get(1).setContentDetails(new YouTubeVideoResponse.VideoContentDetails());
+        items.get(1).getContentDetails().setDuration("PT1.5S");
+        givenVideoPages(items);
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        List<Video> written = new ArrayList<>();
+        given(videoRepository.bulkUpsert(anyCollection())).willAnswer(invocation -> {
+            written.addAll(invocation.<Collection<Video>>getArgument(0));
+            return written.size();
+        });
+
+        dataSyncService.syncVideos();
+
+        assertEquals(2, written.size());
+        assertEquals("1:02:03", written.get(0).getDuration());
+        assertEquals(3723L, written.get(0).getDurationSeconds());
+        // A malformed duration no longer drops the video; the stored duration is kept.
+        assertNull(written.get(1).getDuration());
+        assertNull(written.get(1).getDurationSeconds());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 18, 0), written.get(1).getPublishedAt());
+    }
+
+    @Test
+    public void testSyncWithFailedChunkIsRecordedAsPartial() {
+        given(youTubeApiService.getChannelInfo()).willReturn(channelResponse());
+        givenVideoPages(videoItems(3));
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        given(videoRepository.bulkUpsert(anyCollection()))
+                .willReturn(2)
+                .willThrow(new IllegalStateException("lock wait timeout"));
+
+        dataSyncService.syncAllData();
+
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        UpdateHistory finalState = history.getValue();
+        assertEquals("PARTIAL", finalState.getStatus());
+        assertEquals(3, finalState.getRecordsUpdated()); // channel stats + 2 videos
+        verify(apiResponseCache).discardStaged();
+        verify(apiResponseCache, never()).commitStaged();
+    }
+
+    @Test
+    public void testIncrementalSyncReadsUploadsSinceLastSuccessfulSync() {
+        UpdateHistory lastFull = new UpdateHistory("ALL");
+        lastFull.setUpdateTimestamp(LocalDateTime.of(2024, 5, 10, 6, 0));
+        lastFull.markAsSuccess(10, 0);
+        UpdateHistory lastIncremental = new UpdateHistory("INCREMENTAL");
+        lastIncremental.setUpdateTimestamp(LocalDateTime.of(2024, 5, 12, 18, 0));
+        lastIncremental.markAsSuccess(1, 0);
+        given(updateHistoryRepository.findLastSuccessfulUpdate("ALL")).willReturn(Optional.of(lastFull));
+        given(updateHistoryRepository.findLastSuccessfulUpdate("INCREMENTAL")).willReturn(Optional.of(lastIncremental));
+        given(youTubeApiService.getChannelInfo()).willReturn(channelResponse());
+        given(youTubeApiService.getRecentUploads(eq("UUuploads"), any(), any())).willReturn(videoItems(2));
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+
+        dataSyncService.syncRecentData();
+
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(youTubeApiService).getRecentUploads(eq("UUuploads"), since.capture(), any());
+        Instant expected = LocalDateTime.of(2024, 5, 11, 18, 0).atZone(ZoneId.systemDefault()).toInstant();
+        assertEquals(expected, since.getValue());
+        verify(youTubeApiService, never()).forEachVideoPage(any(), any());
+        verify(videoRepository, never()).bulkDelete(anyCollection());
+    }
+
+    @Test
+    public void testUploadsWithoutDetailsMakeTheIncrementalSyncPartial() {
+        UpdateHistory lastIncremental = new UpdateHistory("INCREMENTAL");
+        lastIncremental.setUpdateTimestamp(LocalDateTime.of(2024, 5, 12, 18, 0));
+        lastIncremental.markAsSuccess(1, 0);
+        given(updateHistoryRepository.findLastSuccessfulUpdate("INCREMENTAL")).willReturn(Optional.of(lastIncremental));
+        given(youTubeApiService.getChannelInfo()).willReturn(channelResponse());
+        given(youTubeApiService.getRecentUploads(eq("UUuploads"), any(), any())).willAnswer(invocation -> {
+            Consumer<List<String>> failedVideoIds = invocation.getArgument(2);
+            failedVideoIds.accept(List.of("video-8", "video-9")); // their details chunk failed
+            return videoItems(2);
+        });
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+
+        dataSyncService.syncRecentData();
+
+        verify(videoRepository).bulkUpsert(anyCollection());
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        assertEquals("PARTIAL", history.getValue().getStatus());
+        assertEquals(3, history.getValue().getRecordsUpdated()); // channel and the two enriched uploads
+    }
+
+    @Test
+    public void testIncrementalSyncFallsBackToFullSyncWithoutHistory() {
+        given(updateHistoryRepository.findLastSuccessfulUpdate(any())).willReturn(Optional.empty());
+        givenVideoPages(videoItems(1));
+
+        dataSyncService.syncRecentData();
+
+        verify(youTubeApiService).forEachVideoPage(any(), any());
+        verify(youTubeApiService, never()).getRecentUploads(any(), any(), any());
+    }
+
+    @Test
+    public void testPipelinedSyncDeletesVideosNotSeenOnAnyPage() {
+        List<YouTubeVideoResponse.VideoItem> items = videoItems(4);
+        givenVideoPages(items.subList(0, 2), items.subList(2, 4));
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        given(videoRepository.findAllVideoIds()).willReturn(List.of("video-0", "video-3", "gone"));
+
+        SyncCounts counts = dataSyncService.syncVideos();
+
+        verify(videoRepository).bulkDelete(List.of("gone"));
+        assertEquals(5, counts.getWritten()); // 4 upserted + 1 deleted
+    }
+
+    @Test
+    public void testPartiallyReadCatalogAbortsTheSyncWithoutDeleting() {
+        doAnswer(invocation -> {
+            Consumer<List<YouTubeVideoResponse.VideoItem>> sink = invocation.getArgument(0);
+            sink.accept(videoItems(2));
+            return false;
+        }).when(youTubeApiService).forEachVideoPage(any(), any());
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        given(videoRepository.findAllVideoIds()).willReturn(List.of("video-0", "gone"));
+
+        dataSyncService.syncAllData();
+
+        verify(videoRepository).bulkUpsert(anyCollection());
+        verify(videoRepository, never()).bulkDelete(anyCollection());
+        verify(youTubeApiService, never()).getAllPlaylists(any());
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        assertEquals("FAILED", history.getValue().getStatus());
+        verify(apiResponseCache).discardStaged();
+    }
+
+    @Test
+    public void testNotModifiedPagesAreSkippedAndNotDeleted() {
+        doAnswer(invocation -> {
+            Consumer<List<YouTubeVideoResponse.VideoItem>> sink = invocation.getArgument(0);
+            Consumer<List<String>> unchanged = invocation.getArgument(1);
+            unchanged.accept(List.of("cached-0", "cached-1"));
+            sink.accept(videoItems(1));
+            return true;
+        }).when(youTubeApiService).forEachVideoPage(any(), any());
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        given(videoRepository.findAllVideoIds()).willReturn(List.of("video-0", "cached-0", "cached-1", "gone"));
+
+        SyncCounts counts = dataSyncService.syncVideos();
+
+        verify(videoRepository).bulkDelete(List.of("gone"));
+        assertEquals(2, counts.getSkipped());
+    }
+
+    @Test
+    public void testSuccessfulSyncCommitsStagedEtags() {
+        givenVideoPages(videoItems(1));
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+
+        dataSyncService.syncAllData();
+
+        verify(apiResponseCache).commitStaged();
+        verify(apiResponseCache, never()).discardStaged();
+        ArgumentCaptor<SyncCompletedEvent> completed = ArgumentCaptor.forClass(SyncCompletedEvent.class);
+        verify(eventPublisher).publishEvent(completed.capture());
+        assertEquals("ALL", completed.getValue().getUpdateType());
+        assertEquals("SUCCESS", completed.getValue().getStatus());
+    }
+
+    @Test
+    public void testVideosWithoutDetailsAreNeitherWrittenNorDeletedAndTheirEtagsAreDiscarded() {
+        given(youTubeApiService.getChannelInfo()).willReturn(channelResponse());
+        givenVideoPages(videoItems(3));
+        given(youTubeApiService.enrichVideosWithStatistics(anyList(), any())).willAnswer(invocation -> {
+            List<YouTubeVideoResponse.VideoItem> page = invocation.getArgument(0);
+            Consumer<List<YouTubeVideoResponse.VideoItem>> failedItems = invocation.getArgument(1);
+            failedItems.accept(page.subList(1, 2)); // the details request of video-1 failed
+            return page;
+        });
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        given(videoRepository.findAllVideoIds()).willReturn(List.of("video-0", "video-1", "video-2"));
+        List<String> writtenVideoIds = new ArrayList<>();
+        given(videoRepository.bulkUpsert(anyCollection())).willAnswer(invocation -> {
+            Collection<Video> chunk = invocation.getArgument(0);
+            chunk.forEach(video -> writtenVideoIds.add(video.getVideoId()));
+            return chunk.size();
+        });
+
+        dataSyncService.syncAllData();
+
+        assertEquals(List.of("video-0", "video-2"), writtenVideoIds);
+        verify(videoRepository, never()).bulkDelete(anyCollection());
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        assertEquals("PARTIAL", history.getValue().getStatus());
+        verify(apiResponseCache).discardStaged();
+        verify(apiResponseCache, never()).commitStaged();
+    }
+
+    @Test
+    public void testOpenCircuitFailsTheSyncBeforeItReadsAnyPage() {
+        given(youTubeApiService.getChannelInfo()).willThrow(new ApiCircuitBreaker.CircuitOpenException("circuit open"));
+
+        dataSyncService.syncAllData();
+
+        verify(youTubeApiService, never()).forEachVideoPage(any(), any());
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        assertEquals("FAILED", history.getValue().getStatus());
+        verify(apiResponseCache).discardStaged();
+    }
+
+    @Test
+    public void testFailedPlaylistListingDeletesNoPlaylists() {
+        given(youTubeApiService.getChannelInfo()).willReturn(channelResponse());
+        givenVideoPages(videoItems(1));
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        given(youTubeApiService.getAllPlaylists(any()))
+                .willThrow(new ApiCircuitBreaker.CircuitOpenException("circuit open"));
+        given(playlistRepository.findAllContentFingerprints()).willReturn(List.of(storedPlaylist("PLfirst"), storedPlaylist("PLsecond")));
+
+        dataSyncService.syncAllData();
+
+        verify(playlistRepository, never()).bulkDelete(anyCollection());
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        assertEquals("FAILED", history.getValue().getStatus());
+    }
+
+    @Test
+    public void testRefusedRequestsMarkTheSyncPartial() {
+        given(youTubeApiService.getChannelInfo()).willReturn(channelResponse());
+        givenVideoPages(videoItems(1));
+        given(videoRepository.findContentFingerprintsByVideoIdIn(anyCollection())).willReturn(Collections.emptyList());
+        given(youTubeApiService.enrichVideosWithStatistics(anyList(), any())).willAnswer(invocation -> {
+            given(apiQuotaService.getRefusedRequestCount()).willReturn(1L); // a details batch was refused
+            return invocation.getArgument(0);
+        });
+
+        dataSyncService.syncAllData();
+
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        assertEquals("PARTIAL", history.getValue().getStatus());
+        verify(apiResponseCache).discardStaged();
+        verify(apiResponseCache, never()).commitStaged();
+    }
+
+    @Test
+    public void testOnlyChangedPlaylistsHaveTheirMembershipReadAndDiffed() {
+        given(youTubeApiService.getAllPlaylists(any())).willReturn(List.of(
+                playlistItem("PLsame", "e1", 2), playlistItem("PLgrown", "e2", 3), playlistItem("PLnew", "e1", 1)));
+        given(playlistRepository.findAllContentFingerprints()).willReturn(Collections.emptyList());
+        given(playlistRepository.findAllMembershipStates()).willReturn(List.of(
+                membershipState("PLsame", 2, "e1"), membershipState("PLgrown", 2, "e1")));
+        given(youTubeApiService.getPlaylistVideoIds("PLgrown")).willReturn(List.of("a", "b", "c"));
+        given(youTubeApiService.getPlaylistVideoIds("PLnew")).willThrow(new ApiCircuitBreaker.CircuitOpenException("circuit open"));
+        given(playlistRepository.findVideoIds("PLgrown")).willReturn(Set.of("a", "b", "x"));
+        given(playlistRepository.updateMembership(eq("PLgrown"), anyCollection(), anyCollection(), eq("e2"))).willReturn(2);
+
+        SyncCounts counts = dataSyncService.syncPlaylists();
+
+        verify(youTubeApiService, never()).getPlaylistVideoIds("PLsame");
+        verify(playlistRepository).updateMembership("PLgrown", List.of("c"), List.of("x"), "e2");
+        verify(playlistRepository, never()).updateMembership(eq("PLnew"), anyCollection(), anyCollection(), any());
+        assertEquals(1, counts.getFailed());
+    }
+
+    private static YouTubePlaylistResponse.PlaylistItem playlistItem(String id, String etag, int itemCount) {
+        YouTubePlaylistResponse.PlaylistSnippet snippet = new YouTubePlaylistResponse.PlaylistSnippet();
+        snippet.setTitle("Playlist " + id);
+        YouTubePlaylistResponse.PlaylistContentDetails contentDetails = new YouTubePlaylistResponse.PlaylistContentDetails();
+        contentDetails.setItemCount(itemCount);
+        YouTubePlaylistResponse.PlaylistItem item = new YouTubePlaylistResponse.PlaylistItem();
+        item.setId(id);
+        item.setEtag(etag);
+        item.setSnippet(snippet);
+        item.setContentDetails(contentDetails);
+        return item;
+    }
+
+    private static PlaylistMembershipView membershipState(String id, Integer itemCount, String membershipEtag) {
+        return new PlaylistMembershipView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getItemCount() {
+                return itemCount;
+            }
+
+            @Override
+            public String getMembershipEtag() {
+                return membershipEtag;
+            }
+        };
+    }
+
+    private static ContentFingerprintView storedPlaylist(String id) {
+        return new ContentFingerprintView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getContentFingerprint() {
+                return "stored";
+            }
+        };
+    }
+
+    @SafeVarargs
+    private void givenVideoPages(List<YouTubeVideoResponse.VideoItem>... pages) {
+        doAnswer(invocation -> {
+            Consumer<List<YouTubeVideoResponse.VideoItem>> sink = invocation.getArgument(0);
+            for (List<YouTubeVideoResponse.VideoItem> page : pages) {
+                sink.accept(page);
+            }
+            return true;
+        }).when(youTubeApiService).forEachVideoPage(any(), any());
+    }
+
+    static YouTubeChannelResponse channelResponse() {
+        YouTubeChannelResponse.RelatedPlaylists relatedPlaylists = new YouTubeChannelResponse.RelatedPlaylists();
+        relatedPlaylists.setUploads("UUuploads");
+        YouTubeChannelResponse.ChannelContentDetails contentDetails = new YouTubeChannelResponse.ChannelContentDetails();
+        contentDetails.setRelatedPlaylists(relatedPlaylists);
+        YouTubeChannelResponse.ChannelSnippet snippet = new YouTubeChannelResponse.ChannelSnippet();
+        snippet.setTitle("Random Videos 139");
+        YouTubeChannelResponse.ChannelItem channelItem = new YouTubeChannelResponse.ChannelItem();
+        channelItem.setId("UCchannel");
+        channelItem.setSnippet(snippet);
+        channelItem.setContentDetails(contentDetails);
+        YouTubeChannelResponse response = new YouTubeChannelResponse();
+        response.setItems(List.of(channelItem));
+        return response;
+    }
+
+    static List<YouTubeVideoResponse.VideoItem> videoItems(int count) {
+        List<YouTubeVideoResponse.VideoItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            YouTubeVideoResponse.VideoItem item = new YouTubeVideoResponse.VideoItem();
+            item.setId("video-" + i);
+            YouTubeVideoResponse.VideoSnippet snippet = new YouTubeVideoResponse.VideoSnippet();
+            snippet.setTitle("Video " + i);
+            snippet.setPublishedAt("2024-05-01T18:00:00Z");
+            item.setSnippet(snippet);
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,101 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.repository.PlaylistMembershipView;
+import com.randomvideos139.website.repository.PlaylistRepository;
+import com.randomvideos139.website.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class QuotaPlannerTest {
+
+    @Mock
+    private ApiQuotaService apiQuotaService;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private PlaylistRepository playlistRepository;
+
+    @InjectMocks
+    private QuotaPlanner quotaPlanner;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(quotaPlanner, "reserveUnits", 500L);
+        given(videoRepository.count()).willReturn(1200L);
+        given(playlistRepository.count()).willReturn(30L);
+        given(playlistRepository.findAllMembershipStates()).willReturn(List.of(
+                membershipState(120), membershipState(50), membershipState(0), membershipState(null)));
+    }
+
+    @Test
+    public void testEstimatesFollowCatalogSize() {
+        // 1 channel + 24 search pages + 24 detail batches + 1 playlist page + 3 + 1 + 1 + 1 membership pages
+        assertEquals(1 + 2400 + 24 + 1 + 6, quotaPlanner.estimateFullSync());
+        assertEquals(4 + 6, quotaPlanner.estimateIncrementalSync());
+    }
+
+    @Test
+    public void testOnlyTheIncrementalSyncMaySpendTheReserve() {
+        given(apiQuotaService.getRemainingUnits()).willReturn(400L);
+
+        assertTrue(quotaPlanner.admit(QuotaPlanner.Job.INCREMENTAL_SYNC, quotaPlanner.estimateIncrementalSync()));
+        assertFalse(quotaPlanner.admit(QuotaPlanner.Job.HEALTH_CHECK, 1));
+        assertEquals(0, quotaPlanner.affordableStatisticsVideos(1000));
+    }
+
+    @Test
+    public void testFullSyncIsDeferredUntilItFits() {
+        given(apiQuotaService.getRemainingUnits()).willReturn(2000L);
+        assertFalse(quotaPlanner.admit(QuotaPlanner.Job.FULL_SYNC, quotaPlanner.estimateFullSync()));
+        assertTrue(quotaPlanner.isFullSyncDeferred());
+
+        given(apiQuotaService.getRemainingUnits()).willReturn(10000L);
+        assertTrue(quotaPlanner.admit(QuotaPlanner.Job.FULL_SYNC, quotaPlanner.estimateFullSync()));
+        assertFalse(quotaPlanner.isFullSyncDeferred());
+    }
+
+    @Test
+    public void testStatisticsRefreshShrinksToTheBudget() {
+        given(apiQuotaService.getRemainingUnits()).willReturn(510L);
+
+        assertEquals(500, quotaPlanner.affordableStatisticsVideos(1000));
+        assertEquals(300, quotaPlanner.affordableStatisticsVideos(300));
+    }
+
+    private static PlaylistMembershipView membershipState(Integer itemCount) {
+        return new PlaylistMembershipView() {
+            @Override
+            public String getId() {
+                return "PL" + itemCount;
+            }
+
+            @Override
+            public Integer getItemCount() {
+                return itemCount;
+            }
+
+            @Override
+            public String getMembershipEtag() {
+                return null;
+            }
+        };
+    }
+}
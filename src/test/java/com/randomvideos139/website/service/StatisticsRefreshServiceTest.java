@@ -0,0 +1,197 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.entity.UpdateHistory;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.UpdateHistoryRepository;
+import com.randomvideos139.website.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class StatisticsRefreshServiceTest {
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private YouTubeApiService youTubeApiService;
+
+    @Mock
+    private UpdateHistoryRepository updateHistoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private VideoStatisticsHistoryService statisticsHistoryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private StatisticsRefreshService statisticsRefreshService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(statisticsRefreshService, "maxVideosPerRun", 3);
+        ReflectionTestUtils.setField(statisticsRefreshService, "hotMaxAge", Duration.ofDays(2));
+        ReflectionTestUtils.setField(statisticsRefreshService, "hotRefreshInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(statisticsRefreshService, "warmMaxAge", Duration.ofDays(30));
+        ReflectionTestUtils.setField(statisticsRefreshService, "warmRefreshInterval", Duration.ofHours(12));
+        ReflectionTestUtils.setField(statisticsRefreshService, "coldRefreshInterval", Duration.ofDays(7));
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    public void testHotTierIsServedFirstAndBudgetCarriesOver() {
+        Video hot = video("hot", 10L);
+        Video warm = video("warm", 20L);
+        given(videoRepository.findVideosNeedingUpdate(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(Pageable.class)))
+                .willReturn(List.of(hot), List.of(warm), Collections.emptyList());
+        given(youTubeApiService.getVideoStatistics(anyList(), any()))
+                .willReturn(List.of(statistics("hot", "15")), Collections.emptyList());
+
+        int refreshed = statisticsRefreshService.refreshDueStatistics();
+
+        assertEquals(2, refreshed);
+        ArgumentCaptor<Pageable> pages = ArgumentCaptor.forClass(Pageable.class);
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(videoRepository, times(3)).findVideosNeedingUpdate(staleBefore.capture(), any(LocalDateTime.class),
+                any(LocalDateTime.class), pages.capture());
+        assertEquals(List.of(3, 2, 1), pages.getAllValues().stream().map(Pageable::getPageSize).toList());
+        // Each colder tier tolerates older statistics.
+        assertTrue(staleBefore.getAllValues().get(0).isAfter(staleBefore.getAllValues().get(1)));
+        assertTrue(staleBefore.getAllValues().get(1).isAfter(staleBefore.getAllValues().get(2)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFreshStatisticsUpdateCountsAndFingerprint() {
+        Video video = video("a", 10L);
+        String oldFingerprint = video.getContentFingerprint();
+        given(videoRepository.findVideosNeedingUpdate(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(Pageable.class)))
+                .willReturn(List.of(video), Collections.emptyList());
+        given(youTubeApiService.getVideoStatistics(eq(List.of("a")), any())).willReturn(List.of(statistics("a", "99")));
+
+        statisticsRefreshService.refreshDueStatistics();
+
+        ArgumentCaptor<Collection<Video>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(videoRepository).bulkUpdateStatistics(written.capture());
+        Video stored = written.getValue().iterator().next();
+        assertEquals(99L, stored.getViewCount());
+        assertEquals(ContentFingerprint.of(stored), stored.getContentFingerprint());
+        assertNotEquals(oldFingerprint, stored.getContentFingerprint());
+        verify(statisticsHistoryService).record(eq(written.getValue()), any(LocalDateTime.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testVideosOfAFailedBatchStayDueAndTheRunIsPartial() {
+        Video fetched = video("fetched", 10L);
+        Video gone = video("gone", 20L);
+        Video failed = video("failed", 30L);
+        given(videoRepository.findVideosNeedingUpdate(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(Pageable.class)))
+                .willReturn(List.of(fetched, gone, failed), Collections.emptyList());
+        given(youTubeApiService.getVideoStatistics(anyList(), any())).willAnswer(invocation -> {
+            Consumer<List<String>> failedVideoIds = invocation.getArgument(1);
+            failedVideoIds.accept(List.of("failed"));
+            return List.of(statistics("fetched", "11"));
+        });
+
+        assertEquals(2, statisticsRefreshService.refreshDueStatistics());
+
+        // The video the API no longer returns is stamped; the one whose batch failed is not.
+        ArgumentCaptor<Collection<Video>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(videoRepository).bulkUpdateStatistics(written.capture());
+        assertEquals(List.of("fetched", "gone"), written.getValue().stream().map(Video::getVideoId).toList());
+        verify(statisticsHistoryService).record(eq(written.getValue()), any(LocalDateTime.class));
+        ArgumentCaptor<UpdateHistory> history = ArgumentCaptor.forClass(UpdateHistory.class);
+        verify(updateHistoryRepository, times(2)).save(history.capture());
+        assertEquals("PARTIAL", history.getValue().getStatus());
+        assertEquals(1, history.getValue().getRecordsUpdated());
+    }
+
+    @Test
+    public void testNothingDueMakesNoApiCalls() {
+        given(videoRepository.findVideosNeedingUpdate(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(Pageable.class))).willReturn(Collections.emptyList());
+
+        assertEquals(0, statisticsRefreshService.refreshDueStatistics());
+
+        verify(youTubeApiService, times(0)).getVideoStatistics(anyList(), any());
+        verify(videoRepository, times(0)).bulkUpdateStatistics(anyCollection());
+    }
+
+    @Test
+    public void testTiersBoundPublishedAtInUtcAndDueTimesInTheLocalZone() {
+        ReflectionTestUtils.setField(statisticsRefreshService, "clock",
+                Clock.fixed(Instant.parse("2024-05-10T12:00:00Z"), ZoneId.of("Asia/Tokyo")));
+        given(videoRepository.findVideosNeedingUpdate(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(Pageable.class))).willReturn(Collections.emptyList());
+
+        statisticsRefreshService.refreshDueStatistics();
+
+        // Hot tier: published in the last two days (UTC), statistics older than an hour (Tokyo time).
+        verify(videoRepository).findVideosNeedingUpdate(eq(LocalDateTime.of(2024, 5, 10, 20, 0)),
+                eq(LocalDateTime.of(2024, 5, 8, 12, 0)), eq(LocalDateTime.of(2024, 5, 11, 12, 0)), any(Pageable.class));
+    }
+
+    private Video video(String id, long views) {
+        Video video = new Video(id, "Video " + id);
+        video.setViewCount(views);
+        video.setContentFingerprint(ContentFingerprint.of(video));
+        return video;
+    }
+
+    private YouTubeVideoResponse.VideoItem statistics(String id, String views) {
+        YouTubeVideoResponse.VideoStatistics statistics = new YouTubeVideoResponse.VideoStatistics();
+        statistics.setViewCount(views);
+        YouTubeVideoResponse.VideoItem item = new YouTubeVideoResponse.VideoItem();
+        item.setId(id);
+        item.setStatistics(statistics);
+        return item;
+    }
+}
@@ -0,0 +1,96 @@
+package com.randomvideos139.website.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyncPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SyncPipeline syncPipeline = new SyncPipeline(meterRegistry, 2);
+
+    @Test
+    public void testEveryItemIsEnrichedAndPersistedOnce() {
+        List<Integer> persisted = Collections.synchronizedList(new ArrayList<>());
+
+        syncPipeline.<Integer>run("test",
+                sink -> {
+                    for (int page = 0; page < 20; page++) {
+                        sink.accept(IntStream.range(page * 10, page * 10 + 10).boxed().collect(Collectors.toList()));
+                    }
+                },
+                batch -> batch.stream().map(item -> item * 2).collect(Collectors.toList()),
+                persisted::addAll);
+
+        assertEquals(IntStream.range(0, 200).map(item -> item * 2).boxed().collect(Collectors.toList()), persisted);
+        assertEquals(200, meterRegistry.get("sync.pipeline.items").tag("stage", "persist").counter().count());
+        assertEquals(0, meterRegistry.get("sync.pipeline.queue.depth").tag("queue", "enrich").gauge().value());
+    }
+
+    @Test
+    public void testSlowPersistenceBlocksTheSource() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetchedPages = new AtomicInteger();
+        Thread runner = new Thread(() -> syncPipeline.<Integer>run("backpressure",
+                sink -> {
+                    for (int page = 0; page < 50; page++) {
+                        sink.accept(List.of(page));
+                        fetchedPages.incrementAndGet();
+                    }
+                },
+                batch -> batch,
+                batch -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        runner.start();
+
+        Thread.sleep(500);
+        // Persistence holds up to 3 merged batches of up to 3 pages and its queue 2 more such batches;
+        // enrichment holds up to 3 pages and its queue 2 single pages: 9 + 6 + 3 + 2. Past that the source
+        // is parked on the next put.
+        assertTrue(fetchedPages.get() <= 20, "fetched " + fetchedPages.get() + " pages while persistence was blocked");
+        assertTrue(fetchedPages.get() < 50, "the source was not held back");
+
+        release.countDown();
+        runner.join(TimeUnit.SECONDS.toMillis(10));
+        assertEquals(50, fetchedPages.get());
+    }
+
+    @Test
+    public void testStageFailureStopsTheSourceAndIsRethrown() {
+        IllegalStateException failure = new IllegalStateException("database down");
+        AtomicInteger fetchedPages = new AtomicInteger();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> syncPipeline.<Integer>run("failing",
+                sink -> {
+                    for (int page = 0; page < 1000; page++) {
+                        sink.accept(List.of(page));
+                        fetchedPages.incrementAndGet();
+                    }
+                },
+                batch -> batch,
+                batch -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertTrue(fetchedPages.get() < 1000);
+    }
+}
@@ -0,0 +1,57 @@
+package com.randomvideos139.website.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyncReconcilerTest {
+
+    @Test
+    public void testSplitsIntoInsertsUpdatesAndDeletes() {
+        List<String> apiIds = Arrays.asList("a", "b", "c", "d");
+        List<String> dbIds = Arrays.asList("c", "d", "e");
+
+        SyncReconciler.Result<String, String> diff = SyncReconciler.reconcile(
+                apiIds, Function.identity(), dbIds, Function.identity());
+
+        assertEquals(4, diff.getSourceCount());
+        assertEquals(Arrays.asList("a", "b"), diff.getInserts());
+        assertEquals(Arrays.asList("c", "d"), diff.getUpdates().stream()
+                .map(SyncReconciler.Match::getExisting)
+                .collect(Collectors.toList()));
+        assertEquals(Collections.singletonList("e"), diff.getDeletes());
+    }
+
+    @Test
+    public void testIgnoresNullKeysAndKeepsFirstDuplicate() {
+        List<String[]> apiItems = Arrays.asList(
+                new String[]{"a", "first"},
+                new String[]{null, "no id"},
+                new String[]{"a", "second"});
+
+        SyncReconciler.Result<String[], String> diff = SyncReconciler.reconcile(
+                apiItems, item -> item[0], Collections.singletonList("a"), Function.identity());
+
+        assertEquals(1, diff.getSourceCount());
+        assertTrue(diff.getInserts().isEmpty());
+        assertEquals("first", diff.getUpdates().get(0).getSource()[1]);
+        assertTrue(diff.getDeletes().isEmpty());
+    }
+
+    @Test
+    public void testEmptyDatabaseInsertsEverything() {
+        SyncReconciler.Result<String, String> diff = SyncReconciler.reconcile(
+                Arrays.asList("a", "b"), Function.identity(), Collections.emptyList(), Function.identity());
+
+        assertEquals(Arrays.asList("a", "b"), diff.getInserts());
+        assertTrue(diff.getUpdates().isEmpty());
+        assertTrue(diff.getDeletes().isEmpty());
+    }
+}
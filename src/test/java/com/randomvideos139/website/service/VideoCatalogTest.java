@@ -0,0 +1,211 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class VideoCatalogTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 8, 12, 0);
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @InjectMocks
+    private VideoCatalog videoCatalog;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(videoCatalog, "latestSize", 2);
+        ReflectionTestUtils.setField(videoCatalog, "popularSize", 2);
+    }
+
+    @Test
+    public void testPagesAreSlicesOfEachSortInBothDirections() {
+        List<Video> videos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            videos.add(video("v" + i, "Title " + (char) ('a' + (i * 7) % 26) + i, (i * 37L) % 30, NOW.minusDays(i)));
+        }
+        videos.get(5).setViewCount(null);
+        given(videoRepository.findAll()).willReturn(videos);
+        videoCatalog.rebuild();
+
+        for (String property : List.of("publishedAt", "viewCount", "likeCount", "title")) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<String> expected = new ArrayList<>();
+                List<String> paged = new ArrayList<>();
+                for (int page = 0; page < 3; page++) {
+                    Page<Video> slice = videoCatalog.findPage(PageRequest.of(page, 12, Sort.by(direction, property))).orElseThrow();
+                    assertEquals(30, slice.getTotalElements());
+                    assertEquals(3, slice.getTotalPages());
+                    paged.addAll(ids(slice.getContent()));
+                }
+                videos.stream()
+                        .sorted(order(property, direction))
+                        .forEach(video -> expected.add(video.getVideoId()));
+                assertEquals(expected, paged, property + " " + direction);
+            }
+        }
+        assertEquals("v5", videoCatalog.findPage(PageRequest.of(0, 1, Sort.by("viewCount"))).orElseThrow()
+                .getContent().get(0).getVideoId());
+        assertTrue(videoCatalog.findPage(PageRequest.of(9, 12, Sort.by("title"))).orElseThrow().getContent().isEmpty());
+    }
+
+    @Test
+    public void testOverlappingRebuildsPublishInTheOrderTheyLoaded() throws Exception {
+        CountDownLatch firstLoading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger loading = new AtomicInteger();
+        AtomicInteger overlapping = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+        given(videoRepository.findAll()).willAnswer(invocation -> {
+            if (loading.incrementAndGet() > 1) {
+                overlapping.incrementAndGet();
+            }
+            try {
+                if (loads.incrementAndGet() == 1) {
+                    firstLoading.countDown();
+                    releaseFirst.await(5, TimeUnit.SECONDS);
+                    return List.of(video("old", "Old", 1L, NOW));
+                }
+                return List.of(video("new", "New", 2L, NOW), video("newer", "Newer", 3L, NOW));
+            } finally {
+                loading.decrementAndGet();
+            }
+        });
+
+        Thread first = new Thread(videoCatalog::rebuild);
+        first.start();
+        assertTrue(firstLoading.await(5, TimeUnit.SECONDS));
+        Thread second = new Thread(videoCatalog::rebuild);
+        second.start();
+        Thread.sleep(100);
+        releaseFirst.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        assertEquals(0, overlapping.get());
+        assertEquals(List.of("newer", "new"), ids(videoCatalog.findPopularVideos().orElseThrow()));
+        assertEquals(0, videoCatalog.search("old", PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    public void testUnsupportedSortsAndAMissingSnapshotFallBack() {
+        assertTrue(videoCatalog.findPage(PageRequest.of(0, 12, Sort.by("publishedAt"))).isEmpty());
+        assertTrue(videoCatalog.findLatestVideos().isEmpty());
+
+        given(videoRepository.findAll()).willReturn(List.of(video("a", "A", 1L, NOW)));
+        videoCatalog.rebuild();
+
+        assertTrue(videoCatalog.findPage(PageRequest.of(0, 12, Sort.by("commentCount"))).isEmpty());
+        assertTrue(videoCatalog.findPage(PageRequest.of(0, 12, Sort.by("viewCount", "title"))).isEmpty());
+        assertTrue(videoCatalog.findPage(PageRequest.of(0, 12)).isEmpty());
+    }
+
+    @Test
+    public void testRankingsFollowTheFlagsOrTheSortsBeforeTheFirstRanking() {
+        Video old = video("old", "Old", 900L, NOW.minusYears(1));
+        Video mid = video("mid", "Mid", 50L, NOW.minusDays(10));
+        Video fresh = video("fresh", "Fresh", 10L, NOW);
+        given(videoRepository.findAll()).willReturn(List.of(old, mid, fresh));
+        videoCatalog.rebuild();
+
+        assertEquals(List.of("fresh", "mid"), ids(videoCatalog.findLatestVideos().orElseThrow()));
+        assertEquals(List.of("old", "mid"), ids(videoCatalog.findPopularVideos().orElseThrow()));
+        assertTrue(videoCatalog.findTrendingVideos().orElseThrow().isEmpty());
+
+        old.setIsLatest(true);
+        mid.setIsTrending(true);
+        mid.setTrendingScore(2.0);
+        fresh.setIsTrending(true);
+        fresh.setTrendingScore(7.5);
+        fresh.setIsPopular(true);
+        videoCatalog.onSyncCompleted(new SyncCompletedEvent("INCREMENTAL", "SUCCESS", 3));
+
+        assertEquals(List.of("old"), ids(videoCatalog.findLatestVideos().orElseThrow()));
+        assertEquals(List.of("fresh"), ids(videoCatalog.findPopularVideos().orElseThrow()));
+        assertEquals(List.of("fresh", "mid"), ids(videoCatalog.findTrendingVideos().orElseThrow()));
+
+        videoCatalog.onSyncCompleted(new SyncCompletedEvent("STATISTICS", "SUCCESS", 0));
+
+        verify(videoRepository, times(2)).findAll();
+    }
+
+    @Test
+    public void testSearchesRankByRelevanceOrFollowAChosenSort() {
+        assertTrue(videoCatalog.search("piano", PageRequest.of(0, 12)).isEmpty());
+
+        Video lesson = video("lesson", "Piano lesson", 10L, NOW.minusDays(2));
+        Video cover = video("cover", "Song cover", 500L, NOW.minusDays(1));
+        cover.setTags("piano,cover");
+        Video vlog = video("vlog", "Weekly vlog", 90L, NOW);
+        vlog.setDescription("I bought a new piano.");
+        given(videoRepository.findAll()).willReturn(List.of(lesson, cover, vlog, video("other", "Other", 1L, NOW)));
+        videoCatalog.rebuild();
+
+        Page<Video> ranked = videoCatalog.search("piano", PageRequest.of(0, 2)).orElseThrow();
+        assertEquals(List.of("lesson", "cover"), ids(ranked.getContent()));
+        assertEquals(3, ranked.getTotalElements());
+        assertEquals(List.of("vlog"), ids(videoCatalog.search("piano", PageRequest.of(1, 2)).orElseThrow().getContent()));
+        assertEquals(List.of("cover", "vlog", "lesson"), ids(videoCatalog.search("piano",
+                PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "viewCount"))).orElseThrow().getContent()));
+        assertTrue(videoCatalog.search("piano", PageRequest.of(0, 12, Sort.by("commentCount"))).isEmpty());
+    }
+
+    private static Comparator<Video> order(String property, Sort.Direction direction) {
+        Comparator<Video> ascending;
+        switch (property) {
+            case "publishedAt":
+                ascending = Comparator.comparing(Video::getPublishedAt);
+                break;
+            case "viewCount":
+                ascending = Comparator.comparing(Video::getViewCount,
+                        Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+                break;
+            case "likeCount":
+                ascending = Comparator.comparing(Video::getLikeCount);
+                break;
+            default:
+                ascending = Comparator.comparing(Video::getTitle, String.CASE_INSENSITIVE_ORDER);
+        }
+        ascending = ascending.thenComparing(Video::getVideoId);
+        return direction.isAscending() ? ascending : ascending.reversed();
+    }
+
+    private List<String> ids(List<Video> videos) {
+        return videos.stream().map(Video::getVideoId).collect(Collectors.toList());
+    }
+
+    private Video video(String id, String title, Long views, LocalDateTime publishedAt) {
+        Video video = new Video(id, title);
+        video.setViewCount(views);
+        video.setLikeCount(views != null ? views % 7 : 0L);
+        video.setPublishedAt(publishedAt);
+        return video;
+    }
+}
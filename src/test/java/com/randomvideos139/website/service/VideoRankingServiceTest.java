@@ -0,0 +1,115 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.repository.VideoRepository;
+import com.randomvideos139.website.repository.VideoStatisticsBlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ranking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "ranking.latest.size=2",
+        "ranking.popular.size=2",
+        "ranking.trending.size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({VideoRankingService.class, VideoStatisticsHistoryService.class})
+// The ranking runs its own transaction, as it does after a sync.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class VideoRankingServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 8, 12, 0);
+
+    // Satisfies the startup runner declared on the application class.
+    @MockBean
+    private DataSyncService dataSyncService;
+
+    @Autowired
+    private VideoRankingService rankingService;
+
+    @Autowired
+    private VideoStatisticsHistoryService historyService;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private VideoStatisticsBlockRepository blockRepository;
+
+    @AfterEach
+    public void clearCatalog() {
+        blockRepository.deleteAll();
+        videoRepository.deleteAll();
+    }
+
+    @Test
+    public void testRankingFlagsLatestPopularAndFastestGrowingVideos() {
+        videoRepository.saveAll(List.of(
+                video("old-hit", 1_000_000L, NOW.minusYears(2)),
+                video("steady", 50_000L, NOW.minusMonths(3)),
+                video("rising", 2_000L, NOW.minusDays(2)),
+                video("new", 100L, NOW.minusHours(3))));
+        // Two days ago, the start of the trending window, and in the week before.
+        historyService.record(List.of(
+                video("old-hit", 990_000L, null), video("steady", 49_000L, null), video("rising", 200L, null)),
+                NOW.minusHours(47));
+        historyService.record(List.of(video("new", 10L, null)), NOW.minusHours(3));
+        historyService.record(List.of(
+                video("old-hit", 1_000_000L, null), video("steady", 50_000L, null), video("rising", 2_000L, null),
+                video("new", 100L, null)), NOW.minusMinutes(30));
+
+        rankingService.rank(NOW);
+
+        assertEquals(List.of("new", "rising"), ids(videoRepository.findByIsLatestTrueOrderByPublishedAtDesc()));
+        assertEquals(List.of("old-hit", "steady"), ids(videoRepository.findByIsPopularTrueOrderByViewCountDesc()));
+        // old-hit gained 10,000 views in 46.5 hours (215/h), steady 1,000 (21.5/h), rising 1,800 (38.7/h), new 90 in 2.5 hours (36/h).
+        assertEquals(List.of("old-hit", "rising"), ids(videoRepository.findByIsTrendingTrueOrderByTrendingScoreDesc()));
+
+        historyService.record(List.of(video("new", 100_000L, null)), NOW.plusMinutes(30));
+        rankingService.rank(NOW.plusHours(1));
+
+        assertEquals(List.of("new", "old-hit"), ids(videoRepository.findByIsTrendingTrueOrderByTrendingScoreDesc()));
+        assertEquals(2, videoRepository.findByIsLatestTrueOrderByPublishedAtDesc().size());
+    }
+
+    @Test
+    public void testVideosSampledOnceOrNotGrowingDoNotTrend() {
+        videoRepository.saveAll(List.of(video("flat", 500L, NOW.minusDays(10)), video("single", 10L, NOW.minusHours(1))));
+        historyService.record(List.of(video("flat", 500L, null)), NOW.minusHours(20));
+        historyService.record(List.of(video("flat", 500L, null), video("single", 10L, null)), NOW.minusHours(1));
+
+        rankingService.rank(NOW);
+
+        assertEquals(List.of(), videoRepository.findByIsTrendingTrueOrderByTrendingScoreDesc());
+        assertEquals(List.of("single", "flat"), ids(videoRepository.findByIsLatestTrueOrderByPublishedAtDesc()));
+    }
+
+    private List<String> ids(List<Video> videos) {
+        return videos.stream().map(Video::getVideoId).collect(Collectors.toList());
+    }
+
+    private Video video(String id, long views, LocalDateTime publishedAt) {
+        Video video = new Video(id, "Video " + id);
+        video.setViewCount(views);
+        video.setLikeCount(views / 10);
+        video.setCommentCount(1L);
+        video.setPublishedAt(publishedAt);
+        return video;
+    }
+}
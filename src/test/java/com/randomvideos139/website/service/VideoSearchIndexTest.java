@@ -0,0 +1,96 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.entity.Video;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VideoSearchIndexTest {
+
+    @Test
+    public void testWordsAreFoldedAndSplitOnAnythingButLettersAndDigits() {
+        assertEquals(List.of("creme", "brulee", "in", "60", "seconds", "asmr"),
+                VideoSearchIndex.tokenize("Crème BRÛLÉE in 60-seconds! #asmr"));
+        assertEquals(List.of("naive", "cafe", "sao", "paulo"), VideoSearchIndex.tokenize("naïve café, São Paulo"));
+        assertTrue(VideoSearchIndex.tokenize(" -- ").isEmpty());
+        assertTrue(VideoSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    public void testMatchesHoldEveryWordAndRankTitlesAboveDescriptions() {
+        VideoSearchIndex index = new VideoSearchIndex();
+        index.update(List.of(
+                video("title", "Cat videos compilation", "Some animals.", null),
+                video("tags", "Compilation", "Some animals.", "cat,funny"),
+                video("description", "Compilation", "A cat appears once in this long description of many things.", null),
+                video("dog", "Dog videos compilation", "No felines here.", "dog"),
+                video("accent", "Café tour", "Visiting every café in town.", null)));
+
+        assertEquals(List.of("title", "tags", "description"), index.search("cat compilation").top(0, 10));
+        assertEquals(3, index.search("CAT").size());
+        assertEquals(0, index.search("cat dog").size());
+        assertEquals(List.of("accent"), index.search("cafe").top(0, 10));
+        assertEquals(List.of("accent"), index.search("CAFÉ").top(0, 10));
+        assertEquals(0, index.search("?!").size());
+        assertEquals(List.of("tags", "description"), index.search("cat").top(1, 10));
+        assertTrue(index.search("cat").top(3, 10).isEmpty());
+    }
+
+    @Test
+    public void testTheLastWordMatchesAsAPrefixWhileTyping() {
+        VideoSearchIndex index = new VideoSearchIndex();
+        index.update(List.of(
+                video("a", "Guitar lesson", null, null),
+                video("b", "Guitarist interview", null, null),
+                video("c", "Piano lesson", null, null)));
+
+        assertEquals(List.of("a", "b"), index.search("guit").top(0, 10));
+        // The whole word ranks above the words it begins.
+        assertEquals(List.of("a", "b"), index.search("guitar").top(0, 10));
+        assertEquals(List.of("a"), index.search("guitar ").top(0, 10));
+        assertEquals(List.of("a", "c"), index.search("less").top(0, 10));
+        assertEquals(List.of("a"), index.search("lesson guit").top(0, 10));
+        // A single letter is too short to expand.
+        assertEquals(0, index.search("g").size());
+    }
+
+    @Test
+    public void testUpdatesOnlyReindexChangedVideosAndDropRemovedOnes() {
+        VideoSearchIndex index = new VideoSearchIndex();
+        List<Video> videos = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            videos.add(video("v" + i, "Episode " + i, "Part of the series.", "series"));
+        }
+        assertEquals(40, index.update(videos));
+        assertEquals(0, index.update(videos));
+
+        videos.get(3).setViewCount(1000L);
+        videos.get(4).setTitle("Finale");
+        assertEquals(1, index.update(videos));
+        assertEquals(List.of("v4"), index.search("finale").top(0, 10));
+        assertEquals(0, index.search("episode 4").size());
+
+        // Dropping most of the catalog compacts the index; what remains is still found.
+        List<Video> remaining = new ArrayList<>(videos.subList(30, 40));
+        assertEquals(30, index.update(remaining));
+        assertEquals(10, index.size());
+        assertEquals(10, index.search("series").size());
+        assertEquals(List.of("v35"), index.search("35").top(0, 10));
+        assertEquals(0, index.search("finale").size());
+
+        remaining.add(video("new", "Episode new", null, null));
+        assertEquals(1, index.update(remaining));
+        assertEquals(List.of("new"), index.search("episode new").top(0, 10));
+    }
+
+    private Video video(String id, String title, String description, String tags) {
+        Video video = new Video(id, title);
+        video.setDescription(description);
+        video.setTags(tags);
+        return video;
+    }
+}
@@ -0,0 +1,127 @@
+package com.randomvideos139.website.service;
+
+import com.randomvideos139.website.dto.StatisticsSample;
+import com.randomvideos139.website.entity.Video;
+import com.randomvideos139.website.entity.VideoStatisticsBlock;
+import com.randomvideos139.website.entity.VideoStatisticsBlock.Resolution;
+import com.randomvideos139.website.repository.VideoStatisticsBlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "sync.stats.history.compaction-batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(VideoStatisticsHistoryService.class)
+// The service runs its own transactions, as it does when scheduled.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class VideoStatisticsHistoryServiceTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 5, 6, 0, 0);
+
+    // Satisfies the startup runner declared on the application class.
+    @MockBean
+    private DataSyncService dataSyncService;
+
+    @Autowired
+    private VideoStatisticsHistoryService historyService;
+
+    @Autowired
+    private VideoStatisticsBlockRepository blockRepository;
+
+    @AfterEach
+    public void clearHistory() {
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    public void testBlocksRoundTripLargeAndShrinkingCounts() {
+        Random random = new Random(19);
+        VideoStatisticsBlock block = new VideoStatisticsBlock("a", Resolution.HOURLY, MONDAY);
+        List<StatisticsSample> samples = new ArrayList<>();
+        long views = 0;
+        for (int hour = 0; hour < 7 * 24; hour++) {
+            views = Math.max(0, views + random.nextInt(2_000) - 200);
+            samples.add(new StatisticsSample(MONDAY.plusHours(hour).plusSeconds(random.nextInt(3600)),
+                    hour == 100 ? Long.MAX_VALUE : views, views / 40, views / 500));
+        }
+
+        block.merge(samples);
+
+        assertEquals(samples, block.decodeSamples());
+        assertEquals(7 * 24, block.getSampleCount());
+    }
+
+    @Test
+    public void testRecordingKeepsOneSamplePerHourAndSkipsUnchangedCounts() {
+        historyService.record(List.of(video("a", 100L), video("b", 5L)), MONDAY.plusHours(1));
+        historyService.record(List.of(video("a", 100L)), MONDAY.plusHours(2));
+        historyService.record(List.of(video("a", 150L)), MONDAY.plusHours(3).plusMinutes(5));
+        historyService.record(List.of(video("a", 160L)), MONDAY.plusHours(3).plusMinutes(50));
+        Video hidden = video("a", 170L);
+        hidden.setLikeCount(null);
+        historyService.record(List.of(hidden), MONDAY.plusHours(4));
+
+        List<StatisticsSample> history = historyService.getHistory("a", MONDAY, MONDAY.plusDays(1));
+
+        assertEquals(List.of(
+                new StatisticsSample(MONDAY.plusHours(1), 100, 10, 1),
+                new StatisticsSample(MONDAY.plusHours(3).plusMinutes(50), 160, 16, 1),
+                new StatisticsSample(MONDAY.plusHours(4), 170, 16, 1)), history);
+        assertEquals(2, blockRepository.count());
+    }
+
+    @Test
+    public void testCompactionFoldsHourlyIntoDailyAndDailyIntoWeekly() {
+        LocalDateTime start = LocalDateTime.of(2021, 12, 27, 0, 0);
+        for (int hour = 0; hour < 6 * 7 * 24; hour += 6) {
+            historyService.record(List.of(video("a", 1_000L + hour), video("b", 2L * hour)), start.plusHours(hour));
+        }
+        LocalDateTime end = start.plusWeeks(6);
+        long hourlyBlocks = blockRepository.count();
+
+        int folded = historyService.compact(end.plusDays(14));
+
+        assertEquals(hourlyBlocks, folded);
+        List<StatisticsSample> daily = historyService.getHistory("a", start, end);
+        assertEquals(6 * 7, daily.size());
+        assertEquals(start.plusHours(18), daily.get(0).getSampledAt());
+        assertEquals(1_000L + 6 * 7 * 24 - 6, daily.get(daily.size() - 1).getViewCount());
+
+        historyService.compact(end.plusDays(14).plusYears(3));
+
+        List<StatisticsSample> weekly = historyService.getHistory("a", start, end);
+        // Six weeks, one of them split at the new year.
+        assertEquals(7, weekly.size());
+        assertEquals(daily.get(daily.size() - 1), weekly.get(weekly.size() - 1));
+        assertTrue(blockRepository.findAll().stream().allMatch(block -> block.getResolution() == Resolution.WEEKLY));
+        assertEquals(0, historyService.compact(end.plusYears(4)));
+    }
+
+    private Video video(String id, Long views) {
+        Video video = new Video(id, "Video " + id);
+        video.setViewCount(views);
+        video.setLikeCount(views / 10);
+        video.setCommentCount(1L);
+        return video;
+    }
+}
@@ -0,0 +1,323 @@
+package com.randomvideos139.website.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randomvideos139.website.dto.FieldMask;
+import com.randomvideos139.website.dto.YouTubeChannelResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistItemResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+import com.randomvideos139.website.entity.ApiResponseCacheEntry;
+import com.randomvideos139.website.repository.ApiResponseCacheRepository;
+import com.randomvideos139.website.support.StubYouTubeApi;
+import com.randomvideos139.website.support.SyntheticCatalog;
+import com.randomvideos139.website.support.YouTubeFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class YouTubeApiServiceTest {
+
+    private static final long LATENCY_MILLIS = 100;
+
+    private StubYouTubeApi stubApi;
+    private YouTubeApiService youTubeApiService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        stubApi = new StubYouTubeApi(LATENCY_MILLIS);
+        youTubeApiService = youTubeApiService(new RestTemplate());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stubApi.close();
+    }
+
+    @Test
+    public void testConcurrentEnrichmentOverlapsRoundTrips() {
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 1);
+        long sequentialMillis = timeEnrichment(400);
+        assertEquals(1, stubApi.peakConcurrency());
+
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 8);
+        long concurrentMillis = timeEnrichment(400);
+
+        // 8 chunks: sequential pays 8 round-trips, concurrent roughly one.
+        assertTrue(sequentialMillis >= 8 * LATENCY_MILLIS, "sequential took " + sequentialMillis + " ms");
+        assertTrue(concurrentMillis * 2 < sequentialMillis,
+                "concurrent took " + concurrentMillis + " ms, sequential " + sequentialMillis + " ms");
+        assertTrue(stubApi.peakConcurrency() > 1 && stubApi.peakConcurrency() <= 8);
+    }
+
+    @Test
+    public void testEnrichmentKeepsOrderAndMergesMissingSnippetFields() {
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 4);
+        List<YouTubeVideoResponse.VideoItem> items = searchItems(120);
+        items.get(0).getSnippet().setTags(List.of("own-tag"));
+
+        List<YouTubeVideoResponse.VideoItem> enriched = youTubeApiService.enrichVideosWithStatistics(items);
+
+        assertEquals(items.stream().map(YouTubeVideoResponse.VideoItem::getVideoId).collect(Collectors.toList()),
+                enriched.stream().map(YouTubeVideoResponse.VideoItem::getVideoId).collect(Collectors.toList()));
+        assertEquals(List.of("own-tag"), enriched.get(0).getSnippet().getTags());
+        assertEquals(List.of("tag-video-1"), enriched.get(1).getSnippet().getTags());
+        assertEquals("22", enriched.get(119).getSnippet().getCategoryId());
+        assertEquals("Search title 119", enriched.get(119).getSnippet().getTitle());
+        assertNotNull(enriched.get(119).getStatistics());
+    }
+
+    @Test
+    public void testFailedChunkDoesNotAffectOtherChunks() {
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 4);
+        stubApi.failRequestsContaining("video-60");
+
+        List<YouTubeVideoResponse.VideoItem> failed = new ArrayList<>();
+        List<YouTubeVideoResponse.VideoItem> enriched = youTubeApiService.enrichVideosWithStatistics(searchItems(150),
+                failed::addAll);
+
+        assertEquals(150, enriched.size());
+        assertNotNull(enriched.get(49).getStatistics());
+        assertNull(enriched.get(50).getStatistics());
+        assertNull(enriched.get(99).getStatistics());
+        assertNotNull(enriched.get(100).getStatistics());
+        assertEquals(enriched.subList(50, 100), failed);
+    }
+
+    @Test
+    public void testPagesWhoseEnrichmentFailedAreFetchedAgainNextSync() {
+        ApiResponseCache apiResponseCache = new ApiResponseCache();
+        ReflectionTestUtils.setField(apiResponseCache, "apiResponseCacheRepository", inMemoryCacheRepository());
+        ReflectionTestUtils.setField(apiResponseCache, "enabled", true);
+        ReflectionTestUtils.setField(youTubeApiService, "apiResponseCache", apiResponseCache);
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 1);
+        stubApi.setSearchPages(List.of(List.of("a", "b"), List.of("c")));
+        stubApi.failRequestsContaining("c");
+
+        List<YouTubeVideoResponse.VideoItem> failed = new ArrayList<>();
+        assertTrue(youTubeApiService.forEachVideoPage(
+                page -> youTubeApiService.enrichVideosWithStatistics(page, failed::addAll), unchanged -> { }));
+        assertEquals(List.of("c"), failed.stream().map(YouTubeVideoResponse.VideoItem::getVideoId).collect(Collectors.toList()));
+        // What the sync does when anything failed.
+        apiResponseCache.discardStaged();
+
+        List<String> fetched = new ArrayList<>();
+        assertTrue(youTubeApiService.forEachVideoPage(page -> page.forEach(item -> fetched.add(item.getVideoId())),
+                unchanged -> { }));
+        assertEquals(0, stubApi.notModifiedCount());
+        assertEquals(List.of("a", "b", "c"), fetched);
+    }
+
+    @Test
+    public void testCallsRefusedByAnOpenCircuitAreRethrown() {
+        ApiCircuitBreaker circuitBreaker = new ApiCircuitBreaker();
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 1);
+        ReflectionTestUtils.setField(circuitBreaker, "openDuration", Duration.ofMinutes(2));
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(circuitBreaker);
+        youTubeApiService = youTubeApiService(restTemplate);
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 4);
+        stubApi.failRequestsContaining("broken");
+
+        // An ordinary failure only loses its own batch, but opens the circuit.
+        List<String> failed = new ArrayList<>();
+        assertTrue(youTubeApiService.getVideoStatistics(List.of("broken"), failed::addAll).isEmpty());
+        assertEquals(List.of("broken"), failed);
+        assertEquals(ApiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertThrows(ApiCircuitBreaker.CircuitOpenException.class, () -> youTubeApiService.getChannelInfo());
+        assertThrows(ApiCircuitBreaker.CircuitOpenException.class,
+                () -> youTubeApiService.getVideoStatistics(List.of("a"), failed::addAll));
+        assertThrows(ApiCircuitBreaker.CircuitOpenException.class,
+                () -> youTubeApiService.enrichVideosWithStatistics(searchItems(120)));
+    }
+
+    @Test
+    public void testUnchangedSearchPagesAreAnsweredFromStoredEtags() {
+        ApiResponseCacheRepository repository = inMemoryCacheRepository();
+        ApiResponseCache apiResponseCache = new ApiResponseCache();
+        ReflectionTestUtils.setField(apiResponseCache, "apiResponseCacheRepository", repository);
+        ReflectionTestUtils.setField(apiResponseCache, "enabled", true);
+        ReflectionTestUtils.setField(youTubeApiService, "apiResponseCache", apiResponseCache);
+        stubApi.setSearchPages(List.of(List.of("a", "b"), List.of("c")));
+
+        List<String> fetched = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        assertTrue(youTubeApiService.forEachVideoPage(page -> page.forEach(item -> fetched.add(item.getVideoId())),
+                unchanged::addAll));
+        // ETags only count once the sync that fetched them has committed.
+        youTubeApiService.forEachVideoPage(page -> page.forEach(item -> fetched.add(item.getVideoId())), unchanged::addAll);
+        assertEquals(List.of("a", "b", "c", "a", "b", "c"), fetched);
+        assertEquals(0, stubApi.notModifiedCount());
+
+        apiResponseCache.commitStaged();
+        fetched.clear();
+        stubApi.setSearchPages(List.of(List.of("a", "b"), List.of("c", "d")));
+        assertTrue(youTubeApiService.forEachVideoPage(page -> page.forEach(item -> fetched.add(item.getVideoId())),
+                unchanged::addAll));
+
+        assertEquals(1, stubApi.notModifiedCount());
+        assertEquals(List.of("a", "b"), unchanged);
+        assertEquals(List.of("c", "d"), fetched);
+    }
+
+    @Test
+    public void testRequestsCarryTheFieldMasks() {
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 1);
+        stubApi.setSearchPages(List.of(List.of("a")));
+
+        youTubeApiService.getAllVideos();
+        youTubeApiService.getVideoStatistics(List.of("a"));
+
+        assertEquals(YouTubeApiService.SEARCH_FIELDS.toString(), stubApi.lastFields("search"));
+        assertEquals("items(id,statistics(viewCount,likeCount,commentCount)),nextPageToken,etag",
+                stubApi.lastFields("videos"));
+    }
+
+    @Test
+    public void testFieldMasksKeepEverythingTheDtosRead() throws Exception {
+        assertMaskKeepsWhatTheDtoReads("search", YouTubeApiService.SEARCH_FIELDS, YouTubeVideoResponse.class);
+        assertMaskKeepsWhatTheDtoReads("videos", YouTubeApiService.VIDEO_DETAILS_FIELDS, YouTubeVideoResponse.class);
+        assertMaskKeepsWhatTheDtoReads("channels", YouTubeApiService.CHANNEL_FIELDS, YouTubeChannelResponse.class);
+        assertMaskKeepsWhatTheDtoReads("playlists", YouTubeApiService.PLAYLIST_FIELDS, YouTubePlaylistResponse.class);
+        assertMaskKeepsWhatTheDtoReads("playlistItems", YouTubeApiService.PLAYLIST_ITEM_FIELDS,
+                YouTubePlaylistItemResponse.class);
+    }
+
+    @Test
+    public void testReadsEveryPageOfASyntheticCatalog() {
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 4);
+        stubApi.setCatalog(new SyntheticCatalog(230, 7));
+
+        assertEquals(SyntheticCatalog.UPLOADS_PLAYLIST_ID,
+                youTubeApiService.getChannelInfo().getItems().get(0).getUploadsPlaylistId());
+        List<YouTubeVideoResponse.VideoItem> videos = youTubeApiService.getAllVideos();
+        assertEquals(230, videos.size());
+        assertEquals(SyntheticCatalog.videoId(229), videos.get(0).getVideoId());
+        assertEquals(SyntheticCatalog.videoId(0), videos.get(229).getVideoId());
+        assertTrue(videos.stream().allMatch(video -> video.getStatistics() != null && video.getContentDetails() != null));
+        assertEquals(7, youTubeApiService.getAllPlaylists().size());
+
+        List<YouTubeVideoResponse.VideoItem> recent = youTubeApiService.getRecentUploads(
+                SyntheticCatalog.UPLOADS_PLAYLIST_ID, Instant.parse(SyntheticCatalog.publishedAt(200)));
+        assertEquals(30, recent.size());
+        assertEquals(SyntheticCatalog.videoId(200), recent.get(29).getVideoId());
+    }
+
+    @Test
+    public void testRecentUploadsWhoseDetailsFailedAreReported() {
+        ReflectionTestUtils.setField(youTubeApiService, "enrichmentParallelism", 2);
+        stubApi.setCatalog(new SyntheticCatalog(230, 7));
+        stubApi.failRequestsContaining(SyntheticCatalog.videoId(229));
+
+        List<String> failed = new ArrayList<>();
+        List<YouTubeVideoResponse.VideoItem> recent = youTubeApiService.getRecentUploads(
+                SyntheticCatalog.UPLOADS_PLAYLIST_ID, Instant.parse(SyntheticCatalog.publishedAt(160)), failed::addAll);
+
+        // The newest 50 uploads share the failed chunk; the other 20 are returned.
+        assertEquals(50, failed.size());
+        assertEquals(SyntheticCatalog.videoId(229), failed.get(0));
+        assertEquals(20, recent.size());
+        assertEquals(SyntheticCatalog.videoId(160), recent.get(19).getVideoId());
+    }
+
+    @Test
+    public void testRecordedResponsesReplayWithoutTheCatalog(@TempDir Path recordings) throws Exception {
+        stubApi.setCatalog(new SyntheticCatalog(120, 3));
+        stubApi.recordTo(recordings);
+        List<String> recordedVideos = videoIds(youTubeApiService.getAllVideos());
+        int recordedPlaylists = youTubeApiService.getAllPlaylists().size();
+
+        try (StubYouTubeApi replaying = new StubYouTubeApi(0)) {
+            replaying.replayFrom(recordings);
+            ReflectionTestUtils.setField(youTubeApiService, "apiBaseUrl", replaying.baseUrl());
+
+            assertEquals(recordedVideos, videoIds(youTubeApiService.getAllVideos()));
+            assertEquals(recordedPlaylists, youTubeApiService.getAllPlaylists().size());
+            assertEquals(120, recordedVideos.size());
+            assertEquals(replaying.requestCount(), stubApi.requestCount());
+        }
+    }
+
+    /**
+     * Whatever the DTO holds after parsing the full fixture, it also holds after parsing the masked one.
+     */
+    private void assertMaskKeepsWhatTheDtoReads(String fixture, FieldMask mask, Class<?> responseType) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] full = YouTubeFixtures.toBytes(YouTubeFixtures.load(fixture));
+        byte[] masked = YouTubeFixtures.toBytes(YouTubeFixtures.apply(mask, YouTubeFixtures.load(fixture)));
+
+        assertEquals(objectMapper.valueToTree(objectMapper.readValue(full, responseType)),
+                objectMapper.valueToTree(objectMapper.readValue(masked, responseType)), fixture);
+        assertTrue(masked.length < full.length, fixture);
+    }
+
+    private ApiResponseCacheRepository inMemoryCacheRepository() {
+        Map<String, ApiResponseCacheEntry> entries = new HashMap<>();
+        ApiResponseCacheRepository repository = mock(ApiResponseCacheRepository.class);
+        given(repository.findById(anyString())).willAnswer(invocation ->
+                Optional.ofNullable(entries.get(invocation.<String>getArgument(0))));
+        given(repository.saveAll(anyList())).willAnswer(invocation -> {
+            List<ApiResponseCacheEntry> saved = invocation.getArgument(0);
+            saved.forEach(entry -> entries.put(entry.getRequestKey(), entry));
+            return saved;
+        });
+        return repository;
+    }
+
+    private static List<String> videoIds(List<YouTubeVideoResponse.VideoItem> items) {
+        return items.stream().map(YouTubeVideoResponse.VideoItem::getVideoId).collect(Collectors.toList());
+    }
+
+    private long timeEnrichment(int count) {
+        List<YouTubeVideoResponse.VideoItem> items = searchItems(count);
+        long start = System.nanoTime();
+        youTubeApiService.enrichVideosWithStatistics(items);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(items.stream().allMatch(item -> item.getStatistics() != null));
+        return elapsedMillis;
+    }
+
+    private YouTubeApiService youTubeApiService(RestTemplate restTemplate) {
+        YouTubeApiService service = new YouTubeApiService(restTemplate);
+        ReflectionTestUtils.setField(service, "apiBaseUrl", stubApi.baseUrl());
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "channelId", "UCchannel");
+        return service;
+    }
+
+    private List<YouTubeVideoResponse.VideoItem> searchItems(int count) {
+        List<YouTubeVideoResponse.VideoItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            YouTubeVideoResponse.VideoItem item = new YouTubeVideoResponse.VideoItem();
+            item.setId("video-" + i);
+            YouTubeVideoResponse.VideoSnippet snippet = new YouTubeVideoResponse.VideoSnippet();
+            snippet.setTitle("Search title " + i);
+            item.setSnippet(snippet);
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,44 @@
+package com.randomvideos139.website.support;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The duration and timestamp parsing the sync used before {@code YouTubeTimeFormats}, kept as the reference
+ * for its fuzz tests and benchmark. Both methods throw on input they cannot parse.
+ */
+public final class LegacyTimeParsing {
+
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+
+    private LegacyTimeParsing() {
+    }
+
+    public static String formatDuration(String duration) {
+        if (duration == null) return "0:00";
+        String formatted = duration.replace("PT", "");
+        int hours = 0, minutes = 0, seconds = 0;
+        if (formatted.contains("H")) {
+            String[] parts = formatted.split("H");
+            hours = Integer.parseInt(parts[0]);
+            if (parts.length > 1) formatted = parts[1]; else formatted = "";
+        }
+        if (formatted.contains("M")) {
+            String[] parts = formatted.split("M");
+            minutes = Integer.parseInt(parts[0]);
+            if (parts.length > 1) formatted = parts[1]; else formatted = "";
+        }
+        if (formatted.contains("S")) {
+            seconds = Integer.parseInt(formatted.replace("S", ""));
+        }
+        if (hours > 0) {
+            return String.format("%d:%02d:%02d", hours, minutes, seconds);
+        } else {
+            return String.format("%d:%02d", minutes, seconds);
+        }
+    }
+
+    public static LocalDateTime parseTimestamp(String timestamp) {
+        return LocalDateTime.parse(timestamp.replace("Z", ""), ISO_FORMATTER);
+    }
+}
@@ -0,0 +1,520 @@
+package com.randomvideos139.website.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the YouTube Data API's {@code channels}, {@code search}, {@code playlists},
+ * {@code playlistItems} and {@code videos} endpoints, for tests, benchmarks and running the application
+ * without an API key (see {@link #main}). Responses come from the first source that is set:
+ * <ul>
+ *     <li>files recorded earlier, through {@link #replayFrom};</li>
+ *     <li>the real API, through {@link #forwardTo};</li>
+ *     <li>a {@link SyntheticCatalog}, through {@link #setCatalog}, paginated by {@code maxResults} and
+ *     {@code pageToken} as the API does;</li>
+ *     <li>otherwise {@code videos} answers any ID with generated details and {@code search} serves the
+ *     pages given to {@link #setSearchPages}.</li>
+ * </ul>
+ * Every request waits a fixed latency first. Requests including an ID registered through
+ * {@link #failRequestsContaining} fail with HTTP 500, and {@link #injectErrors} fails a random share of
+ * the rest with API-shaped error bodies. Generated responses honour the {@code fields} mask and carry
+ * ETags, answered with 304 on a matching If-None-Match; {@link #recordTo} saves each successful response
+ * for later replay. Responses are gzip-compressed when the request accepts it. Tracks request count, peak
+ * concurrency, the number of distinct client connections and the last {@code fields} mask sent to each
+ * endpoint.
+ */
+public class StubYouTubeApi implements AutoCloseable {
+
+    private static final List<String> ENDPOINTS = List.of("channels", "search", "playlists", "playlistItems", "videos");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latencyMillis;
+    private final Set<String> failingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private volatile List<List<String>> searchPages = List.of();
+    private final Set<InetSocketAddress> clientConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger gzipResponses = new AtomicInteger();
+    private final Map<String, String> lastFields = new ConcurrentHashMap<>();
+    private final Random errorRandom = new Random(16);
+    private volatile SyntheticCatalog catalog;
+    private volatile double errorRate;
+    private volatile int errorStatus;
+    private volatile Path replayDirectory;
+    private volatile Path recordDirectory;
+    private volatile String upstreamBaseUrl;
+    private volatile HttpClient upstreamClient;
+
+    static {
+        // Without TCP_NODELAY the JDK server's separate header and body writes meet delayed ACKs on
+        // keep-alive connections, adding ~40ms to every reused-connection response.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public StubYouTubeApi(long latencyMillis) throws IOException {
+        this(0, latencyMillis);
+    }
+
+    /**
+     * A stand-in listening on {@code port} of the loopback interface (0 for any free port).
+     */
+    public StubYouTubeApi(int port, long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        for (String endpoint : ENDPOINTS) {
+            this.server.createContext("/youtube/v3/" + endpoint, exchange -> handle(endpoint, exchange));
+        }
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/youtube/v3";
+    }
+
+    public void failRequestsContaining(String videoId) {
+        failingIds.add(videoId);
+    }
+
+    /**
+     * Fails the given share (0 to 1) of requests with {@code status}: 403 as {@code quotaExceeded}, 429 as
+     * {@code rateLimitExceeded} with a one-second Retry-After, anything else as {@code backendError}.
+     */
+    public void injectErrors(double rate, int status) {
+        this.errorRate = rate;
+        this.errorStatus = status;
+    }
+
+    /**
+     * Video IDs returned by consecutive search pages; the next-page token of page i is "page-(i+1)".
+     */
+    public void setSearchPages(List<List<String>> searchPages) {
+        this.searchPages = searchPages;
+    }
+
+    /**
+     * Serves every endpoint from {@code catalog}, whatever channel the request names.
+     */
+    public void setCatalog(SyntheticCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Serves the responses saved in {@code directory} by {@link #recordTo}; requests that were not
+     * recorded get a 404.
+     */
+    public void replayFrom(Path directory) {
+        this.replayDirectory = directory;
+    }
+
+    /**
+     * Saves every successful response, whatever its source, to {@code directory} for {@link #replayFrom}.
+     * Responses are keyed by endpoint and query, less the API key.
+     */
+    public void recordTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.recordDirectory = directory;
+    }
+
+    /**
+     * Forwards requests, API key included, to the API at {@code baseUrl}; combined with {@link #recordTo}
+     * this captures real responses as fixtures.
+     */
+    public void forwardTo(String baseUrl) {
+        this.upstreamClient = HttpClient.newHttpClient();
+        this.upstreamBaseUrl = baseUrl;
+    }
+
+    public int notModifiedCount() {
+        return notModifiedResponses.get();
+    }
+
+    /**
+     * Distinct TCP connections (client address and port) that have sent a request.
+     */
+    public int connectionCount() {
+        return clientConnections.size();
+    }
+
+    public int gzipResponseCount() {
+        return gzipResponses.get();
+    }
+
+    /**
+     * The {@code fields} parameter of the last request to {@code endpoint} (e.g. "videos"), or null.
+     */
+    public String lastFields(String endpoint) {
+        return lastFields.get(endpoint);
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public int peakConcurrency() {
+        return peakInFlight.get();
+    }
+
+    private void handle(String endpoint, HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clientConnections.add(exchange.getRemoteAddress());
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        Map<String, String> parameters = queryParameters(exchange);
+        Reply reply;
+        try {
+            Thread.sleep(latencyMillis);
+            reply = injectedError(parameters);
+            if (reply == null) {
+                reply = serve(endpoint, exchange, parameters);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reply = error(503, "backendError");
+        } catch (IllegalArgumentException e) {
+            reply = error(400, e.getMessage());
+        } finally {
+            // Leave before responding: the client may send its next request as soon as the body arrives.
+            inFlight.decrementAndGet();
+        }
+        if (reply.status == 200 && recordDirectory != null) {
+            Files.write(recordDirectory.resolve(recordingName(endpoint, parameters)), toBytes(reply.body));
+        }
+        respond(exchange, reply);
+    }
+
+    private Reply injectedError(Map<String, String> parameters) {
+        List<String> ids = Arrays.asList(parameters.getOrDefault("id", "").split(","));
+        if (ids.stream().anyMatch(failingIds::contains)) {
+            return error(500, "backendError");
+        }
+        if (errorRate > 0 && errorRandom.nextDouble() < errorRate) {
+            int status = errorStatus;
+            Reply reply = error(status, status == 403 ? "quotaExceeded" : status == 429 ? "rateLimitExceeded" : "backendError");
+            if (status == 429) {
+                reply.retryAfter = "1";
+            }
+            return reply;
+        }
+        return null;
+    }
+
+    private Reply serve(String endpoint, HttpExchange exchange, Map<String, String> parameters)
+            throws IOException, InterruptedException {
+        if (replayDirectory != null) {
+            Path recording = replayDirectory.resolve(recordingName(endpoint, parameters));
+            if (!Files.exists(recording)) {
+                return error(404, "notFound");
+            }
+            return new Reply(200, objectMapper.readTree(recording.toFile()));
+        }
+        if (upstreamBaseUrl != null) {
+            return forward(endpoint, exchange.getRequestURI().getRawQuery());
+        }
+        SyntheticCatalog catalog = this.catalog;
+        ObjectNode body;
+        if (catalog != null) {
+            body = fromCatalog(catalog, endpoint, parameters);
+            if (body == null) {
+                return error(404, "playlistNotFound");
+            }
+        } else if ("videos".equals(endpoint)) {
+            body = generatedVideos(parameters);
+        } else if ("search".equals(endpoint)) {
+            body = searchPage(parameters);
+        } else {
+            return error(404, "notFound");
+        }
+        // Like the API's, the ETag covers the whole resource rather than the masked response.
+        body.put("etag", etag(body));
+        String fields = parameters.get("fields");
+        return new Reply(200, fields == null ? body : YouTubeFixtures.apply(fields, body));
+    }
+
+    private ObjectNode fromCatalog(SyntheticCatalog catalog, String endpoint, Map<String, String> parameters) {
+        switch (endpoint) {
+            case "channels": {
+                ObjectNode channel = catalog.channel();
+                channel.put("id", parameters.getOrDefault("id", SyntheticCatalog.CHANNEL_ID));
+                return list("youtube#channelListResponse", 1, parameters, index -> channel);
+            }
+            case "search":
+                return list("youtube#searchListResponse", catalog.videoCount(), parameters,
+                        position -> catalog.searchResult(catalog.playlistVideo(-1, position)));
+            case "playlists":
+                return list("youtube#playlistListResponse", catalog.playlistCount(), parameters, catalog::playlist);
+            case "playlistItems": {
+                String playlistId = parameters.get("playlistId");
+                int playlistIndex = catalog.playlistIndex(playlistId);
+                if (playlistIndex == -2) {
+                    return null;
+                }
+                return list("youtube#playlistItemListResponse", catalog.playlistSize(playlistIndex), parameters,
+                        position -> catalog.playlistItem(playlistId, catalog.playlistVideo(playlistIndex, position)));
+            }
+            default: {
+                // Unknown IDs are left out, as the API does.
+                ArrayNode items = objectMapper.createArrayNode();
+                for (String id : parameters.getOrDefault("id", "").split(",")) {
+                    int number = catalog.videoNumber(id);
+                    if (number >= 0) {
+                        items.add(catalog.video(number));
+                    }
+                }
+                ObjectNode body = objectMapper.createObjectNode().put("kind", "youtube#videoListResponse");
+                body.putObject("pageInfo").put("totalResults", items.size()).put("resultsPerPage", items.size());
+                body.set("items", items);
+                return body;
+            }
+        }
+    }
+
+    /**
+     * One page of a list of {@code total} resources: {@code maxResults} (default 5, at most 50) from the
+     * offset named by {@code pageToken}.
+     */
+    private ObjectNode list(String kind, int total, Map<String, String> parameters, IntFunction<ObjectNode> item) {
+        int maxResults = Math.min(50, Integer.parseInt(parameters.getOrDefault("maxResults", "5")));
+        String pageToken = parameters.get("pageToken");
+        int offset = 0;
+        if (pageToken != null && !pageToken.isEmpty()) {
+            if (!pageToken.startsWith("at-")) {
+                throw new IllegalArgumentException("invalidPageToken");
+            }
+            offset = Integer.parseInt(pageToken.substring("at-".length()));
+        }
+        ObjectNode body = objectMapper.createObjectNode().put("kind", kind);
+        if (offset + maxResults < total) {
+            body.put("nextPageToken", "at-" + (offset + maxResults));
+        }
+        if (offset > 0) {
+            body.put("prevPageToken", "at-" + Math.max(0, offset - maxResults));
+        }
+        body.putObject("pageInfo").put("totalResults", total).put("resultsPerPage", maxResults);
+        ArrayNode items = body.putArray("items");
+        for (int i = offset; i < Math.min(total, offset + maxResults); i++) {
+            items.add(item.apply(i));
+        }
+        return body;
+    }
+
+    private ObjectNode generatedVideos(Map<String, String> parameters) {
+        ArrayNode items = objectMapper.createArrayNode();
+        for (String id : parameters.getOrDefault("id", "").split(",")) {
+            items.add(objectMapper.valueToTree(Map.of(
+                    "id", id,
+                    "snippet", Map.of("title", "Video " + id, "categoryId", "22", "tags", List.of("tag-" + id)),
+                    "statistics", Map.of("viewCount", String.valueOf(id.hashCode() & 0xffff)),
+                    "contentDetails", Map.of("duration", "PT4M13S"))));
+        }
+        ObjectNode body = objectMapper.createObjectNode();
+        body.set("items", items);
+        return body;
+    }
+
+    private ObjectNode searchPage(Map<String, String> parameters) {
+        String pageToken = parameters.get("pageToken");
+        int pageIndex = pageToken == null ? 0 : Integer.parseInt(pageToken.substring("page-".length()));
+        ArrayNode items = objectMapper.createArrayNode();
+        for (String id : searchPages.get(pageIndex)) {
+            items.add(objectMapper.valueToTree(Map.of(
+                    "id", Map.of("kind", "youtube#video", "videoId", id),
+                    "snippet", Map.of("title", "Video " + id, "publishedAt", "2024-05-01T18:00:00Z"))));
+        }
+        ObjectNode body = objectMapper.createObjectNode();
+        body.set("items", items);
+        if (pageIndex + 1 < searchPages.size()) {
+            body.put("nextPageToken", "page-" + (pageIndex + 1));
+        }
+        return body;
+    }
+
+    private Reply forward(String endpoint, String rawQuery) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = upstreamClient.send(
+                HttpRequest.newBuilder(URI.create(upstreamBaseUrl + "/" + endpoint + "?" + rawQuery)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        Reply reply = new Reply(response.statusCode(), objectMapper.readTree(response.body()));
+        reply.retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+        return reply;
+    }
+
+    private Reply error(int status, String reason) {
+        ObjectNode body = objectMapper.createObjectNode();
+        ObjectNode error = body.putObject("error").put("code", status).put("message", reason);
+        error.putArray("errors").addObject()
+                .put("message", reason)
+                .put("domain", status == 403 ? "youtube.quota" : "global")
+                .put("reason", reason);
+        return new Reply(status, body);
+    }
+
+    private String etag(JsonNode body) {
+        return "\"" + HexFormat.of().formatHex(sha256(toBytes(body)), 0, 8) + "\"";
+    }
+
+    /**
+     * The file a response is recorded under: the endpoint and a digest of the sorted query without the key.
+     */
+    private static String recordingName(String endpoint, Map<String, String> parameters) {
+        Map<String, String> sorted = new TreeMap<>(parameters);
+        sorted.remove("key");
+        return endpoint + "-" + HexFormat.of().formatHex(sha256(sorted.toString().getBytes(StandardCharsets.UTF_8)), 0, 8)
+                + ".json";
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(pair.substring(0, separator),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        if (parameters.containsKey("fields")) {
+            String path = exchange.getRequestURI().getPath();
+            lastFields.put(path.substring(path.lastIndexOf('/') + 1), parameters.get("fields"));
+        }
+        return parameters;
+    }
+
+    private void respond(HttpExchange exchange, Reply reply) throws IOException {
+        JsonNode etag = reply.status == 200 ? reply.body.get("etag") : null;
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag.asText());
+            if (etag.asText().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        if (reply.retryAfter != null) {
+            exchange.getResponseHeaders().set("Retry-After", reply.retryAfter);
+        }
+        byte[] bytes = toBytes(reply.body);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            gzipResponses.incrementAndGet();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(reply.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private byte[] toBytes(JsonNode body) {
+        return YouTubeFixtures.toBytes(body);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static final class Reply {
+        final int status;
+        final JsonNode body;
+        String retryAfter;
+
+        Reply(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Runs the stand-in until killed, e.g. from {@code mvn test-compile} output:
+     * <pre>
+     * java -cp target/test-classes:target/classes:&lt;test classpath&gt; \
+     *     com.randomvideos139.website.support.StubYouTubeApi --port=8089 --videos=100000 --latency=80
+     * </pre>
+     * and points the application at it with {@code --youtube.api.base-url=http://127.0.0.1:8089/youtube/v3}.
+     * Options: {@code --port}, {@code --latency} (ms), {@code --videos} and {@code --playlists} for the
+     * synthetic catalog, {@code --error-rate} and {@code --error-status}, {@code --replay=<dir>},
+     * {@code --forward=<base URL>} and {@code --record=<dir>}.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --option=value, got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        StubYouTubeApi stub = new StubYouTubeApi(Integer.parseInt(options.getOrDefault("port", "8089")),
+                Long.parseLong(options.getOrDefault("latency", "0")));
+        stub.setCatalog(new SyntheticCatalog(Integer.parseInt(options.getOrDefault("videos", "1000")),
+                Integer.parseInt(options.getOrDefault("playlists", "30"))));
+        stub.injectErrors(Double.parseDouble(options.getOrDefault("error-rate", "0")),
+                Integer.parseInt(options.getOrDefault("error-status", "503")));
+        if (options.containsKey("replay")) {
+            stub.replayFrom(Paths.get(options.get("replay")));
+        }
+        if (options.containsKey("forward")) {
+            stub.forwardTo(options.get("forward"));
+        }
+        if (options.containsKey("record")) {
+            stub.recordTo(Paths.get(options.get("record")));
+        }
+        System.out.println("YouTube API stand-in listening; run with --youtube.api.base-url=" + stub.baseUrl());
+    }
+}
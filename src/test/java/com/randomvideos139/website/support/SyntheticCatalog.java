@@ -0,0 +1,211 @@
+package com.randomvideos139.website.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A generated channel of any size for {@link StubYouTubeApi}: its videos, uploads playlist and playlists,
+ * built on demand from the items of the fixtures in {@code src/test/resources/youtube} so every resource
+ * has the full shape and size of a real one. Video {@code n} (from 0, the oldest) has ID
+ * {@code syn00000000n} and was published {@code n} hours after the first; playlist {@code p} holds the
+ * videos whose number is {@code p} modulo the playlist count. Everything is derived from the numbers, so
+ * 100,000 videos cost no memory until requested.
+ */
+public class SyntheticCatalog {
+
+    public static final String CHANNEL_ID = "UCx139randomvideos0000000";
+    public static final String UPLOADS_PLAYLIST_ID = "UUx139randomvideos0000000";
+
+    private static final String VIDEO_ID_PREFIX = "syn";
+    private static final String PLAYLIST_ID_PREFIX = "PLsyn";
+    private static final Instant FIRST_UPLOAD = Instant.parse("2012-03-14T12:00:00Z");
+
+    private final ObjectNode channel = (ObjectNode) YouTubeFixtures.load("channels").get("items").get(0);
+    private final ArrayNode videoTemplates = (ArrayNode) YouTubeFixtures.load("videos").get("items");
+    private final ArrayNode searchTemplates = (ArrayNode) YouTubeFixtures.load("search").get("items");
+    private final ArrayNode playlistTemplates = (ArrayNode) YouTubeFixtures.load("playlists").get("items");
+    private final ArrayNode playlistItemTemplates = (ArrayNode) YouTubeFixtures.load("playlistItems").get("items");
+    private final int playlistCount;
+    private volatile int videoCount;
+    private volatile int statisticsVersion;
+
+    public SyntheticCatalog(int videoCount, int playlistCount) {
+        this.videoCount = videoCount;
+        this.playlistCount = playlistCount;
+    }
+
+    public int videoCount() {
+        return videoCount;
+    }
+
+    public int playlistCount() {
+        return playlistCount;
+    }
+
+    /**
+     * Uploads {@code count} new videos, which become the newest in search results and playlists.
+     */
+    public synchronized void publish(int count) {
+        videoCount += count;
+    }
+
+    /**
+     * Moves every video's view, like and comment counts forward, as if time had passed.
+     */
+    public synchronized void advanceStatistics() {
+        statisticsVersion++;
+    }
+
+    public static String videoId(int number) {
+        return String.format("%s%08d", VIDEO_ID_PREFIX, number);
+    }
+
+    public static String playlistId(int index) {
+        return String.format("%s%06d", PLAYLIST_ID_PREFIX, index);
+    }
+
+    /**
+     * The number of the video with ID {@code videoId}, or -1 if this catalog has no such video.
+     */
+    public int videoNumber(String videoId) {
+        int number = parseNumber(videoId, VIDEO_ID_PREFIX, 8);
+        return number < videoCount ? number : -1;
+    }
+
+    /**
+     * The index of the playlist with ID {@code playlistId}, -1 for the uploads playlist, or -2 if unknown.
+     */
+    public int playlistIndex(String playlistId) {
+        if (UPLOADS_PLAYLIST_ID.equals(playlistId)) {
+            return -1;
+        }
+        int index = parseNumber(playlistId, PLAYLIST_ID_PREFIX, 6);
+        return index >= 0 && index < playlistCount ? index : -2;
+    }
+
+    /**
+     * Videos in the playlist at {@code playlistIndex} (-1 for uploads).
+     */
+    public int playlistSize(int playlistIndex) {
+        int count = videoCount;
+        if (playlistIndex < 0) {
+            return count;
+        }
+        return count <= playlistIndex ? 0 : (count - 1 - playlistIndex) / playlistCount + 1;
+    }
+
+    /**
+     * The number of the video at {@code position} of a playlist, newest first (-1 for uploads).
+     */
+    public int playlistVideo(int playlistIndex, int position) {
+        int count = videoCount;
+        if (playlistIndex < 0) {
+            return count - 1 - position;
+        }
+        int newest = (count - 1 - playlistIndex) / playlistCount * playlistCount + playlistIndex;
+        return newest - position * playlistCount;
+    }
+
+    public ObjectNode channel() {
+        ObjectNode item = channel.deepCopy();
+        ObjectNode statistics = (ObjectNode) item.get("statistics");
+        statistics.put("videoCount", String.valueOf(videoCount));
+        statistics.put("viewCount", String.valueOf(1_000_000L * videoCount + statisticsVersion));
+        return item;
+    }
+
+    /**
+     * Video {@code number} as the {@code videos} endpoint returns it.
+     */
+    public ObjectNode video(int number) {
+        ObjectNode item = fromTemplate(videoTemplates, number);
+        long views = 1_000L + (number * 7_919L) % 250_000 + (long) statisticsVersion * (number % 13 + 1);
+        ObjectNode statistics = (ObjectNode) item.get("statistics");
+        statistics.put("viewCount", String.valueOf(views));
+        statistics.put("likeCount", String.valueOf(views / 40));
+        statistics.put("commentCount", String.valueOf(views / 500));
+        ((ObjectNode) item.get("contentDetails")).put("duration",
+                "PT" + (1 + number % 20) + "M" + (number * 37 % 60) + "S");
+        return item;
+    }
+
+    /**
+     * Video {@code number} as the {@code search} endpoint returns it.
+     */
+    public ObjectNode searchResult(int number) {
+        ObjectNode item = fromTemplate(searchTemplates, number);
+        item.set("id", item.objectNode().put("kind", "youtube#video").put("videoId", videoId(number)));
+        return item;
+    }
+
+    public ObjectNode playlist(int index) {
+        ObjectNode item = playlistTemplates.get(index % playlistTemplates.size()).deepCopy();
+        String id = playlistId(index);
+        item.put("id", id);
+        item.put("etag", "p-" + id + "-" + videoCount);
+        ObjectNode snippet = (ObjectNode) item.get("snippet");
+        snippet.put("title", snippet.get("title").asText() + " " + (index + 1));
+        snippet.put("publishedAt", publishedAt(index * 17));
+        ((ObjectNode) item.get("contentDetails")).put("itemCount", playlistSize(index));
+        return item;
+    }
+
+    /**
+     * The entry for video {@code number} in a playlist, as the {@code playlistItems} endpoint returns it.
+     */
+    public ObjectNode playlistItem(String playlistId, int number) {
+        ObjectNode item = playlistItemTemplates.get(number % playlistItemTemplates.size()).deepCopy();
+        String videoId = videoId(number);
+        item.put("id", playlistId + videoId);
+        item.put("etag", "pi-" + videoId);
+        ((ObjectNode) item.get("contentDetails")).put("videoId", videoId).put("videoPublishedAt", publishedAt(number));
+        return item;
+    }
+
+    private ObjectNode fromTemplate(ArrayNode templates, int number) {
+        ObjectNode template = (ObjectNode) templates.get(number % templates.size());
+        JsonNode templateId = template.get("id");
+        String oldId = templateId.isTextual() ? templateId.asText() : templateId.get("videoId").asText();
+        String id = videoId(number);
+        ObjectNode item = template.deepCopy();
+        item.put("id", id);
+        item.put("etag", "e-" + id + "-" + statisticsVersion);
+        ObjectNode snippet = (ObjectNode) item.get("snippet");
+        snippet.put("publishedAt", publishedAt(number));
+        snippet.put("title", "Random video #" + (number + 1) + ": " + snippet.get("title").asText().replaceFirst("^[^:]*: ", ""));
+        Iterator<Map.Entry<String, JsonNode>> thumbnails = snippet.get("thumbnails").fields();
+        while (thumbnails.hasNext()) {
+            ObjectNode thumbnail = (ObjectNode) thumbnails.next().getValue();
+            thumbnail.put("url", thumbnail.get("url").asText().replace(oldId, id));
+        }
+        return item;
+    }
+
+    /**
+     * When video {@code number} was published, in the API's format.
+     */
+    public static String publishedAt(int number) {
+        return FIRST_UPLOAD.plus(number, ChronoUnit.HOURS).toString();
+    }
+
+    private static int parseNumber(String id, String prefix, int digits) {
+        if (id == null || id.length() != prefix.length() + digits || !id.startsWith(prefix)) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = prefix.length(); i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+}
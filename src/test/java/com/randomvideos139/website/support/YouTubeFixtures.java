@@ -0,0 +1,224 @@
+package com.randomvideos139.website.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.randomvideos139.website.dto.FieldMask;
+import com.randomvideos139.website.dto.YouTubeChannelResponse;
+import com.randomvideos139.website.dto.YouTubePlaylistResponse;
+import com.randomvideos139.website.dto.YouTubeResponseDecoders;
+import com.randomvideos139.website.dto.YouTubeVideoResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Full (unmasked) API responses under {@code src/test/resources/youtube}, in the shape the Data API returns
+ * them for the parts this application requests, the server side of a {@code fields=} mask, and the generic
+ * databind path the response DTOs were decoded with before their streaming decoders.
+ */
+public final class YouTubeFixtures {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private YouTubeFixtures() {
+    }
+
+    /**
+     * The fixture named {@code name}, e.g. {@code videos} for {@code youtube/videos.json}.
+     */
+    public static ObjectNode load(String name) {
+        try (InputStream in = YouTubeFixtures.class.getResourceAsStream("/youtube/" + name + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture youtube/" + name + ".json");
+            }
+            return (ObjectNode) objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The fixture with its items repeated up to {@code size}; repeated items get a numbered suffix on their
+     * IDs so the page looks like a full page of distinct resources.
+     */
+    public static ObjectNode page(String name, int size) {
+        ObjectNode page = load(name);
+        ArrayNode items = (ArrayNode) page.get("items");
+        ArrayNode filled = objectMapper.createArrayNode();
+        for (int i = 0; i < size; i++) {
+            ObjectNode item = items.get(i % items.size()).deepCopy();
+            if (i >= items.size()) {
+                renumber(item, "-" + i);
+            }
+            filled.add(item);
+        }
+        page.set("items", filled);
+        return page;
+    }
+
+    /**
+     * What the API returns for {@code response} when asked for {@code mask}: only the masked properties,
+     * applied to each element of arrays.
+     */
+    public static JsonNode apply(FieldMask mask, JsonNode response) {
+        if (response.isArray()) {
+            ArrayNode masked = objectMapper.createArrayNode();
+            response.forEach(element -> masked.add(apply(mask, element)));
+            return masked;
+        }
+        if (!response.isObject()) {
+            return response;
+        }
+        ObjectNode masked = objectMapper.createObjectNode();
+        for (Map.Entry<String, FieldMask> field : mask.getFields().entrySet()) {
+            JsonNode value = response.get(field.getKey());
+            if (value != null) {
+                masked.set(field.getKey(), field.getValue() == null ? value : apply(field.getValue(), value));
+            }
+        }
+        return masked;
+    }
+
+    /**
+     * {@link #apply(FieldMask, JsonNode)} for a mask in the API's syntax, as it arrives in a request's
+     * {@code fields} parameter, e.g. {@code nextPageToken,items(id,snippet(title))} or {@code items/id}.
+     */
+    public static JsonNode apply(String fields, JsonNode response) {
+        Map<String, Object> mask = new LinkedHashMap<>();
+        int end = parseFields(fields, 0, mask);
+        if (end != fields.length()) {
+            throw new IllegalArgumentException("Malformed fields mask at " + end + ": " + fields);
+        }
+        return applyParsed(mask, response);
+    }
+
+    public static byte[] toBytes(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsBytes(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A mapper that decodes the response DTOs with Jackson's bean deserializers instead of
+     * {@link YouTubeResponseDecoders}, reading a video {@code id} as an untyped value (a map for search
+     * results) as the DTO used to.
+     */
+    public static ObjectMapper databindMapper() {
+        return new ObjectMapper()
+                .addMixIn(YouTubeVideoResponse.class, BeanDeserialized.class)
+                .addMixIn(YouTubeChannelResponse.class, BeanDeserialized.class)
+                .addMixIn(YouTubePlaylistResponse.class, BeanDeserialized.class)
+                .addMixIn(YouTubeVideoResponse.VideoItem.class, UntypedVideoId.class);
+    }
+
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    private abstract static class BeanDeserialized {
+    }
+
+    private abstract static class UntypedVideoId {
+        @JsonDeserialize(using = UntypedVideoIdDeserializer.class)
+        abstract void setId(String id);
+    }
+
+    private static class UntypedVideoIdDeserializer extends StdDeserializer<String> {
+
+        UntypedVideoIdDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Object id = ctxt.readValue(p, Object.class);
+            if (id instanceof Map) {
+                return (String) ((Map<?, ?>) id).get("videoId");
+            }
+            return id instanceof String ? (String) id : null;
+        }
+    }
+
+    /**
+     * Parses the comma-separated selectors starting at {@code start} into {@code mask}, mapping each name to
+     * null (the whole property) or to its nested selection, and returns the index where the list ends.
+     */
+    private static int parseFields(String fields, int start, Map<String, Object> mask) {
+        int i = parseSelector(fields, start, mask);
+        while (i < fields.length() && fields.charAt(i) == ',') {
+            i = parseSelector(fields, i + 1, mask);
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int parseSelector(String fields, int start, Map<String, Object> mask) {
+        int i = start;
+        while (i < fields.length() && "/,()".indexOf(fields.charAt(i)) < 0) {
+            i++;
+        }
+        if (i == start) {
+            throw new IllegalArgumentException("Missing field name at " + start + ": " + fields);
+        }
+        String name = fields.substring(start, i);
+        if (i == fields.length() || (fields.charAt(i) != '/' && fields.charAt(i) != '(')) {
+            mask.put(name, null);
+            return i;
+        }
+        // A property already requested whole stays whole; the nested selection is parsed and dropped.
+        Map<String, Object> nested = mask.containsKey(name) && mask.get(name) == null
+                ? new LinkedHashMap<>()
+                : (Map<String, Object>) mask.computeIfAbsent(name, key -> new LinkedHashMap<String, Object>());
+        if (fields.charAt(i) == '/') {
+            return parseSelector(fields, i + 1, nested);
+        }
+        i = parseFields(fields, i + 1, nested);
+        if (i == fields.length() || fields.charAt(i) != ')') {
+            throw new IllegalArgumentException("Unclosed '(' in fields mask: " + fields);
+        }
+        return i + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonNode applyParsed(Map<String, Object> mask, JsonNode response) {
+        if (response.isArray()) {
+            ArrayNode masked = objectMapper.createArrayNode();
+            response.forEach(element -> masked.add(applyParsed(mask, element)));
+            return masked;
+        }
+        if (!response.isObject()) {
+            return response;
+        }
+        ObjectNode masked = objectMapper.createObjectNode();
+        for (Map.Entry<String, Object> field : mask.entrySet()) {
+            JsonNode value = response.get(field.getKey());
+            if (value != null) {
+                masked.set(field.getKey(), field.getValue() == null
+                        ? value : applyParsed((Map<String, Object>) field.getValue(), value));
+            }
+        }
+        return masked;
+    }
+
+    private static void renumber(ObjectNode item, String suffix) {
+        JsonNode id = item.get("id");
+        if (id != null && id.isTextual()) {
+            item.put("id", id.asText() + suffix);
+        } else if (id != null && id.has("videoId")) {
+            ((ObjectNode) id).put("videoId", id.get("videoId").asText() + suffix);
+        }
+        JsonNode contentDetails = item.get("contentDetails");
+        if (contentDetails != null && contentDetails.has("videoId")) {
+            ((ObjectNode) contentDetails).put("videoId", contentDetails.get("videoId").asText() + suffix);
+        }
+    }
+}